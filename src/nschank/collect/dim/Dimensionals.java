@@ -4,18 +4,20 @@ import nschank.util.Interval;
 import nschank.util.Intervals;
 
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
 import java.util.List;
 
 
 /**
  * Created by Nicolas Schank for package nschank.collect.dim
  * Created 13 Feb 2014
- * Last updated 29 May 2014
+ * Last updated 15 Jun 2014
  *
  * A Utility class for dealing with Dimensional objects.
  *
  * @author nschank, Brown University
- * @version 2.7
+ * @version 2.8
  */
 public final class Dimensionals
 {
@@ -93,6 +95,52 @@ public final class Dimensionals
 		return closest;
 	}
 
+	/**
+	 * Finds the convex hull of any collection of two-dimensional points, using Andrew's monotone chain in O(n log n)
+	 * time. Points which lie along an edge of the hull, rather than at a corner, are left out.
+	 *
+	 * @param points
+	 * 		Any collection of two-dimensional points
+	 * @return The corners of the smallest convex polygon containing every point, in clockwise order
+	 */
+	public static List<Dimensional> convexHull(Iterable<? extends Dimensional> points)
+	{
+		List<Dimensional> sorted = new ArrayList<>();
+		for(Dimensional d : points)
+			sorted.add(d);
+		Collections.sort(sorted, new Comparator<Dimensional>()
+		{
+			@Override
+			public int compare(Dimensional a, Dimensional b)
+			{
+				int byX = Double.compare(a.getCoordinate(0), b.getCoordinate(0));
+				return (byX != 0) ? byX : Double.compare(a.getCoordinate(1), b.getCoordinate(1));
+			}
+		});
+		if(sorted.size() < 3) return sorted;
+
+		Dimensional[] hull = new Dimensional[2 * sorted.size()];
+		int size = 0;
+		for(Dimensional d : sorted)
+		{
+			while(size >= 2 && turn(hull[size - 2], hull[size - 1], d) <= 0)
+				size--;
+			hull[size++] = d;
+		}
+		int lower = size + 1;
+		for(int i = sorted.size() - 2; i >= 0; i--)
+		{
+			while(size >= lower && turn(hull[size - 2], hull[size - 1], sorted.get(i)) <= 0)
+				size--;
+			hull[size++] = sorted.get(i);
+		}
+
+		List<Dimensional> corners = new ArrayList<>(size - 1);
+		for(int i = 0; i < size - 1; i++)
+			corners.add(hull[i]);
+		return corners;
+	}
+
 	/**
 	 * Given a collection of points and a particular dimension, returns a list (ordered one-to-one with the given iterable)
 	 * which contains the coordinates of each of those points within that dimension. If any of the points do not have
@@ -127,6 +175,35 @@ public final class Dimensionals
 		return Math.sqrt(sqdistance(a, b));
 	}
 
+	/**
+	 * Determines in O(n) time whether the given points, in clockwise order, form a convex polygon: every corner must turn
+	 * the same way, and the edges must wind around only once. Points along a straight edge are allowed.
+	 *
+	 * @param points
+	 * 		A List of two-dimensional Dimensionals in clockwise order
+	 * @return The index of the first point at which the polygon is not convex, or -1 if it is convex
+	 */
+	public static int firstConcavity(List<? extends Dimensional> points)
+	{
+		int size = points.size();
+		double winding = 0;
+		for(int i = 0; i < size; i++)
+		{
+			Dimensional previous = points.get((size + i - 1) % size);
+			Dimensional current = points.get(i);
+			Dimensional next = points.get((i + 1) % size);
+			if(turn(previous, current, next) < 0) return i;
+
+			double inX = current.getCoordinate(0) - previous.getCoordinate(0);
+			double inY = current.getCoordinate(1) - previous.getCoordinate(1);
+			double outX = next.getCoordinate(0) - current.getCoordinate(0);
+			double outY = next.getCoordinate(1) - current.getCoordinate(1);
+			winding += Math.atan2((inX * outY) - (inY * outX), (inX * outX) + (inY * outY));
+		}
+		if(winding > (3 * Math.PI)) return 0;
+		return -1;
+	}
+
 	/**
 	 * Finds a line perpendicular to the given line.
 	 *
@@ -200,6 +277,22 @@ public final class Dimensionals
 		return dist;
 	}
 
+	/**
+	 * @param a
+	 * 		A two-dimensional point
+	 * @param b
+	 * 		A second two-dimensional point
+	 * @param c
+	 * 		A third two-dimensional point
+	 * @return The z coordinate of the cross product of (b - a) and (c - b); positive if a, b, c is a clockwise turn, zero
+	 * if they are in a line, and negative otherwise
+	 */
+	public static double turn(Dimensional a, Dimensional b, Dimensional c)
+	{
+		return ((b.getCoordinate(0) - a.getCoordinate(0)) * (c.getCoordinate(1) - b.getCoordinate(1))) - (
+				(b.getCoordinate(1) - a.getCoordinate(1)) * (c.getCoordinate(0) - b.getCoordinate(0)));
+	}
+
 	/**
 	 * @param points
 	 * 		A List of Dimensionals in clockwise order
@@ -3,34 +3,57 @@ package nschank.engn.gui.layer;
 import nschank.collect.dim.Dimensional;
 import nschank.engn.shape.Drawable;
 
+import java.awt.AlphaComposite;
 import java.awt.Graphics2D;
-import java.util.HashSet;
+import java.awt.Rectangle;
+import java.awt.Transparency;
+import java.awt.geom.AffineTransform;
+import java.awt.image.BufferedImage;
 import java.util.Iterator;
-import java.util.Set;
 
 
 /**
  * Created by Nicolas Schank for package nschank.engn.gui.layer
  * Created on 12 Sep 2013
- * Last updated on 24 May 2014
+ * Last updated on 3 Jul 2014
  *
  * A partial implementation of the Layer interface. Abstracts out the drawing of objects onscreen: all Drawable elements
- * given to the Layer by the add method are drawn in the order they were given. The coordinates, width, and height of
- * the Drawable element are used to determine how to draw it.
+ * given to the Layer by the add method are drawn from lowest z to highest, through a RenderQueue; of those of the same
+ * z, one given later is always drawn over an earlier one it overlaps, though those which do not overlap may be grouped
+ * by colour. The coordinates, width, and height of the Drawable element are used to determine how to draw it.
+ *
+ * A retained AbstractLayer draws its elements once into an image the size of the Screen, and afterwards draws only that
+ * image, until it is marked dirty. Adding or removing an element, or resizing the Screen, marks it dirty, and so does
+ * recolouring, moving or resizing an element, which is checked for before each draw. Any other change to an element,
+ * such as new text for a DrawableString or new points for a Polygon, is not seen, so markDirty must be called after
+ * making it. Retaining suits a background or interface which rarely changes; a layer which changes every frame gains
+ * nothing, and pays for the extra image.
  *
  * @author nschank, Brown University
- * @version 1.3
+ * @version 1.8
  */
 public abstract class AbstractLayer implements Layer, Iterable<Drawable>
 {
-	private Set<Drawable> elements;
+	private final RenderQueue elements;
+	private boolean retained;
+	private boolean dirty;
+	private int width;
+	private int height;
+	private BufferedImage retainedImage;
+	private AffineTransform retainedTransform;
+	private int retainedX;
+	private int retainedY;
 
 	/**
-	 * Creates an AbstractLayer
+	 * Creates an AbstractLayer, which is not retained
 	 */
 	protected AbstractLayer()
 	{
-		this.elements = new HashSet<Drawable>();
+		this.elements = new RenderQueue();
+		this.retained = false;
+		this.dirty = true;
+		this.width = 0;
+		this.height = 0;
 	}
 
 	/**
@@ -42,12 +65,28 @@ public abstract class AbstractLayer implements Layer, Iterable<Drawable>
 	 */
 	public void add(final Drawable element)
 	{
-		this.elements.add(element);
+		this.elements.add(element, 0);
+		this.markDirty();
 	}
 
 	/**
-	 * Tells each added Drawable to draw itself in turn. The later the Drawable on the list, the further up the layers
-	 * it is drawn.
+	 * Adds a visible element to be drawn as part of this layer, above every element of lower z and beneath every
+	 * element of higher z. Adding an element which is already in this layer moves it to the given z.
+	 *
+	 * @param element
+	 * 		A visible piece of this Layer
+	 * @param z
+	 * 		How far up the element should be drawn; add(Drawable) uses 0
+	 */
+	public void add(final Drawable element, final int z)
+	{
+		this.elements.add(element, z);
+		this.markDirty();
+	}
+
+	/**
+	 * Tells each added Drawable to draw itself in turn, from lowest z to highest. If this layer is retained, they draw
+	 * themselves onto its image only if it is dirty, and the image is drawn instead.
 	 *
 	 * @param g
 	 * 		A Graphics object to draw onto
@@ -55,12 +94,43 @@ public abstract class AbstractLayer implements Layer, Iterable<Drawable>
 	@Override
 	public void draw(final Graphics2D g)
 	{
-		for(Drawable o : this.elements)
-			o.draw(g);
+		if(!this.retained || this.width <= 0 || this.height <= 0)
+		{
+			this.elements.draw(g);
+			return;
+		}
+
+		AffineTransform transform = g.getTransform();
+		if(this.dirty || !transform.equals(this.retainedTransform) || this.elements.hasChanged())
+			this.render(g, transform);
+
+		g.setTransform(new AffineTransform());
+		g.drawImage(this.retainedImage, this.retainedX, this.retainedY, null);
+		g.setTransform(transform);
+	}
+
+	/**
+	 * @param element
+	 * 		An element of this Layer
+	 *
+	 * @return The z at which that element is drawn
+	 */
+	public int getZ(final Drawable element)
+	{
+		return this.elements.getZ(element);
+	}
+
+	/**
+	 * @return Whether this layer draws its elements into an image, and afterwards draws only that image until it is
+	 * marked dirty
+	 */
+	public boolean isRetained()
+	{
+		return this.retained;
 	}
 
 	/**
-	 * @return An Iterator of every element in this Layer.
+	 * @return An Iterator of every element in this Layer, in the order in which they are drawn.
 	 */
 	@Override
 	public Iterator<Drawable> iterator()
@@ -68,6 +138,16 @@ public abstract class AbstractLayer implements Layer, Iterable<Drawable>
 		return this.elements.iterator();
 	}
 
+	/**
+	 * Must be called whenever an element of a retained layer is changed in a way which leaves its colour, position and
+	 * size alone (new text, new points, and so on), so that its image is drawn again. Does nothing visible if this
+	 * layer is not retained.
+	 */
+	public void markDirty()
+	{
+		this.dirty = true;
+	}
+
 	/**
 	 * Removes an element already given to the AbstractLayer. Returns whether the element was in the list already.
 	 * If remove is overridden, also override add or call super.remove(Drawable)
@@ -79,14 +159,17 @@ public abstract class AbstractLayer implements Layer, Iterable<Drawable>
 	 */
 	public boolean remove(final Drawable element)
 	{
-		return this.elements.remove(element);
+		if(!this.elements.remove(element)) return false;
+		this.markDirty();
+		return true;
 	}
 
 	/**
 	 * Called every time that the Screen changes size. This includes the first time the Screen appears, so no initialization
 	 * by size is really necessary.
 	 *
-	 * Does nothing in the AbstractLayer class.
+	 * Remembers the size of the Screen, as the size of the image of a retained layer, and marks this layer dirty. If
+	 * resize is overridden, it should call super.resize(Dimensional).
 	 *
 	 * @param size
 	 * 		The new size of the entire window, in pixels (x,y)
@@ -94,7 +177,25 @@ public abstract class AbstractLayer implements Layer, Iterable<Drawable>
 	@Override
 	public void resize(final Dimensional size)
 	{
-		//Does nothing
+		this.width = (int) Math.ceil(size.getCoordinate(0));
+		this.height = (int) Math.ceil(size.getCoordinate(1));
+		this.markDirty();
+	}
+
+	/**
+	 * @param retained
+	 * 		Whether this layer should draw its elements into an image, and afterwards draw only that image until it
+	 * 		is marked dirty
+	 */
+	public void setRetained(final boolean retained)
+	{
+		this.retained = retained;
+		if(!retained)
+		{
+			this.retainedImage = null;
+			this.retainedTransform = null;
+		}
+		this.markDirty();
 	}
 
 	/**
@@ -107,4 +208,47 @@ public abstract class AbstractLayer implements Layer, Iterable<Drawable>
 				"elements=" + this.elements +
 				'}';
 	}
+
+	/**
+	 * Draws every element onto the image of this retained layer, replacing whatever it held, under the same transform
+	 * as the Graphics object it will be drawn onto; the image is drawn untransformed, so it covers the same pixels. The
+	 * image covers exactly the pixels the Screen is transformed onto, which may begin left of or above the origin.
+	 *
+	 * @param g
+	 * 		The Graphics object the image will be drawn onto
+	 * @param transform
+	 * 		The transform of g
+	 */
+	private void render(final Graphics2D g, final AffineTransform transform)
+	{
+		Rectangle bounds = transform.createTransformedShape(new Rectangle(0, 0, this.width, this.height)).getBounds();
+		int imageWidth = Math.max(1, bounds.width);
+		int imageHeight = Math.max(1, bounds.height);
+		if(this.retainedImage == null || this.retainedImage.getWidth() != imageWidth
+				|| this.retainedImage.getHeight() != imageHeight)
+			this.retainedImage = g.getDeviceConfiguration()
+					.createCompatibleImage(imageWidth, imageHeight, Transparency.TRANSLUCENT);
+
+		Graphics2D image = this.retainedImage.createGraphics();
+		try
+		{
+			image.setComposite(AlphaComposite.Clear);
+			image.fillRect(0, 0, imageWidth, imageHeight);
+			image.setComposite(AlphaComposite.SrcOver);
+			image.setRenderingHints(g.getRenderingHints());
+			image.setFont(g.getFont());
+			AffineTransform shifted = AffineTransform.getTranslateInstance(-bounds.x, -bounds.y);
+			shifted.concatenate(transform);
+			image.setTransform(shifted);
+			this.elements.draw(image);
+		} finally
+		{
+			image.dispose();
+		}
+
+		this.retainedTransform = transform;
+		this.retainedX = bounds.x;
+		this.retainedY = bounds.y;
+		this.dirty = false;
+	}
 }
@@ -4,18 +4,22 @@ import nschank.collect.dim.Dimensional;
 import nschank.collect.dim.Point;
 import nschank.collect.dim.Vector;
 import nschank.engn.shape.Drawable;
+import nschank.engn.shape.GameSpaceDrawable;
 import nschank.util.Interval;
 import nschank.util.Intervals;
 
 import java.awt.Graphics2D;
 import java.awt.Rectangle;
 import java.awt.Shape;
+import java.awt.geom.AffineTransform;
+import java.util.ArrayList;
+import java.util.List;
 
 
 /**
  * Created by Nicolas Schank for package nschank.engn.gui.layer
  * Created on 12 Sep 2013
- * Last updated on 25 May 2014
+ * Last updated on 30 Jun 2014
  *
  * AbstractViewport is a partial implementation of Viewport, which implements most basic parts of a Viewport, while allowing
  * customization through the use of closestZoom(), furthestZoom(), and getZoomFactor(). The first two specify how close
@@ -23,8 +27,17 @@ import java.awt.Shape;
  * zooming should occur. All three are expected to remain generally constant, though allowing variable ones is theoretically
  * fine.
  *
+ * Only Drawables whose x and y intervals intersect those of the view are drawn. Elements added through addStatic are
+ * also kept in a DrawableGrid, so that scenery in a large world is found without testing every piece of it; they are
+ * drawn beneath every other element.
+ *
+ * Elements are drawn in game units, under a single transform from game units to pixels applied to the Graphics object,
+ * so that they need not be moved and resized to draw. An element which is not a GameSpaceDrawable, such as a
+ * DrawableString whose font is measured in pixels, is instead moved and resized into pixels through drawElement, and
+ * then restored; overriding transformsElements to return false draws every element that way.
+ *
  * @author nschank, Brown University
- * @version 3.1
+ * @version 3.3
  */
 public abstract class AbstractViewport extends AbstractLayer implements Viewport
 {
@@ -40,6 +53,10 @@ public abstract class AbstractViewport extends AbstractLayer implements Viewport
 	 * The amount by which the zoom scale multiplies/divides when zooming in or out.
 	 */
 	public static final double DEFAULT_SCALE_FACTOR = 1.25f;
+	/**
+	 * The width, in game units, of each cell of the grid holding static elements
+	 */
+	public static final double DEFAULT_STATIC_CELL_SIZE = 16.0;
 
 	private Vector centerPos;
 	private double scaleAmount; //pixels per game unit
@@ -47,7 +64,8 @@ public abstract class AbstractViewport extends AbstractLayer implements Viewport
 	private Interval vX;
 	private Interval vY;
 	private Vector viewPosition;
-
+	private final DrawableGrid staticElements;
+	private final List<Drawable> visibleStatic;
 
 	/**
 	 * Creates a Viewport at a particular position on the Screen {@code centerPos}, a particular total size in pixels
@@ -81,6 +99,8 @@ public abstract class AbstractViewport extends AbstractLayer implements Viewport
 		this.size = new Point(size);
 		this.viewPosition = new Vector(viewPosition);
 		this.scaleAmount = scale;
+		this.staticElements = new DrawableGrid(this.staticCellSize());
+		this.visibleStatic = new ArrayList<>();
 
 		assert this.closestZoom() >= this.furthestZoom();
 		assert this.furthestZoom() >= 1;
@@ -88,6 +108,19 @@ public abstract class AbstractViewport extends AbstractLayer implements Viewport
 		this.setIntervals();
 	}
 
+	/**
+	 * Adds an element which rarely moves, such as scenery, to this Viewport. It is kept in a spatial index rather than
+	 * tested on every draw, and is drawn beneath every element added through add. If it moves or changes size,
+	 * updateStatic must be called.
+	 *
+	 * @param element
+	 * 		A visible piece of this Layer which rarely moves
+	 */
+	public void addStatic(Drawable element)
+	{
+		this.staticElements.add(element);
+	}
+
 	/**
 	 * Override to change how close this viewport will allowed to zoom. Must satisfy the invariant that closestZoom >=
 	 * furthestZoom.
@@ -101,7 +134,8 @@ public abstract class AbstractViewport extends AbstractLayer implements Viewport
 
 	/**
 	 * Draws all elements in this Layer that are within this Viewport and are visible; in order to improve runtime, only
-	 * draws things that are returned by the iterator() method.
+	 * draws things that are returned by the iterator() method, or were added through addStatic, and whose intervals
+	 * intersect those of this Viewport.
 	 *
 	 * @param g
 	 * 		A Graphics object on which to draw this Viewport
@@ -112,24 +146,64 @@ public abstract class AbstractViewport extends AbstractLayer implements Viewport
 		Shape originalClip = g.getClip();
 		g.setClip(this.getClip());
 
-		for(Drawable o : this)
-		{
-			double originalWidth = o.getWidth();
-			double originalHeight = o.getHeight();
-			Dimensional originalLocation = o.getCenterPosition();
+		this.drawVisible(g);
+
+		g.setClip(originalClip);
+	}
+
+	/**
+	 * Draws a single element which cannot be drawn in game units, moved and resized from game units to pixels, and then
+	 * restores it. The Graphics object must not be transformed from pixels when this is called.
+	 *
+	 * @param o
+	 * 		An element of this Layer
+	 * @param g
+	 * 		A Graphics object on which to draw this Viewport
+	 */
+	protected void drawElement(Drawable o, Graphics2D g)
+	{
+		double originalWidth = o.getWidth();
+		double originalHeight = o.getHeight();
+		Dimensional originalLocation = o.getCenterPosition();
 
-			o.setCenterPosition(this.gameLocationToPixel(new Vector(originalLocation)));
-			o.setWidth(originalWidth * this.getZoom());
-			o.setHeight(originalHeight * this.getZoom());
+		o.setCenterPosition(this.gameLocationToPixel(new Vector(originalLocation)));
+		o.setWidth(originalWidth * this.getZoom());
+		o.setHeight(originalHeight * this.getZoom());
 
-			o.draw(g);
+		o.draw(g);
 
-			o.setCenterPosition(originalLocation);
-			o.setWidth(originalWidth);
-			o.setHeight(originalHeight);
-		}
+		o.setCenterPosition(originalLocation);
+		o.setWidth(originalWidth);
+		o.setHeight(originalHeight);
+	}
 
-		g.setClip(originalClip);
+	/**
+	 * Draws every static element in view, and then every other element in view. Those which may be drawn in game units
+	 * are drawn under the transform from game units to pixels; the rest are drawn through drawElement. The transform is
+	 * only changed when consecutive elements differ in which way they are drawn, and is restored afterwards.
+	 *
+	 * @param g
+	 * 		A Graphics object on which to draw this Viewport
+	 */
+	protected void drawVisible(Graphics2D g)
+	{
+		Interval viewX = this.getXInterval();
+		Interval viewY = this.getYInterval();
+		AffineTransform pixelSpace = g.getTransform();
+		AffineTransform gameSpace = this.gameSpaceOf(pixelSpace);
+		boolean inGameSpace = false;
+
+		this.visibleStatic.clear();
+		this.staticElements.query(viewX, viewY, this.visibleStatic);
+		for(Drawable o : this.visibleStatic)
+			inGameSpace = this.drawIn(o, g, pixelSpace, gameSpace, inGameSpace);
+		this.visibleStatic.clear();
+
+		for(Drawable o : this)
+			if(o.xInterval().isIntersecting(viewX) && o.yInterval().isIntersecting(viewY))
+				inGameSpace = this.drawIn(o, g, pixelSpace, gameSpace, inGameSpace);
+
+		g.setTransform(pixelSpace);
 	}
 
 	/**
@@ -308,6 +382,19 @@ public abstract class AbstractViewport extends AbstractLayer implements Viewport
 		return scaledToGame.plus(this.viewPosition);
 	}
 
+	/**
+	 * Removes an element added through addStatic.
+	 *
+	 * @param element
+	 * 		A static element of this Layer
+	 *
+	 * @return Whether that element was a static element of this Layer
+	 */
+	public boolean removeStatic(Drawable element)
+	{
+		return this.staticElements.remove(element);
+	}
+
 	/**
 	 * Resets the Intervals of this Viewport. Must be called whenever an action is taken that will alter them, or the
 	 * Viewport will behave inappropriately.
@@ -333,6 +420,16 @@ public abstract class AbstractViewport extends AbstractLayer implements Viewport
 		this.setIntervals();
 	}
 
+	/**
+	 * Override to change the size of the cells of the grid holding static elements. Called once, on construction.
+	 *
+	 * @return The width, in game units, of each cell
+	 */
+	protected double staticCellSize()
+	{
+		return DEFAULT_STATIC_CELL_SIZE;
+	}
+
 	@Override
 	public String toString()
 	{
@@ -346,6 +443,28 @@ public abstract class AbstractViewport extends AbstractLayer implements Viewport
 				'}';
 	}
 
+	/**
+	 * Override to return false if every element of this Viewport should be moved and resized into pixels to be drawn,
+	 * as every element was before elements could be drawn in game units.
+	 *
+	 * @return Whether elements which may be drawn in game units should be drawn through a transform
+	 */
+	protected boolean transformsElements()
+	{
+		return true;
+	}
+
+	/**
+	 * Must be called whenever an element added through addStatic moves or changes size.
+	 *
+	 * @param element
+	 * 		A static element of this Layer
+	 */
+	public void updateStatic(Drawable element)
+	{
+		this.staticElements.update(element);
+	}
+
 	/**
 	 * Zooms in on the viewport, using the zoom factor in getZoomFactor()
 	 */
@@ -365,5 +484,48 @@ public abstract class AbstractViewport extends AbstractLayer implements Viewport
 		this.scaleAmount = Math.min(this.closestZoom(), this.scaleAmount * this.getZoomFactor());
 		this.setIntervals();
 	}
-}
 
+	/**
+	 * Draws a single element, either in game units or through drawElement, changing the transform of the Graphics
+	 * object only if the previous element was drawn the other way.
+	 *
+	 * @param o
+	 * 		An element of this Layer
+	 * @param g
+	 * 		A Graphics object on which to draw this Viewport
+	 * @param pixelSpace
+	 * 		The transform of g in pixels
+	 * @param gameSpace
+	 * 		The transform of g in game units
+	 * @param inGameSpace
+	 * 		Whether g is currently transformed into game units
+	 *
+	 * @return Whether g is transformed into game units after drawing
+	 */
+	private boolean drawIn(Drawable o, Graphics2D g, AffineTransform pixelSpace, AffineTransform gameSpace,
+						   boolean inGameSpace)
+	{
+		boolean gameUnits = this.transformsElements() && o instanceof GameSpaceDrawable
+				&& ((GameSpaceDrawable) o).drawsInGameSpace();
+		if(gameUnits != inGameSpace) g.setTransform(gameUnits ? gameSpace : pixelSpace);
+
+		if(gameUnits) o.draw(g);
+		else this.drawElement(o, g);
+		return gameUnits;
+	}
+
+	/**
+	 * @param pixelSpace
+	 * 		The transform of a Graphics object in pixels
+	 *
+	 * @return The same transform, preceded by the transform from game units to pixels made by gameLocationToPixel
+	 */
+	private AffineTransform gameSpaceOf(AffineTransform pixelSpace)
+	{
+		AffineTransform gameSpace = new AffineTransform(pixelSpace);
+		gameSpace.translate(this.centerPos.getCoordinate(0), this.centerPos.getCoordinate(1));
+		gameSpace.scale(this.getZoom(), this.getZoom());
+		gameSpace.translate(-this.viewPosition.getCoordinate(0), -this.viewPosition.getCoordinate(1));
+		return gameSpace;
+	}
+}
@@ -6,13 +6,14 @@ import nschank.collect.dim.Dimensional;
 /**
  * Created by Nicolas Schank for package nschank.engn.gui.layer
  * Created on 3 Dec 2013
- * Last modified 20 May 2014
+ * Last modified 2 Jul 2014
  *
  * A Layer which does nothing except draw added shapes in their original positions. Resizing and ticking both have no
- * effect. Moving a shape manually/directly will have immediate effect.
+ * effect. Moving a shape manually/directly will have immediate effect, unless the layer is retained, in which case
+ * markDirty must also be called.
  *
  * @author nschank, Brown University
- * @version 1.0
+ * @version 1.1
  */
 public class DefaultLayer extends AbstractLayer
 {
@@ -25,6 +26,6 @@ public class DefaultLayer extends AbstractLayer
 	@Override
 	public void resize(Dimensional newSize)
 	{
-
+		super.resize(newSize);
 	}
 }
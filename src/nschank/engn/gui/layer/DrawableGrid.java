@@ -0,0 +1,196 @@
+package nschank.engn.gui.layer;
+
+import nschank.engn.shape.Drawable;
+import nschank.util.Interval;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+
+/**
+ * Created by Nicolas Schank for package nschank.engn.gui.layer
+ * Created on 29 Jun 2014
+ * Last updated on 3 Jul 2014
+ *
+ * A spatial index of Drawables, so that a Viewport can find those within its view without testing every Drawable in a
+ * large world. The world is divided into square cells of a fixed size, and each Drawable is listed in every cell its
+ * bounds overlap; a query visits only the cells overlapping the view.
+ *
+ * A Drawable is bucketed by its bounds when it is added. If it moves or changes size, it must be updated, or it may not
+ * be found; the grid is best suited to scenery, which rarely moves.
+ *
+ * @author nschank, Brown University
+ * @version 1.1
+ */
+public class DrawableGrid
+{
+	private final double cellSize;
+	private final Map<Long, List<Drawable>> cells;
+	private final Map<Drawable, int[]> ranges;
+	private int query;
+
+	/**
+	 * @param cellSize
+	 * 		The width of each cell, in game units; about the size of a typical element, or a fraction of the view
+	 */
+	public DrawableGrid(double cellSize)
+	{
+		if(cellSize <= 0) throw new IllegalArgumentException("Cells must have a positive size.");
+		this.cellSize = cellSize;
+		this.cells = new HashMap<>();
+		this.ranges = new IdentityHashMap<>();
+		this.query = 0;
+	}
+
+	/**
+	 * Adds a Drawable to every cell overlapped by its current bounds. Adding one already in the grid updates it.
+	 *
+	 * @param element
+	 * 		A Drawable
+	 */
+	public void add(Drawable element)
+	{
+		if(this.ranges.containsKey(element)) this.remove(element);
+
+		int[] range = new int[]{this.cellOf(element.xInterval().getMin()), this.cellOf(element.yInterval().getMin()),
+				this.cellOf(element.xInterval().getMax()), this.cellOf(element.yInterval().getMax()), this.query};
+		this.ranges.put(element, range);
+		for(int cx = range[0]; cx <= range[2]; cx++)
+			for(int cy = range[1]; cy <= range[3]; cy++)
+			{
+				Long key = DrawableGrid.keyOf(cx, cy);
+				List<Drawable> cell = this.cells.get(key);
+				if(cell == null)
+				{
+					cell = new ArrayList<>(4);
+					this.cells.put(key, cell);
+				}
+				cell.add(element);
+			}
+	}
+
+	/**
+	 * @param element
+	 * 		A Drawable
+	 *
+	 * @return Whether that Drawable is in this grid
+	 */
+	public boolean contains(Drawable element)
+	{
+		return this.ranges.containsKey(element);
+	}
+
+	/**
+	 * @return Every Drawable in this grid, which cannot be removed through this view; use remove instead
+	 */
+	public Set<Drawable> elements()
+	{
+		return Collections.unmodifiableSet(this.ranges.keySet());
+	}
+
+	/**
+	 * Finds every Drawable whose bounds overlap the given region. Each is found once, however many cells it is in.
+	 *
+	 * @param x
+	 * 		The extent of the region along the x axis, in game units
+	 * @param y
+	 * 		The extent of the region along the y axis, in game units
+	 * @param found
+	 * 		Where to put each Drawable found
+	 */
+	public void query(Interval x, Interval y, Collection<? super Drawable> found)
+	{
+		this.query++;
+		int minX = this.cellOf(x.getMin());
+		int maxX = this.cellOf(x.getMax());
+		int minY = this.cellOf(y.getMin());
+		int maxY = this.cellOf(y.getMax());
+
+		if((long) (maxX - minX + 1) * (maxY - minY + 1) > this.cells.size())
+		{
+			//The region covers more cells than are occupied; testing every element is quicker
+			for(Drawable element : this.ranges.keySet())
+				if(element.xInterval().isIntersecting(x) && element.yInterval().isIntersecting(y)) found.add(element);
+			return;
+		}
+
+		for(int cx = minX; cx <= maxX; cx++)
+			for(int cy = minY; cy <= maxY; cy++)
+			{
+				List<Drawable> cell = this.cells.get(DrawableGrid.keyOf(cx, cy));
+				if(cell == null) continue;
+				for(Drawable element : cell)
+				{
+					int[] range = this.ranges.get(element);
+					if(range[4] == this.query) continue;
+					range[4] = this.query;
+					if(element.xInterval().isIntersecting(x) && element.yInterval().isIntersecting(y))
+						found.add(element);
+				}
+			}
+	}
+
+	/**
+	 * Removes a Drawable from this grid.
+	 *
+	 * @param element
+	 * 		A Drawable
+	 *
+	 * @return Whether the Drawable was in this grid
+	 */
+	public boolean remove(Drawable element)
+	{
+		int[] range = this.ranges.remove(element);
+		if(range == null) return false;
+		for(int cx = range[0]; cx <= range[2]; cx++)
+			for(int cy = range[1]; cy <= range[3]; cy++)
+			{
+				Long key = DrawableGrid.keyOf(cx, cy);
+				List<Drawable> cell = this.cells.get(key);
+				cell.remove(element);
+				if(cell.isEmpty()) this.cells.remove(key);
+			}
+		return true;
+	}
+
+	/**
+	 * Moves a Drawable to the cells overlapped by its current bounds; must be called whenever it moves or changes size.
+	 *
+	 * @param element
+	 * 		A Drawable in this grid
+	 */
+	public void update(Drawable element)
+	{
+		this.add(element);
+	}
+
+	/**
+	 * @param coordinate
+	 * 		A coordinate along either axis, in game units
+	 *
+	 * @return The index of the cell containing that coordinate along that axis
+	 */
+	private int cellOf(double coordinate)
+	{
+		return (int) Math.floor(coordinate / this.cellSize);
+	}
+
+	/**
+	 * @param cx
+	 * 		The index of a cell along the x axis
+	 * @param cy
+	 * 		The index of a cell along the y axis
+	 *
+	 * @return A single key for that cell
+	 */
+	private static Long keyOf(int cx, int cy)
+	{
+		return (((long) cx) << 32) | (cy & 0xFFFFFFFFL);
+	}
+}
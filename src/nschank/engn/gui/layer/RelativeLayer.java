@@ -13,7 +13,7 @@ import java.util.Map;
 /**
  * Created by Nicolas Schank for package nschank.engn.gui.layer.
  * Created on 29 Sep 2013
- * Last updated on 24 May 2014
+ * Last updated on 2 Jul 2014
  *
  * An extension of an AbstractLayer which uses the drawing implementation of the AbstractLayer, but extends it to make
  * resizing automatic. Drawables can be added normally using add(Drawable), under which resizing will not occur except
@@ -22,7 +22,7 @@ import java.util.Map;
  * size of the Screen.
  *
  * @author Nicolas Schank
- * @version 2013 09 29
+ * @version 2014 07 02
  * @since 2013 09 29 7:25 PM
  */
 public class RelativeLayer extends AbstractLayer
@@ -92,5 +92,6 @@ public class RelativeLayer extends AbstractLayer
 			double y = s.getE() * newSize.getCoordinate(1);
 			s.getA().setCenterPosition(new Vector(x, y));
 		}
+		super.resize(newSize);
 	}
 }
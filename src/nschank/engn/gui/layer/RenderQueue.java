@@ -0,0 +1,359 @@
+package nschank.engn.gui.layer;
+
+import nschank.engn.shape.Drawable;
+import nschank.engn.shape.DrawableString;
+import nschank.util.Interval;
+
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+
+
+/**
+ * Created by Nicolas Schank for package nschank.engn.gui.layer
+ * Created on 1 Jul 2014
+ * Last updated on 3 Jul 2014
+ *
+ * The Drawables of a Layer, in the order they should be drawn. Each Drawable is given a z when it is added, and those
+ * of lower z are drawn beneath those of higher z. Among Drawables of the same z, a Drawable added later is always drawn
+ * over any earlier one it overlaps.
+ *
+ * Within that order, a Drawable may be drawn early, straight after one of the same material (the same colour), so
+ * that the Graphics object changes its colour less often; but only if its bounding box overlaps none of the Drawables
+ * it is moved ahead of, and only a few places ahead, so that finding the order stays linear. DrawableStrings are never
+ * moved, and nothing is moved past one, since the width of a string is only known once it has been drawn. For the same
+ * reason Drawables are deliberately not grouped by font: only a DrawableString has one, and grouping strings would
+ * mean moving them past Drawables they might overlap.
+ *
+ * Since a Drawable may move or change colour at any time, the order is found again before each draw. The order by z
+ * rarely changes from one draw to the next, and sorting an already sorted list takes linear time. After each draw the
+ * colour and bounds of every Drawable are remembered, so that hasChanged can tell whether drawing again would differ.
+ *
+ * @author nschank, Brown University
+ * @version 1.3
+ */
+public class RenderQueue implements Iterable<Drawable>
+{
+	private static final Comparator<Entry> ORDER = new Comparator<Entry>()
+	{
+		@Override
+		public int compare(Entry a, Entry b)
+		{
+			if(a.z != b.z) return (a.z < b.z) ? -1 : 1;
+			return (a.order < b.order) ? -1 : ((a.order == b.order) ? 0 : 1);
+		}
+	};
+	private static final int BATCH_DISTANCE = 16;
+
+	private final List<Entry> entries;
+	private final List<Entry> drawOrder;
+	private final Map<Drawable, Entry> byElement;
+	private final List<Drawable> view;
+	private long added;
+
+	/**
+	 * Creates an empty RenderQueue
+	 */
+	public RenderQueue()
+	{
+		this.entries = new ArrayList<>();
+		this.drawOrder = new ArrayList<>();
+		this.byElement = new HashMap<>();
+		this.view = new AbstractList<Drawable>()
+		{
+			@Override
+			public Drawable get(int index)
+			{
+				return RenderQueue.this.drawOrder.get(index).element;
+			}
+
+			@Override
+			public int size()
+			{
+				return RenderQueue.this.drawOrder.size();
+			}
+		};
+		this.added = 0;
+	}
+
+	/**
+	 * Adds a Drawable at the given z. Adding one which is already in this queue moves it to that z.
+	 *
+	 * @param element
+	 * 		A Drawable
+	 * @param z
+	 * 		How far up it should be drawn; higher is drawn on top
+	 *
+	 * @return Whether the Drawable was not already in this queue
+	 */
+	public boolean add(Drawable element, int z)
+	{
+		Entry entry = this.byElement.get(element);
+		if(entry != null)
+		{
+			entry.z = z;
+			return false;
+		}
+
+		entry = new Entry(element, z, this.added++);
+		this.byElement.put(element, entry);
+		this.entries.add(entry);
+		return true;
+	}
+
+	/**
+	 * @param element
+	 * 		A Drawable
+	 *
+	 * @return Whether that Drawable is in this queue
+	 */
+	public boolean contains(Drawable element)
+	{
+		return this.byElement.containsKey(element);
+	}
+
+	/**
+	 * Draws every Drawable in this queue, in order, and then remembers the colour and bounds of each.
+	 *
+	 * @param g
+	 * 		A Graphics object to draw onto
+	 */
+	public void draw(Graphics2D g)
+	{
+		this.sort();
+		for(int i = 0; i < this.drawOrder.size(); i++)
+			this.drawOrder.get(i).element.draw(g);
+		//A Drawable may measure itself as it draws, as a DrawableString does
+		for(int i = 0; i < this.entries.size(); i++)
+			this.entries.get(i).update();
+	}
+
+	/**
+	 * @param element
+	 * 		A Drawable in this queue
+	 *
+	 * @return The z at which that Drawable is drawn
+	 *
+	 * @throws IllegalArgumentException
+	 * 		If the Drawable is not in this queue
+	 */
+	public int getZ(Drawable element)
+	{
+		Entry entry = this.byElement.get(element);
+		if(entry == null) throw new IllegalArgumentException("Drawable " + element + " is not in this queue.");
+		return entry.z;
+	}
+
+	/**
+	 * @return Whether any Drawable in this queue has been recoloured, moved or resized since this queue was last drawn.
+	 * Other changes, such as to the text of a DrawableString, are not seen.
+	 */
+	public boolean hasChanged()
+	{
+		for(int i = 0; i < this.entries.size(); i++)
+			if(this.entries.get(i).isStale()) return true;
+		return false;
+	}
+
+	/**
+	 * @return An unmodifiable view of every Drawable in this queue, in the order in which they will be drawn
+	 */
+	public List<Drawable> inOrder()
+	{
+		this.sort();
+		return this.view;
+	}
+
+	/**
+	 * @return An Iterator over every Drawable in this queue, in the order in which they will be drawn
+	 */
+	@Override
+	public Iterator<Drawable> iterator()
+	{
+		return this.inOrder().iterator();
+	}
+
+	/**
+	 * @param element
+	 * 		A Drawable
+	 *
+	 * @return Whether that Drawable was in this queue
+	 */
+	public boolean remove(Drawable element)
+	{
+		Entry entry = this.byElement.remove(element);
+		if(entry == null) return false;
+		this.entries.remove(entry);
+		this.drawOrder.remove(entry);
+		return true;
+	}
+
+	/**
+	 * @return The number of Drawables in this queue
+	 */
+	public int size()
+	{
+		return this.entries.size();
+	}
+
+	@Override
+	public String toString()
+	{
+		return "RenderQueue{" +
+				"elements=" + this.inOrder() +
+				'}';
+	}
+
+	/**
+	 * Adds the Drawables of one z to the order in which they should be drawn. Each is drawn in the order it was added,
+	 * except that one of the same material as the last drawn, a little further on, is drawn next instead, as long as
+	 * doing so moves it ahead only of Drawables it does not overlap.
+	 *
+	 * @param run
+	 * 		The Drawables of one z, in the order they were added
+	 */
+	private void batch(Entry[] run)
+	{
+		for(int i = 0; i < run.length; i++)
+		{
+			this.drawOrder.add(run[i]);
+			if(!run[i].bounded || i + 1 == run.length || run[i + 1].rgb == run[i].rgb) continue;
+
+			int last = Math.min(run.length, i + 2 + RenderQueue.BATCH_DISTANCE);
+			for(int j = i + 2; j < last; j++)
+			{
+				if(!run[j - 1].bounded) break;
+				if(!run[j].bounded || run[j].rgb != run[i].rgb || !RenderQueue.passes(run, i + 1, j)) continue;
+
+				Entry next = run[j];
+				System.arraycopy(run, i + 1, run, i + 2, j - i - 1);
+				run[i + 1] = next;
+				break;
+			}
+		}
+	}
+
+	/**
+	 * @param run
+	 * 		Some Drawables
+	 * @param from
+	 * 		The first of them to be passed
+	 * @param index
+	 * 		The one to be moved ahead; every Drawable before it, from {@code from}, must be bounded
+	 *
+	 * @return Whether the Drawable at {@code index} overlaps none of those from {@code from} up to it
+	 */
+	private static boolean passes(Entry[] run, int from, int index)
+	{
+		for(int k = from; k < index; k++)
+			if(run[k].overlaps(run[index])) return false;
+		return true;
+	}
+
+	/**
+	 * Reads the material and bounds of every Drawable, and finds the order in which they should be drawn.
+	 */
+	private void sort()
+	{
+		for(int i = 0; i < this.entries.size(); i++)
+			this.entries.get(i).update();
+		Collections.sort(this.entries, RenderQueue.ORDER);
+
+		this.drawOrder.clear();
+		int start = 0;
+		while(start < this.entries.size())
+		{
+			int end = start + 1;
+			while(end < this.entries.size() && this.entries.get(end).z == this.entries.get(start).z)
+				end++;
+			this.batch(this.entries.subList(start, end).toArray(new Entry[end - start]));
+			start = end;
+		}
+	}
+
+	/**
+	 * A Drawable, with its z, the order in which it was added, and its material and bounds as of the last sort.
+	 */
+	private static final class Entry
+	{
+		private final Drawable element;
+		private final long order;
+		private int z;
+		private int rgb;
+		private boolean measured;
+		private boolean bounded;
+		private double minX;
+		private double maxX;
+		private double minY;
+		private double maxY;
+
+		/**
+		 * @param element
+		 * 		A Drawable
+		 * @param z
+		 * 		How far up it is drawn
+		 * @param order
+		 * 		How many Drawables were added before it
+		 */
+		Entry(Drawable element, int z, long order)
+		{
+			this.element = element;
+			this.z = z;
+			this.order = order;
+		}
+
+		/**
+		 * @return Whether the colour or bounding box of the Drawable differs from when it was last read
+		 */
+		boolean isStale()
+		{
+			Color color = this.element.getColor();
+			if(((color == null) ? 0 : color.getRGB()) != this.rgb) return true;
+
+			Interval x = this.element.xInterval();
+			Interval y = this.element.yInterval();
+			if(x == null || y == null) return this.measured;
+			return !this.measured || x.getMin() != this.minX || x.getMax() != this.maxX || y.getMin() != this.minY
+					|| y.getMax() != this.maxY;
+		}
+
+		/**
+		 * @param other
+		 * 		Another bounded Entry
+		 *
+		 * @return Whether the bounding boxes of the two Drawables overlap or touch
+		 */
+		boolean overlaps(Entry other)
+		{
+			return this.minX <= other.maxX && other.minX <= this.maxX && this.minY <= other.maxY
+					&& other.minY <= this.maxY;
+		}
+
+		/**
+		 * Reads the colour and bounding box of the Drawable. A DrawableString, or a Drawable without a bounding box,
+		 * is not bounded.
+		 */
+		void update()
+		{
+			Color color = this.element.getColor();
+			this.rgb = (color == null) ? 0 : color.getRGB();
+
+			Interval x = this.element.xInterval();
+			Interval y = this.element.yInterval();
+			this.measured = x != null && y != null;
+			this.bounded = this.measured && !(this.element instanceof DrawableString);
+			if(!this.measured) return;
+			this.minX = x.getMin();
+			this.maxX = x.getMax();
+			this.minY = y.getMin();
+			this.maxY = y.getMax();
+		}
+	}
+}
@@ -1,7 +1,6 @@
 package nschank.engn.gui.layer;
 
 import nschank.collect.dim.Dimensional;
-import nschank.engn.shape.Drawable;
 import nschank.util.Interval;
 
 import java.awt.Graphics2D;
@@ -11,13 +10,13 @@ import java.awt.Shape;
 /**
  * Created by Nicolas Schank for package nschank.engn.gui.layer
  * Created in November 2013
- * Last modified 25 May 2014
+ * Last modified 30 Jun 2014
  *
  * A basic extension of the AbstractViewport which adds a concept of rotation. The rotation is the angle, in radians,
  * between the Screen and the in-game location system.
  *
  * @author nschank, Brown University
- * @version 2.0
+ * @version 2.2
  */
 public abstract class RotatingViewport extends AbstractViewport
 {
@@ -45,7 +44,9 @@ public abstract class RotatingViewport extends AbstractViewport
 	}
 
 	/**
-	 * Draws all objects within the RotatingViewport given by iterator().
+	 * Draws all objects within the RotatingViewport given by iterator(), or added through addStatic, which are in view.
+	 * The rotation is applied to the Graphics object before drawVisible, so the transform from game units to pixels
+	 * is rotated along with it.
 	 *
 	 * @param g
 	 * 		A Graphics object used to draw
@@ -56,22 +57,7 @@ public abstract class RotatingViewport extends AbstractViewport
 		Shape clip = g.getClip();
 		g.setClip(this.getClip());
 		g.rotate(-this.rotation, this.getCenterPosition().getCoordinate(0), this.getCenterPosition().getCoordinate(1));
-		for(Drawable o : this)
-		{
-			double originalWidth = o.getWidth();
-			double originalHeight = o.getHeight();
-			Dimensional originalLocation = o.getCenterPosition();
-
-			o.setCenterPosition(this.gameLocationToPixel(originalLocation));
-			o.setWidth(originalWidth * this.getZoom());
-			o.setHeight(originalHeight * this.getZoom());
-
-			o.draw(g);
-
-			o.setCenterPosition(originalLocation);
-			o.setWidth(originalWidth);
-			o.setHeight(originalHeight);
-		}
+		this.drawVisible(g);
 		g.rotate(this.getRotation(), this.getCenterPosition().getCoordinate(0),
 				this.getCenterPosition().getCoordinate(1));
 		g.setClip(clip);
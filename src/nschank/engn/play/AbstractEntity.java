@@ -1,32 +1,50 @@
 package nschank.engn.play;
 
-import nschank.collect.tuple.Pair;
 import nschank.engn.play.io.*;
-import nschank.engn.play.io.eval.Constant;
 import nschank.engn.play.io.eval.Evaluator;
 import nschank.engn.play.univ.Universe;
 import nschank.engn.shape.AbstractDrawable;
-import nschank.util.NMaps;
 
 import java.awt.Graphics2D;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.Map;
 
 
 /**
  * Created by Nicolas Schank for package nschank.engn.play.io
  * Created on 7 Oct 2013
- * Last updated on 29 May 2014
+ * Last updated on 3 Jul 2014
+ *
+ * Properties are kept in arrays indexed by the id of their {@code PropertyKey}, rather than in a map. A numeric property
+ * set through {@code putDouble} is kept as a primitive, and {@code getDouble} reads any numeric property without
+ * boxing it.
+ *
+ * Registering an {@code Input} or a new {@code Output} invalidates the {@code Wiring}, so that any {@code Connection}
+ * resolved against the old ones resolves itself again.
+ *
+ * The !onTick and !onDraw {@code Output}s are kept aside as they are connected. Until something is connected to one of
+ * them, ticking or drawing this {@code Entity} costs a single branch, and builds no arguments.
+ *
+ * Each {@code Input} is bound to an {@code Invocation} the first time it is done, and the {@code Invocation} is kept
+ * until the {@code Wiring} changes, so doing an {@code Input} again neither allocates nor works out its {@code Output}.
  *
  * @author nschank, Brown University
- * @version 5.1
+ * @version 5.7
  */
 public abstract class AbstractEntity extends AbstractDrawable implements Entity
 {
 	protected final Map<String, Input> inputs;
 	protected final Map<String, Output> outputs;
-	protected final Map<String, Object> properties;
+	private final Map<String, Invocation> invocations;
+	private Object[] values;
+	private double[] doubles;
+	private boolean[] primitive;
+	private Output tickOutput;
+	private Output drawOutput;
+	private boolean subscribed;
 
 	/**
 	 * Creates an {@code Entity} that exists within the given {@code Universe}
@@ -37,9 +55,15 @@ public abstract class AbstractEntity extends AbstractDrawable implements Entity
 	protected AbstractEntity(Universe owner)
 	{
 		super();
-		this.properties = new HashMap<>();
+		this.values = new Object[PropertyKey.count()];
+		this.doubles = new double[this.values.length];
+		this.primitive = new boolean[this.values.length];
 		this.outputs = new HashMap<>();
 		this.inputs = new HashMap<>();
+		this.tickOutput = null;
+		this.drawOutput = null;
+		this.invocations = new HashMap<>();
+		this.subscribed = true;
 
 		//Default inputs, as per Entity
 		this.inputs.put("!setProperty", Inputs.setProperty(this));
@@ -49,8 +73,8 @@ public abstract class AbstractEntity extends AbstractDrawable implements Entity
 		this.inputs.put("!errorCheckPrint", Inputs.errorCheckPrint(this));
 
 		//Default properties, as per Entity
-		this.properties.put("!self", this);
-		this.properties.put("!universe", owner);
+		this.store(Entity.SELF, this);
+		this.store(Entity.UNIVERSE, owner);
 	}
 
 	/**
@@ -64,10 +88,20 @@ public abstract class AbstractEntity extends AbstractDrawable implements Entity
 	protected AbstractEntity(Universe owner, Map<String, Object> properties)
 	{
 		this(owner);
-		this.properties.remove("!self");
-		this.properties.remove("!universe");
+		this.store(Entity.SELF, null);
+		this.store(Entity.UNIVERSE, null);
 		for(String t : properties.keySet())
-			this.properties.put(t, properties.get(t));
+			this.store(PropertyKey.named(t), properties.get(t));
+	}
+
+	/**
+	 * Resolves every {@code Connection} from every {@code Output} of this {@code Entity}.
+	 */
+	@Override
+	public void compileWiring()
+	{
+		for(Output output : this.outputs.values())
+			output.compile();
 	}
 
 	/**
@@ -82,25 +116,7 @@ public abstract class AbstractEntity extends AbstractDrawable implements Entity
 	@Override
 	public void doInput(String inputType, Map<String, Evaluator> arguments)
 	{
-		if(arguments.containsKey("enabled") && !(Boolean) arguments.get("enabled").eval(arguments, this)) return;
-
-		if(this.inputs.containsKey(inputType))
-		{
-			try
-			{
-				this.inputs.get(inputType).run(arguments);
-			} catch(Throwable t)
-			{
-				throw new InputFailureException("The input " + inputType + " failed to run correctly. " + t);
-			}
-		}
-		if("do".equals(inputType.substring(0, 2)))
-		{
-			this.runOutput("on" + inputType.substring(2), arguments);
-		} else if("!do".equals(inputType.substring(0, 3)))
-		{
-			this.runOutput("on" + inputType.substring(3), arguments);
-		}
+		this.invocationOf(inputType).run(arguments);
 	}
 
 	/**
@@ -113,16 +129,43 @@ public abstract class AbstractEntity extends AbstractDrawable implements Entity
 	@Override
 	public void draw(Graphics2D g)
 	{
-		this.runOutput("!onDraw", new HashMap<String, Evaluator>());
+		if(this.drawOutput == null) return;
+		EventArgs args = EventArgs.obtain();
+		try
+		{
+			this.drawOutput.run(args);
+		} finally
+		{
+			args.release();
+		}
+	}
+
+	/**
+	 * @param key
+	 * 		A key naming a property whose value is a number
+	 *
+	 * @return The value of that property, without boxing it if it was set through {@code putDouble}
+	 */
+	@Override
+	public double getDouble(PropertyKey<Double> key)
+	{
+		int id = key.getId();
+		if(id >= this.values.length) throw new NullPointerException("The property " + key + " is not set.");
+		if(this.primitive[id]) return this.doubles[id];
+		return ((Number) this.values[id]).doubleValue();
 	}
 
 	/**
-	 * @return All properties of this Entity, in a mapping of name to value
+	 * @return A copy of all properties of this Entity, in a mapping of name to value
 	 */
 	@Override
 	public Map<String, Object> getProperties()
 	{
-		return Collections.unmodifiableMap(this.properties);
+		Map<String, Object> properties = new LinkedHashMap<>();
+		for(int id = 0; id < this.values.length; id++)
+			if(this.primitive[id] || this.values[id] != null)
+				properties.put(PropertyKey.withId(id).getName(), this.valueAt(id));
+		return Collections.unmodifiableMap(properties);
 	}
 
 	/**
@@ -134,7 +177,21 @@ public abstract class AbstractEntity extends AbstractDrawable implements Entity
 	@Override
 	public Object getProperty(String ofName)
 	{
-		return this.properties.get(ofName);
+		return this.getProperty(PropertyKey.named(ofName));
+	}
+
+	/**
+	 * @param key
+	 * 		A key naming a property
+	 *
+	 * @return The value of that property, as the type of {@code key}
+	 */
+	@Override
+	public <T> T getProperty(PropertyKey<T> key)
+	{
+		int id = key.getId();
+		if(id >= this.values.length) return null;
+		return key.cast(this.valueAt(id));
 	}
 
 	/**
@@ -158,7 +215,20 @@ public abstract class AbstractEntity extends AbstractDrawable implements Entity
 	@Override
 	public boolean hasProperty(String ofName)
 	{
-		return this.properties.containsKey(ofName);
+		return this.hasProperty(PropertyKey.named(ofName));
+	}
+
+	/**
+	 * @param key
+	 * 		A key naming a possible property
+	 *
+	 * @return Whether that property has been assigned a value
+	 */
+	@Override
+	public boolean hasProperty(PropertyKey<?> key)
+	{
+		int id = key.getId();
+		return id < this.values.length && (this.primitive[id] || this.values[id] != null);
 	}
 
 	/**
@@ -170,9 +240,16 @@ public abstract class AbstractEntity extends AbstractDrawable implements Entity
 	@Override
 	public void onTick(long nanosSinceLastTick)
 	{
-		this.runOutput("!onTick", NMaps.of(
-				Pair.tuple("nanosSinceLastTick", (Evaluator) new Constant(Float.valueOf(nanosSinceLastTick)))));
-		//todo Evaluators.constant()
+		if(this.tickOutput == null) return;
+		EventArgs args = EventArgs.obtain();
+		args.putFloat("nanosSinceLastTick", nanosSinceLastTick);
+		try
+		{
+			this.tickOutput.run(args);
+		} finally
+		{
+			args.release();
+		}
 	}
 
 	/**
@@ -189,6 +266,27 @@ public abstract class AbstractEntity extends AbstractDrawable implements Entity
 	{
 		if(ofName.isEmpty() || ofName.charAt(0) == '!') return;
 		this.inputs.put(ofName, reaction);
+		Wiring.invalidate();
+	}
+
+	/**
+	 * Puts a single numeric property into this {@code Entity}'s property list, keeping it as a primitive. Ignores any
+	 * property name starting with an exclamation mark, or the empty string.
+	 *
+	 * @param key
+	 * 		A key naming a property
+	 * @param ofValue
+	 * 		The value this property should take
+	 */
+	@Override
+	public void putDouble(PropertyKey<Double> key, double ofValue)
+	{
+		if(AbstractEntity.isProtected(key)) return;
+		int id = key.getId();
+		this.ensureCapacity(id);
+		this.values[id] = null;
+		this.doubles[id] = ofValue;
+		this.primitive[id] = true;
 	}
 
 	/**
@@ -216,8 +314,22 @@ public abstract class AbstractEntity extends AbstractDrawable implements Entity
 	@Override
 	public void putProperty(String ofName, Object ofValue)
 	{
-		if(ofName.isEmpty() || ofName.charAt(0) == '!') return;
-		this.properties.put(ofName, ofValue);
+		this.putProperty(PropertyKey.named(ofName), ofValue);
+	}
+
+	/**
+	 * Puts a single property into this {@code Entity}'s property list. Setting a property to null removes it.
+	 *
+	 * @param key
+	 * 		A key naming a property, which cannot start with an exclamation mark, and cannot be the empty string
+	 * @param ofValue
+	 * 		The value this property should take
+	 */
+	@Override
+	public <T> void putProperty(PropertyKey<T> key, T ofValue)
+	{
+		if(AbstractEntity.isProtected(key)) return;
+		this.store(key, ofValue);
 	}
 
 	/**
@@ -229,12 +341,39 @@ public abstract class AbstractEntity extends AbstractDrawable implements Entity
 	@Override
 	public void removeProperty(String ofName)
 	{
-		if(ofName.isEmpty() || ofName.charAt(0) == '!') return;
-		this.properties.remove(ofName);
+		this.removeProperty(PropertyKey.named(ofName));
+	}
+
+	/**
+	 * Removes a single property from this {@code Entity}'s property list.
+	 *
+	 * @param key
+	 * 		A key naming a property, which cannot start with an exclamation mark, and cannot be the empty string
+	 */
+	@Override
+	public void removeProperty(PropertyKey<?> key)
+	{
+		if(AbstractEntity.isProtected(key)) return;
+		this.store(key, null);
 	}
 
 	/**
-	 * Connects the given {@code Output} by name to the Connection given
+	 * @param inputType
+	 * 		The name of an {@code Input}
+	 *
+	 * @return That {@code Input}, bound to the {@code Output} it fires
+	 */
+	@Override
+	public Invocation resolveInput(String inputType)
+	{
+		String outputName = Invocation.outputNameOf(inputType);
+		return new Invocation(this, inputType, this.inputs.get(inputType),
+				(outputName == null) ? null : this.outputs.get(outputName));
+	}
+
+	/**
+	 * Connects the given {@code Output} by name to the Connection given. The first {@code Connection} from an
+	 * {@code Output} subscribes this {@code Entity} to it, unless this {@code Entity} has been unsubscribed.
 	 *
 	 * @param output
 	 * 		The name of an {@code Output}
@@ -244,11 +383,15 @@ public abstract class AbstractEntity extends AbstractDrawable implements Entity
 	@Override
 	public void connect(final String output, final Connection conn)
 	{
-		if(this.outputs.containsKey(output))
+		if(!this.outputs.containsKey(output))
 		{
 			Output anOutput = new Output();
 			anOutput.connect(conn);
 			this.outputs.put(output, anOutput);
+			if(output.equals("!onTick")) this.tickOutput = anOutput;
+			else if(output.equals("!onDraw")) this.drawOutput = anOutput;
+			if(this.subscribed) Subscriptions.subscribe(output);
+			Wiring.invalidate();
 		} else this.outputs.get(output).connect(conn);
 	}
 
@@ -272,4 +415,107 @@ public abstract class AbstractEntity extends AbstractDrawable implements Entity
 	{
 		if(this.outputs.containsKey(ofName)) this.outputs.get(ofName).run(args);
 	}
+
+	/**
+	 * Causes an input to be performed as {@code doInput} does, but reports any failure to {@code InputErrors} rather
+	 * than throwing it.
+	 *
+	 * @param inputType
+	 * 		The name of the input
+	 * @param arguments
+	 * 		The arguments of the input
+	 *
+	 * @return Whether the input, and everything it fired, ran without failing
+	 */
+	@Override
+	public boolean tryInput(String inputType, Map<String, Evaluator> arguments)
+	{
+		return this.invocationOf(inputType).tryRun(arguments);
+	}
+
+	/**
+	 * Stops counting this {@code Entity} in {@code Subscriptions}, once for each {@code Output} it has connected.
+	 */
+	@Override
+	public void unsubscribe()
+	{
+		if(!this.subscribed) return;
+		this.subscribed = false;
+		for(String output : this.outputs.keySet())
+			Subscriptions.unsubscribe(output);
+	}
+
+	/**
+	 * Grows the property arrays of this {@code Entity}, if necessary, so that they have a slot for the given id.
+	 *
+	 * @param id
+	 * 		The id of a {@code PropertyKey}
+	 */
+	private void ensureCapacity(int id)
+	{
+		if(id < this.values.length) return;
+		int capacity = Math.max(id + 1, PropertyKey.count());
+		this.values = Arrays.copyOf(this.values, capacity);
+		this.doubles = Arrays.copyOf(this.doubles, capacity);
+		this.primitive = Arrays.copyOf(this.primitive, capacity);
+	}
+
+	/**
+	 * @param inputType
+	 * 		The name of an {@code Input}
+	 *
+	 * @return The {@code Invocation} of that {@code Input}, resolving it again if the {@code Wiring} has changed
+	 */
+	private Invocation invocationOf(String inputType)
+	{
+		Invocation invocation = this.invocations.get(inputType);
+		if(invocation == null || !invocation.isCurrent())
+		{
+			invocation = this.resolveInput(inputType);
+			this.invocations.put(inputType, invocation);
+		}
+		return invocation;
+	}
+
+	/**
+	 * Sets the value of a property directly, whatever its name.
+	 *
+	 * @param key
+	 * 		A key naming a property
+	 * @param ofValue
+	 * 		The value this property should take, or null to remove it
+	 */
+	private void store(PropertyKey<?> key, Object ofValue)
+	{
+		int id = key.getId();
+		if(ofValue == null && id >= this.values.length) return;
+		this.ensureCapacity(id);
+		this.values[id] = ofValue;
+		this.primitive[id] = false;
+	}
+
+	/**
+	 * @param id
+	 * 		The id of a {@code PropertyKey} with a slot in this {@code Entity}
+	 *
+	 * @return The value of that property, or null if it is not set
+	 */
+	private Object valueAt(int id)
+	{
+		if(this.primitive[id]) return this.doubles[id];
+		return this.values[id];
+	}
+
+	/**
+	 * @param key
+	 * 		A key naming a property
+	 *
+	 * @return Whether that property cannot be set from outside of this {@code Entity}: its name is empty or starts with
+	 * an exclamation mark
+	 */
+	private static boolean isProtected(PropertyKey<?> key)
+	{
+		String name = key.getName();
+		return name.isEmpty() || name.charAt(0) == '!';
+	}
 }
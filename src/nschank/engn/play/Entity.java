@@ -2,7 +2,9 @@ package nschank.engn.play;
 
 import nschank.engn.play.io.Connection;
 import nschank.engn.play.io.Input;
+import nschank.engn.play.io.Invocation;
 import nschank.engn.play.io.eval.Evaluator;
+import nschank.engn.play.univ.Universe;
 import nschank.engn.shape.Drawable;
 
 import java.util.Map;
@@ -11,7 +13,7 @@ import java.util.Map;
 /**
  * Created by Nicolas Schank for package nschank.engn.play
  * Created on 21 Oct 2013
- * Last updated on 29 May 2014
+ * Last updated on 3 Jul 2014
  *
  * Another central interface in the nschank.engn.play package.
  *
@@ -20,7 +22,8 @@ import java.util.Map;
  *
  * Properties are self explanatory, and are essentially a hashmap from String (property name) to Object underlying the
  * Entity. Properties have a few special characteristics, covered in putProperty and getProperty, which basically relate
- * to special naming rules.
+ * to special naming rules. A property may be named either by its String name or by a {@code PropertyKey} resolved
+ * ahead of time; the two are interchangeable, but a {@code PropertyKey} is much cheaper to look up.
  *
  * Outputs are the way that an Entity interacts with the World. They are represented by a String description (which also
  * has special naming rules) that are often called by the object internally in some way. The word "on" often proceeds an
@@ -54,10 +57,18 @@ import java.util.Map;
  * - !onTick			->	Must be called by the onTick(long) method, with one argument: nanosSinceLastTick->that long.
  *
  * @author nschank, Brown University
- * @version 4.6
+ * @version 5.0
  */
 public interface Entity extends Tickable, Drawable
 {
+	PropertyKey<Entity> SELF = PropertyKey.of("!self", Entity.class);
+	PropertyKey<Universe> UNIVERSE = PropertyKey.of("!universe", Universe.class);
+
+	/**
+	 * Resolves every {@code Connection} from every {@code Output} of this {@code Entity}, so that they run their
+	 * {@code Input}s directly.
+	 */
+	void compileWiring();
 	/**
 	 * Connects an output of the given name to an input using the given connection.
 	 *
@@ -96,6 +107,18 @@ public interface Entity extends Tickable, Drawable
 	 * @return All properties of this Entity as a map
 	 */
 	Map<String, Object> getProperties();
+	/**
+	 * Returns the value of a property as a primitive double, without boxing it where the value is already kept as one.
+	 *
+	 * @param key
+	 * 		A key naming a property whose value is a number
+	 *
+	 * @return The value of that property
+	 *
+	 * @throws NullPointerException
+	 * 		If that property is not set
+	 */
+	double getDouble(PropertyKey<Double> key);
 	/**
 	 * Returns the value of the property of a given name. Should return {@code null}, if that property is not set. Certain
 	 * properties should always return particular things, having been internally set:
@@ -108,6 +131,15 @@ public interface Entity extends Tickable, Drawable
 	 * @return The value of the property named {@code ofName}
 	 */
 	Object getProperty(String ofName);
+	/**
+	 * Identical to {@code getProperty(String)}, for a name resolved ahead of time.
+	 *
+	 * @param key
+	 * 		A key naming a property
+	 *
+	 * @return The value of that property, as the type of {@code key}
+	 */
+	<T> T getProperty(PropertyKey<T> key);
 	/**
 	 * Checks whether there is an {@code Input} registered under the name {@code ofName}
 	 *
@@ -127,6 +159,15 @@ public interface Entity extends Tickable, Drawable
 	 * {@code null}
 	 */
 	boolean hasProperty(String ofName);
+	/**
+	 * Identical to {@code hasProperty(String)}, for a name resolved ahead of time.
+	 *
+	 * @param key
+	 * 		A key naming a possible property
+	 *
+	 * @return Whether that property has been assigned a value
+	 */
+	boolean hasProperty(PropertyKey<?> key);
 	/**
 	 * Registers an {@code Input} to occur whenever the name {@code ofName} is called. Will replace any existing Input
 	 * of the name {@code ofName} that the {@code Entity} already has registered.
@@ -137,6 +178,15 @@ public interface Entity extends Tickable, Drawable
 	 * 		An {@code Input} that will be run on the name {@code ofName}
 	 */
 	void putInput(String ofName, Input reaction);
+	/**
+	 * Identical to {@code putProperty(PropertyKey, Double)}, but keeps the value as a primitive rather than boxing it.
+	 *
+	 * @param key
+	 * 		A key naming a property
+	 * @param ofValue
+	 * 		The new value of that property
+	 */
+	void putDouble(PropertyKey<Double> key, double ofValue);
 	/**
 	 * Calls putProperty for each mapping of a String to an Object in the given map of properties
 	 *
@@ -157,6 +207,15 @@ public interface Entity extends Tickable, Drawable
 	 * 		Any object
 	 */
 	void putProperty(String ofName, Object ofValue);
+	/**
+	 * Identical to {@code putProperty(String, Object)}, for a name resolved ahead of time.
+	 *
+	 * @param key
+	 * 		A key naming a property
+	 * @param ofValue
+	 * 		The new value of that property
+	 */
+	<T> void putProperty(PropertyKey<T> key, T ofValue);
 	/**
 	 * Removes the property {@code ofName} from the properties which this {@code Entity} holds on to. If the name does not
 	 * correspond to a property, does nothing.
@@ -165,6 +224,24 @@ public interface Entity extends Tickable, Drawable
 	 * 		The name of a property
 	 */
 	void removeProperty(String ofName);
+	/**
+	 * Identical to {@code removeProperty(String)}, for a name resolved ahead of time.
+	 *
+	 * @param key
+	 * 		A key naming a property
+	 */
+	void removeProperty(PropertyKey<?> key);
+	/**
+	 * Binds an {@code Input} of this {@code Entity} ahead of time. Running the {@code Invocation} must do exactly what
+	 * {@code doInput} would do with the same name and arguments, for as long as no {@code Input} or {@code Output} of
+	 * this {@code Entity} is registered or replaced.
+	 *
+	 * @param inputType
+	 * 		The name of an {@code Input}
+	 *
+	 * @return That {@code Input}, bound to the {@code Output} it fires
+	 */
+	Invocation resolveInput(String inputType);
 	/**
 	 * Runs the output of the given name using the given arguments.
 	 *
@@ -174,4 +251,21 @@ public interface Entity extends Tickable, Drawable
 	 * 		Arguments, as String/Evaluator pairs, to supply to that Output
 	 */
 	void runOutput(String ofName, Map<String, Evaluator> args);
+
+	/**
+	 * Identical to {@code doInput}, except that a failure is reported to {@code InputErrors} rather than thrown.
+	 *
+	 * @param inputType
+	 * 		The name. Often starts with "do" and, if it does, an output will be fired.
+	 * @param arguments
+	 * 		An argument name/value pairing map
+	 *
+	 * @return Whether the input, and everything it fired, ran without failing
+	 */
+	boolean tryInput(String inputType, Map<String, Evaluator> arguments);
+	/**
+	 * Stops counting this {@code Entity} in {@code Subscriptions}, once for each {@code Output} it has connected. Must
+	 * be called when this {@code Entity} is removed from its {@code Universe}; calling it again has no effect.
+	 */
+	void unsubscribe();
 }
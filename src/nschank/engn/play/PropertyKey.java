@@ -0,0 +1,185 @@
+package nschank.engn.play;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+
+/**
+ * Created by Nicolas Schank for package nschank.engn.play
+ * Created on 21 Jun 2014
+ * Last updated on 3 Jul 2014
+ *
+ * The name of a property of an {@code Entity}, resolved ahead of time. Every property name is interned the first time it
+ * is seen and given a small, permanent id, so that an {@code Entity} can keep its properties in arrays indexed by id,
+ * and looking up a property through a {@code PropertyKey} never hashes or compares a String.
+ *
+ * A {@code PropertyKey} also carries the type of the value it names, so that its value can be read without a cast.
+ * Several keys of different types may name the same property; they share an id, and are equal to one another.
+ *
+ * Keys should be made once, when a class or a level is loaded, and kept; looking up a property by its String name is
+ * still possible, but must intern the name every time.
+ *
+ * @author nschank, Brown University
+ * @version 1.1
+ */
+public final class PropertyKey<T>
+{
+	private static final Map<String, Integer> ids = new HashMap<>();
+	private static final List<PropertyKey<Object>> untyped = new ArrayList<>();
+
+	private final int id;
+	private final String name;
+	private final Class<T> type;
+
+	/**
+	 * @param id
+	 * 		The interned id of the name
+	 * @param name
+	 * 		The name of a property
+	 * @param type
+	 * 		The type of the value of that property
+	 */
+	private PropertyKey(int id, String name, Class<T> type)
+	{
+		this.id = id;
+		this.name = name;
+		this.type = type;
+	}
+
+	/**
+	 * @return The number of property names which have been interned so far; every id is less than this
+	 */
+	public static synchronized int count()
+	{
+		return PropertyKey.untyped.size();
+	}
+
+	/**
+	 * @param name
+	 * 		The name of a property
+	 *
+	 * @return A key for that property, whose value may be of any type
+	 */
+	public static synchronized PropertyKey<Object> named(String name)
+	{
+		Integer id = PropertyKey.ids.get(name);
+		if(id != null) return PropertyKey.untyped.get(id);
+
+		PropertyKey<Object> key = new PropertyKey<>(PropertyKey.untyped.size(), name, Object.class);
+		PropertyKey.ids.put(name, key.id);
+		PropertyKey.untyped.add(key);
+		return key;
+	}
+
+	/**
+	 * @param id
+	 * 		The id of an interned property name
+	 *
+	 * @return A key for that property, whose value may be of any type
+	 *
+	 * @throws IndexOutOfBoundsException
+	 * 		If no name has been given that id
+	 */
+	public static synchronized PropertyKey<Object> withId(int id)
+	{
+		return PropertyKey.untyped.get(id);
+	}
+
+	/**
+	 * @param name
+	 * 		The name of a property
+	 * @param type
+	 * 		The type of the value of that property
+	 *
+	 * @return A key for that property, whose value must be of the given type
+	 */
+	public static <T> PropertyKey<T> of(String name, Class<T> type)
+	{
+		return new PropertyKey<>(PropertyKey.named(name).id, name, type);
+	}
+
+	/**
+	 * @param name
+	 * 		The name of a property whose value is a Collection
+	 *
+	 * @return A key for that property, whose value must be a Collection; only the Collection itself is checked when a
+	 * value is cast, never its elements
+	 */
+	@SuppressWarnings("unchecked")
+	public static <E> PropertyKey<Collection<E>> ofCollection(String name)
+	{
+		//There is no Class for Collection<E>, only for its erasure Collection, which is the same class at runtime
+		return PropertyKey.of(name, (Class<Collection<E>>) (Class<?>) Collection.class);
+	}
+
+	/**
+	 * @param value
+	 * 		The value of the property this key names
+	 *
+	 * @return That value, as the type of this key
+	 *
+	 * @throws ClassCastException
+	 * 		If the value is not of the type of this key
+	 */
+	public T cast(Object value)
+	{
+		return this.type.cast(value);
+	}
+
+	/**
+	 * @param o
+	 * 		Any object
+	 *
+	 * @return Whether {@code o} is a {@code PropertyKey} naming the same property, whatever its type
+	 */
+	@Override
+	public boolean equals(Object o)
+	{
+		return (this == o) || ((o instanceof PropertyKey) && (((PropertyKey<?>) o).id == this.id));
+	}
+
+	/**
+	 * @return The interned id of the name of this key
+	 */
+	public int getId()
+	{
+		return this.id;
+	}
+
+	/**
+	 * @return The name of the property this key names
+	 */
+	public String getName()
+	{
+		return this.name;
+	}
+
+	/**
+	 * @return The type of the value of the property this key names
+	 */
+	public Class<T> getType()
+	{
+		return this.type;
+	}
+
+	/**
+	 * @return The id of this key, which is unique to its name
+	 */
+	@Override
+	public int hashCode()
+	{
+		return this.id;
+	}
+
+	/**
+	 * @return The name of the property this key names
+	 */
+	@Override
+	public String toString()
+	{
+		return this.name;
+	}
+}
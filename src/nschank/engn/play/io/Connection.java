@@ -3,7 +3,6 @@ package nschank.engn.play.io;
 
 import nschank.engn.play.Entity;
 import nschank.engn.play.io.eval.Evaluator;
-import nschank.util.NMaps;
 
 import java.util.HashMap;
 import java.util.Map;
@@ -12,18 +11,22 @@ import java.util.Map;
 /**
  * Created by Nicolas Schank for package nschank.engn.play.io
  * Created on 27 Oct 2013
- * Last updated on 3 Jun 2014
+ * Last updated on 23 Jun 2014
  *
- * A {@code Connection} is a way to connect
+ * A {@code Connection} is a way to connect an {@code Output} of one {@code Entity} to an {@code Input} of another. It is
+ * resolved to an {@code Invocation} of that {@code Input} the first time it runs, and again whenever the
+ * {@code Wiring} has changed since. Its own arguments are laid over those it is run with, rather than merged into a copy.
  *
  * @author nschank, Brown University
- * @version 1.5
+ * @version 1.7
  */
 public final class Connection
 {
 	private final Entity target;
 	private final String action;
 	private final Map<String, Evaluator> args;
+	private Invocation invocation;
+	private int version;
 
 	/**
 	 * @param target
@@ -34,6 +37,8 @@ public final class Connection
 		this.target = target;
 		this.action = action;
 		this.args = new HashMap<>();
+		this.invocation = null;
+		this.version = -1;
 	}
 
 	/**
@@ -46,6 +51,8 @@ public final class Connection
 		this.target = target;
 		this.action = action;
 		this.args = new HashMap<>(args);
+		this.invocation = null;
+		this.version = -1;
 	}
 
 	/**
@@ -57,11 +64,29 @@ public final class Connection
 		this.args.put(argumentName, argumentValue);
 	}
 
+	/**
+	 * Resolves the {@code Input} this {@code Connection} runs, and the {@code Output} that {@code Input} fires.
+	 */
+	public void compile()
+	{
+		this.version = Wiring.version();
+		this.invocation = this.target.resolveInput(this.action);
+	}
+
 	/**
 	 * @param additionalArgs
+	 * 		Arguments given by the {@code Output}, which are overridden by those of this {@code Connection}
 	 */
 	public void run(Map<String, Evaluator> additionalArgs)
 	{
-		this.target.doInput(this.action, NMaps.union(additionalArgs, this.args));
+		if(this.version != Wiring.version()) this.compile();
+		EventArgs args = EventArgs.obtain(this.args, additionalArgs);
+		try
+		{
+			this.invocation.run(args);
+		} finally
+		{
+			args.release();
+		}
 	}
 }
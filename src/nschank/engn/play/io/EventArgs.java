@@ -0,0 +1,350 @@
+package nschank.engn.play.io;
+
+import nschank.engn.play.Entity;
+import nschank.engn.play.io.eval.Evaluator;
+
+import java.util.AbstractMap;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+
+
+/**
+ * Created by Nicolas Schank for package nschank.engn.play.io
+ * Created on 23 Jun 2014
+ * Last updated on 3 Jul 2014
+ *
+ * The arguments of a single event, as passed from an {@code Output} through its {@code Connection}s to their
+ * {@code Input}s. Rather than merging the arguments of each step into a new map, an {@code EventArgs} lays its own
+ * arguments over up to two other maps, and looks an argument up in each in turn, so no map is ever copied.
+ *
+ * Its own arguments are kept in a small flat array. Argument names are almost always String literals, so they are
+ * compared by reference before they are compared by value. A value given through putValue, putDouble or putFloat is
+ * held in an Evaluator owned by the {@code EventArgs} and reused, and a number is only boxed if it is evaluated.
+ *
+ * {@code EventArgs} are pooled: obtain one, fill it, dispatch the event, and release it. An {@code EventArgs}, and every
+ * Evaluator it holds, must not be kept after the event it was obtained for; it will be reused by the next event. An
+ * event which must outlive its dispatch should keep a copy instead.
+ *
+ * Putting or removing an argument only changes this {@code EventArgs}, never the maps beneath it; a removed argument is
+ * hidden rather than deleted. Iterating over an {@code EventArgs} copies its arguments, and should be left to debugging.
+ *
+ * @author nschank, Brown University
+ * @version 1.2
+ */
+public final class EventArgs extends AbstractMap<String, Evaluator>
+{
+	private static final int MAX_POOLED = 64;
+	private static final Deque<EventArgs> pool = new ArrayDeque<>();
+
+	private String[] names;
+	private Evaluator[] values;
+	private Value[] owned;
+	private int size;
+	private Map<String, Evaluator> first;
+	private Map<String, Evaluator> second;
+
+	/**
+	 * Creates an empty {@code EventArgs}; use {@code obtain} instead.
+	 */
+	private EventArgs()
+	{
+		this.names = new String[4];
+		this.values = new Evaluator[4];
+		this.owned = new Value[4];
+		this.size = 0;
+		this.first = null;
+		this.second = null;
+	}
+
+	/**
+	 * @return An empty {@code EventArgs}, from the pool if one is free
+	 */
+	public static EventArgs obtain()
+	{
+		EventArgs args = EventArgs.pool.pollFirst();
+		return (args == null) ? new EventArgs() : args;
+	}
+
+	/**
+	 * @param over
+	 * 		Arguments which take precedence, or null
+	 * @param under
+	 * 		Arguments used wherever {@code over} does not have one, or null
+	 *
+	 * @return An {@code EventArgs} with no arguments of its own, laid over the given maps
+	 */
+	public static EventArgs obtain(Map<String, Evaluator> over, Map<String, Evaluator> under)
+	{
+		EventArgs args = EventArgs.obtain();
+		args.first = over;
+		args.second = under;
+		return args;
+	}
+
+	/**
+	 * @param args
+	 * 		Any arguments, including another {@code EventArgs}
+	 *
+	 * @return An {@code EventArgs} with a copy of every argument given in {@code args}, which remains valid after
+	 * {@code args} has been released or changed
+	 */
+	public static EventArgs copyOf(Map<String, Evaluator> args)
+	{
+		EventArgs copy = EventArgs.obtain();
+		for(Entry<String, Evaluator> arg : args.entrySet())
+		{
+			//An owned value is replaced by the next event, so its current value is kept instead
+			if(arg.getValue() instanceof Value) copy.putValue(arg.getKey(), arg.getValue().eval(null, null));
+			else copy.put(arg.getKey(), arg.getValue());
+		}
+		return copy;
+	}
+
+	/**
+	 * Removes every argument of this {@code EventArgs}, and every map beneath it.
+	 */
+	@Override
+	public void clear()
+	{
+		for(int i = 0; i < this.size; i++)
+		{
+			this.names[i] = null;
+			this.values[i] = null;
+			if(this.owned[i] != null) this.owned[i].object = null;
+		}
+		this.size = 0;
+		this.first = null;
+		this.second = null;
+	}
+
+	/**
+	 * @param key
+	 * 		The name of an argument
+	 *
+	 * @return Whether that argument is given and not hidden
+	 */
+	@Override
+	public boolean containsKey(Object key)
+	{
+		int i = this.indexOf(key);
+		if(i >= 0) return this.values[i] != null;
+		return (this.first != null && this.first.containsKey(key)) || (this.second != null && this.second.containsKey(
+				key));
+	}
+
+	/**
+	 * @return A copy of every argument which is given and not hidden
+	 */
+	@Override
+	public Set<Entry<String, Evaluator>> entrySet()
+	{
+		Map<String, Evaluator> flattened = new LinkedHashMap<>();
+		if(this.second != null) flattened.putAll(this.second);
+		if(this.first != null) flattened.putAll(this.first);
+		for(int i = 0; i < this.size; i++)
+			flattened.put(this.names[i], this.values[i]);
+		flattened.values().removeAll(Collections.singleton(null));
+		return Collections.unmodifiableMap(flattened).entrySet();
+	}
+
+	/**
+	 * @param key
+	 * 		The name of an argument
+	 *
+	 * @return The value of that argument: this {@code EventArgs}'s own if it has one, or else that of the first map
+	 * beneath it which has one; null if it is not given or is hidden
+	 */
+	@Override
+	public Evaluator get(Object key)
+	{
+		int i = this.indexOf(key);
+		if(i >= 0) return this.values[i];
+
+		Evaluator value = (this.first == null) ? null : this.first.get(key);
+		if(value == null && this.second != null) value = this.second.get(key);
+		return value;
+	}
+
+	/**
+	 * @param key
+	 * 		The name of an argument
+	 * @param value
+	 * 		The value of that argument, laid over any value beneath it
+	 *
+	 * @return The previous value of that argument, if any
+	 */
+	@Override
+	public Evaluator put(String key, Evaluator value)
+	{
+		Evaluator previous = this.get(key);
+		this.values[this.slotOf(key)] = value;
+		return previous;
+	}
+
+	/**
+	 * Gives an argument a numeric value, without boxing it unless it is evaluated.
+	 *
+	 * @param key
+	 * 		The name of an argument
+	 * @param value
+	 * 		The value of that argument, which evaluates to a Double
+	 */
+	public void putDouble(String key, double value)
+	{
+		Value owned = this.ownedAt(this.slotOf(key));
+		owned.object = null;
+		owned.number = value;
+		owned.kind = Value.DOUBLE;
+	}
+
+	/**
+	 * Gives an argument a numeric value, without boxing it unless it is evaluated.
+	 *
+	 * @param key
+	 * 		The name of an argument
+	 * @param value
+	 * 		The value of that argument, which evaluates to a Float
+	 */
+	public void putFloat(String key, float value)
+	{
+		Value owned = this.ownedAt(this.slotOf(key));
+		owned.object = null;
+		owned.number = value;
+		owned.kind = Value.FLOAT;
+	}
+
+	/**
+	 * Gives an argument a constant value, without creating an Evaluator for it.
+	 *
+	 * @param key
+	 * 		The name of an argument
+	 * @param value
+	 * 		The value that argument evaluates to
+	 */
+	public void putValue(String key, Object value)
+	{
+		Value owned = this.ownedAt(this.slotOf(key));
+		owned.object = value;
+		owned.kind = Value.OBJECT;
+	}
+
+	/**
+	 * Returns this {@code EventArgs} to the pool. It must not be used again.
+	 */
+	public void release()
+	{
+		this.clear();
+		if(EventArgs.pool.size() < MAX_POOLED) EventArgs.pool.addFirst(this);
+	}
+
+	/**
+	 * Hides an argument, whether it is this {@code EventArgs}'s own or is given beneath it.
+	 *
+	 * @param key
+	 * 		The name of an argument
+	 *
+	 * @return The previous value of that argument, if any
+	 */
+	@Override
+	public Evaluator remove(Object key)
+	{
+		if(!(key instanceof String)) return null;
+		Evaluator previous = this.get(key);
+		if(previous != null) this.values[this.slotOf((String) key)] = null;
+		return previous;
+	}
+
+	/**
+	 * @param key
+	 * 		The name of an argument
+	 *
+	 * @return The index of that argument among this {@code EventArgs}'s own, or -1 if it has no such argument
+	 */
+	private int indexOf(Object key)
+	{
+		for(int i = 0; i < this.size; i++)
+			if(this.names[i] == key) return i;
+		for(int i = 0; i < this.size; i++)
+			if(this.names[i].equals(key)) return i;
+		return -1;
+	}
+
+	/**
+	 * Makes the value of the given argument an Evaluator owned by this {@code EventArgs}, creating it if necessary.
+	 *
+	 * @param i
+	 * 		The index of one of this {@code EventArgs}'s own arguments
+	 *
+	 * @return The Evaluator owned by that argument
+	 */
+	private Value ownedAt(int i)
+	{
+		if(this.owned[i] == null) this.owned[i] = new Value();
+		this.values[i] = this.owned[i];
+		return this.owned[i];
+	}
+
+	/**
+	 * @param key
+	 * 		The name of an argument
+	 *
+	 * @return The index of that argument among this {@code EventArgs}'s own, adding it if it is not yet one
+	 */
+	private int slotOf(String key)
+	{
+		int i = this.indexOf(key);
+		if(i >= 0) return i;
+
+		if(this.size == this.names.length)
+		{
+			this.names = Arrays.copyOf(this.names, this.size * 2);
+			this.values = Arrays.copyOf(this.values, this.size * 2);
+			this.owned = Arrays.copyOf(this.owned, this.size * 2);
+		}
+		this.names[this.size] = key;
+		this.values[this.size] = null;
+		return this.size++;
+	}
+
+	/**
+	 * An Evaluator owned by an {@code EventArgs}, whose value is replaced from one event to the next. A number is kept
+	 * as a primitive, and is only boxed when it is evaluated.
+	 */
+	private static final class Value implements Evaluator
+	{
+		private static final byte OBJECT = 0;
+		private static final byte FLOAT = 1;
+		private static final byte DOUBLE = 2;
+
+		private Object object;
+		private double number;
+		private byte kind;
+
+		/**
+		 * @param args
+		 * 		Unused
+		 * @param e
+		 * 		Unused
+		 *
+		 * @return The current value
+		 */
+		@Override
+		public Object eval(Map<String, Evaluator> args, Entity e)
+		{
+			switch(this.kind)
+			{
+				case FLOAT:
+					return (float) this.number;
+				case DOUBLE:
+					return this.number;
+				default:
+					return this.object;
+			}
+		}
+	}
+}
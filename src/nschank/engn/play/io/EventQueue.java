@@ -0,0 +1,197 @@
+package nschank.engn.play.io;
+
+import nschank.engn.play.io.eval.Evaluator;
+
+import java.util.Arrays;
+import java.util.Map;
+
+
+/**
+ * Created by Nicolas Schank for package nschank.engn.play.io
+ * Created on 24 Jun 2014
+ * Last updated on 3 Jul 2014
+ *
+ * A Utility class which, once enabled, defers the firing of every {@code Output}. Rather than running each of its
+ * {@code Connection}s at once, on the same stack as whatever fired it, an {@code Output} adds one event per
+ * {@code Connection} to the back of a ring buffer; the game loop then drains the queue once per tick, after every
+ * {@code Entity} has ticked.
+ *
+ * Events are run in the order they were fired, so a cascade of {@code Output}s is run breadth-first. At most a fixed
+ * budget of events is run each tick; any others wait, in order, for the next. A long chain reaction is thereby spread
+ * over several ticks rather than run within one.
+ *
+ * Every event remembers the event whose {@code Input} fired it. An event which would run a {@code Connection} already
+ * run by one of its own causes is part of a cycle, which would otherwise never end; it is dropped and counted, rather
+ * than thrown, so that breaking a cycle never stops the rest of the queue from running.
+ *
+ * @author nschank, Brown University
+ * @version 1.2
+ */
+public final class EventQueue
+{
+	private static final int DEFAULT_BUDGET = 256;
+
+	private static boolean enabled = false;
+	private static int budget = EventQueue.DEFAULT_BUDGET;
+	private static Event[] events = new Event[64];
+	private static int head = 0;
+	private static int size = 0;
+	private static Event running = null;
+	private static int brokenCycles = 0;
+
+	/**
+	 *
+	 */
+	private EventQueue()
+	{
+		//Utility class
+	}
+
+	/**
+	 * @return How many events have been dropped for being part of a cycle
+	 */
+	public static int brokenCycles()
+	{
+		return EventQueue.brokenCycles;
+	}
+
+	/**
+	 * Stops deferring {@code Output}s; each will run its {@code Connection}s at once, as it fires. Any events already
+	 * queued are still run by {@code drain}.
+	 */
+	public static void disable()
+	{
+		EventQueue.enabled = false;
+	}
+
+	/**
+	 * Runs queued events, in the order they were fired, until the queue is empty or the budget for this tick is spent.
+	 * Events fired by these events are added to the back of the queue, and may be run in this same call.
+	 *
+	 * @throws OutputFailureException
+	 * 		If an event fails to run; every other event remains queued
+	 */
+	public static void drain()
+	{
+		for(int ran = 0; ran < EventQueue.budget && EventQueue.size > 0; ran++)
+		{
+			Event event = EventQueue.events[EventQueue.head];
+			EventQueue.events[EventQueue.head] = null;
+			EventQueue.head = (EventQueue.head + 1) % EventQueue.events.length;
+			EventQueue.size--;
+
+			EventQueue.running = event;
+			try
+			{
+				event.connection.run(event.args);
+			} catch(Throwable t)
+			{
+				throw new OutputFailureException("A queued output failed to run correctly. " + t);
+			} finally
+			{
+				EventQueue.running = null;
+				event.args.release();
+				event.args = null;
+			}
+		}
+	}
+
+	/**
+	 * Defers every {@code Output} from now on, until disabled.
+	 *
+	 * @param eventsPerTick
+	 * 		The most events which may be run by one call to {@code drain}
+	 */
+	public static void enable(int eventsPerTick)
+	{
+		if(eventsPerTick <= 0) throw new IllegalArgumentException("At least one event must be run per tick.");
+		EventQueue.budget = eventsPerTick;
+		EventQueue.enabled = true;
+	}
+
+	/**
+	 * Defers every {@code Output} from now on, until disabled, running a default number of events per tick.
+	 */
+	public static void enable()
+	{
+		EventQueue.enable(EventQueue.DEFAULT_BUDGET);
+	}
+
+	/**
+	 * @return Whether {@code Output}s are currently deferred
+	 */
+	public static boolean isEnabled()
+	{
+		return EventQueue.enabled;
+	}
+
+	/**
+	 * @return How many events are waiting to be run
+	 */
+	public static int pending()
+	{
+		return EventQueue.size;
+	}
+
+	/**
+	 * Queues the running of a {@code Connection}, with a copy of the given arguments, unless it has already been run by
+	 * one of the events which caused this one; it is then part of a cycle, and is dropped and counted instead.
+	 *
+	 * @param connection
+	 * 		A {@code Connection} from an {@code Output} which has fired
+	 * @param args
+	 * 		The arguments it was fired with
+	 */
+	static void enqueue(Connection connection, Map<String, Evaluator> args)
+	{
+		for(Event cause = EventQueue.running; cause != null; cause = cause.cause)
+			if(cause.connection == connection)
+			{
+				EventQueue.brokenCycles++;
+				return;
+			}
+
+		if(EventQueue.size == EventQueue.events.length) EventQueue.grow();
+		EventQueue.events[(EventQueue.head + EventQueue.size) % EventQueue.events.length] = new Event(connection,
+				EventArgs.copyOf(args), EventQueue.running);
+		EventQueue.size++;
+	}
+
+	/**
+	 * Doubles the length of the ring buffer, moving every queued event to the front of it.
+	 */
+	private static void grow()
+	{
+		Event[] grown = new Event[EventQueue.events.length * 2];
+		for(int i = 0; i < EventQueue.size; i++)
+			grown[i] = EventQueue.events[(EventQueue.head + i) % EventQueue.events.length];
+		Arrays.fill(EventQueue.events, null);
+		EventQueue.events = grown;
+		EventQueue.head = 0;
+	}
+
+	/**
+	 * A single queued run of a {@code Connection}, and the event, if any, whose {@code Input} caused it.
+	 */
+	private static final class Event
+	{
+		private final Connection connection;
+		private final Event cause;
+		private EventArgs args;
+
+		/**
+		 * @param connection
+		 * 		The {@code Connection} to run
+		 * @param args
+		 * 		The arguments to run it with, owned by this {@code Event}
+		 * @param cause
+		 * 		The event whose {@code Input} fired this one, or null
+		 */
+		private Event(Connection connection, EventArgs args, Event cause)
+		{
+			this.connection = connection;
+			this.args = args;
+			this.cause = cause;
+		}
+	}
+}
@@ -0,0 +1,99 @@
+package nschank.engn.play.io;
+
+import com.google.common.base.Optional;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+
+/**
+ * Created by Nicolas Schank for package nschank.engn.play.io
+ * Created on 26 Jun 2014
+ * Last updated on 26 Jun 2014
+ *
+ * A Utility class to which every failing {@code Input} is reported. It counts how often the {@code Input}s of each name
+ * have failed, and keeps the most recent failure, so that failures can be watched without building a message for each
+ * one; a message is only built when a failure is actually printed.
+ *
+ * @author nschank, Brown University
+ * @version 1.0
+ */
+public final class InputErrors
+{
+	private static final Map<String, int[]> counts = new HashMap<>();
+	private static int total = 0;
+	private static InputFailureException last = null;
+
+	/**
+	 *
+	 */
+	private InputErrors()
+	{
+		//Utility class
+	}
+
+	/**
+	 * Forgets every failure reported so far.
+	 */
+	public static void clear()
+	{
+		InputErrors.counts.clear();
+		InputErrors.total = 0;
+		InputErrors.last = null;
+	}
+
+	/**
+	 * @return The number of failures of {@code Input}s of each name, by that name
+	 */
+	public static Map<String, Integer> counts()
+	{
+		Map<String, Integer> snapshot = new HashMap<>();
+		for(Map.Entry<String, int[]> count : InputErrors.counts.entrySet())
+			snapshot.put(count.getKey(), count.getValue()[0]);
+		return Collections.unmodifiableMap(snapshot);
+	}
+
+	/**
+	 * @param inputName
+	 * 		The name of an {@code Input}
+	 *
+	 * @return How many times {@code Input}s of that name have failed
+	 */
+	public static int countOf(String inputName)
+	{
+		int[] count = InputErrors.counts.get(inputName);
+		return (count == null) ? 0 : count[0];
+	}
+
+	/**
+	 * @return The most recent failure, if any
+	 */
+	public static Optional<InputFailureException> last()
+	{
+		return Optional.fromNullable(InputErrors.last);
+	}
+
+	/**
+	 * @return How many times any {@code Input} has failed
+	 */
+	public static int total()
+	{
+		return InputErrors.total;
+	}
+
+	/**
+	 * Records a failure of an {@code Input}.
+	 *
+	 * @param failure
+	 * 		The failure, naming the {@code Input} which failed
+	 */
+	static void report(InputFailureException failure)
+	{
+		int[] count = InputErrors.counts.get(failure.getInputName());
+		if(count == null) InputErrors.counts.put(failure.getInputName(), new int[]{1});
+		else count[0]++;
+		InputErrors.total++;
+		InputErrors.last = failure;
+	}
+}
@@ -3,18 +3,54 @@ package nschank.engn.play.io;
 /**
  * Created by Nicolas Schank for package nschank.engn.play.io
  * Created on 7 Nov 2013
- * Last updated on 3 Jun 2014
+ * Last updated on 26 Jun 2014
+ *
+ * Thrown when an {@code Input} fails to run. A failure raised by dispatch names the {@code Input} which failed and keeps
+ * what caused it; its message is only built if it is asked for.
  *
  * @author nschank, Brown University
- * @version 1.1
+ * @version 1.2
  */
 public class InputFailureException extends RuntimeException
 {
+	private final String inputName;
+
 	/**
 	 * @param s
 	 */
 	public InputFailureException(String s)
 	{
 		super(s);
+		this.inputName = null;
+	}
+
+	/**
+	 * @param inputName
+	 * 		The name of the {@code Input} which failed
+	 * @param cause
+	 * 		Whatever the {@code Input} threw
+	 */
+	public InputFailureException(String inputName, Throwable cause)
+	{
+		super(null, cause);
+		this.inputName = inputName;
+	}
+
+	/**
+	 * @return The name of the {@code Input} which failed, or null if it is not known
+	 */
+	public String getInputName()
+	{
+		return this.inputName;
+	}
+
+	/**
+	 * @return A description of this failure
+	 */
+	@Override
+	public String getMessage()
+	{
+		if(this.inputName == null) return super.getMessage();
+		return "The input " + this.inputName + " failed to run correctly. " + this.getCause();
 	}
 }
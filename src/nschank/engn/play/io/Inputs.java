@@ -5,24 +5,24 @@ import nschank.collect.dim.Dimensional;
 import nschank.collect.dim.Vector;
 import nschank.engn.play.Entity;
 import nschank.engn.play.io.eval.Evaluator;
+import nschank.engn.play.phys.GroupKind;
 import nschank.engn.play.phys.PhysicsEntity;
 import nschank.engn.play.univ.Universe;
 import nschank.util.NMaps;
 
-import java.util.Collection;
 import java.util.Map;
 
 
 /**
  * Created by Nicolas Schank for package nschank.engn.play.io
  * Created on 4 Nov 2013
- * Last updated on 2 Jun 2014
+ * Last updated on 3 Jul 2014
  *
  * A Utility class containing implementations of many default {@code Input}s required by {@code Entity} and
  * {@code PhysicsEntity}. Also a few basic utility methods.
  *
  * @author nschank, Brown University
- * @version 2.6
+ * @version 3.0
  */
 public final class Inputs
 {
@@ -35,11 +35,11 @@ public final class Inputs
 	 * An implementation of the !addToBoundary {@code Input}, as required by {@code PhysicsEntity}.
 	 *
 	 * @param entity
-	 * 		The {@code Entity} whose !addToBoundary {@code Input} is being made
+	 * 		The {@code PhysicsEntity} whose !addToBoundary {@code Input} is being made
 	 *
 	 * @return The {@code Input} to register under !addToBoundary
 	 */
-	public static Input addToBoundary(final Entity entity)
+	public static Input addToBoundary(final PhysicsEntity entity)
 	{
 		return new Input()
 		{
@@ -47,9 +47,7 @@ public final class Inputs
 			public void run(Map<String, Evaluator> args)
 			{
 				double group = ((Double) args.get("group").eval(args, entity));
-				Collection<Double> n = (Collection<Double>) entity.getProperty(":boundaryGroups");
-				n.add(group);
-				entity.putProperty(":boundaryGroups", n);
+				entity.addToGroup(GroupKind.BOUNDARY, group);
 			}
 		};
 	}
@@ -58,11 +56,11 @@ public final class Inputs
 	 * An implementation of the !addToCollisionGroup {@code Input}, as required by {@code PhysicsEntity}.
 	 *
 	 * @param entity
-	 * 		The {@code Entity} whose !addToCollisionGroup {@code Input} is being made
+	 * 		The {@code PhysicsEntity} whose !addToCollisionGroup {@code Input} is being made
 	 *
 	 * @return The {@code Input} to register under !addToCollisionGroup
 	 */
-	public static Input addToCollisionGroup(final Entity entity)
+	public static Input addToCollisionGroup(final PhysicsEntity entity)
 	{
 		return new Input()
 		{
@@ -70,9 +68,7 @@ public final class Inputs
 			public void run(Map<String, Evaluator> args)
 			{
 				double group = ((Double) args.get("group").eval(args, entity));
-				Collection<Double> n = (Collection<Double>) entity.getProperty(":collisionGroups");
-				n.add(group);
-				entity.putProperty(":collisionGroups", n);
+				entity.addToGroup(GroupKind.COLLISION, group);
 			}
 		};
 	}
@@ -81,11 +77,11 @@ public final class Inputs
 	 * An implementation of the !addToForceGroup {@code Input}, as required by {@code PhysicsEntity}.
 	 *
 	 * @param entity
-	 * 		The {@code Entity} whose !addToForceGroup {@code Input} is being made
+	 * 		The {@code PhysicsEntity} whose !addToForceGroup {@code Input} is being made
 	 *
 	 * @return The {@code Input} to register under !addToForceGroup
 	 */
-	public static Input addToForceGroup(final Entity entity)
+	public static Input addToForceGroup(final PhysicsEntity entity)
 	{
 		return new Input()
 		{
@@ -93,9 +89,7 @@ public final class Inputs
 			public void run(Map<String, Evaluator> args)
 			{
 				double group = ((Double) args.get("group").eval(args, entity));
-				Collection<Double> n = (Collection<Double>) entity.getProperty(":forceGroups");
-				n.add(group);
-				entity.putProperty(":forceGroups", n);
+				entity.addToGroup(GroupKind.FORCE, group);
 			}
 		};
 	}
@@ -104,11 +98,11 @@ public final class Inputs
 	 * An implementation of the !addToRayGroup {@code Input}, as required by {@code PhysicsEntity}.
 	 *
 	 * @param entity
-	 * 		The {@code Entity} whose !addToRayGroup {@code Input} is being made
+	 * 		The {@code PhysicsEntity} whose !addToRayGroup {@code Input} is being made
 	 *
 	 * @return The {@code Input} to register under !addToRayGroup
 	 */
-	public static Input addToRayGroup(final Entity entity)
+	public static Input addToRayGroup(final PhysicsEntity entity)
 	{
 		return new Input()
 		{
@@ -116,9 +110,7 @@ public final class Inputs
 			public void run(Map<String, Evaluator> args)
 			{
 				double group = ((Double) args.get("group").eval(args, entity));
-				Collection<Double> n = (Collection<Double>) entity.getProperty(":rayGroups");
-				n.add(group);
-				entity.putProperty(":rayGroups", n);
+				entity.addToGroup(GroupKind.RAY, group);
 			}
 		};
 	}
@@ -205,7 +197,7 @@ public final class Inputs
 			@Override
 			public void run(Map<String, Evaluator> args)
 			{
-				Universe myUniverse = (Universe) entity.getProperty("!universe");
+				Universe myUniverse = entity.getProperty(Entity.UNIVERSE);
 				myUniverse.removePhysicsEntity(entity);
 			}
 		};
@@ -226,7 +218,8 @@ public final class Inputs
 			@Override
 			public void run(Map<String, Evaluator> args)
 			{
-				((Universe) entity.getProperty("!universe")).removeEntity(entity);
+				(entity.getProperty(Entity.UNIVERSE)).removeEntity(entity);
+				entity.unsubscribe();
 			}
 		};
 	}
@@ -292,11 +285,11 @@ public final class Inputs
 	 * An implementation of the !removeFromBoundary {@code Input}, as required by {@code PhysicsEntity}.
 	 *
 	 * @param entity
-	 * 		The {@code Entity} whose !removeFromBoundary {@code Input} is being made
+	 * 		The {@code PhysicsEntity} whose !removeFromBoundary {@code Input} is being made
 	 *
 	 * @return The {@code Input} to register under !removeFromBoundary
 	 */
-	public static Input removeFromBoundary(final Entity entity)
+	public static Input removeFromBoundary(final PhysicsEntity entity)
 	{
 		return new Input()
 		{
@@ -304,9 +297,7 @@ public final class Inputs
 			public void run(Map<String, Evaluator> args)
 			{
 				double group = ((Double) args.get("group").eval(args, entity));
-				Collection<Double> n = (Collection<Double>) entity.getProperty(":boundaryGroups");
-				n.remove(group);
-				entity.putProperty(":boundaryGroups", n);
+				entity.removeFromGroup(GroupKind.BOUNDARY, group);
 			}
 		};
 	}
@@ -315,11 +306,11 @@ public final class Inputs
 	 * An implementation of the !removeFromCollisionGroup {@code Input}, as required by {@code PhysicsEntity}.
 	 *
 	 * @param entity
-	 * 		The {@code Entity} whose !removeFromCollisionGroup {@code Input} is being made
+	 * 		The {@code PhysicsEntity} whose !removeFromCollisionGroup {@code Input} is being made
 	 *
 	 * @return The {@code Input} to register under !removeFromCollisionGroup
 	 */
-	public static Input removeFromCollisionGroup(final Entity entity)
+	public static Input removeFromCollisionGroup(final PhysicsEntity entity)
 	{
 		return new Input()
 		{
@@ -327,9 +318,7 @@ public final class Inputs
 			public void run(Map<String, Evaluator> args)
 			{
 				double group = ((Double) args.get("group").eval(args, entity));
-				Collection<Double> n = (Collection<Double>) entity.getProperty(":collisionGroups");
-				n.remove(group);
-				entity.putProperty(":collisionGroups", n);
+				entity.removeFromGroup(GroupKind.COLLISION, group);
 			}
 		};
 	}
@@ -338,11 +327,11 @@ public final class Inputs
 	 * An implementation of the !removeFromForceGroup {@code Input}, as required by {@code PhysicsEntity}.
 	 *
 	 * @param entity
-	 * 		The {@code Entity} whose !removeFromForceGroup {@code Input} is being made
+	 * 		The {@code PhysicsEntity} whose !removeFromForceGroup {@code Input} is being made
 	 *
 	 * @return The {@code Input} to register under !removeFromForceGroup
 	 */
-	public static Input removeFromForceGroup(final Entity entity)
+	public static Input removeFromForceGroup(final PhysicsEntity entity)
 	{
 		return new Input()
 		{
@@ -350,9 +339,7 @@ public final class Inputs
 			public void run(Map<String, Evaluator> args)
 			{
 				double group = ((Double) args.get("group").eval(args, entity));
-				Collection<Double> n = (Collection<Double>) entity.getProperty(":forceGroups");
-				n.remove(group);
-				entity.putProperty(":forceGroups", n);
+				entity.removeFromGroup(GroupKind.FORCE, group);
 			}
 		};
 	}
@@ -361,11 +348,11 @@ public final class Inputs
 	 * An implementation of the !removeFromRayGroup {@code Input}, as required by {@code PhysicsEntity}.
 	 *
 	 * @param entity
-	 * 		The {@code Entity} whose !removeFromRayGroup {@code Input} is being made
+	 * 		The {@code PhysicsEntity} whose !removeFromRayGroup {@code Input} is being made
 	 *
 	 * @return The {@code Input} to register under !removeFromRayGroup
 	 */
-	public static Input removeFromRayGroup(final Entity entity)
+	public static Input removeFromRayGroup(final PhysicsEntity entity)
 	{
 		return new Input()
 		{
@@ -373,9 +360,7 @@ public final class Inputs
 			public void run(Map<String, Evaluator> args)
 			{
 				double group = ((Double) args.get("group").eval(args, entity));
-				Collection<Double> n = (Collection<Double>) entity.getProperty(":rayGroups");
-				n.remove(group);
-				entity.putProperty(":rayGroups", n);
+				entity.removeFromGroup(GroupKind.RAY, group);
 			}
 		};
 	}
@@ -0,0 +1,158 @@
+package nschank.engn.play.io;
+
+import nschank.engn.play.Entity;
+import nschank.engn.play.io.eval.Evaluator;
+
+import java.util.Map;
+
+
+/**
+ * Created by Nicolas Schank for package nschank.engn.play.io
+ * Created on 22 Jun 2014
+ * Last updated on 3 Jul 2014
+ *
+ * An {@code Input} of a particular {@code Entity}, bound ahead of time along with the {@code Output} it fires
+ * afterwards. Running an {@code Invocation} does exactly what {@code doInput} does for the same name, but without
+ * looking up the {@code Input}, or building and looking up the name of its {@code Output}.
+ *
+ * An {@code Invocation} is only correct until the {@code Input}s or {@code Output}s of its {@code Entity} change; see
+ * {@code Wiring}.
+ *
+ * A failing {@code Input} is reported to {@code InputErrors} before its failure is thrown; {@code tryRun} reports it
+ * without throwing. A failure within an {@code Input} run by another {@code Input} is only reported by the outermost
+ * of them, so that it is counted once.
+ *
+ * @author nschank, Brown University
+ * @version 1.2
+ */
+public final class Invocation
+{
+	private static int depth = 0;
+
+	private final Entity target;
+	private final String name;
+	private final Input input;
+	private final Output output;
+	private final int version;
+
+	/**
+	 * @param target
+	 * 		The {@code Entity} whose {@code Input} this is
+	 * @param name
+	 * 		The name of the {@code Input}
+	 * @param input
+	 * 		The {@code Input} registered under that name, or null if there is none
+	 * @param output
+	 * 		The {@code Output} fired after the {@code Input} runs, or null if there is none
+	 */
+	public Invocation(Entity target, String name, Input input, Output output)
+	{
+		this.target = target;
+		this.name = name;
+		this.input = input;
+		this.output = output;
+		this.version = Wiring.version();
+	}
+
+	/**
+	 * @param inputType
+	 * 		The name of an {@code Input}
+	 *
+	 * @return The name of the {@code Output} which that {@code Input} fires, or null if it fires none: "do" or "!do" is
+	 * replaced with "on"
+	 */
+	public static String outputNameOf(String inputType)
+	{
+		if(inputType.startsWith("do")) return "on" + inputType.substring(2);
+		if(inputType.startsWith("!do")) return "on" + inputType.substring(3);
+		return null;
+	}
+
+	/**
+	 * @return The name of the {@code Input} this invokes
+	 */
+	public String getName()
+	{
+		return this.name;
+	}
+
+	/**
+	 * @return The {@code Entity} whose {@code Input} this invokes
+	 */
+	public Entity getTarget()
+	{
+		return this.target;
+	}
+
+	/**
+	 * @return Whether no {@code Input} or {@code Output} has been registered on any {@code Entity} since this
+	 * {@code Invocation} was bound
+	 */
+	public boolean isCurrent()
+	{
+		return this.version == Wiring.version();
+	}
+
+	/**
+	 * Runs the {@code Input}, unless the "enabled" argument is false, and then fires its {@code Output}.
+	 *
+	 * @param arguments
+	 * 		A mapping of arguments from argument name to that value
+	 *
+	 * @throws InputFailureException
+	 * 		If the {@code Input} fails
+	 */
+	public void run(Map<String, Evaluator> arguments)
+	{
+		Evaluator enabled = arguments.get("enabled");
+		if(enabled != null && !(Boolean) enabled.eval(arguments, this.target)) return;
+
+		if(this.input != null)
+		{
+			Invocation.depth++;
+			try
+			{
+				this.input.run(arguments);
+			} catch(Throwable t)
+			{
+				InputFailureException failure = new InputFailureException(this.name, t);
+				if(Invocation.depth == 1) InputErrors.report(failure);
+				throw failure;
+			} finally
+			{
+				Invocation.depth--;
+			}
+		}
+		if(this.output != null) this.output.run(arguments);
+	}
+
+	/**
+	 * Runs this {@code Invocation} as {@code run} does, but never throws: a failure, of this {@code Input} or of any
+	 * {@code Input} its {@code Output} runs, has already been reported to {@code InputErrors}.
+	 *
+	 * @param arguments
+	 * 		A mapping of arguments from argument name to that value
+	 *
+	 * @return Whether the {@code Input}, and everything it fired, ran without failing
+	 */
+	public boolean tryRun(Map<String, Evaluator> arguments)
+	{
+		try
+		{
+			this.run(arguments);
+			return true;
+		} catch(InputFailureException | OutputFailureException e)
+		{
+			return false;
+		}
+	}
+
+	/**
+	 * @return A String representation of this {@code Invocation}
+	 */
+	@Override
+	public String toString()
+	{
+		return "Invocation{" + this.name + " of " + this.target + '}';
+	}
+}
@@ -1,7 +1,6 @@
 package nschank.engn.play.io;
 
 import nschank.engn.play.io.eval.Evaluator;
-import nschank.util.NMaps;
 
 import java.util.ArrayList;
 import java.util.HashMap;
@@ -12,10 +11,10 @@ import java.util.Map;
 /**
  * Created by Nicolas Schank for package nschank.engn.play.io
  * Created on 27 Oct 2013
- * Last updated on 3 Jun 2014
+ * Last updated on 3 Jul 2014
  *
  * @author nschank, Brown University
- * @version 2.4
+ * @version 2.8
  */
 public final class Output
 {
@@ -40,6 +39,15 @@ public final class Output
 		this.args.put(I, O);
 	}
 
+	/**
+	 * Resolves every {@code Connection} from this {@code Output}; see {@code Wiring}.
+	 */
+	public void compile()
+	{
+		for(Connection r : this.connections)
+			r.compile();
+	}
+
 	/**
 	 * @param r
 	 */
@@ -53,6 +61,13 @@ public final class Output
 	 */
 	public void run()
 	{
+		if(EventQueue.isEnabled())
+		{
+			for(Connection r : this.connections)
+				EventQueue.enqueue(r, this.args);
+			return;
+		}
+
 		try
 		{
 			for(Connection r : this.connections)
@@ -65,16 +80,28 @@ public final class Output
 
 	/**
 	 * @param additionalArgs
+	 * 		Arguments given when this {@code Output} fired, which override those of this {@code Output}
 	 */
 	public void run(Map<String, Evaluator> additionalArgs)
 	{
+		EventArgs args = EventArgs.obtain(additionalArgs, this.args);
 		try
 		{
+			if(EventQueue.isEnabled())
+			{
+				for(Connection r : this.connections)
+					EventQueue.enqueue(r, args);
+				return;
+			}
+
 			for(Connection r : this.connections)
-				r.run(NMaps.union(this.args, additionalArgs));
+				r.run(args);
 		} catch(Throwable t)
 		{
 			throw new OutputFailureException("An output failed to run correctly. " + t);
+		} finally
+		{
+			args.release();
 		}
 	}
 }
@@ -0,0 +1,86 @@
+package nschank.engn.play.io;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+
+/**
+ * Created by Nicolas Schank for package nschank.engn.play.io
+ * Created on 25 Jun 2014
+ * Last updated on 3 Jul 2014
+ *
+ * A Utility class which counts, for each name of {@code Output}, how many {@code Entity}s have connected anything to
+ * their {@code Output} of that name. An {@code Entity} is counted once per {@code Output}, however many
+ * {@code Connection}s it has from it, so the counts show which {@code Output}s are actually listened to, and so where the
+ * time spent firing them goes. An {@code Entity} is no longer counted once it has been removed.
+ *
+ * @author nschank, Brown University
+ * @version 1.1
+ */
+public final class Subscriptions
+{
+	private static final Map<String, Integer> subscribers = new HashMap<>();
+
+	/**
+	 *
+	 */
+	private Subscriptions()
+	{
+		//Utility class
+	}
+
+	/**
+	 * @return The number of {@code Entity}s listened to through each name of {@code Output}, by that name
+	 */
+	public static Map<String, Integer> all()
+	{
+		return Collections.unmodifiableMap(new HashMap<>(Subscriptions.subscribers));
+	}
+
+	/**
+	 * Forgets every subscription, such as when a level is unloaded.
+	 */
+	public static void clear()
+	{
+		Subscriptions.subscribers.clear();
+	}
+
+	/**
+	 * Counts one more {@code Entity} as listened to through an {@code Output}. Must be called when the first
+	 * {@code Connection} is made from an {@code Output} of an {@code Entity}.
+	 *
+	 * @param outputName
+	 * 		The name of the {@code Output}
+	 */
+	public static void subscribe(String outputName)
+	{
+		Subscriptions.subscribers.put(outputName, Subscriptions.subscribersTo(outputName) + 1);
+	}
+
+	/**
+	 * Counts one fewer {@code Entity} as listened to through an {@code Output}. Must be called for each {@code Output}
+	 * of an {@code Entity} with a {@code Connection} when that {@code Entity} is removed.
+	 *
+	 * @param outputName
+	 * 		The name of the {@code Output}
+	 */
+	public static void unsubscribe(String outputName)
+	{
+		int count = Subscriptions.subscribersTo(outputName);
+		if(count <= 1) Subscriptions.subscribers.remove(outputName);
+		else Subscriptions.subscribers.put(outputName, count - 1);
+	}
+
+	/**
+	 * @param outputName
+	 * 		The name of an {@code Output}
+	 *
+	 * @return The number of {@code Entity}s with at least one {@code Connection} from their {@code Output} of that name
+	 */
+	public static int subscribersTo(String outputName)
+	{
+		Integer count = Subscriptions.subscribers.get(outputName);
+		return (count == null) ? 0 : count;
+	}
+}
@@ -0,0 +1,61 @@
+package nschank.engn.play.io;
+
+import nschank.engn.play.Entity;
+
+
+/**
+ * Created by Nicolas Schank for package nschank.engn.play.io
+ * Created on 22 Jun 2014
+ * Last updated on 22 Jun 2014
+ *
+ * A Utility class which compiles the wiring between {@code Entity}s: every {@code Connection} is resolved to an
+ * {@code Invocation} of its target, so that firing an {@code Output} runs each connected {@code Input} directly. It
+ * should be compiled once a level has loaded.
+ *
+ * Whenever an {@code Input} or {@code Output} is registered on any {@code Entity}, the wiring is invalidated, and each
+ * {@code Connection} resolves itself again the next time it runs, so the wiring is never out of date.
+ *
+ * @author nschank, Brown University
+ * @version 1.0
+ */
+public final class Wiring
+{
+	private static int version = 0;
+
+	/**
+	 *
+	 */
+	private Wiring()
+	{
+		//Utility class
+	}
+
+	/**
+	 * Resolves every {@code Connection} from any of the given {@code Entity}s.
+	 *
+	 * @param entities
+	 * 		Every {@code Entity} in a level
+	 */
+	public static void compile(Iterable<? extends Entity> entities)
+	{
+		for(Entity entity : entities)
+			entity.compileWiring();
+	}
+
+	/**
+	 * Marks every resolved {@code Connection} as out of date. Must be called whenever an {@code Input} or {@code Output}
+	 * is registered or replaced.
+	 */
+	public static void invalidate()
+	{
+		Wiring.version++;
+	}
+
+	/**
+	 * @return A number which changes whenever the wiring is invalidated
+	 */
+	static int version()
+	{
+		return Wiring.version;
+	}
+}
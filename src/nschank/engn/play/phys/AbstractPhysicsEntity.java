@@ -4,44 +4,59 @@ import com.google.common.base.Optional;
 import nschank.collect.dim.Dimensional;
 import nschank.collect.dim.Vector;
 import nschank.collect.dim.VectorDimensionalList;
-import nschank.collect.tuple.Pair;
 import nschank.engn.play.AbstractEntity;
+import nschank.engn.play.PropertyKey;
 import nschank.engn.play.entity.PropertyMisformatException;
 import nschank.engn.play.io.Connection;
+import nschank.engn.play.io.EventArgs;
 import nschank.engn.play.io.Inputs;
-import nschank.engn.play.io.eval.Constant;
-import nschank.engn.play.io.eval.Evaluator;
 import nschank.engn.play.univ.Universe;
 import nschank.engn.shape.Drawable;
+import nschank.engn.shape.GameSpaceDrawable;
 import nschank.engn.shape.collide.Collidable;
+import nschank.engn.shape.collide.Collidables;
 import nschank.engn.shape.collide.Ray;
 import nschank.engn.sprite.AnimatedSprite;
 import nschank.util.DerivativeList;
 import nschank.util.DoubleDerivativeList;
 import nschank.util.Interval;
-import nschank.util.NMaps;
 
 import java.awt.Color;
 import java.awt.Graphics2D;
-import java.util.List;
+import java.util.Arrays;
 import java.util.Map;
 
 
 /**
  * Created by Nicolas Schank for package nschank.engn.play.phys
  * Created on 1 Oct 2013
- * Last updated on 2 Jun 2014
+ * Last updated on 3 Jul 2014
  *
  * An Entity which is affected by Physics. It has a concept of position, velocity, and higher derivatives, and they are
  * applied in Eulerian symplectic order. Has a concept of mass, force, restitution, and impulse. Draws itself using the
  * shapes assigned to determine its edges.
  *
+ * An AbstractPhysicsEntity which has moved slower than SLEEP_LINEAR_THRESHOLD and rotated slower than
+ * SLEEP_ANGULAR_THRESHOLD for TICKS_UNTIL_SLEEP consecutive ticks falls asleep: it stops integrating and moving its shape
+ * until an impulse, velocity change, or collision with an awake, movable {@code PhysicsEntity} wakes it. Its speed is
+ * measured at the start of each tick, once contacts have been resolved and before forces are integrated, so that a body
+ * held still against gravity or any other constant force comes to rest; forces applied to a sleeping body are dropped.
+ *
+ * Internal properties are recognised by the id of their {@code PropertyKey}, which is resolved to an InternalProperty
+ * once per name, rather than by comparing Strings on every access. Numeric internal properties can be read and written
+ * through getDouble and putDouble without boxing.
+ *
+ * Membership in each kind of group is kept as a {@code GroupMask}. Joining a group tells the {@code Universe} about
+ * that one group only; the group properties are read from, and written to, the masks.
+ *
+ * Is drawn in game units by a Viewport whenever its shape or sprite may be.
+ *
  * Is able to intake an AI which can instruct it as necessary.
  *
  * @author nschank, Brown University
- * @version 5.1
+ * @version 6.3
  */
-public abstract class AbstractPhysicsEntity extends AbstractEntity implements PhysicsEntity
+public abstract class AbstractPhysicsEntity extends AbstractEntity implements PhysicsEntity, GameSpaceDrawable
 {
 	public static final String COEFFICIENT_DYNAMIC_MISFORMAT_EXCEPTION
 			= "Coefficient of dynamic friction is a required property for a PhysicsEntity, which must have a type of double.";
@@ -54,22 +69,47 @@ public abstract class AbstractPhysicsEntity extends AbstractEntity implements Ph
 
 	public static final String MOMENT_OF_INERTIA_MISFORMAT_EXCEPTION = "Moment of inertia cannot be set.";
 
+	private static final PropertyKey<Object> NAME = PropertyKey.named("name");
+
 	public static final double ONE_SECOND = 1_000_000_000d;
 
 	public static final String SHAPE_MISFORMAT_EXCEPTION
 			= "Shape is a required property for a PhysicsEntity, which must have a type of Collidable.";
 
+	/**
+	 * The rotational speed, in radians per second, below which an entity is considered to be at rest
+	 */
+	public static final double SLEEP_ANGULAR_THRESHOLD = 0.01;
+	/**
+	 * The speed, in game units per second, below which an entity is considered to be at rest
+	 */
+	public static final double SLEEP_LINEAR_THRESHOLD = 0.01;
+	/**
+	 * The number of consecutive ticks an entity must be at rest before it falls asleep
+	 */
+	public static final int TICKS_UNTIL_SLEEP = 60;
+
+	private static int[] derivativeOrders = new int[0];
+	private static InternalProperty[] internalProperties = new InternalProperty[0];
 
 	private double coefficientOfDynamicFrictionSqrt;
 	private double coefficientOfRestitutionSqrt;
 	private double coefficientOfStaticFrictionSqrt;
+	private boolean continuous;
 	private Vector forces;
+	private final long[] groupMasks;
+	private boolean holdingGroups;
+	private double fieldForceX;
+	private double fieldForceY;
 	private Vector impulses;
 	private double mass;
 	private DerivativeList<Vector> pdl;
 	private DerivativeList<Double> rdl;
 	private double rotationalImpulse;
 	private Collidable shape;
+	private boolean sleeping;
+	private double stepFraction;
+	private int ticksAtRest;
 	private double torque;
 
 	/**
@@ -87,16 +127,63 @@ public abstract class AbstractPhysicsEntity extends AbstractEntity implements Ph
 
 		this.forces = Vector.ZERO_2D;
 		this.impulses = Vector.ZERO_2D;
+		this.fieldForceX = 0.0;
+		this.fieldForceY = 0.0;
 		this.rotationalImpulse = 0.0;
 		this.torque = 0.0;
+		this.sleeping = false;
+		this.ticksAtRest = 0;
+		this.continuous = false;
+		this.stepFraction = 1.0;
+		this.groupMasks = new long[GroupKind.values().length];
+		for(GroupKind kind : GroupKind.values())
+			if(super.hasProperty(kind.getProperty()))
+			{
+				this.groupMasks[kind.ordinal()] = GroupMask.of(kind, super.getProperty(kind.getProperty()));
+				GroupMask.retain(kind, this.groupMasks[kind.ordinal()]);
+			}
+		this.holdingGroups = true;
+		this.initDefaultProperties();
 		this.pdl = new VectorDimensionalList(new Vector(this.getShape().getCenterPosition()));
 		this.rdl = new DoubleDerivativeList(0.0);
 		this.initInputs();
-		this.initDefaultProperties();
 		this.connect("onRemove", new Connection(this, "!doPhysicalRemove"));
 	}
 
 	/**
+	 * Adds this {@code PhysicsEntity} to a single group, and tells the {@code Universe} about that group alone.
+	 *
+	 * @param kind
+	 * 		The kind of group
+	 * @param group
+	 * 		The number of the group
+	 */
+	@Override
+	public void addToGroup(GroupKind kind, double group)
+	{
+		this.setGroupMask(kind, GroupMask.with(this.groupMasks[kind.ordinal()], kind, group));
+	}
+
+	/**
+	 * Adds a force acting at the center of this {@code PhysicsEntity}. The components are summed as primitives, and only
+	 * added to this tick's force once, when it is next needed. Unlike applyForceAt, it does not wake a sleeping
+	 * {@code PhysicsEntity}, and is dropped while it sleeps.
+	 *
+	 * @param forceX
+	 * 		The x component of the force
+	 * @param forceY
+	 * 		The y component of the force
+	 */
+	@Override
+	public void applyForce(double forceX, double forceY)
+	{
+		this.fieldForceX += forceX;
+		this.fieldForceY += forceY;
+	}
+
+	/**
+	 * Wakes this {@code PhysicsEntity}, if it is asleep, so that the force is not dropped.
+	 *
 	 * @param force
 	 * 		A force, represented by a {@code Vector}
 	 * @param position
@@ -105,6 +192,7 @@ public abstract class AbstractPhysicsEntity extends AbstractEntity implements Ph
 	@Override
 	public void applyForceAt(Vector force, Dimensional position)
 	{
+		this.wake();
 		this.forces = this.forces.plus(force);
 		this.torque += new Vector(position).minus(this.getShape().getCenterPosition()).crossProduct(force)
 										   .getCoordinate(2);
@@ -119,6 +207,7 @@ public abstract class AbstractPhysicsEntity extends AbstractEntity implements Ph
 	@Override
 	public void applyImpulseAt(Vector impulse, Dimensional position)
 	{
+		this.wake();
 		this.impulses = this.impulses.plus(impulse);
 		this.rotationalImpulse += new Vector(position).minus(this.getShape().getCenterPosition()).crossProduct(impulse)
 													  .getCoordinate(2);
@@ -193,11 +282,21 @@ public abstract class AbstractPhysicsEntity extends AbstractEntity implements Ph
 	@Override
 	public void draw(Graphics2D g)
 	{
-		if(!this.hasProperty(":hasSprite") || !(Boolean) this.getProperty(":hasSprite")) this.getShape().draw(g);
-		else ((Drawable) this.getProperty(":sprite")).draw(g);
+		if(!this.isSprite()) this.getShape().draw(g);
+		else this.getProperty(PhysicsEntity.SPRITE).draw(g);
 		super.draw(g);
 	}
 
+	/**
+	 * @return Whether the shape or sprite representing this {@code PhysicsEntity} may be drawn in game units
+	 */
+	@Override
+	public boolean drawsInGameSpace()
+	{
+		Drawable drawn = this.isSprite() ? this.getProperty(PhysicsEntity.SPRITE) : this.getShape();
+		return drawn instanceof GameSpaceDrawable && ((GameSpaceDrawable) drawn).drawsInGameSpace();
+	}
+
 	/**
 	 * @return The current angle of this {@code PhysCollision}, in radians, relative to the x axis
 	 */
@@ -271,6 +370,46 @@ public abstract class AbstractPhysicsEntity extends AbstractEntity implements Ph
 		return this.pdl.getDerivative(i);
 	}
 
+	/**
+	 * Reads a numeric property without boxing it, including the numeric internal properties.
+	 *
+	 * @param key
+	 * 		A key naming a property whose value is a number
+	 *
+	 * @return The value of that property
+	 */
+	@Override
+	public double getDouble(PropertyKey<Double> key)
+	{
+		switch(AbstractPhysicsEntity.internalPropertyOf(key))
+		{
+			case WIDTH:
+				return this.getWidth();
+			case HEIGHT:
+				return this.getHeight();
+			case ROTATION:
+			case ANGLE:
+				return this.getAngle();
+			case MASS:
+				return this.getMass();
+			case COEFFICIENT_OF_DYNAMIC_FRICTION_SQRT:
+				return this.getCoefficientOfDynamicFrictionSqrt();
+			case COEFFICIENT_OF_STATIC_FRICTION_SQRT:
+				return this.getCoefficientOfStaticFrictionSqrt();
+			case COEFFICIENT_OF_RESTITUTION_SQRT:
+				return this.getCoefficientOfRestitutionSqrt();
+			case MOMENT_OF_INERTIA:
+				return this.getMomentOfInertia();
+			case ROTATIONAL_DERIVATIVE:
+				return this.getRotationalDerivative(AbstractPhysicsEntity.derivativeOrders[key.getId()]);
+			case NONE:
+			case STORED:
+				return super.getDouble(key);
+			default:
+				return ((Number) this.getProperty(key)).doubleValue();
+		}
+	}
+
 	/**
 	 * @return The height of this object. Depending on time, may be in pixels or game units.
 	 */
@@ -280,6 +419,18 @@ public abstract class AbstractPhysicsEntity extends AbstractEntity implements Ph
 		return this.getShape().getHeight();
 	}
 
+	/**
+	 * @param kind
+	 * 		A kind of group
+	 *
+	 * @return Every group of that kind containing this {@code PhysicsEntity}, as a {@code GroupMask}
+	 */
+	@Override
+	public long getGroupMask(GroupKind kind)
+	{
+		return this.groupMasks[kind.ordinal()];
+	}
+
 	/**
 	 * @return The mass of this {@code PhysicsEntity}
 	 */
@@ -307,50 +458,61 @@ public abstract class AbstractPhysicsEntity extends AbstractEntity implements Ph
 	 * - !universe -> The {@code Universe} in which this {@code Entity} resides
 	 * - !self -> This {@code Entity}
 	 *
-	 * @param ofName
-	 * 		The name of a property
+	 * @param key
+	 * 		A key naming a property
 	 *
-	 * @return The value of the property named {@code ofName}
+	 * @return The value of that property, as the type of {@code key}
 	 */
 	@Override
-	public Object getProperty(String ofName)
+	public <T> T getProperty(PropertyKey<T> key)
 	{
-		switch(ofName)
+		switch(AbstractPhysicsEntity.internalPropertyOf(key))
 		{
-			case ":width":
-				return this.getWidth();
-			case ":height":
-				return this.getHeight();
-			case ":rotation":
-				return this.getAngle();
-			case ":centerPosition":
-				return this.getCenterPosition();
-			case ":color":
-				return this.getColor();
-			case ":mass":
-				return this.getMass();
-			case ":coefficientOfDynamicFrictionSqrt":
-				return this.getCoefficientOfDynamicFrictionSqrt();
-			case ":coefficientOfStaticFrictionSqrt":
-				return this.getCoefficientOfStaticFrictionSqrt();
-			case ":coefficientOfRestitutionSqrt":
-				return this.getCoefficientOfRestitutionSqrt();
-			case "!momentOfInertia":
-				return this.getMomentOfInertia();
-			case ":shape":
-				return this.getShape();
-			case ":angle":
-				return this.getAngle();
-			case ":velocity":
-				return this.getVelocity();
+			case WIDTH:
+				return key.cast(this.getWidth());
+			case HEIGHT:
+				return key.cast(this.getHeight());
+			case ROTATION:
+			case ANGLE:
+				return key.cast(this.getAngle());
+			case CENTER_POSITION:
+				return key.cast(this.getCenterPosition());
+			case COLOR:
+				return key.cast(this.getColor());
+			case MASS:
+				return key.cast(this.getMass());
+			case COEFFICIENT_OF_DYNAMIC_FRICTION_SQRT:
+				return key.cast(this.getCoefficientOfDynamicFrictionSqrt());
+			case COEFFICIENT_OF_STATIC_FRICTION_SQRT:
+				return key.cast(this.getCoefficientOfStaticFrictionSqrt());
+			case COEFFICIENT_OF_RESTITUTION_SQRT:
+				return key.cast(this.getCoefficientOfRestitutionSqrt());
+			case MOMENT_OF_INERTIA:
+				return key.cast(this.getMomentOfInertia());
+			case SHAPE:
+				return key.cast(this.getShape());
+			case VELOCITY:
+				return key.cast(this.getVelocity());
+			case BOUNDARY_GROUPS:
+				return key.cast(GroupMask.groupsOf(GroupKind.BOUNDARY, this.groupMasks[GroupKind.BOUNDARY.ordinal()]));
+			case COLLISION_GROUPS:
+				return key.cast(GroupMask.groupsOf(GroupKind.COLLISION, this.groupMasks[GroupKind.COLLISION.ordinal()]));
+			case FORCE_GROUPS:
+				return key.cast(GroupMask.groupsOf(GroupKind.FORCE, this.groupMasks[GroupKind.FORCE.ordinal()]));
+			case RAY_GROUPS:
+				return key.cast(GroupMask.groupsOf(GroupKind.RAY, this.groupMasks[GroupKind.RAY.ordinal()]));
+			case SLEEPING:
+				return key.cast(this.isSleeping());
+			case CONTINUOUS:
+				return key.cast(this.isContinuous());
+			case DERIVATIVE:
+				return key.cast(this.getDerivative(AbstractPhysicsEntity.derivativeOrders[key.getId()]));
+			case ROTATIONAL_DERIVATIVE:
+				return key.cast(this.getRotationalDerivative(AbstractPhysicsEntity.derivativeOrders[key.getId()]));
+			case NONEXISTENT:
+				throw new NonexistentInternalPropertyException(key.getName());
 			default:
-				if((ofName.length() > 5) && ":deriv".equals(ofName.substring(0, 5)))
-					this.getDerivative(Integer.valueOf(ofName.substring(5)));
-				else if((ofName.length() > 6) && ":rderiv".equals(ofName.substring(0, 6)))
-					this.getRotationalDerivative(Integer.valueOf(ofName.substring(6)));
-				else if(ofName.isEmpty() || ofName.charAt(0) == ':')
-					throw new NonexistentInternalPropertyException(ofName);
-				return super.getProperty(ofName);
+				return super.getProperty(key);
 		}
 	}
 
@@ -387,12 +549,23 @@ public abstract class AbstractPhysicsEntity extends AbstractEntity implements Ph
 		return this.shape;
 	}
 
+	/**
+	 * Adds the force summed through {@code applyForce} to this tick's force.
+	 */
+	private void collectFieldForce()
+	{
+		if(this.fieldForceX == 0 && this.fieldForceY == 0) return;
+		this.forces = this.forces.plus(new Vector(this.fieldForceX, this.fieldForceY));
+		this.fieldForceX = 0.0;
+		this.fieldForceY = 0.0;
+	}
+
 	/**
 	 * @return The {@code Universe} in which this {@code Entity} resides
 	 */
 	private Universe getUniverse()
 	{
-		return (Universe) this.getProperty("!universe");
+		return this.getProperty(PhysicsEntity.UNIVERSE);
 	}
 
 	/**
@@ -418,23 +591,23 @@ public abstract class AbstractPhysicsEntity extends AbstractEntity implements Ph
 	 */
 	private void initDefaultProperties()
 	{
-		if(!super.hasProperty(":shape")) throw new PropertyMisformatException(SHAPE_MISFORMAT_EXCEPTION);
-		this.shape = (Collidable) super.getProperty(":shape");
+		if(!super.hasProperty(PhysicsEntity.SHAPE)) throw new PropertyMisformatException(SHAPE_MISFORMAT_EXCEPTION);
+		this.shape = super.getProperty(PhysicsEntity.SHAPE);
 
-		if(!super.hasProperty(":mass")) throw new PropertyMisformatException(MASS_MISFORMAT_EXCEPTION);
-		this.mass = (Double) super.getProperty(":mass");
+		if(!super.hasProperty(PhysicsEntity.MASS)) throw new PropertyMisformatException(MASS_MISFORMAT_EXCEPTION);
+		this.mass = super.getDouble(PhysicsEntity.MASS);
 
-		if(!super.hasProperty(":coefficientOfDynamicFrictionSqrt"))
+		if(!super.hasProperty(PhysicsEntity.COEFFICIENT_OF_DYNAMIC_FRICTION_SQRT))
 			throw new PropertyMisformatException(COEFFICIENT_DYNAMIC_MISFORMAT_EXCEPTION);
-		this.coefficientOfDynamicFrictionSqrt = (Double) super.getProperty(":coefficientOfDynamicFrictionSqrt");
+		this.coefficientOfDynamicFrictionSqrt = super.getDouble(PhysicsEntity.COEFFICIENT_OF_DYNAMIC_FRICTION_SQRT);
 
-		if(!super.hasProperty(":coefficientOfStaticFrictionSqrt"))
+		if(!super.hasProperty(PhysicsEntity.COEFFICIENT_OF_STATIC_FRICTION_SQRT))
 			throw new PropertyMisformatException(COEFFICIENT_STATIC_MISFORMAT_EXCEPTION);
-		this.coefficientOfStaticFrictionSqrt = (Double) super.getProperty(":coefficientOfStaticFrictionSqrt");
+		this.coefficientOfStaticFrictionSqrt = super.getDouble(PhysicsEntity.COEFFICIENT_OF_STATIC_FRICTION_SQRT);
 
-		if(!super.hasProperty(":coefficientOfRestitutionSqrt"))
+		if(!super.hasProperty(PhysicsEntity.COEFFICIENT_OF_RESTITUTION_SQRT))
 			throw new PropertyMisformatException(COEFFICIENT_RESTITUTION_MISFORMAT_EXCEPTION);
-		this.coefficientOfRestitutionSqrt = (Double) super.getProperty(":coefficientOfRestitutionSqrt");
+		this.coefficientOfRestitutionSqrt = super.getDouble(PhysicsEntity.COEFFICIENT_OF_RESTITUTION_SQRT);
 	}
 
 	/**
@@ -461,12 +634,130 @@ public abstract class AbstractPhysicsEntity extends AbstractEntity implements Ph
 	 */
 	private boolean isSprite()
 	{
-		return this.hasProperty(":hasSprite") && (Boolean) this.getProperty(":hasSprite");
+		return this.hasProperty(PhysicsEntity.HAS_SPRITE) && this.getProperty(PhysicsEntity.HAS_SPRITE);
+	}
+
+	/**
+	 * Tells the {@code Universe} that this {@code PhysicsEntity} has joined a group. The {@code Universe} numbers its
+	 * groups by integers, so the number of the group is truncated to find it there.
+	 *
+	 * @param kind
+	 * 		The kind of group
+	 * @param group
+	 * 		The number of the group
+	 */
+	private void joinGroup(GroupKind kind, double group)
+	{
+		Universe universe = this.getUniverse();
+		int number = (int) group;
+		switch(kind)
+		{
+			case BOUNDARY:
+				universe.applyBoundaryTo(universe.getBoundaryByNumber(number), this);
+				break;
+			case COLLISION:
+				universe.addToCollisionGroup(this, universe.getCollisionGroupByNumber(number));
+				break;
+			case FORCE:
+				universe.addToForceGroup(this, universe.getForceGroupByNumber(number));
+				break;
+			case RAY:
+				universe.addToRayGroup(this, universe.getRayGroupByNumber(number));
+				break;
+		}
+	}
+
+	/**
+	 * Tells the {@code Universe} that this {@code PhysicsEntity} has left every group of a kind.
+	 *
+	 * @param kind
+	 * 		The kind of group
+	 */
+	private void leaveAllGroups(GroupKind kind)
+	{
+		switch(kind)
+		{
+			case BOUNDARY:
+				this.getUniverse().removeAllBoundariesFrom(this);
+				break;
+			case COLLISION:
+				this.getUniverse().removeFromAllCollisionGroups(this);
+				break;
+			case FORCE:
+				this.getUniverse().removeFromAllForceGroups(this);
+				break;
+			case RAY:
+				this.getUniverse().removeFromAllRayGroups(this);
+				break;
+		}
+	}
+
+	/**
+	 * Changes which groups of a kind this {@code PhysicsEntity} is in, telling the {@code Universe} only about groups it
+	 * has joined. The {@code Universe} can only remove a {@code PhysicsEntity} from every group of a kind at once, so
+	 * leaving any group means joining every remaining one again.
+	 *
+	 * @param kind
+	 * 		The kind of group
+	 * @param mask
+	 * 		Every group of that kind this {@code PhysicsEntity} should be in
+	 */
+	private void setGroupMask(GroupKind kind, long mask)
+	{
+		long previous = this.groupMasks[kind.ordinal()];
+		if(previous == mask) return;
+		this.groupMasks[kind.ordinal()] = mask;
+		if(this.holdingGroups)
+		{
+			GroupMask.retain(kind, mask & ~previous);
+			GroupMask.release(kind, previous & ~mask);
+		}
+
+		long joining = mask & ~previous;
+		if((previous & ~mask) != 0)
+		{
+			this.leaveAllGroups(kind);
+			joining = mask;
+		}
+		for(long rest = joining; rest != 0; rest &= rest - 1)
+			this.joinGroup(kind, GroupMask.numberOf(kind, Long.numberOfTrailingZeros(rest)));
+	}
+
+	/**
+	 * Changes which groups of a kind this {@code PhysicsEntity} is in, as when its {@code :...Groups} property is put.
+	 *
+	 * @param kind
+	 * 		The kind of group
+	 * @param groups
+	 * 		The value of the property listing membership in groups of that kind; a Collection of group numbers
+	 */
+	private void setGroups(GroupKind kind, Object groups)
+	{
+		this.setGroupMask(kind, GroupMask.of(kind, kind.getProperty().cast(groups)));
+	}
+
+	/**
+	 * @return Whether this {@code PhysicsEntity} is swept over each tick to prevent it from passing through obstacles
+	 */
+	@Override
+	public boolean isContinuous()
+	{
+		return this.continuous;
+	}
+
+	/**
+	 * @return Whether this {@code PhysicsEntity} is asleep, and so is neither integrating nor moving its shape
+	 */
+	@Override
+	public boolean isSleeping()
+	{
+		return this.sleeping;
 	}
 
 	/**
 	 * An action to be performed continuously. In order to allow for time-related actions to be performed correctly, the
-	 * amount of time between the end of the last 'tick' and the beginning of the current 'tick' is provided.
+	 * amount of time between the end of the last 'tick' and the beginning of the current 'tick' is provided. If this
+	 * {@code PhysicsEntity} is asleep, no integration occurs.
 	 *
 	 * @param nanosSinceLastTick
 	 * 		The number of nanoseconds between the end of the last tick and the beginning of the current tick.
@@ -474,8 +765,20 @@ public abstract class AbstractPhysicsEntity extends AbstractEntity implements Ph
 	@Override
 	public void onTick(long nanosSinceLastTick)
 	{
-		if(this.hasProperty(":animated") && (Boolean) this.getProperty(":animated"))
-			((AnimatedSprite) this.getProperty(":sprite")).tick(nanosSinceLastTick);
+		if(this.hasProperty(PhysicsEntity.ANIMATED) && this.getProperty(PhysicsEntity.ANIMATED))
+			((AnimatedSprite) this.getProperty(PhysicsEntity.SPRITE)).tick(nanosSinceLastTick);
+		//Tested before forces are integrated, so that a constant force held off by a contact does not look like motion
+		if(!this.sleeping) this.updateRest();
+		if(this.sleeping)
+		{
+			this.forces = Vector.ZERO_2D;
+			this.fieldForceX = 0.0;
+			this.fieldForceY = 0.0;
+			this.torque = 0.0;
+			super.onTick(nanosSinceLastTick);
+			return;
+		}
+		this.collectFieldForce();
 		if(this.mass > 0)
 		{
 			this.setVelocity(this.getVelocity().plus(this.forces.smult(nanosSinceLastTick / ONE_SECOND / this.mass))
@@ -487,8 +790,10 @@ public abstract class AbstractPhysicsEntity extends AbstractEntity implements Ph
 						this.rotationalImpulse / this.getMomentOfInertia()));
 			}
 		}
-		this.pdl.step(nanosSinceLastTick);
-		this.rdl.step(nanosSinceLastTick);
+		long step = (long) (nanosSinceLastTick * this.stepFraction);
+		this.pdl.step(step);
+		this.rdl.step(step);
+		this.stepFraction = 1.0;
 
 		this.getShape().setCenterPosition(this.getCenterPosition());
 		this.getShape().setRotation(this.getAngle());
@@ -503,93 +808,135 @@ public abstract class AbstractPhysicsEntity extends AbstractEntity implements Ph
 	}
 
 	/**
-	 * Attaches the value of {@code ofValue} to the name {@code ofName} within this {@code Entity}. The value {@code null}
+	 * Sets a numeric property without boxing it, including the numeric internal properties.
+	 *
+	 * @param key
+	 * 		A key naming a property
+	 * @param ofValue
+	 * 		The new value of that property
+	 */
+	@Override
+	public void putDouble(PropertyKey<Double> key, double ofValue)
+	{
+		switch(AbstractPhysicsEntity.internalPropertyOf(key))
+		{
+			case WIDTH:
+				this.setWidth(ofValue);
+				break;
+			case HEIGHT:
+				this.setHeight(ofValue);
+				break;
+			case ROTATION:
+			case ANGLE:
+				this.setAngle(ofValue);
+				break;
+			case MASS:
+				this.setMass(ofValue);
+				break;
+			case COEFFICIENT_OF_DYNAMIC_FRICTION_SQRT:
+				this.coefficientOfDynamicFrictionSqrt = ofValue;
+				break;
+			case COEFFICIENT_OF_STATIC_FRICTION_SQRT:
+				this.coefficientOfStaticFrictionSqrt = ofValue;
+				break;
+			case COEFFICIENT_OF_RESTITUTION_SQRT:
+				this.coefficientOfRestitutionSqrt = ofValue;
+				break;
+			case ROTATIONAL_DERIVATIVE:
+				this.setRotationalDerivative(AbstractPhysicsEntity.derivativeOrders[key.getId()], ofValue);
+				break;
+			case NONE:
+			case STORED:
+				super.putDouble(key, ofValue);
+				break;
+			default:
+				this.putProperty(key, ofValue);
+				break;
+		}
+	}
+
+	/**
+	 * Attaches the value of {@code ofValue} to the name {@code key} within this {@code Entity}. The value {@code null}
 	 * must be identical to removing the property. The following properties are internally set and calling putProperty
 	 * with them should have no effect:
 	 * - !universe -> Should always refer to the {@code Universe} in which this {@code Entity} resides
 	 * - !self -> Should always refer to this {@code Entity}
 	 *
-	 * @param ofName
-	 * 		The name of a property
+	 * @param key
+	 * 		A key naming a property
 	 * @param ofValue
 	 * 		Any object
 	 */
 	@Override
-	public void putProperty(String ofName, Object ofValue)
+	public <T> void putProperty(PropertyKey<T> key, T ofValue)
 	{
-		switch(ofName)
+		switch(AbstractPhysicsEntity.internalPropertyOf(key))
 		{
-			case ":width":
+			case WIDTH:
 				this.setWidth((Double) ofValue);
 				break;
-			case ":height":
+			case HEIGHT:
 				this.setHeight((Double) ofValue);
 				break;
-			case ":rotation":
+			case ROTATION:
+			case ANGLE:
 				this.setAngle((Double) ofValue);
 				break;
-			case ":centerPosition":
+			case CENTER_POSITION:
 				this.setCenterPosition((Dimensional) ofValue);
 				break;
-			case ":color":
+			case COLOR:
 				this.setColor((Color) ofValue);
 				break;
-			case "!momentOfInertia":
+			case MOMENT_OF_INERTIA:
 				throw new PropertyMisformatException(MOMENT_OF_INERTIA_MISFORMAT_EXCEPTION);
-			case ":mass":
+			case MASS:
 				this.setMass((Double) ofValue);
 				break;
-			case ":coefficientOfDynamicFrictionSqrt":
+			case COEFFICIENT_OF_DYNAMIC_FRICTION_SQRT:
 				this.coefficientOfDynamicFrictionSqrt = (Double) ofValue;
 				break;
-			case ":coefficientOfStaticFrictionSqrt":
+			case COEFFICIENT_OF_STATIC_FRICTION_SQRT:
 				this.coefficientOfStaticFrictionSqrt = (Double) ofValue;
 				break;
-			case ":coefficientOfRestitutionSqrt":
+			case COEFFICIENT_OF_RESTITUTION_SQRT:
 				this.coefficientOfRestitutionSqrt = (Double) ofValue;
 				break;
-			case ":shape":
+			case SHAPE:
 				this.shape = (Collidable) ofValue;
 				break;
-			case ":angle":
-				this.setAngle((Double) ofValue);
+			case FORCE_GROUPS:
+				this.setGroups(GroupKind.FORCE, ofValue);
 				break;
-			case ":forceGroups":
-				this.getUniverse().removeFromAllForceGroups(this);
-				for(Double f : (List<Double>) ofValue)
-					this.getUniverse().addToForceGroup(this, this.getUniverse().getForceGroupByNumber(f.intValue()));
-				super.putProperty(ofName, ofValue);
+			case COLLISION_GROUPS:
+				this.setGroups(GroupKind.COLLISION, ofValue);
 				break;
-			case ":collisionGroups":
-				this.getUniverse().removeFromAllCollisionGroups(this);
-				for(Double f : (List<Double>) ofValue)
-					this.getUniverse()
-						.addToCollisionGroup(this, this.getUniverse().getCollisionGroupByNumber(f.intValue()));
-				super.putProperty(ofName, ofValue);
+			case RAY_GROUPS:
+				this.setGroups(GroupKind.RAY, ofValue);
 				break;
-			case ":rayGroups":
-				this.getUniverse().removeFromAllRayGroups(this);
-				for(Double f : (List<Double>) ofValue)
-					this.getUniverse().addToRayGroup(this, this.getUniverse().getRayGroupByNumber(f.intValue()));
-				super.putProperty(ofName, ofValue);
+			case BOUNDARY_GROUPS:
+				this.setGroups(GroupKind.BOUNDARY, ofValue);
 				break;
-			case ":boundaryGroups":
-				this.getUniverse().removeAllBoundariesFrom(this);
-				for(Double f : (List<Double>) ofValue)
-					this.getUniverse().applyBoundaryTo(this.getUniverse().getBoundaryByNumber(f.intValue()), this);
-				super.putProperty(ofName, ofValue);
-				break;
-			case ":velocity":
+			case VELOCITY:
 				this.setVelocity((Dimensional) ofValue);
 				break;
+			case SLEEPING:
+				if((Boolean) ofValue) this.sleep();
+				else this.wake();
+				break;
+			case CONTINUOUS:
+				this.continuous = (Boolean) ofValue;
+				break;
+			case DERIVATIVE:
+				this.setDerivative(AbstractPhysicsEntity.derivativeOrders[key.getId()], (Dimensional) ofValue);
+				break;
+			case ROTATIONAL_DERIVATIVE:
+				this.setRotationalDerivative(AbstractPhysicsEntity.derivativeOrders[key.getId()], (Double) ofValue);
+				break;
+			case NONEXISTENT:
+				throw new NonexistentInternalPropertyException(key.getName());
 			default:
-				if((ofName.length() > 5) && ":deriv".equals(ofName.substring(0, 5)))
-					this.setDerivative(Integer.valueOf(ofName.substring(5)), (Dimensional) ofValue);
-				else if((ofName.length() > 6) && ":rderiv".equals(ofName.substring(0, 6)))
-					this.setRotationalDerivative(Integer.valueOf(ofName.substring(6)), (Double) ofValue);
-				else if(ofName.isEmpty() || ofName.charAt(0) == ':')
-					throw new NonexistentInternalPropertyException(ofName);
-				else super.putProperty(ofName, ofValue);
+				super.putProperty(key, ofValue);
 				break;
 		}
 	}
@@ -612,14 +959,24 @@ public abstract class AbstractPhysicsEntity extends AbstractEntity implements Ph
 		boolean friction = reactionType == ReactionType.FRICTION_AND_IMPULSE
 				|| reactionType == ReactionType.FRICTION_ONLY;
 
-		this.doInput("doCollide", NMaps.of(Pair.tuple("!collision", (Evaluator) new Constant(collision)),
-				Pair.tuple("!doimpulse", new Constant(impulses)), Pair.tuple("!dofriction", new Constant(friction)),
-				Pair.tuple("!mtv", new Constant(collision.getMTV())),
-				Pair.tuple("!impulse", new Constant(collision.getImpulse())),
-				Pair.tuple("!friction", new Constant(collision.getSlidingFrictionalImpulse())),
-				Pair.tuple("!collisionPoint", new Constant(collision.getCollisionPoint())),
-				Pair.tuple("!collidingWith", new Constant(collision.getOther().getProperty("name").toString()))));
+		EventArgs args = EventArgs.obtain();
+		args.putValue("!collision", collision);
+		args.putValue("!doimpulse", impulses);
+		args.putValue("!dofriction", friction);
+		args.putValue("!mtv", collision.getMTV());
+		args.putValue("!impulse", collision.getImpulse());
+		args.putValue("!friction", collision.getSlidingFrictionalImpulse());
+		args.putValue("!collisionPoint", collision.getCollisionPoint());
+		args.putValue("!collidingWith", collision.getOther().getProperty(AbstractPhysicsEntity.NAME).toString());
+		try
+		{
+			this.doInput("doCollide", args);
+		} finally
+		{
+			args.release();
+		}
 		if(collision.getMTV().mag2() == 0) return;
+		if(!collision.getOther().isSleeping()) this.wake();
 		this.applyLocationChange(collision.getMTV());
 
 		if(impulses)
@@ -632,6 +989,20 @@ public abstract class AbstractPhysicsEntity extends AbstractEntity implements Ph
 		}
 	}
 
+	/**
+	 * Removes this {@code PhysicsEntity} from a single group.
+	 *
+	 * @param kind
+	 * 		The kind of group
+	 * @param group
+	 * 		The number of the group
+	 */
+	@Override
+	public void removeFromGroup(GroupKind kind, double group)
+	{
+		this.setGroupMask(kind, GroupMask.without(this.groupMasks[kind.ordinal()], kind, group));
+	}
+
 	/**
 	 * Adds to the current angle of this {@code PhysicsEntity}
 	 * TODO counterclockwise?
@@ -667,7 +1038,7 @@ public abstract class AbstractPhysicsEntity extends AbstractEntity implements Ph
 	{
 		this.getShape().setCenterPosition(centerPosition);
 		this.pdl.setDerivative(0, new Vector(centerPosition));
-		if(this.isSprite()) ((Drawable) this.getProperty(":sprite")).setCenterPosition(centerPosition);
+		if(this.isSprite()) this.getProperty(PhysicsEntity.SPRITE).setCenterPosition(centerPosition);
 	}
 
 	/**
@@ -700,7 +1071,7 @@ public abstract class AbstractPhysicsEntity extends AbstractEntity implements Ph
 	public void setHeight(double h)
 	{
 		this.getShape().setHeight(h);
-		if(this.isSprite()) ((Drawable) this.getProperty(":sprite")).setHeight(h);
+		if(this.isSprite()) this.getProperty(PhysicsEntity.SPRITE).setHeight(h);
 	}
 
 	/**
@@ -735,6 +1106,7 @@ public abstract class AbstractPhysicsEntity extends AbstractEntity implements Ph
 	@Override
 	public void setRotationalVelocity(double rotationalVelocity)
 	{
+		if(this.sleeping && Math.abs(rotationalVelocity) >= SLEEP_ANGULAR_THRESHOLD) this.wake();
 		this.rdl.setDerivative(1, rotationalVelocity);
 	}
 
@@ -747,7 +1119,9 @@ public abstract class AbstractPhysicsEntity extends AbstractEntity implements Ph
 	@Override
 	public void setVelocity(Dimensional newVelocity)
 	{
-		this.pdl.setDerivative(1, new Vector(newVelocity));
+		Vector velocity = new Vector(newVelocity);
+		if(this.sleeping && velocity.mag2() >= (SLEEP_LINEAR_THRESHOLD * SLEEP_LINEAR_THRESHOLD)) this.wake();
+		this.pdl.setDerivative(1, velocity);
 	}
 
 	/**
@@ -758,7 +1132,92 @@ public abstract class AbstractPhysicsEntity extends AbstractEntity implements Ph
 	public void setWidth(double w)
 	{
 		this.getShape().setWidth(w);
-		if(this.isSprite()) ((Drawable) this.getProperty(":sprite")).setWidth(w);
+		if(this.isSprite()) this.getProperty(PhysicsEntity.SPRITE).setWidth(w);
+	}
+
+	/**
+	 * Puts this {@code PhysicsEntity} to sleep immediately, stopping its linear and rotational velocity. Higher
+	 * derivatives are kept, and take effect again once it wakes.
+	 */
+	@Override
+	public void sleep()
+	{
+		this.sleeping = true;
+		this.ticksAtRest = TICKS_UNTIL_SLEEP;
+		this.pdl.setDerivative(1, Vector.ZERO_2D);
+		this.rdl.setDerivative(1, 0.0);
+	}
+
+	/**
+	 * Predicts the movement of this {@code PhysicsEntity} over the coming tick from its velocity and this tick's forces
+	 * and impulses, and finds the earliest time of impact with any of the {@code obstacles}. Does nothing unless this
+	 * {@code PhysicsEntity} is continuous and awake.
+	 *
+	 * @param obstacles
+	 * 		Every {@code PhysicsEntity} this one may collide with
+	 * @param nanosSinceLastTick
+	 * 		The length of the coming tick, in nanoseconds
+	 *
+	 * @return The fraction, between 0 and 1, of the coming tick over which this {@code PhysicsEntity} will move
+	 */
+	@Override
+	public double sweep(Iterable<? extends PhysicsEntity> obstacles, long nanosSinceLastTick)
+	{
+		this.stepFraction = 1.0;
+		if(!this.continuous || this.sleeping) return this.stepFraction;
+
+		this.collectFieldForce();
+		Vector velocity = this.getVelocity();
+		if(this.mass > 0) velocity = velocity.plus(this.forces.smult(nanosSinceLastTick / ONE_SECOND / this.mass))
+											 .plus(this.impulses.sdiv(this.mass));
+		Vector displacement = velocity.smult(nanosSinceLastTick / ONE_SECOND);
+		if(displacement.isZero()) return this.stepFraction;
+
+		for(PhysicsEntity obstacle : obstacles)
+		{
+			if(obstacle == this) continue;
+			Optional<Double> impact = Collidables.timeOfImpact(this.getShape(), displacement, obstacle.getShape());
+			if(impact.isPresent() && (impact.get() < this.stepFraction)) this.stepFraction = impact.get();
+		}
+		return this.stepFraction;
+	}
+
+	/**
+	 * Counts the number of consecutive ticks this {@code PhysicsEntity} has been at rest, putting it to sleep once it
+	 * has been at rest for TICKS_UNTIL_SLEEP ticks.
+	 */
+	private void updateRest()
+	{
+		if((this.getVelocity().mag2() < (SLEEP_LINEAR_THRESHOLD * SLEEP_LINEAR_THRESHOLD)) && (
+				Math.abs(this.getRotationalVelocity()) < SLEEP_ANGULAR_THRESHOLD))
+		{
+			this.ticksAtRest++;
+			if(this.ticksAtRest >= TICKS_UNTIL_SLEEP) this.sleep();
+		} else this.ticksAtRest = 0;
+	}
+
+	/**
+	 * Stops counting this {@code PhysicsEntity} in {@code Subscriptions}, and releases the ids of the groups it is in,
+	 * so that GroupMask may give them to other group numbers once no other {@code PhysicsEntity} is in them.
+	 */
+	@Override
+	public void unsubscribe()
+	{
+		super.unsubscribe();
+		if(!this.holdingGroups) return;
+		this.holdingGroups = false;
+		for(GroupKind kind : GroupKind.values())
+			GroupMask.release(kind, this.groupMasks[kind.ordinal()]);
+	}
+
+	/**
+	 * Wakes this {@code PhysicsEntity}, if it is asleep, and restarts the count of ticks it has been at rest.
+	 */
+	@Override
+	public void wake()
+	{
+		this.sleeping = false;
+		this.ticksAtRest = 0;
 	}
 
 	@Override
@@ -775,6 +1234,7 @@ public abstract class AbstractPhysicsEntity extends AbstractEntity implements Ph
 				", rdl=" + this.rdl +
 				", rotationalImpulse=" + this.rotationalImpulse +
 				", shape=" + this.shape +
+				", sleeping=" + this.sleeping +
 				", torque=" + this.torque +
 				'}';
 	}
@@ -796,4 +1256,112 @@ public abstract class AbstractPhysicsEntity extends AbstractEntity implements Ph
 	{
 		return this.getShape().yInterval();
 	}
+
+	/**
+	 * @param key
+	 * 		A key naming a property
+	 *
+	 * @return Which internal property of a {@code PhysicsEntity} that key names, if any
+	 */
+	private static InternalProperty internalPropertyOf(PropertyKey<?> key)
+	{
+		int id = key.getId();
+		if(id >= AbstractPhysicsEntity.internalProperties.length) AbstractPhysicsEntity.resolveInternalProperties();
+		return AbstractPhysicsEntity.internalProperties[id];
+	}
+
+	/**
+	 * @param suffix
+	 * 		The end of a property name, after :deriv or :rderiv
+	 *
+	 * @return The nonnegative integer it spells, or -1 if it is not one
+	 */
+	private static int orderOf(String suffix)
+	{
+		if(suffix.isEmpty()) return -1;
+		for(int i = 0; i < suffix.length(); i++)
+			if(!Character.isDigit(suffix.charAt(i))) return -1;
+		return Integer.parseInt(suffix);
+	}
+
+	/**
+	 * Works out which internal property, if any, each property name interned since the last call names. The name of a
+	 * derivative is parsed here, once, and its order kept in {@code derivativeOrders}.
+	 */
+	private static synchronized void resolveInternalProperties()
+	{
+		int from = AbstractPhysicsEntity.internalProperties.length;
+		int count = PropertyKey.count();
+		if(from >= count) return;
+
+		InternalProperty[] resolved = Arrays.copyOf(AbstractPhysicsEntity.internalProperties, count);
+		int[] orders = Arrays.copyOf(AbstractPhysicsEntity.derivativeOrders, count);
+		for(int id = from; id < count; id++)
+		{
+			PropertyKey<Object> key = PropertyKey.withId(id);
+			String name = key.getName();
+			resolved[id] = InternalProperty.NONE;
+			for(InternalProperty property : InternalProperty.values())
+				for(PropertyKey<?> named : property.keys)
+					if(key.equals(named)) resolved[id] = property;
+			if(resolved[id] != InternalProperty.NONE) continue;
+
+			if(name.startsWith(":deriv") && AbstractPhysicsEntity.orderOf(name.substring(6)) >= 0)
+			{
+				resolved[id] = InternalProperty.DERIVATIVE;
+				orders[id] = AbstractPhysicsEntity.orderOf(name.substring(6));
+			}
+			else if(name.startsWith(":rderiv") && AbstractPhysicsEntity.orderOf(name.substring(7)) >= 0)
+			{
+				resolved[id] = InternalProperty.ROTATIONAL_DERIVATIVE;
+				orders[id] = AbstractPhysicsEntity.orderOf(name.substring(7));
+			}
+			else if(name.isEmpty() || name.charAt(0) == ':') resolved[id] = InternalProperty.NONEXISTENT;
+		}
+		AbstractPhysicsEntity.derivativeOrders = orders;
+		AbstractPhysicsEntity.internalProperties = resolved;
+	}
+
+	/**
+	 * The properties which a {@code PhysicsEntity} treats specially. STORED properties are internal, but are kept like
+	 * any other property; NONE is every property which is not internal.
+	 */
+	private static enum InternalProperty
+	{
+		ANGLE(PhysicsEntity.ANGLE),
+		BOUNDARY_GROUPS(PhysicsEntity.BOUNDARY_GROUPS),
+		CENTER_POSITION(PhysicsEntity.CENTER_POSITION),
+		COEFFICIENT_OF_DYNAMIC_FRICTION_SQRT(PhysicsEntity.COEFFICIENT_OF_DYNAMIC_FRICTION_SQRT),
+		COEFFICIENT_OF_RESTITUTION_SQRT(PhysicsEntity.COEFFICIENT_OF_RESTITUTION_SQRT),
+		COEFFICIENT_OF_STATIC_FRICTION_SQRT(PhysicsEntity.COEFFICIENT_OF_STATIC_FRICTION_SQRT),
+		COLLISION_GROUPS(PhysicsEntity.COLLISION_GROUPS),
+		COLOR(PhysicsEntity.COLOR),
+		CONTINUOUS(PhysicsEntity.CONTINUOUS),
+		FORCE_GROUPS(PhysicsEntity.FORCE_GROUPS),
+		HEIGHT(PhysicsEntity.HEIGHT),
+		MASS(PhysicsEntity.MASS),
+		MOMENT_OF_INERTIA(PhysicsEntity.MOMENT_OF_INERTIA),
+		RAY_GROUPS(PhysicsEntity.RAY_GROUPS),
+		ROTATION(PhysicsEntity.ROTATION),
+		SHAPE(PhysicsEntity.SHAPE),
+		SLEEPING(PhysicsEntity.SLEEPING),
+		VELOCITY(PhysicsEntity.VELOCITY),
+		WIDTH(PhysicsEntity.WIDTH),
+		STORED(PhysicsEntity.ANIMATED, PhysicsEntity.HAS_SPRITE, PhysicsEntity.SPRITE),
+		DERIVATIVE,
+		ROTATIONAL_DERIVATIVE,
+		NONEXISTENT,
+		NONE;
+
+		private final PropertyKey<?>[] keys;
+
+		/**
+		 * @param keys
+		 * 		The keys naming this property; none, if it is recognised by the form of its name
+		 */
+		private InternalProperty(PropertyKey<?>... keys)
+		{
+			this.keys = keys;
+		}
+	}
 }
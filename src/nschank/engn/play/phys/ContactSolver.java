@@ -0,0 +1,661 @@
+package nschank.engn.play.phys;
+
+import com.google.common.base.Optional;
+import nschank.collect.dim.Dimensional;
+import nschank.collect.dim.Vector;
+import nschank.engn.shape.collide.Collidable;
+import nschank.engn.shape.collide.ContactManifold;
+import nschank.engn.shape.collide.ManifoldCollision;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+
+/**
+ * Created by Nicolas Schank for package nschank.engn.play.phys
+ * Created on 9 Jun 2014
+ * Last updated on 3 Jul 2014
+ *
+ * An iterative (sequential impulse) solver for all of the contacts found during a single step. Rather than having each
+ * pair of {@code PhysicsEntity}s react to one another in whatever order they are found, every contact of the step is
+ * gathered first using {@code addContact}, and then {@code solve} resolves them all together:
+ * - Overlap is removed using the MTV of each contact, split between the two entities by inverse mass
+ * - The accumulated impulse of each contact from the previous step (keyed by the pair of entities, and by contact point
+ * for a ManifoldCollision with several) is applied up front
+ * - A number of velocity iterations are run, each of which applies a small corrective impulse to every contact while
+ * clamping the total normal impulse to be nonnegative and the total frictional impulse to the friction cone
+ *
+ * Velocities are changed directly, rather than through {@code applyImpulseAt}, so that later iterations see the effect
+ * of earlier ones. A {@code PhysicsEntity} with a nonpositive mass, or with the {@code !static} property, is treated as
+ * having infinite mass.
+ *
+ * @author nschank, Brown University
+ * @version 1.4
+ */
+public class ContactSolver
+{
+	/**
+	 * The number of velocity iterations run by {@code solve}, if none is given
+	 */
+	public static final int DEFAULT_VELOCITY_ITERATIONS = 8;
+	/**
+	 * The most contact points gathered between a single pair of entities
+	 */
+	public static final int MAX_CONTACT_POINTS = 2;
+
+	private final List<Contact> contacts;
+	private final Map<EntityPair, double[]> cachedImpulses;
+	private final Map<PhysicsEntity, Integer> bodyIndices;
+	private final List<PhysicsEntity> bodies;
+	private ReactionType reactionType;
+	private int velocityIterations;
+	private int contactCount;
+	private double[] velocityX;
+	private double[] velocityY;
+	private double[] rotationalVelocity;
+	private double[] inverseMass;
+	private double[] inverseMomentOfInertia;
+
+	/**
+	 * Creates a ContactSolver which runs {@value #DEFAULT_VELOCITY_ITERATIONS} velocity iterations per step, applying
+	 * both impulse and friction.
+	 */
+	public ContactSolver()
+	{
+		this(DEFAULT_VELOCITY_ITERATIONS, ReactionType.FRICTION_AND_IMPULSE);
+	}
+
+	/**
+	 * Creates a ContactSolver which runs the given number of velocity iterations per step.
+	 *
+	 * @param velocityIterations
+	 * 		How many times each contact is revisited per step; a positive integer
+	 * @param reactionType
+	 * 		Which reactions (overlap, impulse, friction) the solver should apply
+	 */
+	public ContactSolver(int velocityIterations, ReactionType reactionType)
+	{
+		if(velocityIterations <= 0) throw new IllegalArgumentException("Velocity iterations must be positive.");
+		this.velocityIterations = velocityIterations;
+		this.reactionType = reactionType;
+		this.contacts = new ArrayList<>();
+		this.cachedImpulses = new HashMap<>();
+		this.bodyIndices = new IdentityHashMap<>();
+		this.bodies = new ArrayList<>();
+		this.contactCount = 0;
+		this.velocityX = new double[0];
+		this.velocityY = new double[0];
+		this.rotationalVelocity = new double[0];
+		this.inverseMass = new double[0];
+		this.inverseMomentOfInertia = new double[0];
+	}
+
+	/**
+	 * Tests the two given {@code PhysicsEntity}s for a collision, and gathers the contact if one exists.
+	 *
+	 * @param a
+	 * 		A {@code PhysicsEntity}
+	 * @param b
+	 * 		Another {@code PhysicsEntity}, which may be colliding with {@code a}
+	 *
+	 * @return Whether a contact was gathered
+	 */
+	public boolean addContact(PhysicsEntity a, PhysicsEntity b)
+	{
+		Optional<Collidable.Collision> collision = a.getShape().collisionWith(b.getShape());
+		if(!collision.isPresent()) return false;
+		this.addContact(a, b, collision.get());
+		return true;
+	}
+
+	/**
+	 * Gathers a contact between two {@code PhysicsEntity}s, to be resolved on the next call to {@code solve}. If either
+	 * {@code PhysicsEntity} is awake and movable, the other is woken. A ManifoldCollision gathers one contact for each
+	 * of its contact points, of which only the first removes the overlap.
+	 *
+	 * @param a
+	 * 		A {@code PhysicsEntity}
+	 * @param b
+	 * 		Another {@code PhysicsEntity}, which is colliding with {@code a}
+	 * @param collision
+	 * 		The collision between the shapes of {@code a} and {@code b}, from the point of view of {@code a}
+	 */
+	public void addContact(PhysicsEntity a, PhysicsEntity b, Collidable.Collision collision)
+	{
+		Vector mtv = collision.getMTV();
+		if(mtv.mag2() == 0) return;
+		ContactSolver.wakeEachOther(a, b);
+
+		double mag = mtv.mag();
+		double normalX = mtv.getCoordinate(0) / mag;
+		double normalY = mtv.getCoordinate(1) / mag;
+		if(collision instanceof ManifoldCollision)
+		{
+			List<Dimensional> points = ((ManifoldCollision) collision).getContactPoints();
+			for(int i = 0; i < points.size() && i < MAX_CONTACT_POINTS; i++)
+				this.addContactPoint(a, b, normalX, normalY, i == 0 ? mag : 0, points.get(i).getCoordinate(0),
+						points.get(i).getCoordinate(1), i);
+		}
+		else
+		{
+			Dimensional point = collision.getCollisionPoint();
+			this.addContactPoint(a, b, normalX, normalY, mag, point.getCoordinate(0), point.getCoordinate(1), 0);
+		}
+	}
+
+	/**
+	 * Gathers a contact between two {@code PhysicsEntity}s from a ContactManifold, as filled by a CollisionDispatcher or
+	 * ContactCache, without creating a Collision. Behaves as the Collision version otherwise; a ContactManifold which is
+	 * not colliding is ignored.
+	 *
+	 * @param a
+	 * 		A {@code PhysicsEntity}
+	 * @param b
+	 * 		Another {@code PhysicsEntity}
+	 * @param manifold
+	 * 		The contact between the shapes of {@code a} and {@code b}, from the point of view of {@code a}
+	 */
+	public void addContact(PhysicsEntity a, PhysicsEntity b, ContactManifold manifold)
+	{
+		if(!manifold.isColliding()) return;
+		double mtvX = manifold.getMTVX();
+		double mtvY = manifold.getMTVY();
+		double mag = Math.sqrt((mtvX * mtvX) + (mtvY * mtvY));
+		if(mag == 0) return;
+		ContactSolver.wakeEachOther(a, b);
+
+		for(int i = 0; i < manifold.getPointCount() && i < MAX_CONTACT_POINTS; i++)
+			this.addContactPoint(a, b, mtvX / mag, mtvY / mag, i == 0 ? mag : 0, manifold.getPointX(i),
+					manifold.getPointY(i), i);
+	}
+
+	/**
+	 * @return The number of contacts gathered since the last call to {@code solve}
+	 */
+	public int getContactCount()
+	{
+		return this.contactCount;
+	}
+
+	/**
+	 * @return The type of reaction applied by this solver
+	 */
+	public ReactionType getReactionType()
+	{
+		return this.reactionType;
+	}
+
+	/**
+	 * @param reactionType
+	 * 		The type of reaction this solver should apply from now on
+	 */
+	public void setReactionType(ReactionType reactionType)
+	{
+		this.reactionType = reactionType;
+	}
+
+	/**
+	 * @return The number of velocity iterations run per step
+	 */
+	public int getVelocityIterations()
+	{
+		return this.velocityIterations;
+	}
+
+	/**
+	 * @param velocityIterations
+	 * 		The number of velocity iterations to run per step; a positive integer
+	 */
+	public void setVelocityIterations(int velocityIterations)
+	{
+		if(velocityIterations <= 0) throw new IllegalArgumentException("Velocity iterations must be positive.");
+		this.velocityIterations = velocityIterations;
+	}
+
+	/**
+	 * Forgets every impulse remembered from previous steps, so that the next step will not be warm started. Should be
+	 * used whenever entities are teleported or the world is reset.
+	 */
+	public void clearCache()
+	{
+		this.cachedImpulses.clear();
+	}
+
+	/**
+	 * Resolves every contact gathered since the last call, and then forgets them. The accumulated impulse of every
+	 * contact is remembered for the next step; pairs which are no longer in contact are forgotten.
+	 */
+	public void solve()
+	{
+		boolean impulses = this.reactionType == ReactionType.FRICTION_AND_IMPULSE
+				|| this.reactionType == ReactionType.IMPULSE_ONLY;
+		boolean friction = this.reactionType == ReactionType.FRICTION_AND_IMPULSE
+				|| this.reactionType == ReactionType.FRICTION_ONLY;
+
+		this.gatherBodies();
+		this.correctPositions();
+
+		if(impulses || friction)
+		{
+			this.prepareContacts(impulses, friction);
+			for(int iteration = 0; iteration < this.velocityIterations; iteration++)
+				for(int i = 0; i < this.contactCount; i++)
+					this.solveContact(this.contacts.get(i), impulses, friction);
+			this.storeVelocities();
+		}
+
+		this.cacheImpulses();
+		this.reset();
+	}
+
+	/**
+	 * Assigns every entity within a contact an index into the velocity arrays, and reads its velocity and inverse mass.
+	 */
+	private void gatherBodies()
+	{
+		for(int i = 0; i < this.contactCount; i++)
+		{
+			Contact c = this.contacts.get(i);
+			c.indexA = this.indexOf(c.a);
+			c.indexB = this.indexOf(c.b);
+		}
+
+		int n = this.bodies.size();
+		if(this.velocityX.length < n)
+		{
+			this.velocityX = new double[n];
+			this.velocityY = new double[n];
+			this.rotationalVelocity = new double[n];
+			this.inverseMass = new double[n];
+			this.inverseMomentOfInertia = new double[n];
+		}
+
+		for(int i = 0; i < n; i++)
+		{
+			PhysicsEntity body = this.bodies.get(i);
+			Vector velocity = body.getVelocity();
+			this.velocityX[i] = velocity.getCoordinate(0);
+			this.velocityY[i] = velocity.getCoordinate(1);
+			this.rotationalVelocity[i] = body.getRotationalVelocity();
+
+			if(isImmovable(body))
+			{
+				this.inverseMass[i] = 0;
+				this.inverseMomentOfInertia[i] = 0;
+			} else
+			{
+				this.inverseMass[i] = 1.0 / body.getMass();
+				double inertia = body.getMomentOfInertia();
+				this.inverseMomentOfInertia[i] = inertia > 0 ? 1.0 / inertia : 0;
+			}
+		}
+	}
+
+	/**
+	 * @param body
+	 * 		A {@code PhysicsEntity} within a contact
+	 *
+	 * @return That entity's index into the velocity arrays, assigning one if necessary
+	 */
+	private int indexOf(PhysicsEntity body)
+	{
+		Integer index = this.bodyIndices.get(body);
+		if(index == null)
+		{
+			index = this.bodies.size();
+			this.bodyIndices.put(body, index);
+			this.bodies.add(body);
+		}
+		return index;
+	}
+
+	/**
+	 * Gathers a single contact point between two {@code PhysicsEntity}s, reusing a previously allocated contact if one
+	 * is available.
+	 *
+	 * @param a
+	 * 		A {@code PhysicsEntity}
+	 * @param b
+	 * 		Another {@code PhysicsEntity}, which is colliding with {@code a}
+	 * @param normalX
+	 * 		The x component of the unit MTV of {@code a}
+	 * @param normalY
+	 * 		The y component of the unit MTV of {@code a}
+	 * @param depth
+	 * 		The overlap to be removed at this contact; only the first contact point of a pair removes any
+	 * @param pointX
+	 * 		The x coordinate of the point at which the two touch
+	 * @param pointY
+	 * 		The y coordinate of the point at which the two touch
+	 * @param feature
+	 * 		Which contact point between the two this is, starting at 0
+	 */
+	private void addContactPoint(PhysicsEntity a, PhysicsEntity b, double normalX, double normalY, double depth,
+								 double pointX, double pointY, int feature)
+	{
+		Contact c;
+		if(this.contactCount < this.contacts.size()) c = this.contacts.get(this.contactCount);
+		else
+		{
+			c = new Contact();
+			this.contacts.add(c);
+		}
+		this.contactCount++;
+
+		c.a = a;
+		c.b = b;
+		c.feature = feature;
+		c.normalX = normalX;
+		c.normalY = normalY;
+		c.depth = depth;
+		c.pointX = pointX;
+		c.pointY = pointY;
+	}
+
+	/**
+	 * Removes the overlap of every contact, splitting the MTV between the two entities by their inverse masses.
+	 */
+	private void correctPositions()
+	{
+		for(int i = 0; i < this.contactCount; i++)
+		{
+			Contact c = this.contacts.get(i);
+			double invMassA = this.inverseMass[c.indexA];
+			double invMassB = this.inverseMass[c.indexB];
+			double invMassSum = invMassA + invMassB;
+			if(invMassSum == 0 || c.depth == 0) continue;
+
+			double shareA = c.depth * invMassA / invMassSum;
+			double shareB = c.depth * invMassB / invMassSum;
+			if(shareA > 0) c.a.applyLocationChange(new Vector(c.normalX * shareA, c.normalY * shareA));
+			if(shareB > 0) c.b.applyLocationChange(new Vector(-c.normalX * shareB, -c.normalY * shareB));
+		}
+	}
+
+	/**
+	 * Calculates the effective mass, restitution, and friction of every contact, then applies the impulses cached from
+	 * the previous step.
+	 *
+	 * @param impulses
+	 * 		Whether normal impulses are being applied
+	 * @param friction
+	 * 		Whether frictional impulses are being applied
+	 */
+	private void prepareContacts(boolean impulses, boolean friction)
+	{
+		for(int i = 0; i < this.contactCount; i++)
+		{
+			Contact c = this.contacts.get(i);
+			int a = c.indexA;
+			int b = c.indexB;
+
+			Dimensional centerA = c.a.getCenterPosition();
+			Dimensional centerB = c.b.getCenterPosition();
+			c.relativeAX = c.pointX - centerA.getCoordinate(0);
+			c.relativeAY = c.pointY - centerA.getCoordinate(1);
+			c.relativeBX = c.pointX - centerB.getCoordinate(0);
+			c.relativeBY = c.pointY - centerB.getCoordinate(1);
+
+			double tangentX = -c.normalY;
+			double tangentY = c.normalX;
+
+			double crossAN = cross(c.relativeAX, c.relativeAY, c.normalX, c.normalY);
+			double crossBN = cross(c.relativeBX, c.relativeBY, c.normalX, c.normalY);
+			double normalMass = this.inverseMass[a] + this.inverseMass[b]
+					+ (this.inverseMomentOfInertia[a] * crossAN * crossAN)
+					+ (this.inverseMomentOfInertia[b] * crossBN * crossBN);
+			c.normalMass = normalMass > 0 ? 1.0 / normalMass : 0;
+
+			double crossAT = cross(c.relativeAX, c.relativeAY, tangentX, tangentY);
+			double crossBT = cross(c.relativeBX, c.relativeBY, tangentX, tangentY);
+			double tangentMass = this.inverseMass[a] + this.inverseMass[b]
+					+ (this.inverseMomentOfInertia[a] * crossAT * crossAT)
+					+ (this.inverseMomentOfInertia[b] * crossBT * crossBT);
+			c.tangentMass = tangentMass > 0 ? 1.0 / tangentMass : 0;
+
+			c.friction = c.a.getCoefficientOfDynamicFrictionSqrt() * c.b.getCoefficientOfDynamicFrictionSqrt();
+
+			double approach = this.relativeVelocity(c, c.normalX, c.normalY);
+			double restitution = c.a.getCoefficientOfRestitutionSqrt() * c.b.getCoefficientOfRestitutionSqrt();
+			c.bias = approach < 0 ? -restitution * approach : 0;
+			//Without normal impulses, friction is bounded by the impulse that would have stopped the approach
+			c.frictionBound = approach < 0 ? -approach * c.normalMass : 0;
+
+			double[] cached = this.cachedImpulses.get(new EntityPair(c.a, c.b));
+			c.normalImpulse = (cached != null && impulses) ? cached[2 * c.feature] : 0;
+			c.tangentImpulse = (cached != null && friction) ? cached[(2 * c.feature) + 1] : 0;
+			if(c.normalImpulse != 0 || c.tangentImpulse != 0)
+				this.applyImpulse(c, (c.normalX * c.normalImpulse) + (tangentX * c.tangentImpulse),
+						(c.normalY * c.normalImpulse) + (tangentY * c.tangentImpulse));
+		}
+	}
+
+	/**
+	 * Runs a single velocity iteration on a single contact.
+	 *
+	 * @param c
+	 * 		A contact
+	 * @param impulses
+	 * 		Whether normal impulses are being applied
+	 * @param friction
+	 * 		Whether frictional impulses are being applied
+	 */
+	private void solveContact(Contact c, boolean impulses, boolean friction)
+	{
+		if(impulses)
+		{
+			double normalVelocity = this.relativeVelocity(c, c.normalX, c.normalY);
+			double lambda = c.normalMass * (c.bias - normalVelocity);
+			double accumulated = Math.max(c.normalImpulse + lambda, 0);
+			lambda = accumulated - c.normalImpulse;
+			c.normalImpulse = accumulated;
+			if(lambda != 0) this.applyImpulse(c, c.normalX * lambda, c.normalY * lambda);
+		}
+
+		if(friction)
+		{
+			double tangentX = -c.normalY;
+			double tangentY = c.normalX;
+			double tangentVelocity = this.relativeVelocity(c, tangentX, tangentY);
+			double lambda = -c.tangentMass * tangentVelocity;
+			double bound = c.friction * (impulses ? c.normalImpulse : c.frictionBound);
+			double accumulated = Math.max(-bound, Math.min(bound, c.tangentImpulse + lambda));
+			lambda = accumulated - c.tangentImpulse;
+			c.tangentImpulse = accumulated;
+			if(lambda != 0) this.applyImpulse(c, tangentX * lambda, tangentY * lambda);
+		}
+	}
+
+	/**
+	 * @param c
+	 * 		A contact
+	 * @param axisX
+	 * 		The x coordinate of a unit axis
+	 * @param axisY
+	 * 		The y coordinate of a unit axis
+	 *
+	 * @return The velocity of the first entity relative to the second at the contact point, along the given axis
+	 */
+	private double relativeVelocity(Contact c, double axisX, double axisY)
+	{
+		int a = c.indexA;
+		int b = c.indexB;
+		double vx = (this.velocityX[a] - (this.rotationalVelocity[a] * c.relativeAY)) - (this.velocityX[b] - (
+				this.rotationalVelocity[b] * c.relativeBY));
+		double vy = (this.velocityY[a] + (this.rotationalVelocity[a] * c.relativeAX)) - (this.velocityY[b] + (
+				this.rotationalVelocity[b] * c.relativeBX));
+		return (vx * axisX) + (vy * axisY);
+	}
+
+	/**
+	 * Applies an impulse to the first entity of a contact at the contact point, and its opposite to the second entity.
+	 *
+	 * @param c
+	 * 		A contact
+	 * @param impulseX
+	 * 		The x coordinate of the impulse on the first entity
+	 * @param impulseY
+	 * 		The y coordinate of the impulse on the first entity
+	 */
+	private void applyImpulse(Contact c, double impulseX, double impulseY)
+	{
+		int a = c.indexA;
+		int b = c.indexB;
+		this.velocityX[a] += impulseX * this.inverseMass[a];
+		this.velocityY[a] += impulseY * this.inverseMass[a];
+		this.rotationalVelocity[a] += this.inverseMomentOfInertia[a] * cross(c.relativeAX, c.relativeAY, impulseX,
+				impulseY);
+		this.velocityX[b] -= impulseX * this.inverseMass[b];
+		this.velocityY[b] -= impulseY * this.inverseMass[b];
+		this.rotationalVelocity[b] -= this.inverseMomentOfInertia[b] * cross(c.relativeBX, c.relativeBY, impulseX,
+				impulseY);
+	}
+
+	/**
+	 * Writes the solved velocities back into every movable entity.
+	 */
+	private void storeVelocities()
+	{
+		for(int i = 0; i < this.bodies.size(); i++)
+		{
+			if(this.inverseMass[i] == 0) continue;
+			PhysicsEntity body = this.bodies.get(i);
+			body.setVelocity(new Vector(this.velocityX[i], this.velocityY[i]));
+			body.setRotationalVelocity(this.rotationalVelocity[i]);
+		}
+	}
+
+	/**
+	 * Replaces the remembered impulses with those of the current step.
+	 */
+	private void cacheImpulses()
+	{
+		this.cachedImpulses.clear();
+		for(int i = 0; i < this.contactCount; i++)
+		{
+			Contact c = this.contacts.get(i);
+			EntityPair pair = new EntityPair(c.a, c.b);
+			double[] cached = this.cachedImpulses.get(pair);
+			if(cached == null)
+			{
+				cached = new double[2 * MAX_CONTACT_POINTS];
+				this.cachedImpulses.put(pair, cached);
+			}
+			cached[2 * c.feature] = c.normalImpulse;
+			cached[(2 * c.feature) + 1] = c.tangentImpulse;
+		}
+	}
+
+	/**
+	 * Forgets every contact and entity of the current step, while keeping the allocated storage for reuse.
+	 */
+	private void reset()
+	{
+		for(int i = 0; i < this.contactCount; i++)
+		{
+			Contact c = this.contacts.get(i);
+			c.a = null;
+			c.b = null;
+		}
+		this.contactCount = 0;
+		this.bodyIndices.clear();
+		this.bodies.clear();
+	}
+
+	/**
+	 * @param body
+	 * 		A {@code PhysicsEntity}
+	 *
+	 * @return Whether that entity should be treated as having infinite mass
+	 */
+	private static boolean isImmovable(PhysicsEntity body)
+	{
+		return body.getMass() <= 0 || Boolean.TRUE.equals(body.getProperty(StaticPhysicsEntity.STATIC));
+	}
+
+	/**
+	 * Wakes each of two touching {@code PhysicsEntity}s if the other is awake and movable. An immovable entity is never
+	 * put to sleep by anything but its own velocity, so it must not keep what rests upon it awake.
+	 *
+	 * @param a
+	 * 		A {@code PhysicsEntity}
+	 * @param b
+	 * 		Another {@code PhysicsEntity}, which is touching {@code a}
+	 */
+	private static void wakeEachOther(PhysicsEntity a, PhysicsEntity b)
+	{
+		if(!a.isSleeping() && !ContactSolver.isImmovable(a)) b.wake();
+		if(!b.isSleeping() && !ContactSolver.isImmovable(b)) a.wake();
+	}
+
+	/**
+	 * @return The z coordinate of the cross product of (ax, ay) and (bx, by)
+	 */
+	private static double cross(double ax, double ay, double bx, double by)
+	{
+		return (ax * by) - (ay * bx);
+	}
+
+	/**
+	 * A single contact point between two entities, along with its working state during a solve.
+	 */
+	private static final class Contact
+	{
+		private PhysicsEntity a;
+		private PhysicsEntity b;
+		private int indexA;
+		private int indexB;
+		private int feature;
+		private double normalX;
+		private double normalY;
+		private double depth;
+		private double pointX;
+		private double pointY;
+		private double relativeAX;
+		private double relativeAY;
+		private double relativeBX;
+		private double relativeBY;
+		private double normalMass;
+		private double tangentMass;
+		private double friction;
+		private double bias;
+		private double frictionBound;
+		private double normalImpulse;
+		private double tangentImpulse;
+	}
+
+	/**
+	 * An unordered pair of entities, compared by identity. The accumulated impulses of a contact are the same regardless
+	 * of which entity is considered first, so the order is unimportant.
+	 */
+	private static final class EntityPair
+	{
+		private final PhysicsEntity first;
+		private final PhysicsEntity second;
+
+		EntityPair(PhysicsEntity first, PhysicsEntity second)
+		{
+			this.first = first;
+			this.second = second;
+		}
+
+		@Override
+		public boolean equals(Object o)
+		{
+			if(this == o) return true;
+			if(!(o instanceof EntityPair)) return false;
+			EntityPair other = (EntityPair) o;
+			return (this.first == other.first && this.second == other.second) || (this.first == other.second
+					&& this.second == other.first);
+		}
+
+		@Override
+		public int hashCode()
+		{
+			return System.identityHashCode(this.first) + System.identityHashCode(this.second);
+		}
+	}
+}
@@ -0,0 +1,56 @@
+package nschank.engn.play.phys;
+
+import nschank.engn.play.PropertyKey;
+
+import java.util.Collection;
+
+
+/**
+ * Created by Nicolas Schank for package nschank.engn.play.phys
+ * Created on 27 Jun 2014
+ * Last updated on 3 Jul 2014
+ *
+ * A kind of group to which a {@code PhysicsEntity} may belong, along with the property which lists its membership in
+ * groups of that kind. Membership in each kind of group is kept as a single bitmask; see {@code GroupMask}.
+ *
+ * @author nschank, Brown University
+ * @version 1.1
+ */
+public enum GroupKind
+{
+	/**
+	 * Boundaries which contain a {@code PhysicsEntity}.
+	 */
+	BOUNDARY(PhysicsEntity.BOUNDARY_GROUPS),
+	/**
+	 * Groups whose members collide with one another.
+	 */
+	COLLISION(PhysicsEntity.COLLISION_GROUPS),
+	/**
+	 * Groups whose members are acted upon by the same forces.
+	 */
+	FORCE(PhysicsEntity.FORCE_GROUPS),
+	/**
+	 * Groups whose members may be hit by the same rays.
+	 */
+	RAY(PhysicsEntity.RAY_GROUPS);
+
+	private final PropertyKey<Collection<Double>> property;
+
+	/**
+	 * @param property
+	 * 		The property listing membership in groups of this kind
+	 */
+	private GroupKind(PropertyKey<Collection<Double>> property)
+	{
+		this.property = property;
+	}
+
+	/**
+	 * @return The property listing membership in groups of this kind
+	 */
+	public PropertyKey<Collection<Double>> getProperty()
+	{
+		return this.property;
+	}
+}
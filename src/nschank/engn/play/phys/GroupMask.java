@@ -0,0 +1,289 @@
+package nschank.engn.play.phys;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+
+/**
+ * Created by Nicolas Schank for package nschank.engn.play.phys
+ * Created on 27 Jun 2014
+ * Last updated on 3 Jul 2014
+ *
+ * A Utility class for membership in groups, kept as a bitmask. Each group number of each kind of group is given a dense
+ * id, from 0, the first time it is used, so a {@code PhysicsEntity}'s membership in all groups of one kind fits in a
+ * single long: the group with id {@code n} is the {@code n}th bit. Joining or leaving a group then flips one bit, and
+ * two {@code PhysicsEntity}s share a group exactly when their masks overlap.
+ *
+ * Group numbers may be any number, negative or fractional, but at most {@code MAX_GROUPS} different numbers may be in
+ * use for each kind of group at once. A {@code PhysicsEntity} retains the ids of the groups it is in, and releases them
+ * when it leaves them or is removed; once every id of a kind has been given out, the id of a group nobody is in is
+ * given to the next new number, so that a long session may use any number of groups over time.
+ *
+ * @author nschank, Brown University
+ * @version 1.2
+ */
+public final class GroupMask
+{
+	public static final int MAX_GROUPS = Long.SIZE;
+
+	private static final List<Map<Double, Integer>> ids = new ArrayList<>();
+	private static final List<List<Double>> numbers = new ArrayList<>();
+	private static final List<int[]> references = new ArrayList<>();
+
+	/**
+	 *
+	 */
+	private GroupMask()
+	{
+		//Utility class
+	}
+
+	/**
+	 * @param kind
+	 * 		The kind of group
+	 * @param group
+	 * 		The number of a group
+	 *
+	 * @return The mask of only that group
+	 *
+	 * @throws IllegalStateException
+	 * 		If the group is new, and {@code MAX_GROUPS} groups of that kind are already in use
+	 */
+	public static long bit(GroupKind kind, double group)
+	{
+		return 1L << GroupMask.idOf(kind, group, true, 0);
+	}
+
+	/**
+	 * @param mask
+	 * 		A mask of groups
+	 * @param kind
+	 * 		The kind of group
+	 * @param group
+	 * 		The number of a group
+	 *
+	 * @return Whether that group is in the mask
+	 */
+	public static boolean contains(long mask, GroupKind kind, double group)
+	{
+		int id = GroupMask.idOf(kind, group, false, 0);
+		return id >= 0 && (mask & (1L << id)) != 0;
+	}
+
+	/**
+	 * @param kind
+	 * 		The kind of group
+	 * @param mask
+	 * 		A mask of groups of that kind
+	 *
+	 * @return The number of every group in the mask, in increasing order, as the {@code :...Groups} properties give them
+	 */
+	public static List<Double> groupsOf(GroupKind kind, long mask)
+	{
+		List<Double> groups = new ArrayList<>(Long.bitCount(mask));
+		for(long rest = mask; rest != 0; rest &= rest - 1)
+			groups.add(GroupMask.numberOf(kind, Long.numberOfTrailingZeros(rest)));
+		Collections.sort(groups);
+		return groups;
+	}
+
+	/**
+	 * @param kind
+	 * 		The kind of group
+	 * @param id
+	 * 		The id of a group of that kind, which is the index of its bit
+	 *
+	 * @return The number of that group
+	 *
+	 * @throws IndexOutOfBoundsException
+	 * 		If no group has been given that id
+	 */
+	public static synchronized double numberOf(GroupKind kind, int id)
+	{
+		return GroupMask.numbers.get(kind.ordinal()).get(id);
+	}
+
+	/**
+	 * @param kind
+	 * 		The kind of group
+	 * @param groups
+	 * 		The numbers of any groups, as the {@code :...Groups} properties give them
+	 *
+	 * @return The mask of exactly those groups
+	 *
+	 * @throws IllegalStateException
+	 * 		If a group is new, and {@code MAX_GROUPS} groups of that kind are already in use
+	 */
+	public static long of(GroupKind kind, Collection<? extends Number> groups)
+	{
+		long mask = 0;
+		for(Number group : groups)
+			mask |= 1L << GroupMask.idOf(kind, group.doubleValue(), true, mask);
+		return mask;
+	}
+
+	/**
+	 * @param first
+	 * 		A mask of groups
+	 * @param second
+	 * 		Another mask of groups
+	 *
+	 * @return Whether the masks have any group in common
+	 */
+	public static boolean overlaps(long first, long second)
+	{
+		return (first & second) != 0;
+	}
+
+	/**
+	 * Gives up one use of each group in a mask, as when a {@code PhysicsEntity} leaves those groups.
+	 *
+	 * @param kind
+	 * 		The kind of group
+	 * @param mask
+	 * 		A mask of groups of that kind, each retained at least once
+	 */
+	public static synchronized void release(GroupKind kind, long mask)
+	{
+		int[] uses = GroupMask.tableOf(kind);
+		for(long rest = mask; rest != 0; rest &= rest - 1)
+		{
+			int id = Long.numberOfTrailingZeros(rest);
+			if(uses[id] > 0) uses[id]--;
+		}
+	}
+
+	/**
+	 * Takes one use of each group in a mask, as when a {@code PhysicsEntity} joins those groups. The id of a group
+	 * which is in use is never given to another number.
+	 *
+	 * @param kind
+	 * 		The kind of group
+	 * @param mask
+	 * 		A mask of groups of that kind
+	 */
+	public static synchronized void retain(GroupKind kind, long mask)
+	{
+		int[] uses = GroupMask.tableOf(kind);
+		for(long rest = mask; rest != 0; rest &= rest - 1)
+			uses[Long.numberOfTrailingZeros(rest)]++;
+	}
+
+	/**
+	 * @param first
+	 * 		A {@code PhysicsEntity}
+	 * @param second
+	 * 		Another {@code PhysicsEntity}
+	 * @param groups
+	 * 		Which kind of group
+	 *
+	 * @return Whether the two {@code PhysicsEntity}s share a group of that kind; used to filter pairs before testing them
+	 */
+	public static boolean share(PhysicsEntity first, PhysicsEntity second, GroupKind groups)
+	{
+		return (first.getGroupMask(groups) & second.getGroupMask(groups)) != 0;
+	}
+
+	/**
+	 * @param mask
+	 * 		A mask of groups
+	 * @param kind
+	 * 		The kind of group
+	 * @param group
+	 * 		The number of a group
+	 *
+	 * @return The mask with that group added
+	 *
+	 * @throws IllegalStateException
+	 * 		If the group is new, and {@code MAX_GROUPS} groups of that kind are already in use
+	 */
+	public static long with(long mask, GroupKind kind, double group)
+	{
+		return mask | (1L << GroupMask.idOf(kind, group, true, mask));
+	}
+
+	/**
+	 * @param mask
+	 * 		A mask of groups
+	 * @param kind
+	 * 		The kind of group
+	 * @param group
+	 * 		The number of a group
+	 *
+	 * @return The mask with that group removed
+	 */
+	public static long without(long mask, GroupKind kind, double group)
+	{
+		int id = GroupMask.idOf(kind, group, false, 0);
+		return (id < 0) ? mask : mask & ~(1L << id);
+	}
+
+	/**
+	 * @param kind
+	 * 		The kind of group
+	 * @param group
+	 * 		The number of a group
+	 * @param assign
+	 * 		Whether to give the group an id if it does not yet have one
+	 * @param keep
+	 * 		A mask of groups whose ids may not be given to this one, even if they are not in use
+	 *
+	 * @return The id of that group, or -1 if it has none and {@code assign} is false
+	 *
+	 * @throws IllegalStateException
+	 * 		If an id must be given, and every one of the {@code MAX_GROUPS} ids of that kind is in use or kept
+	 */
+	private static synchronized int idOf(GroupKind kind, double group, boolean assign, long keep)
+	{
+		int[] uses = GroupMask.tableOf(kind);
+
+		//Adding zero makes -0.0 into 0.0, which is otherwise a different key
+		Double number = group + 0.0;
+		Map<Double, Integer> ids = GroupMask.ids.get(kind.ordinal());
+		Integer id = ids.get(number);
+		if(id != null) return id;
+		if(!assign) return -1;
+
+		List<Double> used = GroupMask.numbers.get(kind.ordinal());
+		if(used.size() < GroupMask.MAX_GROUPS)
+		{
+			ids.put(number, used.size());
+			used.add(number);
+			return used.size() - 1;
+		}
+
+		for(int free = 0; free < GroupMask.MAX_GROUPS; free++)
+			if(uses[free] == 0 && (keep & (1L << free)) == 0)
+			{
+				ids.remove(used.get(free));
+				ids.put(number, free);
+				used.set(free, number);
+				return free;
+			}
+		throw new IllegalStateException(
+				"At most " + GroupMask.MAX_GROUPS + " different groups of kind " + kind + " may be in use at once.");
+	}
+
+	/**
+	 * Makes room for a kind of group, if it has none yet. Must be called while holding the lock on GroupMask.
+	 *
+	 * @param kind
+	 * 		The kind of group
+	 *
+	 * @return How many times the group with each id of that kind is in use
+	 */
+	private static int[] tableOf(GroupKind kind)
+	{
+		while(GroupMask.ids.size() <= kind.ordinal())
+		{
+			GroupMask.ids.add(new HashMap<Double, Integer>());
+			GroupMask.numbers.add(new ArrayList<Double>());
+			GroupMask.references.add(new int[GroupMask.MAX_GROUPS]);
+		}
+		return GroupMask.references.get(kind.ordinal());
+	}
+}
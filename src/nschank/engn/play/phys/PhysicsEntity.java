@@ -4,15 +4,19 @@ import com.google.common.base.Optional;
 import nschank.collect.dim.Dimensional;
 import nschank.collect.dim.Vector;
 import nschank.engn.play.Entity;
+import nschank.engn.play.PropertyKey;
 import nschank.engn.shape.Drawable;
 import nschank.engn.shape.collide.Collidable;
 import nschank.engn.shape.collide.Ray;
 
+import java.awt.Color;
+import java.util.Collection;
+
 
 /**
  * Created by Nicolas Schank for package nschank.engn.play.phys
  * Created on 21 Oct 2013
- * Last updated on 6 Jun 2014
+ * Last updated on 3 Jul 2014
  *
  * A {@code PhysicsEntity} is one that is expected to interact in a 2D physical world (aka a {@code Universe}) and, as
  * such, it must know how to interact with forces, impulses, and collisions with other objects. A Collision with another
@@ -26,6 +30,9 @@ import nschank.engn.shape.collide.Ray;
  * - !self 		->	This {@code Entity}
  * - !universe 	-> 	The {@code Universe} in which this {@code Entity} lives.
  *
+ * The internal properties of a {@code PhysicsEntity} (marked with a starting colon) are named by the {@code PropertyKey}
+ * constants below, along with :derivN and :rderivN for the Nth derivative of position and rotation.
+ *
  * The following {@code Input}s must not be replaceable and must take the following actions:
  * - !addToBoundary		->	Adds this {@code PhysicsEntity} to the boundary given by {@code group}
  * - !addToCollisionGroup->	Adds this {@code PhysicsEntity} to the collision group given by {@code group}
@@ -61,14 +68,62 @@ import nschank.engn.shape.collide.Ray;
  * - !onTick			->	Must be called by the onTick(long) method, with one argument: nanosSinceLastTick->that long.
  *
  * @author nschank, Brown University
- * @version 3.3
+ * @version 4.2
  * @see nschank.engn.play.Entity
  */
 public interface PhysicsEntity extends Entity, Drawable
 {
+	PropertyKey<Double> ANGLE = PropertyKey.of(":angle", Double.class);
+	PropertyKey<Boolean> ANIMATED = PropertyKey.of(":animated", Boolean.class);
+	PropertyKey<Collection<Double>> BOUNDARY_GROUPS = PropertyKey.ofCollection(":boundaryGroups");
+	PropertyKey<Dimensional> CENTER_POSITION = PropertyKey.of(":centerPosition", Dimensional.class);
+	PropertyKey<Double> COEFFICIENT_OF_DYNAMIC_FRICTION_SQRT
+			= PropertyKey.of(":coefficientOfDynamicFrictionSqrt", Double.class);
+	PropertyKey<Double> COEFFICIENT_OF_RESTITUTION_SQRT = PropertyKey.of(":coefficientOfRestitutionSqrt", Double.class);
+	PropertyKey<Double> COEFFICIENT_OF_STATIC_FRICTION_SQRT
+			= PropertyKey.of(":coefficientOfStaticFrictionSqrt", Double.class);
+	PropertyKey<Collection<Double>> COLLISION_GROUPS = PropertyKey.ofCollection(":collisionGroups");
+	PropertyKey<Color> COLOR = PropertyKey.of(":color", Color.class);
+	PropertyKey<Boolean> CONTINUOUS = PropertyKey.of(":continuous", Boolean.class);
+	PropertyKey<Collection<Double>> FORCE_GROUPS = PropertyKey.ofCollection(":forceGroups");
+	PropertyKey<Boolean> HAS_SPRITE = PropertyKey.of(":hasSprite", Boolean.class);
+	PropertyKey<Double> HEIGHT = PropertyKey.of(":height", Double.class);
+	PropertyKey<Double> MASS = PropertyKey.of(":mass", Double.class);
+	PropertyKey<Double> MOMENT_OF_INERTIA = PropertyKey.of("!momentOfInertia", Double.class);
+	PropertyKey<Collection<Double>> RAY_GROUPS = PropertyKey.ofCollection(":rayGroups");
+	PropertyKey<Double> ROTATION = PropertyKey.of(":rotation", Double.class);
+	PropertyKey<Collidable> SHAPE = PropertyKey.of(":shape", Collidable.class);
+	PropertyKey<Boolean> SLEEPING = PropertyKey.of(":sleeping", Boolean.class);
+	PropertyKey<Drawable> SPRITE = PropertyKey.of(":sprite", Drawable.class);
+	PropertyKey<Dimensional> VELOCITY = PropertyKey.of(":velocity", Dimensional.class);
+	PropertyKey<Double> WIDTH = PropertyKey.of(":width", Double.class);
+
+	/**
+	 * Adds this {@code PhysicsEntity} to a single group, without affecting its membership in any other.
+	 *
+	 * @param kind
+	 * 		The kind of group
+	 * @param group
+	 * 		The number of the group; at most {@code GroupMask.MAX_GROUPS} different numbers of each kind may be in use
+	 * 		at once
+	 */
+	void addToGroup(GroupKind kind, double group);
+	/**
+	 * Applies a 2D force, given by its components, at the center of this {@code PhysicsEntity}, so that it causes no
+	 * torque. Identical to {@code applyForceAt(new Vector(forceX, forceY), getCenterPosition())}, but allocates nothing,
+	 * and does not wake a sleeping {@code PhysicsEntity}: gravity and other fields push on every body on every tick, so
+	 * the force is instead dropped while it sleeps.
+	 *
+	 * @param forceX
+	 * 		The x component of the force
+	 * @param forceY
+	 * 		The y component of the force
+	 */
+	void applyForce(double forceX, double forceY);
 	/**
 	 * Applies the given 2D {@code force} (as a {@code Vector}) at a particular {@code position} on the object. Should
-	 * update this tick's force and torque components, to be applied upon the next tick.
+	 * update this tick's force and torque components, to be applied upon the next tick, and wake this
+	 * {@code PhysicsEntity} if it is asleep.
 	 *
 	 * @param force
 	 * 		A force, represented by a {@code Vector}
@@ -145,6 +200,13 @@ public interface PhysicsEntity extends Entity, Drawable
 	 * @return The square root of the coefficient of static friction.
 	 */
 	double getCoefficientOfStaticFrictionSqrt();
+	/**
+	 * @param kind
+	 * 		A kind of group
+	 *
+	 * @return Every group of that kind containing this {@code PhysicsEntity}, as a {@code GroupMask}
+	 */
+	long getGroupMask(GroupKind kind);
 	/**
 	 * @return The mass of this {@code PhysicsEntity}
 	 */
@@ -172,6 +234,20 @@ public interface PhysicsEntity extends Entity, Drawable
 	 * @return The velocity of this {@code PhysicsEntity}, as a {@code Vector} representing both direction and magnitude
 	 */
 	Vector getVelocity();
+	/**
+	 * A continuous {@code PhysicsEntity} is swept over each tick before moving, so that it cannot pass through thin
+	 * obstacles when moving quickly.
+	 *
+	 * @return Whether this {@code PhysicsEntity} uses continuous collision detection
+	 */
+	boolean isContinuous();
+	/**
+	 * A sleeping {@code PhysicsEntity} is at rest, and so does not integrate or move its shape on each tick. Two sleeping
+	 * {@code PhysicsEntity}s need not be tested for collision with one another.
+	 *
+	 * @return Whether this {@code PhysicsEntity} is asleep
+	 */
+	boolean isSleeping();
 	/**
 	 * Whenever a {@code PhysCollision} is created by {@code collisionWith(PhysicsEntity)}, this method causes the overlap
 	 * between this {@code PhysicsEntity} and another to be undone using the MTV. Depending on {@code reactionType},
@@ -183,6 +259,15 @@ public interface PhysicsEntity extends Entity, Drawable
 	 * 		A {@code ReactionType}, dealing with any of several types of reactions.
 	 */
 	void react(PhysCollision collision, ReactionType reactionType);
+	/**
+	 * Removes this {@code PhysicsEntity} from a single group, without affecting its membership in any other.
+	 *
+	 * @param kind
+	 * 		The kind of group
+	 * @param group
+	 * 		The number of the group
+	 */
+	void removeFromGroup(GroupKind kind, double group);
 	/**
 	 * Adds to the current angle of this {@code PhysicsEntity}
 	 * TODO counterclockwise?
@@ -219,6 +304,29 @@ public interface PhysicsEntity extends Entity, Drawable
 	 * 		A {@code Dimensional} representing the new velocity of this {@code PhysicsEntity}
 	 */
 	void setVelocity(Dimensional newVelocity);
+	/**
+	 * Puts this {@code PhysicsEntity} to sleep, stopping its velocity and rotational velocity until it is woken.
+	 */
+	void sleep();
+	/**
+	 * If this {@code PhysicsEntity} is continuous, sweeps its shape along the motion it is about to make over the next
+	 * tick and clamps that tick's movement to the first point at which it would hit one of the given
+	 * {@code obstacles}. Must be called before {@code onTick}, and only affects the following tick.
+	 *
+	 * @param obstacles
+	 * 		Every {@code PhysicsEntity} this one may collide with
+	 * @param nanosSinceLastTick
+	 * 		The length of the coming tick, in nanoseconds
+	 *
+	 * @return The fraction, between 0 and 1, of the coming tick over which this {@code PhysicsEntity} will move
+	 */
+	double sweep(Iterable<? extends PhysicsEntity> obstacles, long nanosSinceLastTick);
+	/**
+	 * Wakes this {@code PhysicsEntity}, if it is asleep. Applying an impulse, applying a force through applyForceAt, or
+	 * colliding with an awake and movable {@code PhysicsEntity}, should wake it automatically. Applying a force through
+	 * applyForce should not, since gravity and other fields push on every body on every tick.
+	 */
+	void wake();
 
 	/**
 	 * Attaches the value of {@code ofValue} to the name {@code ofName} within this {@code Entity}. The value {@code null}
@@ -247,6 +355,7 @@ public interface PhysicsEntity extends Entity, Drawable
 	 * property of {@code PhysicsEntity}s
 	 * - :collisionGroups	->	List<Double>; sets which collision groups this object is contained by
 	 * - :color				->	Color; sets the color of :shape
+	 * - :continuous		->	boolean; sets whether this {@code PhysicsEntity} uses continuous collision detection
 	 * - :deriv{number}		->	Dimensional; where {number} is an integer greater than {@value 0}. Sets that derivative
 	 * of position.
 	 * - :forceGroups		->	List<Double>; sets which force groups this object is contained by
@@ -259,6 +368,7 @@ public interface PhysicsEntity extends Entity, Drawable
 	 * - :rderiv{number}	->	double; where {number} is an integer greater than {@value 0}. Sets that derivative of
 	 * rotation.
 	 * - :rotation			->	double; sets the angle of :shape
+	 * - :sleeping			->	boolean; puts this {@code PhysicsEntity} to sleep, or wakes it
 	 * - :shape				->	Collidable; set the shape of this {@code PhysicsEntity}. This shape will be drawn if
 	 * :hasSprite is not present or is false. A required property of {@code PhysicsEntity}s.
 	 * - :sprite			->	Sprite; a sprite to draw on each draw tick, instead of :shape
@@ -294,6 +404,7 @@ public interface PhysicsEntity extends Entity, Drawable
 	 * ->	double; the coefficient of static friction of this {@code PhysicsEntity}
 	 * - :collisionGroups	->	List<Double>; which collision groups this object is contained by
 	 * - :color				->	Color; the color of :shape
+	 * - :continuous		->	boolean; whether this {@code PhysicsEntity} uses continuous collision detection
 	 * - :deriv{number}		->	Dimensional; where {number} is an integer greater than {@value 0}. That derivative of
 	 * position.
 	 * - :forceGroups		->	List<Double>; which force groups this object is contained by
@@ -305,6 +416,7 @@ public interface PhysicsEntity extends Entity, Drawable
 	 * - :rderiv{number}	->	double; where {number} is an integer greater than {@value 0}. That derivative of
 	 * rotation.
 	 * - :rotation			->	double; the angle of :shape, in radians from the x axis
+	 * - :sleeping			->	boolean; whether this {@code PhysicsEntity} is asleep
 	 * - :shape				->	Collidable; the shape of this {@code PhysicsEntity}. This shape will be drawn if
 	 * :hasSprite is not present or is {@literal false}.
 	 * - :sprite			->	Sprite; a sprite to draw on each draw tick, instead of :shape
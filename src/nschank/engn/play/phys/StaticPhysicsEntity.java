@@ -3,8 +3,8 @@ package nschank.engn.play.phys;
 import nschank.collect.dim.Dimensional;
 import nschank.collect.dim.Vector;
 import nschank.collect.tuple.Pair;
-import nschank.engn.play.io.eval.Constant;
-import nschank.engn.play.io.eval.Evaluator;
+import nschank.engn.play.PropertyKey;
+import nschank.engn.play.io.EventArgs;
 import nschank.engn.play.univ.Universe;
 import nschank.util.NMaps;
 
@@ -14,13 +14,16 @@ import java.util.Map;
 /**
  * Created by Nicolas Schank for package nschank.engn.play.phys
  * Created on 14 Oct 2013
- * Last updated on 6 Jun 2014
+ * Last updated on 28 Jun 2014
  *
  * @author nschank, Brown University
- * @version 3.2
+ * @version 3.5
  */
 public class StaticPhysicsEntity extends AbstractPhysicsEntity
 {
+	public static final PropertyKey<Boolean> STATIC = PropertyKey.of("!static", Boolean.class);
+	private static final PropertyKey<Object> NAME = PropertyKey.named("name");
+
 	/**
 	 * Creates a PhysicsEntity whose boundaries are assigned by the given Collidable, and
 	 * which draws the same Collidable as itself.
@@ -41,13 +44,22 @@ public class StaticPhysicsEntity extends AbstractPhysicsEntity
 		boolean friction = reactionType == ReactionType.FRICTION_AND_IMPULSE
 				|| reactionType == ReactionType.FRICTION_ONLY;
 
-		this.doInput("doCollide", NMaps.of(Pair.tuple("!collision", (Evaluator) new Constant(collision)),
-				Pair.tuple("!impulses", new Constant(impulses)), Pair.tuple("!dofriction", new Constant(friction)),
-				Pair.tuple("!mtv", new Constant(collision.getMTV())),
-				Pair.tuple("!impulse", new Constant(collision.getImpulse())),
-				Pair.tuple("!friction", new Constant(collision.getSlidingFrictionalImpulse())),
-				Pair.tuple("!collisionPoint", new Constant(collision.getCollisionPoint())),
-				Pair.tuple("!collidingWith", new Constant(collision.getOther().getProperty("name").toString()))));
+		EventArgs args = EventArgs.obtain();
+		args.putValue("!collision", collision);
+		args.putValue("!impulses", impulses);
+		args.putValue("!dofriction", friction);
+		args.putValue("!mtv", collision.getMTV());
+		args.putValue("!impulse", collision.getImpulse());
+		args.putValue("!friction", collision.getSlidingFrictionalImpulse());
+		args.putValue("!collisionPoint", collision.getCollisionPoint());
+		args.putValue("!collidingWith", collision.getOther().getProperty(StaticPhysicsEntity.NAME).toString());
+		try
+		{
+			this.doInput("doCollide", args);
+		} finally
+		{
+			args.release();
+		}
 		if(collision.getMTV().mag2() == 0) return;
 		collision.getOther().applyLocationChange(collision.getMTV().smult(-1));
 	}
@@ -58,6 +70,12 @@ public class StaticPhysicsEntity extends AbstractPhysicsEntity
 
 	}
 
+	@Override
+	public void applyForce(double forceX, double forceY)
+	{
+
+	}
+
 	@Override
 	public void applyForceAt(Vector force, Dimensional position)
 	{
@@ -71,9 +89,9 @@ public class StaticPhysicsEntity extends AbstractPhysicsEntity
 	}
 
 	@Override
-	public Object getProperty(String ofName)
+	public <T> T getProperty(PropertyKey<T> key)
 	{
-		if("!static".equals(ofName)) return Boolean.TRUE;
-		else return super.getProperty(ofName);
+		if(STATIC.equals(key)) return key.cast(Boolean.TRUE);
+		else return super.getProperty(key);
 	}
 }
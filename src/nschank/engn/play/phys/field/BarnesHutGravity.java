@@ -0,0 +1,298 @@
+package nschank.engn.play.phys.field;
+
+import java.util.Arrays;
+
+
+/**
+ * Created by Nicolas Schank for package nschank.engn.play.phys.field
+ * Created on 28 Jun 2014
+ * Last updated on 28 Jun 2014
+ *
+ * The mutual gravitational attraction of every body in a group, approximated with a Barnes-Hut quadtree. Each tick, the
+ * bodies are inserted into a quadtree whose every node knows the total mass and center of mass beneath it. The force
+ * upon a body is then summed by walking the tree, treating any node which is small compared to its distance from the
+ * body as a single mass at its center of mass. This takes O(n log n) time, rather than the O(n^2) of summing every
+ * pair.
+ *
+ * The tree is kept in primitive arrays which are reused from one tick to the next. Bodies at the same position are
+ * gathered into one leaf once the tree is MAX_DEPTH levels deep, and a body is never attracted by itself.
+ *
+ * @author nschank, Brown University
+ * @version 1.0
+ */
+public final class BarnesHutGravity implements ForceField
+{
+	private static final int MAX_DEPTH = 32;
+	private static final int EMPTY = -1;
+	private static final int INTERNAL = -2;
+	private static final int SHARED = -3;
+
+	private final double gravitationalConstant;
+	private final double theta2;
+	private final double softening2;
+
+	private double[] centerX;
+	private double[] centerY;
+	private double[] halfSize;
+	private double[] nodeMass;
+	private double[] weightedX;
+	private double[] weightedY;
+	private int[] firstChild;
+	private int[] body;
+	private int nodes;
+
+	private int[] leafOf;
+	private int[] stack;
+
+	/**
+	 * @param gravitationalConstant
+	 * 		The force between two bodies of mass 1 at a distance of 1
+	 * @param theta
+	 * 		How small, compared to its distance, a node must be to be treated as a single mass; 0.5 is usual, and 0 is
+	 * 		exact
+	 * @param softening
+	 * 		A distance added in quadrature to every distance, so that the force between close bodies remains finite
+	 */
+	public BarnesHutGravity(double gravitationalConstant, double theta, double softening)
+	{
+		if(theta < 0 || theta >= 1) throw new IllegalArgumentException("Theta must be at least 0, and less than 1.");
+		this.gravitationalConstant = gravitationalConstant;
+		this.theta2 = theta * theta;
+		this.softening2 = softening * softening;
+
+		this.centerX = new double[0];
+		this.centerY = new double[0];
+		this.halfSize = new double[0];
+		this.nodeMass = new double[0];
+		this.weightedX = new double[0];
+		this.weightedY = new double[0];
+		this.firstChild = new int[0];
+		this.body = new int[0];
+		this.nodes = 0;
+
+		this.leafOf = new int[0];
+		this.stack = new int[3 * BarnesHutGravity.MAX_DEPTH + 4];
+	}
+
+	/**
+	 * Adds the attraction of every other body upon each body in the batch.
+	 *
+	 * @param bodies
+	 * 		The position, velocity and mass of every body the field acts upon
+	 */
+	@Override
+	public void apply(BodyBatch bodies)
+	{
+		if(bodies.size() < 2) return;
+		this.build(bodies);
+		for(int i = 0; i < bodies.size(); i++)
+			this.attract(bodies, i);
+	}
+
+	/**
+	 * Adds a node with no bodies, and no children, to the tree.
+	 *
+	 * @param x
+	 * 		The x coordinate of the center of its cell
+	 * @param y
+	 * 		The y coordinate of the center of its cell
+	 * @param half
+	 * 		Half of the width of its cell
+	 *
+	 * @return The index of the new node
+	 */
+	private int addNode(double x, double y, double half)
+	{
+		if(this.nodes == this.body.length) this.growNodes(Math.max(16, this.nodes * 2));
+		int node = this.nodes++;
+		this.centerX[node] = x;
+		this.centerY[node] = y;
+		this.halfSize[node] = half;
+		this.nodeMass[node] = 0;
+		this.weightedX[node] = 0;
+		this.weightedY[node] = 0;
+		this.firstChild[node] = BarnesHutGravity.EMPTY;
+		this.body[node] = BarnesHutGravity.EMPTY;
+		return node;
+	}
+
+	/**
+	 * Sums the attraction upon a single body by walking the tree.
+	 *
+	 * @param bodies
+	 * 		Every body
+	 * @param i
+	 * 		The index of the body being attracted
+	 */
+	private void attract(BodyBatch bodies, int i)
+	{
+		double x = bodies.x[i];
+		double y = bodies.y[i];
+		double m = bodies.mass[i];
+		double fx = 0;
+		double fy = 0;
+
+		int top = 0;
+		this.stack[top++] = 0;
+		while(top > 0)
+		{
+			int node = this.stack[--top];
+			double mass = this.nodeMass[node];
+			double mx = this.weightedX[node];
+			double my = this.weightedY[node];
+			if(this.leafOf[i] == node)
+			{
+				//Never attracted by itself
+				mass -= m;
+				mx -= m * x;
+				my -= m * y;
+			}
+			if(mass <= 0) continue;
+
+			double dx = mx / mass - x;
+			double dy = my / mass - y;
+			double distance2 = dx * dx + dy * dy + this.softening2;
+			if(this.firstChild[node] != BarnesHutGravity.EMPTY)
+			{
+				double size = 2 * this.halfSize[node];
+				boolean inside = Math.abs(x - this.centerX[node]) <= this.halfSize[node]
+						&& Math.abs(y - this.centerY[node]) <= this.halfSize[node];
+				if(inside || size * size >= this.theta2 * distance2)
+				{
+					for(int child = 0; child < 4; child++)
+						this.stack[top++] = this.firstChild[node] + child;
+					continue;
+				}
+			}
+			if(distance2 == 0) continue;
+			double scale = this.gravitationalConstant * m * mass / (distance2 * Math.sqrt(distance2));
+			fx += scale * dx;
+			fy += scale * dy;
+		}
+		bodies.forceX[i] += fx;
+		bodies.forceY[i] += fy;
+	}
+
+	/**
+	 * Inserts every body into a new tree, whose root cell is the smallest square containing them all.
+	 *
+	 * @param bodies
+	 * 		Every body
+	 */
+	private void build(BodyBatch bodies)
+	{
+		double minX = Double.POSITIVE_INFINITY;
+		double minY = Double.POSITIVE_INFINITY;
+		double maxX = Double.NEGATIVE_INFINITY;
+		double maxY = Double.NEGATIVE_INFINITY;
+		for(int i = 0; i < bodies.size(); i++)
+		{
+			minX = Math.min(minX, bodies.x[i]);
+			minY = Math.min(minY, bodies.y[i]);
+			maxX = Math.max(maxX, bodies.x[i]);
+			maxY = Math.max(maxY, bodies.y[i]);
+		}
+		if(this.leafOf.length < bodies.size()) this.leafOf = new int[Math.max(bodies.size(), this.leafOf.length * 2)];
+
+		this.nodes = 0;
+		this.addNode((minX + maxX) / 2, (minY + maxY) / 2, Math.max(Math.max(maxX - minX, maxY - minY) / 2, 1e-9));
+		for(int i = 0; i < bodies.size(); i++)
+			this.insert(bodies, i);
+	}
+
+	/**
+	 * @param capacity
+	 * 		The number of nodes there must be room for
+	 */
+	private void growNodes(int capacity)
+	{
+		this.centerX = Arrays.copyOf(this.centerX, capacity);
+		this.centerY = Arrays.copyOf(this.centerY, capacity);
+		this.halfSize = Arrays.copyOf(this.halfSize, capacity);
+		this.nodeMass = Arrays.copyOf(this.nodeMass, capacity);
+		this.weightedX = Arrays.copyOf(this.weightedX, capacity);
+		this.weightedY = Arrays.copyOf(this.weightedY, capacity);
+		this.firstChild = Arrays.copyOf(this.firstChild, capacity);
+		this.body = Arrays.copyOf(this.body, capacity);
+	}
+
+	/**
+	 * Inserts a body into the tree, adding its mass to every node above it and splitting the leaf it lands in if that
+	 * leaf already holds a body.
+	 *
+	 * @param bodies
+	 * 		Every body
+	 * @param i
+	 * 		The index of the body to insert
+	 */
+	private void insert(BodyBatch bodies, int i)
+	{
+		double x = bodies.x[i];
+		double y = bodies.y[i];
+		double m = bodies.mass[i];
+
+		int node = 0;
+		int depth = 0;
+		while(true)
+		{
+			this.nodeMass[node] += m;
+			this.weightedX[node] += m * x;
+			this.weightedY[node] += m * y;
+
+			if(this.firstChild[node] != BarnesHutGravity.EMPTY)
+			{
+				node = this.firstChild[node] + this.quadrantOf(node, x, y);
+				depth++;
+				continue;
+			}
+			if(this.body[node] == BarnesHutGravity.EMPTY)
+			{
+				this.body[node] = i;
+				this.leafOf[i] = node;
+				return;
+			}
+			if(this.body[node] == BarnesHutGravity.SHARED || depth == BarnesHutGravity.MAX_DEPTH)
+			{
+				this.body[node] = BarnesHutGravity.SHARED;
+				this.leafOf[i] = node;
+				return;
+			}
+
+			//Split this leaf, moving the body it held down into one of its children
+			int resident = this.body[node];
+			this.body[node] = BarnesHutGravity.INTERNAL;
+			double half = this.halfSize[node] / 2;
+			int first = this.addNode(this.centerX[node] - half, this.centerY[node] - half, half);
+			this.addNode(this.centerX[node] + half, this.centerY[node] - half, half);
+			this.addNode(this.centerX[node] - half, this.centerY[node] + half, half);
+			this.addNode(this.centerX[node] + half, this.centerY[node] + half, half);
+			this.firstChild[node] = first;
+
+			int moved = first + this.quadrantOf(node, bodies.x[resident], bodies.y[resident]);
+			this.nodeMass[moved] = bodies.mass[resident];
+			this.weightedX[moved] = bodies.mass[resident] * bodies.x[resident];
+			this.weightedY[moved] = bodies.mass[resident] * bodies.y[resident];
+			this.body[moved] = resident;
+			this.leafOf[resident] = moved;
+
+			node = first + this.quadrantOf(node, x, y);
+			depth++;
+		}
+	}
+
+	/**
+	 * @param node
+	 * 		A node of the tree
+	 * @param x
+	 * 		The x coordinate of a point in its cell
+	 * @param y
+	 * 		The y coordinate of a point in its cell
+	 *
+	 * @return Which of the four children of that node contains the point: bit 0 is set if it is right of center, and bit
+	 * 1 if it is above
+	 */
+	private int quadrantOf(int node, double x, double y)
+	{
+		return ((x >= this.centerX[node]) ? 1 : 0) | ((y >= this.centerY[node]) ? 2 : 0);
+	}
+}
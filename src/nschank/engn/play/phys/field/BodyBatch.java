@@ -0,0 +1,185 @@
+package nschank.engn.play.phys.field;
+
+import nschank.collect.dim.Dimensional;
+import nschank.engn.play.phys.PhysicsEntity;
+
+import java.util.Arrays;
+import java.util.List;
+
+
+/**
+ * Created by Nicolas Schank for package nschank.engn.play.phys.field
+ * Created on 28 Jun 2014
+ * Last updated on 28 Jun 2014
+ *
+ * The state of a group of {@code PhysicsEntity}s, as needed by {@code ForceField}s, kept in primitive arrays. The
+ * position, velocity and mass of every body is read once per tick; each field then adds to the force on every body in
+ * a single pass over the arrays, and the summed force is applied to each body once, through {@code applyForce}.
+ *
+ * The arrays are kept from one tick to the next, and only grow, so a {@code BodyBatch} allocates nothing once it has
+ * held its largest group.
+ *
+ * @author nschank, Brown University
+ * @version 1.0
+ */
+public final class BodyBatch
+{
+	double[] x;
+	double[] y;
+	double[] velocityX;
+	double[] velocityY;
+	double[] mass;
+	double[] forceX;
+	double[] forceY;
+	private List<? extends PhysicsEntity> bodies;
+	private int size;
+
+	/**
+	 * Creates an empty {@code BodyBatch} with room for the given number of bodies; it grows if more are gathered.
+	 *
+	 * @param capacity
+	 * 		The number of bodies expected
+	 */
+	public BodyBatch(int capacity)
+	{
+		this.x = new double[capacity];
+		this.y = new double[capacity];
+		this.velocityX = new double[capacity];
+		this.velocityY = new double[capacity];
+		this.mass = new double[capacity];
+		this.forceX = new double[capacity];
+		this.forceY = new double[capacity];
+		this.bodies = null;
+		this.size = 0;
+	}
+
+	/**
+	 * Adds to the force on a body.
+	 *
+	 * @param i
+	 * 		The index of a body
+	 * @param fx
+	 * 		The x component of the force
+	 * @param fy
+	 * 		The y component of the force
+	 */
+	public void addForce(int i, double fx, double fy)
+	{
+		this.forceX[i] += fx;
+		this.forceY[i] += fy;
+	}
+
+	/**
+	 * Reads the position, velocity and mass of every body, and clears the force on each.
+	 *
+	 * @param bodies
+	 * 		The members of a group, in the order their indices will refer to
+	 */
+	public void gather(List<? extends PhysicsEntity> bodies)
+	{
+		this.bodies = bodies;
+		this.size = bodies.size();
+		if(this.size > this.x.length) this.grow(Math.max(this.size, this.x.length * 2));
+
+		for(int i = 0; i < this.size; i++)
+		{
+			PhysicsEntity body = bodies.get(i);
+			Dimensional position = body.getCenterPosition();
+			Dimensional velocity = body.getVelocity();
+			this.x[i] = position.getCoordinate(0);
+			this.y[i] = position.getCoordinate(1);
+			this.velocityX[i] = velocity.getCoordinate(0);
+			this.velocityY[i] = velocity.getCoordinate(1);
+			this.mass[i] = body.getMass();
+		}
+		Arrays.fill(this.forceX, 0, this.size, 0.0);
+		Arrays.fill(this.forceY, 0, this.size, 0.0);
+	}
+
+	/**
+	 * @param i
+	 * 		The index of a body
+	 *
+	 * @return The mass of that body
+	 */
+	public double getMass(int i)
+	{
+		return this.mass[i];
+	}
+
+	/**
+	 * @param i
+	 * 		The index of a body
+	 *
+	 * @return The x component of the velocity of that body
+	 */
+	public double getVelocityX(int i)
+	{
+		return this.velocityX[i];
+	}
+
+	/**
+	 * @param i
+	 * 		The index of a body
+	 *
+	 * @return The y component of the velocity of that body
+	 */
+	public double getVelocityY(int i)
+	{
+		return this.velocityY[i];
+	}
+
+	/**
+	 * @param i
+	 * 		The index of a body
+	 *
+	 * @return The x coordinate of the center of that body
+	 */
+	public double getX(int i)
+	{
+		return this.x[i];
+	}
+
+	/**
+	 * @param i
+	 * 		The index of a body
+	 *
+	 * @return The y coordinate of the center of that body
+	 */
+	public double getY(int i)
+	{
+		return this.y[i];
+	}
+
+	/**
+	 * Applies the summed force on every body to that body, skipping any on which there is no force.
+	 */
+	public void scatter()
+	{
+		for(int i = 0; i < this.size; i++)
+			if(this.forceX[i] != 0 || this.forceY[i] != 0) this.bodies.get(i).applyForce(this.forceX[i], this.forceY[i]);
+	}
+
+	/**
+	 * @return The number of bodies gathered
+	 */
+	public int size()
+	{
+		return this.size;
+	}
+
+	/**
+	 * @param capacity
+	 * 		The number of bodies there must be room for
+	 */
+	private void grow(int capacity)
+	{
+		this.x = Arrays.copyOf(this.x, capacity);
+		this.y = Arrays.copyOf(this.y, capacity);
+		this.velocityX = Arrays.copyOf(this.velocityX, capacity);
+		this.velocityY = Arrays.copyOf(this.velocityY, capacity);
+		this.mass = Arrays.copyOf(this.mass, capacity);
+		this.forceX = Arrays.copyOf(this.forceX, capacity);
+		this.forceY = Arrays.copyOf(this.forceY, capacity);
+	}
+}
@@ -0,0 +1,24 @@
+package nschank.engn.play.phys.field;
+
+/**
+ * Created by Nicolas Schank for package nschank.engn.play.phys.field
+ * Created on 28 Jun 2014
+ * Last updated on 28 Jun 2014
+ *
+ * A force which acts upon every member of a {@code ForceFieldGroup}, such as gravity, drag, or the attraction of the
+ * members to one another. A {@code ForceField} adds to the force on each body of a {@code BodyBatch}, and never applies
+ * a force to a {@code PhysicsEntity} itself.
+ *
+ * @author nschank, Brown University
+ * @version 1.0
+ */
+public interface ForceField
+{
+	/**
+	 * Adds the force of this field upon every body in the batch.
+	 *
+	 * @param bodies
+	 * 		The position, velocity and mass of every body the field acts upon
+	 */
+	void apply(BodyBatch bodies);
+}
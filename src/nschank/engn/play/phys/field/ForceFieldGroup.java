@@ -0,0 +1,92 @@
+package nschank.engn.play.phys.field;
+
+import nschank.engn.play.phys.PhysicsEntity;
+
+import java.util.ArrayList;
+import java.util.List;
+
+
+/**
+ * Created by Nicolas Schank for package nschank.engn.play.phys.field
+ * Created on 28 Jun 2014
+ * Last updated on 28 Jun 2014
+ *
+ * A force group, with every {@code ForceField} acting upon its members. Once per tick, before its members tick,
+ * {@code apply} reads the state of every member into a {@code BodyBatch}, lets each field add to the forces upon them,
+ * and then applies the summed force to each member once.
+ *
+ * @author nschank, Brown University
+ * @version 1.0
+ */
+public class ForceFieldGroup
+{
+	private final List<PhysicsEntity> members;
+	private final List<ForceField> fields;
+	private final BodyBatch bodies;
+
+	/**
+	 * Creates a group with no members and no fields.
+	 */
+	public ForceFieldGroup()
+	{
+		this.members = new ArrayList<>();
+		this.fields = new ArrayList<>();
+		this.bodies = new BodyBatch(16);
+	}
+
+	/**
+	 * @param field
+	 * 		A field which should act upon every member of this group
+	 */
+	public void addField(ForceField field)
+	{
+		this.fields.add(field);
+	}
+
+	/**
+	 * @param member
+	 * 		A {@code PhysicsEntity} which should be acted upon by every field of this group
+	 */
+	public void addMember(PhysicsEntity member)
+	{
+		if(!this.members.contains(member)) this.members.add(member);
+	}
+
+	/**
+	 * Applies the force of every field to every member. Should be called once per tick, before the members tick.
+	 */
+	public void apply()
+	{
+		if(this.members.isEmpty() || this.fields.isEmpty()) return;
+		this.bodies.gather(this.members);
+		for(ForceField field : this.fields)
+			field.apply(this.bodies);
+		this.bodies.scatter();
+	}
+
+	/**
+	 * @return Every member of this group
+	 */
+	public List<PhysicsEntity> getMembers()
+	{
+		return this.members;
+	}
+
+	/**
+	 * @param field
+	 * 		A field which should no longer act upon this group
+	 */
+	public void removeField(ForceField field)
+	{
+		this.fields.remove(field);
+	}
+
+	/**
+	 * @param member
+	 * 		A {@code PhysicsEntity} which should no longer be acted upon by this group
+	 */
+	public void removeMember(PhysicsEntity member)
+	{
+		this.members.remove(member);
+	}
+}
@@ -0,0 +1,154 @@
+package nschank.engn.play.phys.field;
+
+import nschank.collect.dim.Dimensional;
+
+
+/**
+ * Created by Nicolas Schank for package nschank.engn.play.phys.field
+ * Created on 28 Jun 2014
+ * Last updated on 28 Jun 2014
+ *
+ * A Utility class of the common {@code ForceField}s. Each makes a single pass over a {@code BodyBatch}, reading and
+ * writing only primitives.
+ *
+ * @author nschank, Brown University
+ * @version 1.0
+ */
+public final class ForceFields
+{
+	/**
+	 *
+	 */
+	private ForceFields()
+	{
+		//Utility class
+	}
+
+	/**
+	 * A drag which opposes the velocity of every body in proportion to its speed.
+	 *
+	 * @param coefficient
+	 * 		The force of drag per unit of velocity
+	 *
+	 * @return A linear drag field
+	 */
+	public static ForceField drag(final double coefficient)
+	{
+		return new ForceField()
+		{
+			@Override
+			public void apply(BodyBatch bodies)
+			{
+				for(int i = 0; i < bodies.size(); i++)
+				{
+					bodies.forceX[i] -= coefficient * bodies.velocityX[i];
+					bodies.forceY[i] -= coefficient * bodies.velocityY[i];
+				}
+			}
+		};
+	}
+
+	/**
+	 * A fixed point which attracts every body with the inverse square of its distance, like a planet or a star which is
+	 * not itself moved.
+	 *
+	 * @param center
+	 * 		The point of attraction
+	 * @param strength
+	 * 		The acceleration of a body at a distance of 1; the mass of the well times the gravitational constant
+	 * @param softening
+	 * 		A distance added in quadrature to every distance, so that the force near the center remains finite
+	 *
+	 * @return A gravity well
+	 */
+	public static ForceField gravityWell(Dimensional center, final double strength, final double softening)
+	{
+		final double centerX = center.getCoordinate(0);
+		final double centerY = center.getCoordinate(1);
+		final double softening2 = softening * softening;
+		return new ForceField()
+		{
+			@Override
+			public void apply(BodyBatch bodies)
+			{
+				for(int i = 0; i < bodies.size(); i++)
+				{
+					double dx = centerX - bodies.x[i];
+					double dy = centerY - bodies.y[i];
+					double distance2 = dx * dx + dy * dy + softening2;
+					if(distance2 == 0) continue;
+					double scale = strength * bodies.mass[i] / (distance2 * Math.sqrt(distance2));
+					bodies.forceX[i] += scale * dx;
+					bodies.forceY[i] += scale * dy;
+				}
+			}
+		};
+	}
+
+	/**
+	 * A damped spring from a fixed anchor to every body.
+	 *
+	 * @param anchor
+	 * 		The fixed end of every spring
+	 * @param stiffness
+	 * 		The force per unit of stretch
+	 * @param restLength
+	 * 		The length at which a spring exerts no force
+	 * @param damping
+	 * 		The force per unit of velocity along a spring, opposing that velocity
+	 *
+	 * @return A field of springs
+	 */
+	public static ForceField spring(Dimensional anchor, final double stiffness, final double restLength,
+									final double damping)
+	{
+		final double anchorX = anchor.getCoordinate(0);
+		final double anchorY = anchor.getCoordinate(1);
+		return new ForceField()
+		{
+			@Override
+			public void apply(BodyBatch bodies)
+			{
+				for(int i = 0; i < bodies.size(); i++)
+				{
+					double dx = bodies.x[i] - anchorX;
+					double dy = bodies.y[i] - anchorY;
+					double length = Math.sqrt(dx * dx + dy * dy);
+					if(length == 0) continue;
+					double ux = dx / length;
+					double uy = dy / length;
+					double speed = bodies.velocityX[i] * ux + bodies.velocityY[i] * uy;
+					double magnitude = -stiffness * (length - restLength) - damping * speed;
+					bodies.forceX[i] += magnitude * ux;
+					bodies.forceY[i] += magnitude * uy;
+				}
+			}
+		};
+	}
+
+	/**
+	 * A uniform acceleration of every body, such as gravity near the ground or a steady wind.
+	 *
+	 * @param accelerationX
+	 * 		The x component of the acceleration
+	 * @param accelerationY
+	 * 		The y component of the acceleration
+	 *
+	 * @return A uniform field
+	 */
+	public static ForceField uniform(final double accelerationX, final double accelerationY)
+	{
+		return new ForceField()
+		{
+			@Override
+			public void apply(BodyBatch bodies)
+			{
+				for(int i = 0; i < bodies.size(); i++)
+				{
+					bodies.forceX[i] += bodies.mass[i] * accelerationX;
+					bodies.forceY[i] += bodies.mass[i] * accelerationY;
+				}
+			}
+		};
+	}
+}
@@ -12,15 +12,16 @@ import java.awt.geom.Rectangle2D;
 /**
  * Created by Nicolas Schank for package nschank.engn.shape
  * Created on 9 Sep 2013
- * Last updated on 26 May 2014
+ * Last updated on 1 Jul 2014
  *
  * A Drawable Object for a Screen that is a String. As with all AbstractDrawables, it is centre-focused. Width, when assigned,
  * is not used, but height is used as font size, and width follows directly from that.
  *
- * setHeight sets the font size. setWidth has no effect and will be undone on a draw.
+ * setHeight sets the font size. setWidth has no effect and will be undone on a draw. The Font of each size is taken
+ * from Fonts, rather than created on every draw.
  *
  * @author nschank, Brown University
- * @version 2.0
+ * @version 2.1
  */
 public class DrawableString extends AbstractDrawable
 {
@@ -73,7 +74,8 @@ public class DrawableString extends AbstractDrawable
 	public void draw(Graphics2D g)
 	{
 		g.setColor(this.getColor());
-		g.setFont(new Font(g.getFont().getName(), g.getFont().getStyle(), (int) this.getHeight()));
+		Font font = Fonts.sized(g.getFont(), (int) this.getHeight());
+		if(font != g.getFont()) g.setFont(font);
 		Rectangle2D l = g.getFontMetrics().getStringBounds(this.write, g);
 		int descent = g.getFontMetrics().getDescent();
 		this.setWidth(l.getWidth());
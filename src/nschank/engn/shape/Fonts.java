@@ -0,0 +1,127 @@
+package nschank.engn.shape;
+
+import java.awt.Font;
+import java.util.HashMap;
+import java.util.Map;
+
+
+/**
+ * Created by Nicolas Schank for package nschank.engn.shape
+ * Created on 1 Jul 2014
+ * Last updated on 1 Jul 2014
+ *
+ * A Utility class which caches Fonts by name, style and size, so that drawing text does not create a new Font on every
+ * draw. Since the same Font object is returned for the same name, style and size, a Graphics object given the Font it
+ * already has need not change its state.
+ *
+ * @author nschank, Brown University
+ * @version 1.0
+ */
+public final class Fonts
+{
+	private static final Map<Key, Font> cache = new HashMap<>();
+	private static final Key probe = new Key();
+
+	/**
+	 *
+	 */
+	private Fonts()
+	{
+		//Utility class
+	}
+
+	/**
+	 * Forgets every cached Font.
+	 */
+	public static void clear()
+	{
+		Fonts.cache.clear();
+	}
+
+	/**
+	 * @param name
+	 * 		The name of a font, as would be used in new Font(name, _, _)
+	 * @param style
+	 * 		The style of a font, as would be used in new Font(_, style, _)
+	 * @param size
+	 * 		The point size of a font, as would be used in new Font(_, _, size)
+	 *
+	 * @return A Font of that name, style and size; the same object each time it is asked for
+	 */
+	public static Font of(String name, int style, int size)
+	{
+		Fonts.probe.set(name, style, size);
+		Font font = Fonts.cache.get(Fonts.probe);
+		if(font == null)
+		{
+			font = new Font(name, style, size);
+			Key key = new Key();
+			key.set(name, style, size);
+			Fonts.cache.put(key, font);
+		}
+		return font;
+	}
+
+	/**
+	 * @param base
+	 * 		Any Font
+	 * @param size
+	 * 		A point size
+	 *
+	 * @return A Font of the same name and style as {@code base}, but of that size
+	 */
+	public static Font sized(Font base, int size)
+	{
+		if(base.getSize() == size) return base;
+		return Fonts.of(base.getName(), base.getStyle(), size);
+	}
+
+	/**
+	 * The name, style and size of a cached Font.
+	 */
+	private static final class Key
+	{
+		private String name;
+		private int style;
+		private int size;
+
+		/**
+		 * @param o
+		 * 		Any object
+		 *
+		 * @return Whether that object is a Key of the same name, style and size
+		 */
+		@Override
+		public boolean equals(Object o)
+		{
+			if(this == o) return true;
+			if(!(o instanceof Key)) return false;
+			Key other = (Key) o;
+			return this.size == other.size && this.style == other.style && this.name.equals(other.name);
+		}
+
+		/**
+		 * @return A hash of the name, style and size of this Key
+		 */
+		@Override
+		public int hashCode()
+		{
+			return 31 * (31 * this.name.hashCode() + this.style) + this.size;
+		}
+
+		/**
+		 * @param name
+		 * 		The name of a font
+		 * @param style
+		 * 		The style of a font
+		 * @param size
+		 * 		The point size of a font
+		 */
+		void set(String name, int style, int size)
+		{
+			this.name = name;
+			this.style = style;
+			this.size = size;
+		}
+	}
+}
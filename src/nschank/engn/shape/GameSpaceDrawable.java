@@ -0,0 +1,25 @@
+package nschank.engn.shape;
+
+/**
+ * Created by Nicolas Schank for package nschank.engn.shape
+ * Created on 30 Jun 2014
+ * Last updated on 30 Jun 2014
+ *
+ * A Drawable which may be drawn in game units, through a transform applied to the Graphics object, rather than being
+ * moved and resized into pixels first. Such a Drawable must draw with fractional coordinates (as through the shapes of
+ * java.awt.geom), and must not depend on anything measured in pixels, such as the size of a font.
+ *
+ * A Viewport draws every Drawable which is not a GameSpaceDrawable, or which returns false from drawsInGameSpace, by
+ * moving and resizing it into pixels and then restoring it.
+ *
+ * @author nschank, Brown University
+ * @version 1.0
+ */
+public interface GameSpaceDrawable extends Drawable
+{
+	/**
+	 * @return Whether this Drawable, as it is now, draws correctly in game units under any scaling, translation or
+	 * rotation of the Graphics object
+	 */
+	public boolean drawsInGameSpace();
+}
@@ -3,25 +3,23 @@ package nschank.engn.shape.collide;
 import com.google.common.base.Optional;
 import nschank.collect.dim.Dimensional;
 import nschank.collect.dim.Vector;
-import nschank.util.Interval;
 import nschank.util.Intervals;
-import nschank.util.NLists;
 
 import java.awt.Color;
 import java.awt.Graphics2D;
-import java.util.List;
+import java.awt.geom.Rectangle2D;
 
 
 /**
  * Created by Nicolas Schank for package nschank.engn.shape.collide
  * Created on 28 Sep 2013
- * Last updated on 28 May 2014
+ * Last updated on 30 Jun 2014
  *
  * An Axis Aligned Box is a subset of Polygons satisfying two invariants: they are boxes (rectangles), and they are not
  * rotatable.
  *
  * @author nschank, Brown University
- * @version 4.1
+ * @version 4.3
  */
 public class AAB extends Polygon
 {
@@ -63,15 +61,6 @@ public class AAB extends Polygon
 				new Vector(-1, -1), new Vector(1, -1), new Vector(1, 1), new Vector(-1, 1));
 	}
 
-	/**
-	 * @return The two axes of this AAB: the x and y axes
-	 */
-	@Override
-	protected List<? extends Dimensional> axes()
-	{
-		return NLists.of(new Vector(0, 1), new Vector(1, 0));
-	}
-
 	/**
 	 * @param other
 	 * 		Another object which may be colliding with this one.
@@ -132,35 +121,6 @@ public class AAB extends Polygon
 		return new AAB(this.getCenterPosition(), this.getWidth(), this.getHeight(), this.getColor());
 	}
 
-	/**
-	 * @param r
-	 * 		A Ray in the same x-y coordinate plane as this object, which may be pointed to this object
-	 *
-	 * @return The distance along this ray where this AAB is located, if the ray intersects it.
-	 */
-	@Override
-	public Optional<Double> distanceAlong(Ray r)
-	{
-		double shortestCollision = -1;
-
-		for(int i = -1; i < (this.points.size() - 1); i++)
-		{
-			Vector start = new Vector(this.points.get((this.points.size() + i) % this.points.size()));
-			Vector end = new Vector(this.points.get((this.points.size() + i + 1) % this.points.size()));
-			Vector perp = new Vector(start.minus(end).getCoordinate(1), end.minus(start).getCoordinate(0));
-			if((((start.minus(r.getStartLocation())).crossProduct(r.getDirection()).getCoordinate(2) * (end
-					.minus(r.getStartLocation()).crossProduct(r.getDirection()).getCoordinate(2))) > 0) || (
-					r.getDirection().dotProduct(perp) == 0)) continue;
-
-			double collision = end.minus(r.getStartLocation()).dotProduct(perp) / r.getDirection().dotProduct(perp);
-			if((collision > 0) && ((shortestCollision < 0) || (shortestCollision > collision)))
-				shortestCollision = collision;
-		}
-
-		if(shortestCollision < 0) return Optional.absent();
-		else return Optional.of(shortestCollision);
-	}
-
 	/**
 	 * @param g
 	 * 		The Graphics object on which to draw this AAB
@@ -169,9 +129,9 @@ public class AAB extends Polygon
 	public void draw(Graphics2D g)
 	{
 		g.setColor(this.getColor());
-		g.fillRect((int) (this.getCenterPosition().getCoordinate(0) - (this.getWidth() / 2f)),
-				(int) (this.getCenterPosition().getCoordinate(1) - (this.getHeight() / 2f)), (int) this.getWidth(),
-				(int) this.getHeight());
+		g.fill(new Rectangle2D.Double(this.getCenterPosition().getCoordinate(0) - (this.getWidth() / 2d),
+				this.getCenterPosition().getCoordinate(1) - (this.getHeight() / 2d), this.getWidth(),
+				this.getHeight()));
 	}
 
 	/**
@@ -259,22 +219,4 @@ public class AAB extends Polygon
 		return "AAB={" + this.getCenterPosition() + " with width " + this.getWidth() + " and height " + this.getHeight()
 				+ '}';
 	}
-
-	/**
-	 * @return This AAB projected onto the x axis
-	 */
-	@Override
-	public Interval xInterval()
-	{
-		return Intervals.about(this.getCenterPosition().getCoordinate(0), this.getWidth());
-	}
-
-	/**
-	 * @return This AAB projected onto the y axis
-	 */
-	@Override
-	public Interval yInterval()
-	{
-		return Intervals.about(this.getCenterPosition().getCoordinate(1), this.getHeight());
-	}
 }
@@ -0,0 +1,829 @@
+package nschank.engn.shape.collide;
+
+import com.google.common.base.Optional;
+import nschank.collect.dim.Dimensional;
+import nschank.collect.dim.Dimensionals;
+import nschank.collect.dim.Point;
+import nschank.engn.shape.AbstractDrawable;
+import nschank.engn.shape.GameSpaceDrawable;
+import nschank.util.Interval;
+import nschank.util.Intervals;
+
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.geom.AffineTransform;
+import java.awt.geom.RoundRectangle2D;
+
+
+/**
+ * Created by Nicolas Schank for package nschank.engn.shape.collide
+ * Created on 19 Jun 2014
+ * Last updated on 30 Jun 2014
+ *
+ * A Capsule is a line segment with a radius: a rectangle with a half-circle at either end, or the shape swept by a
+ * Circle moving in a straight line. It suits characters, which slide smoothly over corners, and fast projectiles.
+ *
+ * The width of a Capsule is its length from tip to tip and its height is its diameter, both measured before it is
+ * rotated. Every test against a Capsule is made against its core segment: the distance between the segment and the
+ * other shape is compared against the radius, and only when the segment itself overlaps the other shape is a short
+ * separating axis test used to find the MTV. Nothing is allocated in these tests except the Collision returned.
+ *
+ * @author nschank, Brown University
+ * @version 1.1
+ */
+public class Capsule extends AbstractDrawable implements Collidable, GameSpaceDrawable
+{
+	/**
+	 * Squared distances below this are treated as the two shapes overlapping, rather than as a direction between them
+	 */
+	private static final double OVERLAP = 1e-12;
+
+	private double angle = 0.0;
+	private double cos = 1.0;
+	private double sin = 0.0;
+	private double centerX;
+	private double centerY;
+	private double halfLength;
+	private double radius;
+
+	private final double[] closest = new double[4];
+	private final double[] otherX = new double[2];
+	private final double[] otherY = new double[2];
+	private final Polygon.SeparatingAxes separatingAxes = new Polygon.SeparatingAxes();
+
+	/**
+	 * Creates a horizontal Capsule.
+	 *
+	 * @param center
+	 * 		The centre of this Capsule
+	 * @param length
+	 * 		The length of this Capsule from tip to tip, which must be at least its diameter
+	 * @param radius
+	 * 		The radius of this Capsule
+	 * @param c
+	 * 		The Color of this Capsule
+	 */
+	public Capsule(Dimensional center, double length, double radius, Color c)
+	{
+		super(center, length, 2d * radius, c);
+		if(radius < 0 || length < (2d * radius))
+			throw new IllegalArgumentException("A Capsule must be at least as long as it is wide.");
+
+		this.centerX = center.getCoordinate(0);
+		this.centerY = center.getCoordinate(1);
+		this.halfLength = (length / 2d) - radius;
+		this.radius = radius;
+	}
+
+	/**
+	 * Creates a Capsule around the segment between two points.
+	 *
+	 * @param start
+	 * 		One end of the core segment of this Capsule
+	 * @param end
+	 * 		The other end of the core segment of this Capsule
+	 * @param radius
+	 * 		The radius of this Capsule
+	 * @param c
+	 * 		The Color of this Capsule
+	 */
+	public Capsule(Dimensional start, Dimensional end, double radius, Color c)
+	{
+		this(Capsule.midpointOf(start, end), Math.sqrt(Dimensionals.sqdistance(start, end)) + (2d * radius), radius, c);
+		if(this.halfLength > 0) this.setRotation(Math.atan2(end.getCoordinate(1) - start.getCoordinate(1),
+				end.getCoordinate(0) - start.getCoordinate(0)));
+	}
+
+	/**
+	 * @param other
+	 * 		Another object which may be colliding with this one.
+	 *
+	 * @return A Collision between this object and the other object, if it exists.
+	 */
+	@Override
+	public Optional<Collision> collisionWith(Collidable other)
+	{
+		ContactManifold manifold = new ContactManifold();
+		if(other instanceof Capsule) return Capsule.collisionFrom(this.collide((Capsule) other, manifold), manifold);
+		if(other instanceof OrientedBox)
+			return Capsule.collisionFrom(this.collide((OrientedBox) other, manifold), manifold);
+		return Collidables.inverseOf(other.collisionWith(this));
+	}
+
+	/**
+	 * @param other
+	 * 		An AAB that may be colliding with this object
+	 *
+	 * @return A Collision between this object and the given AAB, if it exists.
+	 */
+	@Override
+	public Optional<Collision> collisionWithAAB(AAB other)
+	{
+		return this.collisionWithPolygon(other);
+	}
+
+	/**
+	 * @param other
+	 * 		A Circle that may be colliding with this object
+	 *
+	 * @return A Collision between this object and the given Circle, if it exists.
+	 */
+	@Override
+	public Optional<Collision> collisionWithCircle(Circle other)
+	{
+		ContactManifold manifold = new ContactManifold();
+		return Capsule.collisionFrom(this.collide(other, manifold), manifold);
+	}
+
+	/**
+	 * @param other
+	 * 		A Polygon that may be colliding with this object
+	 *
+	 * @return A Collision between this object and the given Polygon, if it exists.
+	 */
+	@Override
+	public Optional<Collision> collisionWithPolygon(Polygon other)
+	{
+		ContactManifold manifold = new ContactManifold();
+		return Capsule.collisionFrom(this.collide(other, manifold), manifold);
+	}
+
+	/**
+	 * Finds the contact between this Capsule and another, by the closest points of their core segments.
+	 *
+	 * @param other
+	 * 		A Capsule that may be colliding with this object
+	 * @param out
+	 * 		A reset ContactManifold, filled with the contact from the point of view of this Capsule
+	 *
+	 * @return Whether the two are colliding
+	 */
+	boolean collide(Capsule other, ContactManifold out)
+	{
+		if(!this.withinReach(other.centerX, other.centerY, other.halfLength + other.radius)) return false;
+
+		this.otherX[0] = other.centerX - (other.cos * other.halfLength);
+		this.otherY[0] = other.centerY - (other.sin * other.halfLength);
+		this.otherX[1] = other.centerX + (other.cos * other.halfLength);
+		this.otherY[1] = other.centerY + (other.sin * other.halfLength);
+		return this.collideRounded(this.otherX, this.otherY, 2, other.radius, out);
+	}
+
+	/**
+	 * Finds the contact between this Capsule and a Circle, by the point of the core segment closest to the Circle.
+	 *
+	 * @param other
+	 * 		A Circle that may be colliding with this object
+	 * @param out
+	 * 		A reset ContactManifold, filled with the contact from the point of view of this Capsule
+	 *
+	 * @return Whether the two are colliding
+	 */
+	boolean collide(Circle other, ContactManifold out)
+	{
+		if(!this.withinReach(other.centerX(), other.centerY(), other.getRadius())) return false;
+
+		this.otherX[0] = other.centerX();
+		this.otherY[0] = other.centerY();
+		return this.collideRounded(this.otherX, this.otherY, 1, other.getRadius(), out);
+	}
+
+	/**
+	 * Finds the contact between this Capsule and an OrientedBox.
+	 *
+	 * @param other
+	 * 		An OrientedBox that may be colliding with this object
+	 * @param out
+	 * 		A reset ContactManifold, filled with the contact from the point of view of this Capsule
+	 *
+	 * @return Whether the two are colliding
+	 */
+	boolean collide(OrientedBox other, ContactManifold out)
+	{
+		if(!this.withinReach(other.centerX(), other.centerY(), other.boundingRadius())) return false;
+		return this.collideRounded(other.cornersX(), other.cornersY(), 4, 0, out);
+	}
+
+	/**
+	 * Finds the contact between this Capsule and a Polygon, including AABs.
+	 *
+	 * @param other
+	 * 		A Polygon that may be colliding with this object
+	 * @param out
+	 * 		A reset ContactManifold, filled with the contact from the point of view of this Capsule
+	 *
+	 * @return Whether the two are colliding
+	 */
+	boolean collide(Polygon other, ContactManifold out)
+	{
+		if(!this.withinReach(other.centerX(), other.centerY(), other.boundingRadius())) return false;
+		return this.collideRounded(other.verticesX(), other.verticesY(), other.vertexCount(), 0, out);
+	}
+
+	/**
+	 * @param point
+	 * 		A point in the same plane as this Capsule
+	 *
+	 * @return Whether the point is closer to the core segment of this Capsule than its radius
+	 */
+	@Override
+	public boolean contains(Dimensional point)
+	{
+		double x = point.getCoordinate(0);
+		double y = point.getCoordinate(1);
+		double distance2 = Capsule.closestPoints(this.startX(), this.startY(), this.endX(), this.endY(), x, y, x, y,
+				this.closest);
+		return distance2 < (this.radius * this.radius);
+	}
+
+	/**
+	 * @return A Capsule identical to this one in location, size, rotation, and color
+	 */
+	@Override
+	public Collidable copy()
+	{
+		Capsule copy = new Capsule(this.getCenterPosition(), this.getWidth(), this.radius, this.getColor());
+		copy.setRotation(this.angle);
+		return copy;
+	}
+
+	/**
+	 * @param r
+	 * 		A Ray in the same x-y coordinate plane as this object, which may be pointed to this object
+	 *
+	 * @return How far along the Ray the edge of this Capsule appears, if they intersect
+	 */
+	@Override
+	public Optional<Double> distanceAlong(Ray r)
+	{
+		double distance = this.distanceAlong(r.getStartLocation().getCoordinate(0), r.getStartLocation().getCoordinate(1),
+				r.getDirection().getCoordinate(0), r.getDirection().getCoordinate(1));
+		if(distance < 0) return Optional.absent();
+		else return Optional.of(distance);
+	}
+
+	/**
+	 * Finds the first point along a ray at which it crosses the edge of this Capsule: either one of its two straight
+	 * sides, or one of its two rounded ends.
+	 *
+	 * @param originX
+	 * 		The x coordinate of the start of a ray
+	 * @param originY
+	 * 		The y coordinate of the start of a ray
+	 * @param dirX
+	 * 		The x component of the unit direction of the ray
+	 * @param dirY
+	 * 		The y component of the unit direction of the ray
+	 *
+	 * @return How far along the ray the edge of this Capsule appears, or -1 if it does not
+	 */
+	double distanceAlong(double originX, double originY, double dirX, double dirY)
+	{
+		double relativeX = originX - this.centerX;
+		double relativeY = originY - this.centerY;
+		double localX = (relativeX * this.cos) + (relativeY * this.sin);
+		double localY = (relativeY * this.cos) - (relativeX * this.sin);
+		double localDirX = (dirX * this.cos) + (dirY * this.sin);
+		double localDirY = (dirY * this.cos) - (dirX * this.sin);
+
+		double nearest = Double.POSITIVE_INFINITY;
+		if(localDirY != 0)
+			for(int side = -1; side <= 1; side += 2)
+			{
+				double t = ((side * this.radius) - localY) / localDirY;
+				if(t > 0 && Math.abs(localX + (t * localDirX)) <= this.halfLength) nearest = Math.min(nearest, t);
+			}
+		for(int end = -1; end <= 1; end += 2)
+		{
+			double toEndX = localX - (end * this.halfLength);
+			double b = (toEndX * localDirX) + (localY * localDirY);
+			double c = ((toEndX * toEndX) + (localY * localY)) - (this.radius * this.radius);
+			double discriminant = (b * b) - c;
+			if(discriminant < 0) continue;
+
+			double root = Math.sqrt(discriminant);
+			for(int sign = -1; sign <= 1; sign += 2)
+			{
+				double t = -b + (sign * root);
+				if(t > 0 && (end * (localX + (t * localDirX))) >= this.halfLength) nearest = Math.min(nearest, t);
+			}
+		}
+		return (nearest == Double.POSITIVE_INFINITY) ? -1 : nearest;
+	}
+
+	/**
+	 * @param g
+	 * 		The Graphics object on which to draw this Capsule
+	 */
+	@Override
+	public void draw(Graphics2D g)
+	{
+		g.setColor(this.getColor());
+		double diameter = 2d * this.radius;
+		RoundRectangle2D shape = new RoundRectangle2D.Double(this.centerX - (this.getWidth() / 2d),
+				this.centerY - this.radius, this.getWidth(), diameter, diameter, diameter);
+		g.fill(AffineTransform.getRotateInstance(this.angle, this.centerX, this.centerY).createTransformedShape(shape));
+	}
+
+	/**
+	 * @return True; a Capsule is drawn as a rounded rectangle with fractional coordinates, so may be drawn in game
+	 * units
+	 */
+	@Override
+	public boolean drawsInGameSpace()
+	{
+		return true;
+	}
+
+	/**
+	 * @return The end of the core segment of this Capsule, in the direction it is facing
+	 */
+	public Dimensional getEnd()
+	{
+		return new Point(this.endX(), this.endY());
+	}
+
+	/**
+	 * @return The radius of this Capsule
+	 */
+	public double getRadius()
+	{
+		return this.radius;
+	}
+
+	/**
+	 * Changes the radius of this Capsule, keeping the length of its core segment.
+	 *
+	 * @param radius
+	 * 		The new radius of this Capsule
+	 */
+	public void setRadius(double radius)
+	{
+		this.radius = radius;
+		super.setHeight(2d * radius);
+		super.setWidth(2d * (this.halfLength + radius));
+	}
+
+	/**
+	 * @return The angle of this Capsule from the x-axis, in radians
+	 */
+	@Override
+	public double getRotation()
+	{
+		return this.angle;
+	}
+
+	/**
+	 * @param theta
+	 * 		The new angle of this Capsule from the x-axis, in radians
+	 */
+	@Override
+	public void setRotation(double theta)
+	{
+		this.angle = theta;
+		this.cos = Math.cos(theta);
+		this.sin = Math.sin(theta);
+	}
+
+	/**
+	 * @return The start of the core segment of this Capsule, opposite the direction it is facing
+	 */
+	public Dimensional getStart()
+	{
+		return new Point(this.startX(), this.startY());
+	}
+
+	/**
+	 * Treats this Capsule as a rectangle and two half-circles of even density.
+	 *
+	 * @return The moment of inertia of this Capsule, assuming it has a mass of 1
+	 */
+	@Override
+	public double momentOfInertia()
+	{
+		double h = this.halfLength;
+		double r = this.radius;
+		double rectangle = 4d * h * r;
+		double circle = Math.PI * r * r;
+		if(rectangle + circle == 0) return 0;
+
+		double centroid = (4d * r) / (3d * Math.PI);
+		double rectangleInertia = (rectangle * ((4d * h * h) + (4d * r * r))) / 12d;
+		double endsInertia = circle * (((r * r) / 2d) + (h * h) + (2d * h * centroid));
+		return (rectangleInertia + endsInertia) / (rectangle + circle);
+	}
+
+	/**
+	 * @param axis
+	 * 		An axis onto which to project this Capsule
+	 *
+	 * @return The DefaultInterval along this axis upon which this Capsule falls.
+	 */
+	@Override
+	public Interval projectionOnto(Dimensional axis)
+	{
+		double axisX = axis.getCoordinate(0);
+		double axisY = axis.getCoordinate(1);
+		double mag2 = (axisX * axisX) + (axisY * axisY);
+		//Measured along the x axis unless the axis is vertical, as in Dimensionals.project
+		double scale = ((axisX == 0) ? axisY : axisX) / mag2;
+
+		double start = ((this.startX() * axisX) + (this.startY() * axisY)) * scale;
+		double end = ((this.endX() * axisX) + (this.endY() * axisY)) * scale;
+		double extent = this.radius * Math.abs(scale) * Math.sqrt(mag2);
+		double min = Math.min(start, end) - extent;
+		double max = Math.max(start, end) + extent;
+		return Intervals.about((min + max) / 2d, max - min);
+	}
+
+	/**
+	 * @param theta
+	 * 		An amount by which this Capsule should rotate counter-clockwise
+	 */
+	@Override
+	public void rotate(double theta)
+	{
+		this.setRotation(this.angle + theta);
+	}
+
+	/**
+	 * @param centerPosition
+	 * 		The new center position of this Capsule
+	 */
+	@Override
+	public void setCenterPosition(Dimensional centerPosition)
+	{
+		super.setCenterPosition(centerPosition);
+		this.centerX = centerPosition.getCoordinate(0);
+		this.centerY = centerPosition.getCoordinate(1);
+	}
+
+	/**
+	 * Changes the diameter of this Capsule, keeping the length of its core segment.
+	 *
+	 * @param height
+	 * 		The new diameter of this {@code Capsule}
+	 */
+	@Override
+	public void setHeight(double height)
+	{
+		this.setRadius(height / 2d);
+	}
+
+	/**
+	 * Changes the length of this Capsule from tip to tip; it cannot be made shorter than its diameter.
+	 *
+	 * @param width
+	 * 		The new length of this {@code Capsule}
+	 */
+	@Override
+	public void setWidth(double width)
+	{
+		this.halfLength = Math.max(0, (width / 2d) - this.radius);
+		super.setWidth(2d * (this.halfLength + this.radius));
+	}
+
+	/**
+	 * @return A string representation of this Capsule, with its core segment and radius
+	 */
+	@Override
+	public String toString()
+	{
+		return "Capsule{" +
+				"start=" + this.getStart() +
+				", end=" + this.getEnd() +
+				", radius=" + this.radius +
+				'}';
+	}
+
+	/**
+	 * @return The x interval (along the x axis) of this Capsule
+	 */
+	@Override
+	public Interval xInterval()
+	{
+		return Intervals.about(this.centerX, 2d * ((Math.abs(this.cos) * this.halfLength) + this.radius));
+	}
+
+	/**
+	 * @return The y interval (along the y axis) of this Capsule
+	 */
+	@Override
+	public Interval yInterval()
+	{
+		return Intervals.about(this.centerY, 2d * ((Math.abs(this.sin) * this.halfLength) + this.radius));
+	}
+
+	/**
+	 * @return The x coordinate of the centre of this Capsule
+	 */
+	double centerX()
+	{
+		return this.centerX;
+	}
+
+	/**
+	 * @return The y coordinate of the centre of this Capsule
+	 */
+	double centerY()
+	{
+		return this.centerY;
+	}
+
+	/**
+	 * Finds the contact between this Capsule and a convex shape with rounded corners: a point (a Circle), a segment
+	 * (another Capsule), or a polygon with no rounding at all. If the core segment of this Capsule does not touch the
+	 * unrounded shape, the two collide only if the distance between them is less than both radii together, and are
+	 * pushed apart along the line between their closest points. Otherwise, the shortest translation is found along the
+	 * normal of the core segment and the normal of each edge of the shape.
+	 *
+	 * @param xs
+	 * 		The x coordinates of the vertices of the shape, in clockwise order
+	 * @param ys
+	 * 		The y coordinates of the same vertices
+	 * @param count
+	 * 		The number of vertices
+	 * @param otherRadius
+	 * 		How far the shape is rounded beyond its vertices and edges
+	 * @param out
+	 * 		A reset ContactManifold, filled with the contact from the point of view of this Capsule
+	 *
+	 * @return Whether the two are colliding
+	 */
+	private boolean collideRounded(double[] xs, double[] ys, int count, double otherRadius, ContactManifold out)
+	{
+		double startX = this.startX();
+		double startY = this.startY();
+		double endX = this.endX();
+		double endY = this.endY();
+
+		double best = Double.POSITIVE_INFINITY;
+		double segmentX = startX;
+		double segmentY = startY;
+		double shapeX = xs[0];
+		double shapeY = ys[0];
+		for(int i = 0; i < count; i++)
+		{
+			int next = (i + 1) % count;
+			double distance2 = Capsule.closestPoints(startX, startY, endX, endY, xs[i], ys[i], xs[next], ys[next],
+					this.closest);
+			if(distance2 < best)
+			{
+				best = distance2;
+				segmentX = this.closest[0];
+				segmentY = this.closest[1];
+				shapeX = this.closest[2];
+				shapeY = this.closest[3];
+			}
+		}
+
+		double reach = this.radius + otherRadius;
+		boolean inside = count >= 3 && Polygon.contains(xs, ys, count, startX, startY);
+		if(!inside && best > OVERLAP)
+		{
+			if(best >= (reach * reach)) return false;
+
+			double distance = Math.sqrt(best);
+			double normalX = (segmentX - shapeX) / distance;
+			double normalY = (segmentY - shapeY) / distance;
+			out.collide(normalX * (reach - distance), normalY * (reach - distance));
+			out.addPoint(shapeX + (normalX * otherRadius), shapeY + (normalY * otherRadius));
+			return true;
+		}
+
+		Polygon.SeparatingAxes sat = this.separatingAxes;
+		sat.reset();
+		boolean tested = false;
+		if(this.halfLength > 0)
+		{
+			if(!this.testAxis(sat, -this.sin, this.cos, xs, ys, count, otherRadius)) return false;
+			tested = true;
+		}
+		for(int i = 0; i < count; i++)
+		{
+			int next = (i + 1) % count;
+			double edgeX = xs[next] - xs[i];
+			double edgeY = ys[next] - ys[i];
+			double length = Math.sqrt((edgeX * edgeX) + (edgeY * edgeY));
+			if(length == 0) continue;
+			if(!this.testAxis(sat, edgeY / length, -edgeX / length, xs, ys, count, otherRadius)) return false;
+			tested = true;
+		}
+		if(!tested && !this.testAxis(sat, 1, 0, xs, ys, count, otherRadius)) return false;
+		if(sat.mag2 <= 0) return false;
+
+		out.collide(sat.x, sat.y);
+		if(inside) out.addPoint(startX, startY);
+		else out.addPoint(segmentX, segmentY);
+		return true;
+	}
+
+	/**
+	 * @return The x coordinate of the end of the core segment
+	 */
+	private double endX()
+	{
+		return this.centerX + (this.cos * this.halfLength);
+	}
+
+	/**
+	 * @return The y coordinate of the end of the core segment
+	 */
+	private double endY()
+	{
+		return this.centerY + (this.sin * this.halfLength);
+	}
+
+	/**
+	 * @return The x coordinate of the start of the core segment
+	 */
+	private double startX()
+	{
+		return this.centerX - (this.cos * this.halfLength);
+	}
+
+	/**
+	 * @return The y coordinate of the start of the core segment
+	 */
+	private double startY()
+	{
+		return this.centerY - (this.sin * this.halfLength);
+	}
+
+	/**
+	 * Projects both this Capsule and a rounded shape onto the given axis, and records the translation along that axis.
+	 *
+	 * @param sat
+	 * 		The shortest translation found so far
+	 * @param axisX
+	 * 		The x component of a unit axis
+	 * @param axisY
+	 * 		The y component of a unit axis
+	 * @param xs
+	 * 		The x coordinates of the vertices of the shape
+	 * @param ys
+	 * 		The y coordinates of the same vertices
+	 * @param count
+	 * 		The number of vertices
+	 * @param otherRadius
+	 * 		How far the shape is rounded beyond its vertices and edges
+	 *
+	 * @return Whether the two overlap along this axis
+	 */
+	private boolean testAxis(Polygon.SeparatingAxes sat, double axisX, double axisY, double[] xs, double[] ys,
+							 int count, double otherRadius)
+	{
+		sat.project(xs, ys, count, axisX, axisY);
+		double theirMin = sat.min - otherRadius;
+		double theirMax = sat.max + otherRadius;
+
+		double start = (this.startX() * axisX) + (this.startY() * axisY);
+		double end = (this.endX() * axisX) + (this.endY() * axisY);
+		sat.min = Math.min(start, end) - this.radius;
+		sat.max = Math.max(start, end) + this.radius;
+		return sat.test(axisX, axisY, theirMin, theirMax);
+	}
+
+	/**
+	 * @param x
+	 * 		The x coordinate of the centre of a circle
+	 * @param y
+	 * 		The y coordinate of the centre of a circle
+	 * @param reach
+	 * 		The radius of that circle
+	 *
+	 * @return Whether that circle overlaps the circle around this Capsule; if not, it cannot overlap this Capsule
+	 */
+	private boolean withinReach(double x, double y, double reach)
+	{
+		double dx = x - this.centerX;
+		double dy = y - this.centerY;
+		double total = this.halfLength + this.radius + reach;
+		return ((dx * dx) + (dy * dy)) < (total * total);
+	}
+
+	/**
+	 * Finds the closest points between two line segments, either of which may be a single point.
+	 *
+	 * @param startX
+	 * 		The x coordinate of the start of the first segment
+	 * @param startY
+	 * 		The y coordinate of the start of the first segment
+	 * @param endX
+	 * 		The x coordinate of the end of the first segment
+	 * @param endY
+	 * 		The y coordinate of the end of the first segment
+	 * @param otherStartX
+	 * 		The x coordinate of the start of the second segment
+	 * @param otherStartY
+	 * 		The y coordinate of the start of the second segment
+	 * @param otherEndX
+	 * 		The x coordinate of the end of the second segment
+	 * @param otherEndY
+	 * 		The y coordinate of the end of the second segment
+	 * @param out
+	 * 		Filled with the closest point on the first segment, then the closest point on the second
+	 *
+	 * @return The squared distance between the two closest points
+	 */
+	static double closestPoints(double startX, double startY, double endX, double endY, double otherStartX,
+								double otherStartY, double otherEndX, double otherEndY, double[] out)
+	{
+		double dirX = endX - startX;
+		double dirY = endY - startY;
+		double otherDirX = otherEndX - otherStartX;
+		double otherDirY = otherEndY - otherStartY;
+		double apartX = startX - otherStartX;
+		double apartY = startY - otherStartY;
+
+		double length2 = (dirX * dirX) + (dirY * dirY);
+		double otherLength2 = (otherDirX * otherDirX) + (otherDirY * otherDirY);
+		double otherAlong = (otherDirX * apartX) + (otherDirY * apartY);
+
+		double s;
+		double t;
+		if(length2 == 0 && otherLength2 == 0)
+		{
+			s = 0;
+			t = 0;
+		}
+		else if(length2 == 0)
+		{
+			s = 0;
+			t = Capsule.clamp(otherAlong / otherLength2);
+		}
+		else
+		{
+			double along = (dirX * apartX) + (dirY * apartY);
+			if(otherLength2 == 0)
+			{
+				t = 0;
+				s = Capsule.clamp(-along / length2);
+			}
+			else
+			{
+				double dot = (dirX * otherDirX) + (dirY * otherDirY);
+				double denominator = (length2 * otherLength2) - (dot * dot);
+				s = (denominator == 0) ? 0 : Capsule.clamp(((dot * otherAlong) - (along * otherLength2)) / denominator);
+				t = ((dot * s) + otherAlong) / otherLength2;
+				if(t < 0)
+				{
+					t = 0;
+					s = Capsule.clamp(-along / length2);
+				}
+				else if(t > 1)
+				{
+					t = 1;
+					s = Capsule.clamp((dot - along) / length2);
+				}
+			}
+		}
+
+		out[0] = startX + (dirX * s);
+		out[1] = startY + (dirY * s);
+		out[2] = otherStartX + (otherDirX * t);
+		out[3] = otherStartY + (otherDirY * t);
+		double dx = out[0] - out[2];
+		double dy = out[1] - out[3];
+		return (dx * dx) + (dy * dy);
+	}
+
+	/**
+	 * @param value
+	 * 		Any number
+	 *
+	 * @return That number, clamped between 0 and 1
+	 */
+	private static double clamp(double value)
+	{
+		return Math.max(0, Math.min(1, value));
+	}
+
+	/**
+	 * @param colliding
+	 * 		Whether a test found a collision
+	 * @param manifold
+	 * 		The ContactManifold filled by that test
+	 *
+	 * @return The Collision in the ContactManifold, if there was one
+	 */
+	private static Optional<Collision> collisionFrom(boolean colliding, ContactManifold manifold)
+	{
+		if(!colliding) return Optional.absent();
+		return Optional.of(manifold.toCollision());
+	}
+
+	/**
+	 * @param start
+	 * 		A point
+	 * @param end
+	 * 		Another point
+	 *
+	 * @return The point halfway between them
+	 */
+	private static Dimensional midpointOf(Dimensional start, Dimensional end)
+	{
+		return new Point((start.getCoordinate(0) + end.getCoordinate(0)) / 2d,
+				(start.getCoordinate(1) + end.getCoordinate(1)) / 2d);
+	}
+}
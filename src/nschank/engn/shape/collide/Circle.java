@@ -3,31 +3,34 @@ package nschank.engn.shape.collide;
 import com.google.common.base.Optional;
 import nschank.collect.dim.Dimensional;
 import nschank.collect.dim.Dimensionals;
-import nschank.collect.dim.Point;
 import nschank.collect.dim.Vector;
 import nschank.engn.shape.AbstractDrawable;
+import nschank.engn.shape.GameSpaceDrawable;
 import nschank.util.Interval;
 import nschank.util.NLists;
 
 import java.awt.Color;
 import java.awt.Graphics2D;
+import java.awt.geom.Ellipse2D;
 
 
 /**
  * Created by Nicolas Schank for package nschank.engn.shape.collide
  * Created on 28 Sep 2013
- * Last updated on 27 May 2014
+ * Last updated on 3 Jul 2014
  *
  * A Circle is one of the 4 main types of Collidables. It has a center point, a radius/diameter, and a color. It does
  * rotate, though it may be hard (read: imposible) to see without overriding the draw method. Satisfies the invariant that
  * the width and height are equal.
  *
  * @author nschank, Brown University
- * @version 4.1
+ * @version 4.6
  */
-public class Circle extends AbstractDrawable implements Collidable
+public class Circle extends AbstractDrawable implements Collidable, GameSpaceDrawable
 {
 	private double rotation = 0.0f;
+	private double centerX;
+	private double centerY;
 
 	/**
 	 * Creates a circle at the given {@code location}, with a given {@code radius}, and of the given {@code color}.
@@ -42,6 +45,8 @@ public class Circle extends AbstractDrawable implements Collidable
 	public Circle(Dimensional location, double radius, Color c)
 	{
 		super(location, radius * 2d, radius * 2d, c);
+		this.centerX = location.getCoordinate(0);
+		this.centerY = location.getCoordinate(1);
 	}
 
 	/**
@@ -65,19 +70,9 @@ public class Circle extends AbstractDrawable implements Collidable
 	@Override
 	public Optional<Collision> collisionWithAAB(AAB other)
 	{
-		double clampedX = Math.max(Math.min(this.getCenterPosition().getCoordinate(0),
-				other.getCenterPosition().getCoordinate(0) + (other.getWidth() / 2)),
-				other.getCenterPosition().getCoordinate(0) - (other.getWidth() / 2));
-		double clampedY = Math.max(Math.min(this.getCenterPosition().getCoordinate(1),
-				other.getCenterPosition().getCoordinate(1) + (other.getHeight() / 2)),
-				other.getCenterPosition().getCoordinate(1) - (other.getHeight() / 2));
-		if(Dimensionals.sqdistance(new Vector(clampedX, clampedY), this.getCenterPosition()) < (this.getRadius() * this
-				.getRadius()))
-		{
-			Collision collision = new DefaultCollision(new Point(clampedX, clampedY), this.mtvFromAAB(other));
-			return Optional.of(collision);
-		}
-		return Optional.absent();
+		ContactManifold manifold = new ContactManifold();
+		if(!this.collide(other, manifold)) return Optional.absent();
+		return Optional.of(manifold.toCollision());
 	}
 
 	/**
@@ -89,16 +84,82 @@ public class Circle extends AbstractDrawable implements Collidable
 	@Override
 	public Optional<Collision> collisionWithCircle(Circle other)
 	{
-		Vector apart = new Vector(other.getCenterPosition()).minus(this.getCenterPosition());
-		if(apart.mag2() < ((this.getRadius() + other.getRadius()) * (this.getRadius() + other.getRadius())))
+		ContactManifold manifold = new ContactManifold();
+		if(!this.collide(other, manifold)) return Optional.absent();
+		return Optional.of(manifold.toCollision());
+	}
+
+	/**
+	 * Finds the contact between this Circle and an AAB, which touch at the point of the AAB nearest the centre of this
+	 * Circle.
+	 *
+	 * @param other
+	 * 		An AAB that may be colliding with this object
+	 * @param out
+	 * 		A reset ContactManifold, filled with the contact from the point of view of this Circle
+	 *
+	 * @return Whether the two are colliding
+	 */
+	boolean collide(AAB other, ContactManifold out)
+	{
+		double boxX = other.centerX();
+		double boxY = other.centerY();
+		double halfWidth = other.getWidth() / 2d;
+		double halfHeight = other.getHeight() / 2d;
+		double radius = this.getRadius();
+
+		double clampedX = Math.max(Math.min(this.centerX, boxX + halfWidth), boxX - halfWidth);
+		double clampedY = Math.max(Math.min(this.centerY, boxY + halfHeight), boxY - halfHeight);
+		double toClampedX = clampedX - this.centerX;
+		double toClampedY = clampedY - this.centerY;
+		double dist2 = (toClampedX * toClampedX) + (toClampedY * toClampedY);
+		if(dist2 >= (radius * radius)) return false;
+
+		if(dist2 == 0) //Circle is inside AAB
+		{
+			double xDiff = Math.abs(boxX - this.centerX);
+			double yDiff = Math.abs(boxY - this.centerY);
+			double needXDiff = radius + halfWidth;
+			double needYDiff = radius + halfHeight;
+
+			if(Math.abs(xDiff - needXDiff) < Math.abs(yDiff - needYDiff))
+				out.collide(((boxX > this.centerX) ? -1 : 1) * (needXDiff - xDiff), 0);
+			else out.collide(0, ((boxY > this.centerY) ? -1 : 1) * (needYDiff - yDiff));
+		}
+		else
 		{
-			double mag = apart.mag();
-			Vector napart = apart.normalized();
-			Collision collision = new DefaultCollision(napart.smult(this.getRadius()).plus(this.getCenterPosition()),
-					napart.smult((mag - (other.getRadius() + this.getRadius()))));
-			return Optional.of(collision);
+			double dist = Math.sqrt(dist2);
+			double overlap = radius - dist;
+			out.collide(-(toClampedX / dist) * overlap, -(toClampedY / dist) * overlap);
 		}
-		return Optional.absent();
+		out.addPoint(clampedX, clampedY);
+		return true;
+	}
+
+	/**
+	 * Finds the contact between this Circle and another, which touch at the point of this Circle nearest the other.
+	 *
+	 * @param other
+	 * 		A Circle that may be colliding with this object
+	 * @param out
+	 * 		A reset ContactManifold, filled with the contact from the point of view of this Circle
+	 *
+	 * @return Whether the two are colliding
+	 */
+	boolean collide(Circle other, ContactManifold out)
+	{
+		double apartX = other.centerX - this.centerX;
+		double apartY = other.centerY - this.centerY;
+		double radii = this.getRadius() + other.getRadius();
+		double mag2 = (apartX * apartX) + (apartY * apartY);
+		if(mag2 >= (radii * radii)) return false;
+
+		double mag = Math.sqrt(mag2);
+		double normalX = (mag == 0) ? 1 : (apartX / mag);
+		double normalY = (mag == 0) ? 0 : (apartY / mag);
+		out.collide(normalX * (mag - radii), normalY * (mag - radii));
+		out.addPoint(this.centerX + (normalX * this.getRadius()), this.centerY + (normalY * this.getRadius()));
+		return true;
 	}
 
 	/**
@@ -143,17 +204,37 @@ public class Circle extends AbstractDrawable implements Collidable
 	@Override
 	public Optional<Double> distanceAlong(Ray r)
 	{
-		Vector relativeCenter = new Vector(this.getCenterPosition()).minus(r.getStartLocation());
-		double projection = relativeCenter.dotProduct(r.getDirection());
-		Dimensional projectionPoint = r.getAtDistance(projection);
-		if(!(this.contains(projectionPoint) || ((projection < 0) && !this.contains(r.getStartLocation()))))
-			return Optional.absent();
+		double distance = this.distanceAlong(r.getStartLocation().getCoordinate(0), r.getStartLocation().getCoordinate(1),
+				r.getDirection().getCoordinate(0), r.getDirection().getCoordinate(1));
+		if(distance < 0) return Optional.absent();
+		else return Optional.of(distance);
+	}
 
-		double x2 = Dimensionals.sqdistance(this.getCenterPosition(), projectionPoint);
+	/**
+	 * @param originX
+	 * 		The x coordinate of the start of a ray
+	 * @param originY
+	 * 		The y coordinate of the start of a ray
+	 * @param dirX
+	 * 		The x component of the unit direction of the ray
+	 * @param dirY
+	 * 		The y component of the unit direction of the ray
+	 *
+	 * @return How far along the ray the edge of this Circle appears, or -1 if it does not
+	 */
+	double distanceAlong(double originX, double originY, double dirX, double dirY)
+	{
+		double relativeX = this.centerX - originX;
+		double relativeY = this.centerY - originY;
+		double projection = (relativeX * dirX) + (relativeY * dirY);
+		double distance2 = (relativeX * relativeX) + (relativeY * relativeY);
+		double x2 = distance2 - (projection * projection);
 		double r2 = this.getRadius() * this.getRadius();
+		boolean startInside = distance2 < r2;
+		if(x2 >= r2 || ((projection < 0) && !startInside)) return -1;
 
-		if(this.contains(r.getStartLocation())) return Optional.of(projection + Math.sqrt(r2 - x2));
-		else return Optional.of(projection - Math.sqrt(r2 - x2));
+		if(startInside) return projection + Math.sqrt(r2 - x2);
+		else return projection - Math.sqrt(r2 - x2);
 	}
 
 	/**
@@ -164,9 +245,17 @@ public class Circle extends AbstractDrawable implements Collidable
 	public void draw(Graphics2D g)
 	{
 		g.setColor(this.getColor());
-		g.fillOval((int) (this.getCenterPosition().getCoordinate(0) - this.getRadius()),
-				(int) (this.getCenterPosition().getCoordinate(1) - this.getRadius()), (int) this.getWidth(),
-				(int) this.getHeight());
+		g.fill(new Ellipse2D.Double(this.centerX - this.getRadius(), this.centerY - this.getRadius(), this.getWidth(),
+				this.getHeight()));
+	}
+
+	/**
+	 * @return True; a Circle is drawn as an ellipse with fractional coordinates, so may be drawn in game units
+	 */
+	@Override
+	public boolean drawsInGameSpace()
+	{
+		return true;
 	}
 
 	/**
@@ -207,49 +296,6 @@ public class Circle extends AbstractDrawable implements Collidable
 		return (this.getRadius() * this.getRadius()) / 2.0;
 	}
 
-	/**
-	 * @param other
-	 * 		An AAB that may be colliding with this object
-	 *
-	 * @return A Vector that, if this Circle followed, would displace this Circle completely from outside this AAB
-	 */
-	private Vector mtvFromAAB(AAB other)
-	{
-		if(other.contains(this.getCenterPosition())) //Circle is inside AAB
-		{
-			double xDiff = Math
-					.abs(other.getCenterPosition().getCoordinate(0) - this.getCenterPosition().getCoordinate(0));
-			double yDiff = Math
-					.abs(other.getCenterPosition().getCoordinate(1) - this.getCenterPosition().getCoordinate(1));
-
-			double needXDiff = this.getRadius() + (other.getWidth() / 2.0);
-			double needYDiff = this.getRadius() + (other.getHeight() / 2.0);
-
-			if(Math.abs(xDiff - needXDiff) < Math.abs(yDiff - needYDiff))
-			{
-				boolean negate = other.getCenterPosition().getCoordinate(0) > this.getCenterPosition().getCoordinate(0);
-				return new Vector((negate ? -1f : 1f) * (needXDiff - xDiff), 0);
-			} else
-			{
-				boolean negate = other.getCenterPosition().getCoordinate(1) > this.getCenterPosition().getCoordinate(1);
-				return new Vector(0, (negate ? -1f : 1f) * (needYDiff - yDiff));
-			}
-		} else
-		{
-			double minXa = other.getCenterPosition().getCoordinate(0) + (other.getWidth() / 2d);
-			double minXb = Math.max(other.getCenterPosition().getCoordinate(0) - (other.getWidth() / 2d),
-					this.getCenterPosition().getCoordinate(0));
-			double clampedX = Math.min(minXa, minXb);
-
-			double minYa = other.getCenterPosition().getCoordinate(1) + (other.getHeight() / 2d);
-			double minYb = Math.max(other.getCenterPosition().getCoordinate(1) - (other.getHeight() / 2d),
-					this.getCenterPosition().getCoordinate(1));
-			double clampedY = Math.min(minYa, minYb);
-
-			return this.mtvFromCircle(new Circle(new Point(clampedX, clampedY), 0, Color.BLACK));
-		}
-	}
-
 	/**
 	 * @param other
 	 * 		A Circle that may be colliding with this object
@@ -294,6 +340,18 @@ public class Circle extends AbstractDrawable implements Collidable
 		this.rotation = ((this.rotation + theta) % (2 * Math.PI));
 	}
 
+	/**
+	 * @param centerPosition
+	 * 		The new center position of this Circle
+	 */
+	@Override
+	public void setCenterPosition(Dimensional centerPosition)
+	{
+		super.setCenterPosition(centerPosition);
+		this.centerX = centerPosition.getCoordinate(0);
+		this.centerY = centerPosition.getCoordinate(1);
+	}
+
 	/**
 	 * Changes the diameter of this circle
 	 *
@@ -340,4 +398,20 @@ public class Circle extends AbstractDrawable implements Collidable
 	{
 		return "Circle{" + getCenterPosition() + " with radius " + getRadius() + "}";
 	}
+
+	/**
+	 * @return The x coordinate of the center of this Circle
+	 */
+	double centerX()
+	{
+		return this.centerX;
+	}
+
+	/**
+	 * @return The y coordinate of the center of this Circle
+	 */
+	double centerY()
+	{
+		return this.centerY;
+	}
 }
@@ -2,23 +2,36 @@ package nschank.engn.shape.collide;
 
 import com.google.common.base.Optional;
 import nschank.collect.dim.Dimensional;
+import nschank.collect.dim.Vector;
+import nschank.util.Interval;
 
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 
 
 /**
  * Created by Nicolas Schank for package nschank.engn.shape.collide;
  * Created on 28 May 2014
- * Last updated on 29 May 2014
+ * Last updated on 3 Jul 2014
  *
  * A Utility class meant to make working with Collidables and Collisions easier.
  *
  * @author nschank, Brown University
- * @version 1.2
+ * @version 1.7
  */
 public final class Collidables
 {
+	/**
+	 * The most steps timeOfImpact advances before settling on the furthest point known to be free
+	 */
+	public static final int TIME_OF_IMPACT_ITERATIONS = 32;
+	/**
+	 * How far past first contact timeOfImpact places the moving Collidable, as a fraction of the lesser of its
+	 * displacement and its smallest dimension
+	 */
+	public static final double TIME_OF_IMPACT_OVERLAP = 1d / 256d;
+
 	/**
 	 *
 	 */
@@ -51,7 +64,8 @@ public final class Collidables
 	}
 
 	/**
-	 * Returns all of the given points that are within the object.
+	 * Returns all of the given points that are within the object. The bounds of the object are found once, and points
+	 * outside of them are rejected without asking the object itself.
 	 *
 	 * @param object
 	 * 		The Collidable which may have some of these points
@@ -62,9 +76,135 @@ public final class Collidables
 	 */
 	public static List<Dimensional> contained(final Collidable object, final Iterable<Dimensional> dims)
 	{
+		Interval xs = object.xInterval();
+		Interval ys = object.yInterval();
 		List<Dimensional> allContained = new ArrayList<>();
 		for(Dimensional dim : dims)
-			if(object.contains(dim)) allContained.add(dim);
+			if(xs.contains(dim.getCoordinate(0)) && ys.contains(dim.getCoordinate(1)) && object.contains(dim))
+				allContained.add(dim);
 		return allContained;
 	}
+
+	/**
+	 * Sweeps the {@code moving} Collidable along the given {@code displacement} (without rotating it) and finds the
+	 * first point along the way at which it overlaps the {@code obstacle}, as a fraction of the displacement. Obstacles
+	 * which the moving Collidable already overlaps, or which lie outside the swept bounds, are ignored.
+	 *
+	 * Uses conservative advancement: at each step the distance between the two is found by GJK, and the moving
+	 * Collidable is advanced only as far as its motion towards the obstacle lets it cover that distance, so that no
+	 * obstacle can be skipped however thin either one is. Once within TIME_OF_IMPACT_OVERLAP of the obstacle, the
+	 * fraction returned is that of a position just past first contact, so that the normal collision response can
+	 * resolve it; if TIME_OF_IMPACT_ITERATIONS steps are taken first, the furthest position known to be free is
+	 * returned instead. Neither Collidable is moved or copied.
+	 *
+	 * CompoundCollidables and TileCollisionLayers are swept by their parts, and a Collidable with no size is swept
+	 * using a Ray. Any other Collidable which is not a Polygon, Circle, OrientedBox or Capsule is swept as its bounds.
+	 *
+	 * @param moving
+	 * 		A Collidable at its starting position; it is not moved by this method
+	 * @param displacement
+	 * 		The movement of {@code moving} over the step being swept
+	 * @param obstacle
+	 * 		A Collidable which {@code moving} may pass through over the step
+	 *
+	 * @return The fraction of {@code displacement}, between 0 and 1, at which the two first overlap, if they do
+	 */
+	public static Optional<Double> timeOfImpact(final Collidable moving, final Vector displacement,
+												final Collidable obstacle)
+	{
+		if(displacement.isZero()) return Optional.absent();
+
+		double dx = displacement.getCoordinate(0);
+		double dy = displacement.getCoordinate(1);
+		Interval sweptX = moving.xInterval().and(moving.xInterval().plus(dx));
+		Interval sweptY = moving.yInterval().and(moving.yInterval().plus(dy));
+		if(!sweptX.isIntersecting(obstacle.xInterval()) || !sweptY.isIntersecting(obstacle.yInterval()))
+			return Optional.absent();
+
+		if(!Collidables.isConvex(moving))
+			return Collidables.firstImpact(Collidables.partsOf(moving), displacement, obstacle, true);
+		if(!Collidables.isConvex(obstacle))
+			return Collidables.firstImpact(Collidables.partsOf(obstacle), displacement, moving, false);
+
+		double length = displacement.mag();
+		double size = Math.min(moving.getWidth(), moving.getHeight());
+		if(size <= 0)
+		{
+			Optional<Double> hit = obstacle.distanceAlong(new Ray(moving.getCenterPosition(), displacement));
+			if(hit.isPresent() && hit.get() <= length) return Optional.of(hit.get() / length);
+			return Optional.absent();
+		}
+
+		double overlap = Math.min(length, size) * TIME_OF_IMPACT_OVERLAP;
+		double[] normal = new double[2];
+		double t = 0;
+		for(int i = 0; i < TIME_OF_IMPACT_ITERATIONS; i++)
+		{
+			double distance = GJK.distance(moving, obstacle, dx * t, dy * t, normal);
+			if(distance == 0)
+			{
+				if(i == 0 && moving.collisionWith(obstacle).isPresent()) return Optional.absent();
+				return Optional.of(Math.min(1d, t + (overlap / length)));
+			}
+
+			double closing = (dx * normal[0]) + (dy * normal[1]);
+			if(closing <= 0) return Optional.absent();
+			if(distance <= overlap) return Optional.of(Math.min(1d, t + ((distance + overlap) / closing)));
+			t += distance / closing;
+			if(t > 1) return Optional.absent();
+		}
+		return Optional.of(t);
+	}
+
+	/**
+	 * @param parts
+	 * 		The convex parts of a Collidable
+	 * @param displacement
+	 * 		The movement of the moving Collidable over the step being swept
+	 * @param other
+	 * 		The Collidable the parts are swept against
+	 * @param partsMoving
+	 * 		Whether the parts are those of the moving Collidable, rather than of the obstacle
+	 *
+	 * @return The earliest time of impact of any of the parts, as given by timeOfImpact
+	 */
+	private static Optional<Double> firstImpact(final Iterable<? extends Collidable> parts, final Vector displacement,
+												final Collidable other, boolean partsMoving)
+	{
+		Optional<Double> first = Optional.absent();
+		for(Collidable part : parts)
+		{
+			Optional<Double> impact = partsMoving ? Collidables.timeOfImpact(part, displacement, other)
+					: Collidables.timeOfImpact(other, displacement, part);
+			if(impact.isPresent() && (!first.isPresent() || impact.get() < first.get())) first = impact;
+		}
+		return first;
+	}
+
+	/**
+	 * @param c
+	 * 		A Collidable
+	 *
+	 * @return Whether GJK can find the distance between that Collidable and another
+	 */
+	private static boolean isConvex(final Collidable c)
+	{
+		return c instanceof Polygon || c instanceof Circle || c instanceof OrientedBox || c instanceof Capsule;
+	}
+
+	/**
+	 * @param c
+	 * 		A Collidable which is not a Polygon, Circle, OrientedBox or Capsule
+	 *
+	 * @return Convex Collidables which together cover {@code c}: the children of a CompoundCollidable, the merged boxes
+	 * of a TileCollisionLayer, and otherwise the bounds of {@code c}
+	 */
+	private static List<? extends Collidable> partsOf(final Collidable c)
+	{
+		if(c instanceof CompoundCollidable) return ((CompoundCollidable) c).getChildren();
+		if(c instanceof TileCollisionLayer) return ((TileCollisionLayer) c).getMergedBoxes();
+		Interval xs = c.xInterval();
+		Interval ys = c.yInterval();
+		return Collections.singletonList(new AAB(xs.getMin(), xs.getMax(), ys.getMin(), ys.getMax(), c.getColor()));
+	}
 }
@@ -0,0 +1,362 @@
+package nschank.engn.shape.collide;
+
+import com.google.common.base.Optional;
+
+import java.util.HashMap;
+import java.util.Map;
+
+
+/**
+ * Created by Nicolas Schank for package nschank.engn.shape.collide
+ * Created on 14 Jun 2014
+ * Last updated on 3 Jul 2014
+ *
+ * Finds the contact between two Collidables by looking up a test for their pair of types in a table, rather than by
+ * double dispatch through collisionWith. Each type of Collidable is given an ordinal when it is registered, and a
+ * PairTest registered for two types is used for both orders; for the reverse order the same test is run with its
+ * arguments swapped, and the ContactManifold inverted in place, so no inverse Collision is ever created.
+ *
+ * AAB, Capsule, Circle, OrientedBox, and Polygon are registered by default, with tests that fill a ContactManifold
+ * without allocating. A subclass which is not registered itself is treated as its nearest registered superclass. A
+ * pair with no registered test falls back on collisionWith, so new types of Collidable work without any registration,
+ * and can be registered later, from any package, without editing any existing class.
+ *
+ * Any pair of registered types may instead be set to use GJK, through setNarrowPhase. The choice belongs to this
+ * CollisionDispatcher alone, so one game may use GJK for a pair while another in the same process does not; calling
+ * collisionWith directly always uses the Separating Axis Theorem.
+ *
+ * @author nschank, Brown University
+ * @version 1.3
+ */
+public class CollisionDispatcher
+{
+	private final Map<Class<?>, Integer> registered;
+	private final Map<Class<?>, Integer> resolved;
+	private PairTest[][] tests;
+	private boolean[][] swapped;
+	private boolean[][] gjk;
+
+	/**
+	 * Creates a CollisionDispatcher with the default types and tests registered.
+	 */
+	public CollisionDispatcher()
+	{
+		this.registered = new HashMap<>();
+		this.resolved = new HashMap<>();
+		this.tests = new PairTest[0][0];
+		this.swapped = new boolean[0][0];
+		this.gjk = new boolean[0][0];
+
+		PairTest polygons = new PairTest()
+		{
+			@Override
+			public boolean test(Collidable a, Collidable b, ContactManifold out)
+			{
+				return ((Polygon) a).collide((Polygon) b, out);
+			}
+		};
+		this.registerTest(AAB.class, AAB.class, polygons);
+		this.registerTest(AAB.class, Polygon.class, polygons);
+		this.registerTest(Polygon.class, Polygon.class, polygons);
+		this.registerTest(Polygon.class, Circle.class, new PairTest()
+		{
+			@Override
+			public boolean test(Collidable a, Collidable b, ContactManifold out)
+			{
+				return ((Polygon) a).collide((Circle) b, out);
+			}
+		});
+		this.registerTest(Circle.class, AAB.class, new PairTest()
+		{
+			@Override
+			public boolean test(Collidable a, Collidable b, ContactManifold out)
+			{
+				return ((Circle) a).collide((AAB) b, out);
+			}
+		});
+		this.registerTest(Circle.class, Circle.class, new PairTest()
+		{
+			@Override
+			public boolean test(Collidable a, Collidable b, ContactManifold out)
+			{
+				return ((Circle) a).collide((Circle) b, out);
+			}
+		});
+
+		PairTest capsules = new PairTest()
+		{
+			@Override
+			public boolean test(Collidable a, Collidable b, ContactManifold out)
+			{
+				Capsule capsule = (Capsule) a;
+				if(b instanceof Capsule) return capsule.collide((Capsule) b, out);
+				if(b instanceof Circle) return capsule.collide((Circle) b, out);
+				if(b instanceof OrientedBox) return capsule.collide((OrientedBox) b, out);
+				return capsule.collide((Polygon) b, out);
+			}
+		};
+		this.registerTest(Capsule.class, Capsule.class, capsules);
+		this.registerTest(Capsule.class, Circle.class, capsules);
+		this.registerTest(Capsule.class, AAB.class, capsules);
+		this.registerTest(Capsule.class, Polygon.class, capsules);
+		this.registerTest(Capsule.class, OrientedBox.class, capsules);
+
+		PairTest boxes = new PairTest()
+		{
+			@Override
+			public boolean test(Collidable a, Collidable b, ContactManifold out)
+			{
+				OrientedBox box = (OrientedBox) a;
+				if(b instanceof OrientedBox) return box.collide((OrientedBox) b, out);
+				if(b instanceof Circle) return box.collide((Circle) b, out);
+				if(b instanceof AAB) return box.collide((AAB) b, out);
+				return box.collide((Polygon) b, out);
+			}
+		};
+		this.registerTest(OrientedBox.class, OrientedBox.class, boxes);
+		this.registerTest(OrientedBox.class, Circle.class, boxes);
+		this.registerTest(OrientedBox.class, AAB.class, boxes);
+		this.registerTest(OrientedBox.class, Polygon.class, boxes);
+	}
+
+	/**
+	 * Finds the contact between two Collidables, from the point of view of {@code a}.
+	 *
+	 * @param a
+	 * 		A Collidable
+	 * @param b
+	 * 		Another Collidable, which may be colliding with {@code a}
+	 * @param out
+	 * 		Filled with the contact between {@code a} and {@code b}
+	 *
+	 * @return Whether the two are colliding
+	 */
+	public boolean collide(Collidable a, Collidable b, ContactManifold out)
+	{
+		int first = this.ordinalOf(a.getClass());
+		int second = this.ordinalOf(b.getClass());
+		PairTest test = (first < 0 || second < 0) ? null : this.tests[first][second];
+
+		if(first >= 0 && second >= 0 && this.gjk[first][second])
+		{
+			out.reset();
+			CollisionDispatcher.gjk(a, b, out);
+		}
+		else if(test == null)
+		{
+			Optional<Collidable.Collision> collision = a.collisionWith(b);
+			if(collision.isPresent()) out.copy(collision.get());
+			else out.reset();
+		}
+		else if(this.swapped[first][second])
+		{
+			out.reset();
+			if(test.test(b, a, out)) out.invert();
+		}
+		else
+		{
+			out.reset();
+			test.test(a, b, out);
+		}
+		return out.isColliding();
+	}
+
+	/**
+	 * Finds the narrow phase used between two Collidables, as set by setNarrowPhase for their types or their nearest
+	 * registered superclasses.
+	 *
+	 * @param a
+	 * 		A Collidable
+	 * @param b
+	 * 		Another Collidable
+	 *
+	 * @return The algorithm which finds the Collision between {@code a} and {@code b}; SEPARATING_AXIS if none has
+	 * been set
+	 */
+	public NarrowPhase narrowPhaseFor(Collidable a, Collidable b)
+	{
+		int first = this.ordinalOf(a.getClass());
+		int second = this.ordinalOf(b.getClass());
+		if(first < 0 || second < 0 || !this.gjk[first][second]) return NarrowPhase.SEPARATING_AXIS;
+		return NarrowPhase.GJK;
+	}
+
+	/**
+	 * Registers a type of Collidable, giving it its own row and column in the table. It keeps the narrow phases of its
+	 * nearest registered superclass, if any. Registering a type more than once has no further effect.
+	 *
+	 * @param type
+	 * 		A type of Collidable
+	 *
+	 * @return The ordinal of that type
+	 */
+	public int registerType(Class<? extends Collidable> type)
+	{
+		Integer ordinal = this.registered.get(type);
+		if(ordinal != null) return ordinal;
+
+		int parent = this.ordinalOf(type);
+		int size = this.tests.length;
+		PairTest[][] tests = new PairTest[size + 1][size + 1];
+		boolean[][] swapped = new boolean[size + 1][size + 1];
+		boolean[][] gjk = new boolean[size + 1][size + 1];
+		for(int i = 0; i < size; i++)
+		{
+			System.arraycopy(this.tests[i], 0, tests[i], 0, size);
+			System.arraycopy(this.swapped[i], 0, swapped[i], 0, size);
+			System.arraycopy(this.gjk[i], 0, gjk[i], 0, size);
+		}
+		this.tests = tests;
+		this.swapped = swapped;
+		this.gjk = gjk;
+		if(parent >= 0)
+		{
+			for(int i = 0; i < size; i++)
+			{
+				gjk[size][i] = gjk[parent][i];
+				gjk[i][size] = gjk[i][parent];
+			}
+			gjk[size][size] = gjk[parent][parent];
+		}
+
+		this.registered.put(type, size);
+		this.resolved.clear();
+		return size;
+	}
+
+	/**
+	 * Registers the test to be used between two types of Collidable, in either order, registering the types themselves
+	 * if necessary. The test will always be given a Collidable of type {@code a} first.
+	 *
+	 * @param a
+	 * 		A type of Collidable
+	 * @param b
+	 * 		Another type of Collidable, which may be the same as {@code a}
+	 * @param test
+	 * 		A test which fills a ContactManifold with the contact between an {@code a} and a {@code b}
+	 */
+	public void registerTest(Class<? extends Collidable> a, Class<? extends Collidable> b, PairTest test)
+	{
+		int first = this.registerType(a);
+		int second = this.registerType(b);
+		this.tests[first][second] = test;
+		this.swapped[first][second] = false;
+		if(first != second)
+		{
+			this.tests[second][first] = test;
+			this.swapped[second][first] = true;
+		}
+	}
+
+	/**
+	 * Sets the narrow phase to be used between two types of Collidable, in either order, and between every registered
+	 * subclass of them, registering the types themselves if necessary. A subclass registered later keeps the narrow
+	 * phases of its superclass, and one which is never registered uses those of its nearest registered superclass.
+	 * NarrowPhase.GJK may only be used between Polygons (including AABs), Circles, OrientedBoxes and Capsules.
+	 *
+	 * @param a
+	 * 		A type of Collidable
+	 * @param b
+	 * 		Another type of Collidable, which may be the same as {@code a}
+	 * @param phase
+	 * 		The algorithm which should find Collisions between the two types
+	 *
+	 * @throws IllegalArgumentException
+	 * 		If {@code phase} is GJK, and GJK cannot be used with one of the types
+	 */
+	public void setNarrowPhase(Class<? extends Collidable> a, Class<? extends Collidable> b, NarrowPhase phase)
+	{
+		if(phase == NarrowPhase.GJK && !(CollisionDispatcher.supportsGJK(a) && CollisionDispatcher.supportsGJK(b)))
+			throw new IllegalArgumentException(
+					"GJK can only be used between Polygons, Circles, OrientedBoxes and Capsules, not " + a + " and "
+							+ b);
+
+		this.registerType(a);
+		this.registerType(b);
+		for(Map.Entry<Class<?>, Integer> first : this.registered.entrySet())
+			for(Map.Entry<Class<?>, Integer> second : this.registered.entrySet())
+				if(a.isAssignableFrom(first.getKey()) && b.isAssignableFrom(second.getKey()))
+				{
+					this.gjk[first.getValue()][second.getValue()] = (phase == NarrowPhase.GJK);
+					this.gjk[second.getValue()][first.getValue()] = (phase == NarrowPhase.GJK);
+				}
+	}
+
+	/**
+	 * @param type
+	 * 		A type of Collidable
+	 *
+	 * @return The ordinal of that type or of its nearest registered superclass, or -1 if neither is registered
+	 */
+	private int ordinalOf(Class<?> type)
+	{
+		Integer ordinal = this.resolved.get(type);
+		if(ordinal != null) return ordinal;
+
+		ordinal = -1;
+		for(Class<?> c = type; c != null; c = c.getSuperclass())
+		{
+			Integer found = this.registered.get(c);
+			if(found != null)
+			{
+				ordinal = found;
+				break;
+			}
+		}
+		this.resolved.put(type, ordinal);
+		return ordinal;
+	}
+
+	/**
+	 * Used for pairs whose narrow phase has been set to GJK, which does allocate.
+	 *
+	 * @param a
+	 * 		A Polygon, Circle, OrientedBox or Capsule
+	 * @param b
+	 * 		Another Polygon, Circle, OrientedBox or Capsule
+	 * @param out
+	 * 		Filled with the contact between {@code a} and {@code b}
+	 *
+	 * @return Whether the two are colliding
+	 */
+	private static boolean gjk(Collidable a, Collidable b, ContactManifold out)
+	{
+		Optional<Collidable.Collision> collision = GJK.collision(a, b);
+		if(collision.isPresent()) out.copy(collision.get());
+		return collision.isPresent();
+	}
+
+	/**
+	 * @param c
+	 * 		A type of Collidable
+	 *
+	 * @return Whether GJK can find Collisions involving that type
+	 */
+	private static boolean supportsGJK(Class<? extends Collidable> c)
+	{
+		return Polygon.class.isAssignableFrom(c) || Circle.class.isAssignableFrom(c)
+				|| OrientedBox.class.isAssignableFrom(c) || Capsule.class.isAssignableFrom(c);
+	}
+
+	/**
+	 * A test for the contact between two particular types of Collidable.
+	 */
+	public static interface PairTest
+	{
+		/**
+		 * Fills {@code out} with the contact between {@code a} and {@code b}, from the point of view of {@code a}. The
+		 * ContactManifold has already been reset, but still remembers the last axis along which the two were apart; a
+		 * test may try that axis first, and should remember any axis along which it finds them apart.
+		 *
+		 * @param a
+		 * 		A Collidable of the first type this test was registered with
+		 * @param b
+		 * 		A Collidable of the second type this test was registered with
+		 * @param out
+		 * 		A ContactManifold to fill
+		 *
+		 * @return Whether the two are colliding
+		 */
+		boolean test(Collidable a, Collidable b, ContactManifold out);
+	}
+}
@@ -0,0 +1,727 @@
+package nschank.engn.shape.collide;
+
+import com.google.common.base.Optional;
+import nschank.collect.dim.Dimensional;
+import nschank.collect.dim.Point;
+import nschank.engn.shape.AbstractDrawable;
+import nschank.engn.shape.GameSpaceDrawable;
+import nschank.util.Interval;
+import nschank.util.Intervals;
+
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+
+/**
+ * Created by Nicolas Schank for package nschank.engn.shape.collide
+ * Created on 15 Jun 2014
+ * Last updated on 30 Jun 2014
+ *
+ * A Collidable made up of several other Collidables, which move and rotate together as one. It may be a concave shape
+ * split into convex Polygons, or several parts of a single body, such as the hull and wheels of a vehicle, so that one
+ * PhysicsEntity can be given all of them. The children may be any Collidables, including other CompoundCollidables,
+ * so shapes can be nested as deeply as needed.
+ *
+ * Each child is held at an offset and rotation relative to the centre and rotation of this CompoundCollidable. Whenever
+ * this CompoundCollidable moves or rotates, every child is placed again from its offset and rotation, so that rounding
+ * errors never build up in the children.
+ *
+ * A CompoundCollidable collides wherever any of its children do; when several of its children collide with the same
+ * object, the Collision with the largest MTV is used. Its bounds and a bounding circle around all of its children are
+ * kept whenever it moves, and anything outside of them is rejected before any child is tested. Children are weighted by
+ * their area, so its centre is their centre of mass and its moment of inertia treats them as one body of even density.
+ *
+ * @author nschank, Brown University
+ * @version 1.3
+ */
+public class CompoundCollidable extends AbstractDrawable implements Collidable, GameSpaceDrawable
+{
+	private final List<Collidable> children;
+	private final List<Attachment> attachments;
+	private double rotation;
+	private Interval xInterval;
+	private Interval yInterval;
+	private double boundingRadius;
+
+	/**
+	 * Creates a CompoundCollidable out of the given Collidables, in their current positions.
+	 *
+	 * @param c
+	 * 		The Color of every child
+	 * @param first
+	 * 		A Collidable
+	 * @param others
+	 * 		Any other Collidables
+	 */
+	public CompoundCollidable(Color c, Collidable first, Collidable... others)
+	{
+		this(c, CompoundCollidable.listOf(first, others));
+	}
+
+	/**
+	 * Creates a CompoundCollidable out of the given Collidables, in their current positions and rotations. Its centre is
+	 * the centre of mass of the children.
+	 *
+	 * @param c
+	 * 		The Color of every child
+	 * @param children
+	 * 		At least one Collidable
+	 */
+	public CompoundCollidable(Color c, List<? extends Collidable> children)
+	{
+		super(CompoundCollidable.centerOf(children), 0, 0, c);
+
+		this.children = new ArrayList<>(children.size());
+		this.attachments = new ArrayList<>(children.size());
+		this.rotation = 0;
+
+		Dimensional center = this.getCenterPosition();
+		for(Collidable child : children)
+		{
+			Dimensional childCenter = child.getCenterPosition();
+			this.attach(child, childCenter.getCoordinate(0) - center.getCoordinate(0),
+					childCenter.getCoordinate(1) - center.getCoordinate(1), child.getRotation());
+		}
+		this.updateBounds();
+	}
+
+	/**
+	 * Attaches another child to this CompoundCollidable. The centre of this CompoundCollidable does not move.
+	 *
+	 * @param child
+	 * 		A Collidable, which will be given the Color of this CompoundCollidable
+	 * @param offset
+	 * 		Where the centre of the child should be, relative to the centre of this CompoundCollidable before it is rotated
+	 * @param localRotation
+	 * 		The rotation of the child, relative to the rotation of this CompoundCollidable
+	 */
+	public void addChild(Collidable child, Dimensional offset, double localRotation)
+	{
+		Attachment attachment = this.attach(child, offset.getCoordinate(0), offset.getCoordinate(1), localRotation);
+		this.place(attachment, this.getCenterPosition(), Math.cos(this.rotation), Math.sin(this.rotation));
+		this.updateBounds();
+	}
+
+	/**
+	 * The total area of the children of this CompoundCollidable. The area of a Collidable other than a Polygon, Circle, or
+	 * CompoundCollidable is taken to be that of the box around it.
+	 *
+	 * @return The area of this CompoundCollidable, counting any overlap between children more than once
+	 */
+	public double area()
+	{
+		double area = 0;
+		for(Collidable child : this.children)
+			area += CompoundCollidable.areaOf(child);
+		return area;
+	}
+
+	/**
+	 * @param other
+	 * 		Another object which may be colliding with this one.
+	 *
+	 * @return The deepest Collision between any child of this object and the other object, if one exists.
+	 */
+	@Override
+	public Optional<Collision> collisionWith(Collidable other)
+	{
+		Optional<Collision> deepest = Optional.absent();
+		if(!this.boundsOverlap(other)) return deepest;
+		for(Collidable child : this.children)
+			deepest = CompoundCollidable.deeper(deepest, child.collisionWith(other));
+		return deepest;
+	}
+
+	/**
+	 * @param other
+	 * 		An AAB that may be colliding with this object
+	 *
+	 * @return The deepest Collision between any child of this object and the given AAB, if one exists.
+	 */
+	@Override
+	public Optional<Collision> collisionWithAAB(AAB other)
+	{
+		Optional<Collision> deepest = Optional.absent();
+		if(!this.boundsOverlap(other)) return deepest;
+		for(Collidable child : this.children)
+			deepest = CompoundCollidable.deeper(deepest, child.collisionWithAAB(other));
+		return deepest;
+	}
+
+	/**
+	 * @param other
+	 * 		A Circle that may be colliding with this object
+	 *
+	 * @return The deepest Collision between any child of this object and the given Circle, if one exists.
+	 */
+	@Override
+	public Optional<Collision> collisionWithCircle(Circle other)
+	{
+		Optional<Collision> deepest = Optional.absent();
+		if(!this.boundsOverlap(other)) return deepest;
+		for(Collidable child : this.children)
+			deepest = CompoundCollidable.deeper(deepest, child.collisionWithCircle(other));
+		return deepest;
+	}
+
+	/**
+	 * @param other
+	 * 		A Polygon that may be colliding with this object
+	 *
+	 * @return The deepest Collision between any child of this object and the given Polygon, if one exists.
+	 */
+	@Override
+	public Optional<Collision> collisionWithPolygon(Polygon other)
+	{
+		Optional<Collision> deepest = Optional.absent();
+		if(!this.boundsOverlap(other)) return deepest;
+		for(Collidable child : this.children)
+			deepest = CompoundCollidable.deeper(deepest, child.collisionWithPolygon(other));
+		return deepest;
+	}
+
+	/**
+	 * @param point
+	 * 		A point in the same plane as this CompoundCollidable
+	 *
+	 * @return Whether any child contains the given point
+	 */
+	@Override
+	public boolean contains(Dimensional point)
+	{
+		if(!this.xInterval.contains(point.getCoordinate(0)) || !this.yInterval.contains(point.getCoordinate(1)))
+			return false;
+		for(Collidable child : this.children)
+			if(child.contains(point)) return true;
+		return false;
+	}
+
+	/**
+	 * @return A CompoundCollidable made of copies of each child of this one, attached in the same way
+	 */
+	@Override
+	public Collidable copy()
+	{
+		List<Collidable> copies = new ArrayList<>(this.children.size());
+		for(Collidable child : this.children)
+			copies.add(child.copy());
+
+		CompoundCollidable copy = new CompoundCollidable(this.getColor(), copies);
+		for(int i = 0; i < this.attachments.size(); i++)
+		{
+			Attachment original = this.attachments.get(i);
+			Attachment copied = copy.attachments.get(i);
+			copied.offsetX = original.offsetX;
+			copied.offsetY = original.offsetY;
+			copied.rotation = original.rotation;
+		}
+		copy.rotation = this.rotation;
+		copy.setCenterPosition(this.getCenterPosition());
+		return copy;
+	}
+
+	/**
+	 * @param r
+	 * 		A Ray in the same x-y coordinate plane as this object, which may be pointed to this object
+	 *
+	 * @return The shortest distance along the Ray at which any child is found, if the Ray hits any
+	 */
+	@Override
+	public Optional<Double> distanceAlong(Ray r)
+	{
+		Optional<Double> nearest = Optional.absent();
+
+		Dimensional center = this.getCenterPosition();
+		double toCenterX = center.getCoordinate(0) - r.getStartLocation().getCoordinate(0);
+		double toCenterY = center.getCoordinate(1) - r.getStartLocation().getCoordinate(1);
+		double dirX = r.getDirection().getCoordinate(0);
+		double dirY = r.getDirection().getCoordinate(1);
+		double across = (toCenterX * dirY) - (toCenterY * dirX);
+		double along = (toCenterX * dirX) + (toCenterY * dirY);
+		double r2 = this.boundingRadius * this.boundingRadius;
+		if((across * across) > r2) return nearest;
+		if(along < 0 && ((toCenterX * toCenterX) + (toCenterY * toCenterY)) > r2) return nearest;
+
+		for(Collidable child : this.children)
+		{
+			Optional<Double> distance = child.distanceAlong(r);
+			if(distance.isPresent() && (!nearest.isPresent() || distance.get() < nearest.get())) nearest = distance;
+		}
+		return nearest;
+	}
+
+	/**
+	 * @param g
+	 * 		A Graphics object onto which to draw every child
+	 */
+	@Override
+	public void draw(Graphics2D g)
+	{
+		for(Collidable child : this.children)
+			child.draw(g);
+	}
+
+	/**
+	 * @return Whether every child of this CompoundCollidable may be drawn in game units
+	 */
+	@Override
+	public boolean drawsInGameSpace()
+	{
+		for(Collidable child : this.children)
+			if(!(child instanceof GameSpaceDrawable) || !((GameSpaceDrawable) child).drawsInGameSpace()) return false;
+		return true;
+	}
+
+	/**
+	 * @return The children of this CompoundCollidable, which should not be moved individually
+	 */
+	public List<Collidable> getChildren()
+	{
+		return Collections.unmodifiableList(this.children);
+	}
+
+	/**
+	 * @param i
+	 * 		The index of a child
+	 *
+	 * @return The rotation of that child, relative to the rotation of this CompoundCollidable
+	 */
+	public double getLocalRotation(int i)
+	{
+		return this.attachments.get(i).rotation;
+	}
+
+	/**
+	 * @param i
+	 * 		The index of a child
+	 *
+	 * @return The centre of that child, relative to the centre of this CompoundCollidable before it is rotated
+	 */
+	public Dimensional getOffset(int i)
+	{
+		Attachment attachment = this.attachments.get(i);
+		return new Point(attachment.offsetX, attachment.offsetY);
+	}
+
+	/**
+	 * @return The rotation, in radians, of this CompoundCollidable since it was created
+	 */
+	@Override
+	public double getRotation()
+	{
+		return this.rotation;
+	}
+
+	/**
+	 * @param theta
+	 * 		The new rotation of this CompoundCollidable, relative to when it was created
+	 */
+	@Override
+	public void setRotation(double theta)
+	{
+		if(theta == this.rotation) return;
+		this.rotation = theta;
+		this.placeChildren();
+	}
+
+	/**
+	 * Moves one child of this CompoundCollidable, such as a turret which turns on its own.
+	 *
+	 * @param i
+	 * 		The index of a child
+	 * @param offset
+	 * 		Where the centre of the child should be, relative to the centre of this CompoundCollidable before it is rotated
+	 * @param localRotation
+	 * 		The rotation of the child, relative to the rotation of this CompoundCollidable
+	 */
+	public void setLocalTransform(int i, Dimensional offset, double localRotation)
+	{
+		Attachment attachment = this.attachments.get(i);
+		attachment.offsetX = offset.getCoordinate(0);
+		attachment.offsetY = offset.getCoordinate(1);
+		attachment.rotation = localRotation;
+		this.place(attachment, this.getCenterPosition(), Math.cos(this.rotation), Math.sin(this.rotation));
+		this.updateBounds();
+	}
+
+	/**
+	 * Weights each child by its area, and adds the moment of inertia of each child about its own centre to that of its
+	 * centre about the centre of mass of all of them.
+	 *
+	 * @return The moment of inertia of this CompoundCollidable, assuming it has a mass of 1
+	 */
+	@Override
+	public double momentOfInertia()
+	{
+		int size = this.children.size();
+		double[] weights = new double[size];
+		double total = 0;
+		for(int i = 0; i < size; i++)
+		{
+			weights[i] = CompoundCollidable.areaOf(this.children.get(i));
+			total += weights[i];
+		}
+		if(total <= 0)
+		{
+			for(int i = 0; i < size; i++)
+				weights[i] = 1;
+			total = size;
+		}
+
+		double massX = 0;
+		double massY = 0;
+		for(int i = 0; i < size; i++)
+		{
+			massX += weights[i] * this.attachments.get(i).offsetX;
+			massY += weights[i] * this.attachments.get(i).offsetY;
+		}
+		massX /= total;
+		massY /= total;
+
+		double sum = 0;
+		for(int i = 0; i < size; i++)
+		{
+			double dx = this.attachments.get(i).offsetX - massX;
+			double dy = this.attachments.get(i).offsetY - massY;
+			sum += weights[i] * (this.children.get(i).momentOfInertia() + (dx * dx) + (dy * dy));
+		}
+		return sum / total;
+	}
+
+	/**
+	 * @param axis
+	 * 		An axis over which to project this object
+	 *
+	 * @return The smallest Interval containing the projection of every child onto the axis
+	 */
+	@Override
+	public Interval projectionOnto(Dimensional axis)
+	{
+		Interval projection = null;
+		for(Collidable child : this.children)
+			projection = (projection == null) ? child.projectionOnto(axis) : projection
+					.and(child.projectionOnto(axis));
+		return projection;
+	}
+
+	/**
+	 * Rotates every child about the centre of this CompoundCollidable.
+	 *
+	 * @param theta
+	 * 		A number of radians to rotate counter-clockwise
+	 */
+	@Override
+	public void rotate(double theta)
+	{
+		this.setRotation(this.rotation + theta);
+	}
+
+	/**
+	 * @param centerPosition
+	 * 		The new centre of this CompoundCollidable; every child is moved along with it
+	 */
+	@Override
+	public void setCenterPosition(Dimensional centerPosition)
+	{
+		super.setCenterPosition(centerPosition);
+		this.placeChildren();
+	}
+
+	/**
+	 * @param c
+	 * 		The new Color of every child
+	 */
+	@Override
+	public void setColor(Color c)
+	{
+		super.setColor(c);
+		for(Collidable child : this.children)
+			child.setColor(c);
+	}
+
+	/**
+	 * Stretches this CompoundCollidable along its own y-axis, moving and resizing every child to match.
+	 *
+	 * @param h
+	 * 		The new height of this CompoundCollidable
+	 */
+	@Override
+	public void setHeight(double h)
+	{
+		if(this.getHeight() == 0 || h == this.getHeight()) return;
+		this.scale(1, h / this.getHeight());
+	}
+
+	/**
+	 * Stretches this CompoundCollidable along its own x-axis, moving and resizing every child to match.
+	 *
+	 * @param w
+	 * 		The new width of this CompoundCollidable
+	 */
+	@Override
+	public void setWidth(double w)
+	{
+		if(this.getWidth() == 0 || w == this.getWidth()) return;
+		this.scale(w / this.getWidth(), 1);
+	}
+
+	/**
+	 * @return A String representation of this CompoundCollidable, with each of its children
+	 */
+	@Override
+	public String toString()
+	{
+		return "CompoundCollidable{" + this.children + '}';
+	}
+
+	/**
+	 * @return The smallest Interval along the x-axis containing every child
+	 */
+	@Override
+	public Interval xInterval()
+	{
+		return this.xInterval;
+	}
+
+	/**
+	 * @return The smallest Interval along the y-axis containing every child
+	 */
+	@Override
+	public Interval yInterval()
+	{
+		return this.yInterval;
+	}
+
+	/**
+	 * Adds a child, without placing it.
+	 *
+	 * @param child
+	 * 		A Collidable
+	 * @param offsetX
+	 * 		The x offset of the child
+	 * @param offsetY
+	 * 		The y offset of the child
+	 * @param localRotation
+	 * 		The rotation of the child, relative to this CompoundCollidable
+	 *
+	 * @return The new Attachment of the child
+	 */
+	private Attachment attach(Collidable child, double offsetX, double offsetY, double localRotation)
+	{
+		Attachment attachment = new Attachment(child, offsetX, offsetY, localRotation);
+		child.setColor(this.getColor());
+		this.children.add(child);
+		this.attachments.add(attachment);
+		return attachment;
+	}
+
+	/**
+	 * @param other
+	 * 		Any Collidable
+	 *
+	 * @return Whether the bounds of {@code other} overlap the bounds of this CompoundCollidable; if not, no child can be
+	 * colliding with it
+	 */
+	private boolean boundsOverlap(Collidable other)
+	{
+		return this.xInterval.isIntersecting(other.xInterval()) && this.yInterval.isIntersecting(other.yInterval());
+	}
+
+	/**
+	 * Moves and rotates a child to match its Attachment.
+	 *
+	 * @param attachment
+	 * 		The Attachment of a child
+	 * @param center
+	 * 		The centre of this CompoundCollidable
+	 * @param cos
+	 * 		The cosine of the rotation of this CompoundCollidable
+	 * @param sin
+	 * 		The sine of the rotation of this CompoundCollidable
+	 */
+	private void place(Attachment attachment, Dimensional center, double cos, double sin)
+	{
+		attachment.child.setCenterPosition(new Point(
+				center.getCoordinate(0) + ((attachment.offsetX * cos) - (attachment.offsetY * sin)),
+				center.getCoordinate(1) + ((attachment.offsetX * sin) + (attachment.offsetY * cos))));
+		attachment.child.setRotation(this.rotation + attachment.rotation);
+	}
+
+	/**
+	 * Moves and rotates every child to match its Attachment, and then updates the bounds of this CompoundCollidable.
+	 */
+	private void placeChildren()
+	{
+		Dimensional center = this.getCenterPosition();
+		double cos = Math.cos(this.rotation);
+		double sin = Math.sin(this.rotation);
+		for(Attachment attachment : this.attachments)
+			this.place(attachment, center, cos, sin);
+		this.updateBounds();
+	}
+
+	/**
+	 * Scales the offset and size of every child along the x and y axes of this CompoundCollidable.
+	 *
+	 * @param scaleX
+	 * 		The factor by which to stretch along the x-axis
+	 * @param scaleY
+	 * 		The factor by which to stretch along the y-axis
+	 */
+	private void scale(double scaleX, double scaleY)
+	{
+		for(Attachment attachment : this.attachments)
+		{
+			attachment.offsetX *= scaleX;
+			attachment.offsetY *= scaleY;
+			attachment.child.setWidth(attachment.child.getWidth() * scaleX);
+			attachment.child.setHeight(attachment.child.getHeight() * scaleY);
+		}
+		this.placeChildren();
+	}
+
+	/**
+	 * Finds the bounds of every child, and the radius of a circle about the centre which contains all of them, and sets
+	 * the width and height of this CompoundCollidable to match.
+	 */
+	private void updateBounds()
+	{
+		double minX = Double.POSITIVE_INFINITY;
+		double maxX = Double.NEGATIVE_INFINITY;
+		double minY = Double.POSITIVE_INFINITY;
+		double maxY = Double.NEGATIVE_INFINITY;
+		Dimensional center = this.getCenterPosition();
+		double radius2 = 0;
+		for(Collidable child : this.children)
+		{
+			Interval xs = child.xInterval();
+			Interval ys = child.yInterval();
+			minX = Math.min(minX, xs.getMin());
+			maxX = Math.max(maxX, xs.getMax());
+			minY = Math.min(minY, ys.getMin());
+			maxY = Math.max(maxY, ys.getMax());
+
+			double dx = Math.max(Math.abs(xs.getMin() - center.getCoordinate(0)),
+					Math.abs(xs.getMax() - center.getCoordinate(0)));
+			double dy = Math.max(Math.abs(ys.getMin() - center.getCoordinate(1)),
+					Math.abs(ys.getMax() - center.getCoordinate(1)));
+			radius2 = Math.max(radius2, (dx * dx) + (dy * dy));
+		}
+
+		this.xInterval = Intervals.about((minX + maxX) / 2d, maxX - minX);
+		this.yInterval = Intervals.about((minY + maxY) / 2d, maxY - minY);
+		this.boundingRadius = Math.sqrt(radius2);
+		super.setWidth(maxX - minX);
+		super.setHeight(maxY - minY);
+	}
+
+	/**
+	 * @param c
+	 * 		Any Collidable
+	 *
+	 * @return The area of that Collidable; for a Collidable other than a Polygon, Circle, or CompoundCollidable, the area
+	 * of the box around it
+	 */
+	private static double areaOf(Collidable c)
+	{
+		if(c instanceof Polygon) return ((Polygon) c).area();
+		if(c instanceof Circle) return Math.PI * ((Circle) c).getRadius() * ((Circle) c).getRadius();
+		if(c instanceof CompoundCollidable) return ((CompoundCollidable) c).area();
+		return c.getWidth() * c.getHeight();
+	}
+
+	/**
+	 * @param children
+	 * 		At least one Collidable
+	 *
+	 * @return The centre of mass of the given Collidables, each weighted by its area
+	 */
+	private static Dimensional centerOf(List<? extends Collidable> children)
+	{
+		if(children.isEmpty()) throw new IllegalArgumentException("A CompoundCollidable must have a child.");
+
+		double x = 0;
+		double y = 0;
+		double total = 0;
+		for(Collidable child : children)
+		{
+			double weight = CompoundCollidable.areaOf(child);
+			x += weight * child.getCenterPosition().getCoordinate(0);
+			y += weight * child.getCenterPosition().getCoordinate(1);
+			total += weight;
+		}
+		if(total > 0) return new Point(x / total, y / total);
+
+		x = 0;
+		y = 0;
+		for(Collidable child : children)
+		{
+			x += child.getCenterPosition().getCoordinate(0);
+			y += child.getCenterPosition().getCoordinate(1);
+		}
+		return new Point(x / children.size(), y / children.size());
+	}
+
+	/**
+	 * @param current
+	 * 		The deepest Collision found so far, if any
+	 * @param next
+	 * 		Another Collision, if any
+	 *
+	 * @return Whichever Collision has the larger MTV
+	 */
+	static Optional<Collision> deeper(Optional<Collision> current, Optional<Collision> next)
+	{
+		if(!next.isPresent()) return current;
+		if(!current.isPresent() || next.get().getMTV().mag2() > current.get().getMTV().mag2()) return next;
+		return current;
+	}
+
+	/**
+	 * @param first
+	 * 		A Collidable
+	 * @param others
+	 * 		Any other Collidables
+	 *
+	 * @return A List of all of the given Collidables
+	 */
+	private static List<Collidable> listOf(Collidable first, Collidable... others)
+	{
+		List<Collidable> all = new ArrayList<>();
+		all.add(first);
+		Collections.addAll(all, others);
+		return all;
+	}
+
+	/**
+	 * Where a child is held, relative to the centre and rotation of its CompoundCollidable.
+	 */
+	private static final class Attachment
+	{
+		private final Collidable child;
+		private double offsetX;
+		private double offsetY;
+		private double rotation;
+
+		/**
+		 * @param child
+		 * 		A child of a CompoundCollidable
+		 * @param offsetX
+		 * 		The x offset of its centre, before the CompoundCollidable is rotated
+		 * @param offsetY
+		 * 		The y offset of its centre, before the CompoundCollidable is rotated
+		 * @param rotation
+		 * 		Its rotation, relative to that of the CompoundCollidable
+		 */
+		private Attachment(Collidable child, double offsetX, double offsetY, double rotation)
+		{
+			this.child = child;
+			this.offsetX = offsetX;
+			this.offsetY = offsetY;
+			this.rotation = rotation;
+		}
+	}
+}
@@ -0,0 +1,115 @@
+package nschank.engn.shape.collide;
+
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.Map;
+
+
+/**
+ * Created by Nicolas Schank for package nschank.engn.shape.collide
+ * Created on 14 Jun 2014
+ * Last updated on 14 Jun 2014
+ *
+ * Keeps a ContactManifold for every pair of Collidables tested through it, from one step to the next, so that each pair
+ * can reuse what was learned about it on the previous step (such as the axis along which it was apart). Pairs are
+ * remembered in the order they are given, and compared by identity; a pair which is not tested during a step is
+ * forgotten when the next step begins.
+ *
+ * @author nschank, Brown University
+ * @version 1.0
+ */
+public class ContactCache
+{
+	private final CollisionDispatcher dispatcher;
+	private final Map<Collidable, Map<Collidable, ContactManifold>> manifolds;
+	private int step;
+
+	/**
+	 * Creates an empty ContactCache which tests pairs using the given CollisionDispatcher.
+	 *
+	 * @param dispatcher
+	 * 		The CollisionDispatcher used to test each pair
+	 */
+	public ContactCache(CollisionDispatcher dispatcher)
+	{
+		this.dispatcher = dispatcher;
+		this.manifolds = new IdentityHashMap<>();
+		this.step = 0;
+	}
+
+	/**
+	 * Forgets every pair.
+	 */
+	public void clear()
+	{
+		this.manifolds.clear();
+	}
+
+	/**
+	 * Tests two Collidables, reusing the ContactManifold from the last time this pair was tested, if it was tested on
+	 * this step or the last one.
+	 *
+	 * @param a
+	 * 		A Collidable
+	 * @param b
+	 * 		Another Collidable, which may be colliding with {@code a}
+	 *
+	 * @return The ContactManifold of this pair, from the point of view of {@code a}; it is overwritten when the pair is
+	 * next tested
+	 */
+	public ContactManifold collide(Collidable a, Collidable b)
+	{
+		Map<Collidable, ContactManifold> withA = this.manifolds.get(a);
+		if(withA == null)
+		{
+			withA = new IdentityHashMap<>();
+			this.manifolds.put(a, withA);
+		}
+		ContactManifold manifold = withA.get(b);
+		if(manifold == null)
+		{
+			manifold = new ContactManifold();
+			withA.put(b, manifold);
+		}
+
+		manifold.setLastStep(this.step);
+		this.dispatcher.collide(a, b, manifold);
+		return manifold;
+	}
+
+	/**
+	 * @return The CollisionDispatcher used to test each pair
+	 */
+	public CollisionDispatcher getDispatcher()
+	{
+		return this.dispatcher;
+	}
+
+	/**
+	 * @return The number of pairs currently remembered
+	 */
+	public int size()
+	{
+		int size = 0;
+		for(Map<Collidable, ContactManifold> withA : this.manifolds.values())
+			size += withA.size();
+		return size;
+	}
+
+	/**
+	 * Begins a new step, forgetting every pair which was not tested during the step before it.
+	 */
+	public void step()
+	{
+		Iterator<Map<Collidable, ContactManifold>> outer = this.manifolds.values().iterator();
+		while(outer.hasNext())
+		{
+			Map<Collidable, ContactManifold> withA = outer.next();
+			Iterator<ContactManifold> inner = withA.values().iterator();
+			while(inner.hasNext())
+				if(inner.next().lastStep() != this.step) inner.remove();
+			if(withA.isEmpty()) outer.remove();
+		}
+		this.step++;
+	}
+}
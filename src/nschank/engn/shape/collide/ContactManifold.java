@@ -0,0 +1,279 @@
+package nschank.engn.shape.collide;
+
+import nschank.collect.dim.Dimensional;
+import nschank.collect.dim.Point;
+import nschank.collect.dim.Vector;
+
+import java.util.ArrayList;
+import java.util.List;
+
+
+/**
+ * Created by Nicolas Schank for package nschank.engn.shape.collide
+ * Created on 14 Jun 2014
+ * Last updated on 3 Jul 2014
+ *
+ * A reusable, mutable record of the contact between two Collidables, filled in by a CollisionDispatcher. Unlike a
+ * Collision, a ContactManifold is not created for each test; the same ContactManifold can be filled again and again,
+ * and read through primitive getters, so that testing a pair allocates nothing.
+ *
+ * A ContactManifold also remembers the last axis which separated its pair of Collidables, which survives being
+ * refilled. When the same pair is tested on the next step, that axis is tried first: two Collidables which were apart
+ * are usually still apart along the same axis, and are rejected after a single projection.
+ *
+ * As with a Collision, the MTV is from the point of view of the first Collidable.
+ *
+ * A CollisionDispatcher.PairTest, wherever it is written, fills a ContactManifold through collide, addPoint and copy,
+ * and reads and remembers the separating axis through hasAxis, axisX, axisY and separatedAlong. Resetting, inverting
+ * and the step on which it was last used are left to the CollisionDispatcher and ContactCache.
+ *
+ * @author nschank, Brown University
+ * @version 1.1
+ */
+public class ContactManifold
+{
+	/**
+	 * The most contact points a ContactManifold holds
+	 */
+	public static final int MAX_POINTS = 2;
+
+	private final double[] pointX;
+	private final double[] pointY;
+	private boolean colliding;
+	private int pointCount;
+	private double mtvX;
+	private double mtvY;
+	private boolean hasAxis;
+	private double axisX;
+	private double axisY;
+	private int lastStep;
+
+	/**
+	 * Creates an empty ContactManifold, with no contact and no remembered axis.
+	 */
+	public ContactManifold()
+	{
+		this.pointX = new double[MAX_POINTS];
+		this.pointY = new double[MAX_POINTS];
+	}
+
+	/**
+	 * @return The x component of the MTV of the first Collidable
+	 */
+	public double getMTVX()
+	{
+		return this.mtvX;
+	}
+
+	/**
+	 * @return The y component of the MTV of the first Collidable
+	 */
+	public double getMTVY()
+	{
+		return this.mtvY;
+	}
+
+	/**
+	 * @return The number of contact points, which is 0 unless the two are colliding
+	 */
+	public int getPointCount()
+	{
+		return this.pointCount;
+	}
+
+	/**
+	 * @param i
+	 * 		The index of a contact point
+	 *
+	 * @return The x coordinate of that contact point
+	 */
+	public double getPointX(int i)
+	{
+		if(i >= this.pointCount) throw new IndexOutOfBoundsException("No contact point " + i);
+		return this.pointX[i];
+	}
+
+	/**
+	 * @param i
+	 * 		The index of a contact point
+	 *
+	 * @return The y coordinate of that contact point
+	 */
+	public double getPointY(int i)
+	{
+		if(i >= this.pointCount) throw new IndexOutOfBoundsException("No contact point " + i);
+		return this.pointY[i];
+	}
+
+	/**
+	 * @return Whether the two Collidables were colliding when last tested
+	 */
+	public boolean isColliding()
+	{
+		return this.colliding;
+	}
+
+	/**
+	 * Creates a Collision with the same contents as this ContactManifold; a DefaultCollision if there is a single
+	 * contact point, and a ManifoldCollision otherwise.
+	 *
+	 * @return A Collision equivalent to this ContactManifold
+	 *
+	 * @throws IllegalStateException
+	 * 		If the two Collidables were not colliding
+	 */
+	public Collidable.Collision toCollision()
+	{
+		if(!this.colliding) throw new IllegalStateException("There is no collision to convert.");
+
+		Vector mtv = new Vector(this.mtvX, this.mtvY);
+		if(this.pointCount == 1) return new DefaultCollision(new Point(this.pointX[0], this.pointY[0]), mtv);
+
+		List<Dimensional> points = new ArrayList<>(this.pointCount);
+		for(int i = 0; i < this.pointCount; i++)
+			points.add(new Point(this.pointX[i], this.pointY[i]));
+		return new ManifoldCollision(points, mtv);
+	}
+
+	/**
+	 * @return A string representation of this ContactManifold, with its MTV and contact points if colliding
+	 */
+	@Override
+	public String toString()
+	{
+		if(!this.colliding) return "ContactManifold{not colliding}";
+
+		StringBuilder builder = new StringBuilder("ContactManifold{mtv=<[").append(this.mtvX).append(", ")
+																		  .append(this.mtvY).append("]>, points=[");
+		for(int i = 0; i < this.pointCount; i++)
+		{
+			if(i > 0) builder.append(", ");
+			builder.append('[').append(this.pointX[i]).append(", ").append(this.pointY[i]).append(']');
+		}
+		return builder.append("]}").toString();
+	}
+
+	/**
+	 * Adds a contact point, if there is room for another.
+	 *
+	 * @param x
+	 * 		The x coordinate of the contact point
+	 * @param y
+	 * 		The y coordinate of the contact point
+	 */
+	public void addPoint(double x, double y)
+	{
+		if(this.pointCount == MAX_POINTS) return;
+		this.pointX[this.pointCount] = x;
+		this.pointY[this.pointCount] = y;
+		this.pointCount++;
+	}
+
+	/**
+	 * @return The x component of the last separating axis
+	 */
+	public double axisX()
+	{
+		return this.axisX;
+	}
+
+	/**
+	 * @return The y component of the last separating axis
+	 */
+	public double axisY()
+	{
+		return this.axisY;
+	}
+
+	/**
+	 * Marks the two Collidables as colliding.
+	 *
+	 * @param x
+	 * 		The x component of the MTV of the first Collidable
+	 * @param y
+	 * 		The y component of the MTV of the first Collidable
+	 */
+	public void collide(double x, double y)
+	{
+		this.colliding = true;
+		this.mtvX = x;
+		this.mtvY = y;
+	}
+
+	/**
+	 * Fills this ContactManifold from a Collision.
+	 *
+	 * @param collision
+	 * 		A Collision between the two Collidables
+	 */
+	public void copy(Collidable.Collision collision)
+	{
+		this.reset();
+		this.collide(collision.getMTV().getCoordinate(0), collision.getMTV().getCoordinate(1));
+		if(collision instanceof ManifoldCollision)
+		{
+			for(Dimensional point : ((ManifoldCollision) collision).getContactPoints())
+				this.addPoint(point.getCoordinate(0), point.getCoordinate(1));
+		}
+		else this.addPoint(collision.getCollisionPoint().getCoordinate(0),
+				collision.getCollisionPoint().getCoordinate(1));
+	}
+
+	/**
+	 * @return Whether a separating axis has been remembered
+	 */
+	public boolean hasAxis()
+	{
+		return this.hasAxis;
+	}
+
+	/**
+	 * Turns this ContactManifold around, so that it is from the point of view of the second Collidable.
+	 */
+	void invert()
+	{
+		this.mtvX = -this.mtvX;
+		this.mtvY = -this.mtvY;
+	}
+
+	/**
+	 * @return The last step of a ContactCache on which this ContactManifold was used
+	 */
+	int lastStep()
+	{
+		return this.lastStep;
+	}
+
+	/**
+	 * @param step
+	 * 		The step of a ContactCache on which this ContactManifold is being used
+	 */
+	void setLastStep(int step)
+	{
+		this.lastStep = step;
+	}
+
+	/**
+	 * Forgets the contact between the two Collidables, but not the last separating axis.
+	 */
+	void reset()
+	{
+		this.colliding = false;
+		this.pointCount = 0;
+		this.mtvX = 0;
+		this.mtvY = 0;
+	}
+
+	/**
+	 * @param x
+	 * 		The x component of an axis along which the two Collidables were found to be apart
+	 * @param y
+	 * 		The y component of that axis
+	 */
+	public void separatedAlong(double x, double y)
+	{
+		this.hasAxis = true;
+		this.axisX = x;
+		this.axisY = y;
+	}
+}
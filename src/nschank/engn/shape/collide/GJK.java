@@ -0,0 +1,699 @@
+package nschank.engn.shape.collide;
+
+import com.google.common.base.Optional;
+import nschank.collect.dim.Dimensional;
+import nschank.collect.dim.Point;
+import nschank.collect.dim.Vector;
+
+import java.util.ArrayList;
+import java.util.List;
+
+
+/**
+ * Created by Nicolas Schank for package nschank.engn.shape.collide
+ * Created on 13 Jun 2014
+ * Last updated on 3 Jul 2014
+ *
+ * A Utility class which finds Collisions between convex Collidables (Polygons, including AABs, Circles, OrientedBoxes
+ * and Capsules) using only their support points: the point on each shape furthest along a given direction.
+ * - GJK searches the Minkowski difference of the two shapes for the origin, and gives up as soon as it finds a
+ * direction in which the origin cannot be reached, which is usually within two or three support points for shapes that
+ * are apart
+ * - EPA expands the simplex GJK ends on until it finds the edge of the Minkowski difference closest to the origin, which
+ * gives the MTV
+ * - The faces of the two shapes most nearly perpendicular to the MTV are then clipped against each other, giving up to
+ * two contact points
+ * - The distance between two shapes which are apart is found in the same way, by walking the Minkowski difference
+ * towards the origin until no support point comes any closer
+ *
+ * Touching shapes, as with the Separating Axis Theorem, are not considered to be colliding.
+ *
+ * @author nschank, Brown University
+ * @version 1.2
+ */
+public final class GJK
+{
+	/**
+	 * The most support points GJK and EPA will each search before settling on their current answer
+	 */
+	public static final int MAX_ITERATIONS = 32;
+	/**
+	 * How close EPA must come to the edge of the Minkowski difference before it stops expanding
+	 */
+	public static final double TOLERANCE = 1e-7;
+
+	/**
+	 *
+	 */
+	private GJK()
+	{
+		//Utility class
+	}
+
+	/**
+	 * Finds the Collision between two convex Collidables, from the point of view of {@code a}.
+	 *
+	 * @param a
+	 * 		A convex Collidable
+	 * @param b
+	 * 		Another convex Collidable, which may be colliding with {@code a}
+	 *
+	 * @return A ManifoldCollision between {@code a} and {@code b}, if they are colliding
+	 *
+	 * @throws IllegalArgumentException
+	 * 		If either Collidable is not a Polygon, Circle, OrientedBox or Capsule
+	 */
+	public static Optional<Collidable.Collision> collision(final Collidable a, final Collidable b)
+	{
+		Shape first = new Shape(a);
+		Shape second = new Shape(b);
+
+		double[] simplexX = new double[3];
+		double[] simplexY = new double[3];
+		if(!GJK.intersect(first, second, simplexX, simplexY)) return Optional.absent();
+
+		double[] normal = GJK.penetration(first, second, simplexX, simplexY);
+		if(normal[2] <= 0) return Optional.absent();
+
+		List<Dimensional> contacts = GJK.contactPoints(first, second, normal[0], normal[1]);
+		Collidable.Collision coll = new ManifoldCollision(contacts,
+				new Vector(-normal[0] * normal[2], -normal[1] * normal[2]));
+		return Optional.of(coll);
+	}
+
+	/**
+	 * Finds the distance between two convex Collidables, with the first moved by the given offset. Neither Collidable
+	 * is actually moved.
+	 *
+	 * @param a
+	 * 		A convex Collidable
+	 * @param b
+	 * 		Another convex Collidable
+	 * @param offsetX
+	 * 		How far {@code a} is to be moved along the x axis before measuring
+	 * @param offsetY
+	 * 		How far {@code a} is to be moved along the y axis before measuring
+	 * @param normal
+	 * 		Filled with the unit direction from the nearest point of {@code a} to the nearest point of {@code b}, if
+	 * 		they are apart
+	 *
+	 * @return The distance between the two; 0 if they touch or overlap
+	 *
+	 * @throws IllegalArgumentException
+	 * 		If either Collidable is not a Polygon, Circle, OrientedBox or Capsule
+	 */
+	static double distance(final Collidable a, final Collidable b, double offsetX, double offsetY, double[] normal)
+	{
+		Shape first = new Shape(a);
+		Shape second = new Shape(b);
+
+		double[] point = new double[2];
+		double[] simplexX = new double[3];
+		double[] simplexY = new double[3];
+		double[] closest = new double[2];
+		closest[0] = (first.centerX + offsetX) - second.centerX;
+		closest[1] = (first.centerY + offsetY) - second.centerY;
+		if(closest[0] == 0 && closest[1] == 0) return 0;
+
+		int size = 0;
+		for(int iteration = 0; iteration < MAX_ITERATIONS; iteration++)
+		{
+			GJK.minkowskiSupport(first, second, -closest[0], -closest[1], point);
+			point[0] += offsetX;
+			point[1] += offsetY;
+			double length2 = (closest[0] * closest[0]) + (closest[1] * closest[1]);
+			double reach = (closest[0] * point[0]) + (closest[1] * point[1]);
+			if(size > 0 && (length2 - reach) <= (TOLERANCE * length2)) break;
+
+			simplexX[size] = point[0];
+			simplexY[size] = point[1];
+			size = GJK.closestOnSimplex(simplexX, simplexY, size + 1, closest);
+			if(size == 3) return 0;
+			if(((closest[0] * closest[0]) + (closest[1] * closest[1])) <= (TOLERANCE * TOLERANCE)) return 0;
+		}
+
+		double length = Math.hypot(closest[0], closest[1]);
+		normal[0] = -closest[0] / length;
+		normal[1] = -closest[1] / length;
+		return length;
+	}
+
+	/**
+	 * Clips the given segment, keeping only the part for which {@code (dirX,dirY)} dotted with a point is at least
+	 * {@code offset}.
+	 *
+	 * @param segment
+	 * 		The endpoints of a segment, as {x1, y1, x2, y2}; replaced by the clipped segment
+	 * @param dirX
+	 * 		The x component of the clipping direction
+	 * @param dirY
+	 * 		The y component of the clipping direction
+	 * @param offset
+	 * 		The lowest projection along the clipping direction which is kept
+	 *
+	 * @return The number of points remaining in the segment, from 0 to 2
+	 */
+	private static int clip(double[] segment, double dirX, double dirY, double offset)
+	{
+		double d1 = ((segment[0] * dirX) + (segment[1] * dirY)) - offset;
+		double d2 = ((segment[2] * dirX) + (segment[3] * dirY)) - offset;
+		if(d1 < 0 && d2 < 0) return 0;
+		if(d1 >= 0 && d2 >= 0) return 2;
+
+		double t = d1 / (d1 - d2);
+		double x = segment[0] + ((segment[2] - segment[0]) * t);
+		double y = segment[1] + ((segment[3] - segment[1]) * t);
+		if(d1 < 0)
+		{
+			segment[0] = x;
+			segment[1] = y;
+		}
+		else
+		{
+			segment[2] = x;
+			segment[3] = y;
+		}
+		return 2;
+	}
+
+	/**
+	 * Finds the point nearest the origin of a simplex in the Minkowski difference, and reduces the simplex to the
+	 * fewest of its points whose hull still contains that point.
+	 *
+	 * @param simplexX
+	 * 		The x coordinates of the points of the simplex; those which are kept are moved to the front
+	 * @param simplexY
+	 * 		The y coordinates of the points of the simplex
+	 * @param size
+	 * 		The number of points in the simplex, from 1 to 3
+	 * @param closest
+	 * 		Filled with the point of the simplex nearest the origin
+	 *
+	 * @return The number of points left in the simplex; 3 only if the triangle contains the origin
+	 */
+	private static int closestOnSimplex(double[] simplexX, double[] simplexY, int size, double[] closest)
+	{
+		if(size == 3)
+		{
+			double ab = GJK.cross(simplexX[1] - simplexX[0], simplexY[1] - simplexY[0], -simplexX[0], -simplexY[0]);
+			double bc = GJK.cross(simplexX[2] - simplexX[1], simplexY[2] - simplexY[1], -simplexX[1], -simplexY[1]);
+			double ca = GJK.cross(simplexX[0] - simplexX[2], simplexY[0] - simplexY[2], -simplexX[2], -simplexY[2]);
+			if((ab >= 0 && bc >= 0 && ca >= 0) || (ab <= 0 && bc <= 0 && ca <= 0)) return 3;
+
+			int first = 0;
+			double best = Double.POSITIVE_INFINITY;
+			for(int i = 0; i < 3; i++)
+			{
+				int j = (i + 1) % 3;
+				double t = GJK.nearestAlong(simplexX[i], simplexY[i], simplexX[j], simplexY[j]);
+				double x = simplexX[i] + ((simplexX[j] - simplexX[i]) * t);
+				double y = simplexY[i] + ((simplexY[j] - simplexY[i]) * t);
+				if(((x * x) + (y * y)) < best)
+				{
+					best = (x * x) + (y * y);
+					first = i;
+				}
+			}
+			int second = (first + 1) % 3;
+			double firstX = simplexX[first];
+			double firstY = simplexY[first];
+			double secondX = simplexX[second];
+			double secondY = simplexY[second];
+			simplexX[0] = firstX;
+			simplexY[0] = firstY;
+			simplexX[1] = secondX;
+			simplexY[1] = secondY;
+			size = 2;
+		}
+		if(size == 2)
+		{
+			double t = GJK.nearestAlong(simplexX[0], simplexY[0], simplexX[1], simplexY[1]);
+			if(t > 0 && t < 1)
+			{
+				closest[0] = simplexX[0] + ((simplexX[1] - simplexX[0]) * t);
+				closest[1] = simplexY[0] + ((simplexY[1] - simplexY[0]) * t);
+				return 2;
+			}
+			if(t >= 1)
+			{
+				simplexX[0] = simplexX[1];
+				simplexY[0] = simplexY[1];
+			}
+		}
+		closest[0] = simplexX[0];
+		closest[1] = simplexY[0];
+		return 1;
+	}
+
+	/**
+	 * @return The z coordinate of the cross product of (ax, ay) and (bx, by)
+	 */
+	private static double cross(double ax, double ay, double bx, double by)
+	{
+		return (ax * by) - (ay * bx);
+	}
+
+	/**
+	 * Finds the points at which two colliding shapes touch, given the direction from {@code a} into {@code b}. A shape
+	 * which is not a Polygon touches at its deepest point; two Polygons touch along the part of the incident face which
+	 * lies within the reference face, where the reference face is whichever of the two best faces is more nearly
+	 * perpendicular to the normal.
+	 *
+	 * @param a
+	 * 		A shape
+	 * @param b
+	 * 		Another shape, colliding with {@code a}
+	 * @param normalX
+	 * 		The x component of the unit collision normal, pointing from {@code a} into {@code b}
+	 * @param normalY
+	 * 		The y component of the unit collision normal
+	 *
+	 * @return One or two contact points
+	 */
+	private static List<Dimensional> contactPoints(Shape a, Shape b, double normalX, double normalY)
+	{
+		List<Dimensional> contacts = new ArrayList<>(2);
+		if(a.polygon == null)
+		{
+			contacts.add(GJK.deepest(b, a, -normalX, -normalY));
+			return contacts;
+		}
+		if(b.polygon == null)
+		{
+			contacts.add(GJK.deepest(a, b, normalX, normalY));
+			return contacts;
+		}
+
+		double[] faceA = GJK.bestFace(a.polygon, normalX, normalY);
+		double[] faceB = GJK.bestFace(b.polygon, -normalX, -normalY);
+		double[] reference = faceA;
+		double[] incident = faceB;
+		double referenceX = normalX;
+		double referenceY = normalY;
+		if(Math.abs(GJK.faceDot(faceB, normalX, normalY)) < Math.abs(GJK.faceDot(faceA, normalX, normalY)))
+		{
+			reference = faceB;
+			incident = faceA;
+			referenceX = -normalX;
+			referenceY = -normalY;
+		}
+
+		double edgeX = reference[2] - reference[0];
+		double edgeY = reference[3] - reference[1];
+		double length = Math.sqrt((edgeX * edgeX) + (edgeY * edgeY));
+		edgeX /= length;
+		edgeY /= length;
+		double start = (reference[0] * edgeX) + (reference[1] * edgeY);
+		double end = (reference[2] * edgeX) + (reference[3] * edgeY);
+
+		if(GJK.clip(incident, edgeX, edgeY, start) < 2 || GJK.clip(incident, -edgeX, -edgeY, -end) < 2)
+		{
+			contacts.add(GJK.deepest(a, b, normalX, normalY));
+			return contacts;
+		}
+
+		double face = (reference[0] * referenceX) + (reference[1] * referenceY);
+		for(int i = 0; i < 4; i += 2)
+			if((face - ((incident[i] * referenceX) + (incident[i + 1] * referenceY))) >= 0)
+				contacts.add(new Point(incident[i], incident[i + 1]));
+		if(contacts.isEmpty()) contacts.add(GJK.deepest(a, b, normalX, normalY));
+		return contacts;
+	}
+
+	/**
+	 * Finds the face of a Polygon which best faces the given direction: of the two edges meeting at the vertex furthest
+	 * along that direction, the one more nearly perpendicular to it.
+	 *
+	 * @param polygon
+	 * 		A Polygon
+	 * @param dirX
+	 * 		The x component of a direction
+	 * @param dirY
+	 * 		The y component of a direction
+	 *
+	 * @return The endpoints of that face, as {x1, y1, x2, y2}
+	 */
+	private static double[] bestFace(Polygon polygon, double dirX, double dirY)
+	{
+		int count = polygon.vertexCount();
+		int furthest = polygon.furthestVertex(dirX, dirY);
+		int next = (furthest + 1) % count;
+		int previous = (furthest + count - 1) % count;
+
+		double x = polygon.vertexX(furthest);
+		double y = polygon.vertexY(furthest);
+		double toNextX = polygon.vertexX(next) - x;
+		double toNextY = polygon.vertexY(next) - y;
+		double toPreviousX = polygon.vertexX(previous) - x;
+		double toPreviousY = polygon.vertexY(previous) - y;
+		double nextDot = ((toNextX * dirX) + (toNextY * dirY)) / Math.hypot(toNextX, toNextY);
+		double previousDot = ((toPreviousX * dirX) + (toPreviousY * dirY)) / Math.hypot(toPreviousX, toPreviousY);
+
+		if(Math.abs(previousDot) <= Math.abs(nextDot))
+			return new double[]{polygon.vertexX(previous), polygon.vertexY(previous), x, y};
+		else return new double[]{x, y, polygon.vertexX(next), polygon.vertexY(next)};
+	}
+
+	/**
+	 * Used for shapes which are not Polygons, and when clipping fails, which only happens when the two faces barely
+	 * overlap.
+	 *
+	 * @param a
+	 * 		A shape
+	 * @param b
+	 * 		Another shape, colliding with {@code a}
+	 * @param normalX
+	 * 		The x component of the unit collision normal, pointing from {@code a} into {@code b}
+	 * @param normalY
+	 * 		The y component of the unit collision normal
+	 *
+	 * @return The point of {@code b} furthest into {@code a}
+	 */
+	private static Dimensional deepest(Shape a, Shape b, double normalX, double normalY)
+	{
+		double[] point = new double[2];
+		b.support(-normalX, -normalY, point);
+		return new Point(point[0], point[1]);
+	}
+
+	/**
+	 * @param face
+	 * 		The endpoints of a face, as {x1, y1, x2, y2}
+	 * @param dirX
+	 * 		The x component of a unit direction
+	 * @param dirY
+	 * 		The y component of a unit direction
+	 *
+	 * @return The dot product of the unit direction of that face with the given direction
+	 */
+	private static double faceDot(double[] face, double dirX, double dirY)
+	{
+		double edgeX = face[2] - face[0];
+		double edgeY = face[3] - face[1];
+		return ((edgeX * dirX) + (edgeY * dirY)) / Math.hypot(edgeX, edgeY);
+	}
+
+	/**
+	 * Runs GJK on the Minkowski difference of the two shapes.
+	 *
+	 * @param a
+	 * 		A shape
+	 * @param b
+	 * 		Another shape
+	 * @param simplexX
+	 * 		Filled with the x coordinates of a triangle around the origin, if the shapes intersect
+	 * @param simplexY
+	 * 		Filled with the y coordinates of the same triangle
+	 *
+	 * @return Whether the two shapes intersect
+	 */
+	private static boolean intersect(Shape a, Shape b, double[] simplexX, double[] simplexY)
+	{
+		double[] point = new double[2];
+		double dirX = a.centerX - b.centerX;
+		double dirY = a.centerY - b.centerY;
+		//Any direction will do when the centres coincide; the origin is then often on a line between two support points
+		if(dirX == 0 && dirY == 0) dirX = 1;
+
+		int size = 0;
+		for(int iteration = 0; iteration < MAX_ITERATIONS; iteration++)
+		{
+			GJK.minkowskiSupport(a, b, dirX, dirY, point);
+			if(((point[0] * dirX) + (point[1] * dirY)) <= 0) return false;
+			simplexX[size] = point[0];
+			simplexY[size] = point[1];
+			size++;
+
+			double ax = simplexX[size - 1];
+			double ay = simplexY[size - 1];
+			if(size == 1)
+			{
+				dirX = -ax;
+				dirY = -ay;
+			}
+			else if(size == 2)
+			{
+				double abX = simplexX[0] - ax;
+				double abY = simplexY[0] - ay;
+				dirX = -abY;
+				dirY = abX;
+				//If the origin is on the segment, either side will do: the next support point either makes a triangle
+				//with the origin on its edge, or shows that the segment lies along the edge of the Minkowski difference
+				double toOrigin = (dirX * -ax) + (dirY * -ay);
+				if(toOrigin < 0)
+				{
+					dirX = -dirX;
+					dirY = -dirY;
+				}
+			}
+			else
+			{
+				double abX = simplexX[1] - ax;
+				double abY = simplexY[1] - ay;
+				double acX = simplexX[0] - ax;
+				double acY = simplexY[0] - ay;
+
+				double abPerpX = -abY;
+				double abPerpY = abX;
+				if(((abPerpX * acX) + (abPerpY * acY)) > 0)
+				{
+					abPerpX = -abPerpX;
+					abPerpY = -abPerpY;
+				}
+				double acPerpX = -acY;
+				double acPerpY = acX;
+				if(((acPerpX * abX) + (acPerpY * abY)) > 0)
+				{
+					acPerpX = -acPerpX;
+					acPerpY = -acPerpY;
+				}
+
+				if(((abPerpX * -ax) + (abPerpY * -ay)) > 0)
+				{
+					simplexX[0] = simplexX[1];
+					simplexY[0] = simplexY[1];
+					dirX = abPerpX;
+					dirY = abPerpY;
+				}
+				else if(((acPerpX * -ax) + (acPerpY * -ay)) > 0)
+				{
+					dirX = acPerpX;
+					dirY = acPerpY;
+				}
+				else return true;
+
+				simplexX[1] = ax;
+				simplexY[1] = ay;
+				size = 2;
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * @param a
+	 * 		A shape
+	 * @param b
+	 * 		Another shape
+	 * @param dirX
+	 * 		The x component of a direction
+	 * @param dirY
+	 * 		The y component of a direction
+	 * @param into
+	 * 		Filled with the point of the Minkowski difference of {@code a} and {@code b} furthest along the direction
+	 */
+	private static void minkowskiSupport(Shape a, Shape b, double dirX, double dirY, double[] into)
+	{
+		a.support(dirX, dirY, into);
+		double x = into[0];
+		double y = into[1];
+		b.support(-dirX, -dirY, into);
+		into[0] = x - into[0];
+		into[1] = y - into[1];
+	}
+
+	/**
+	 * @param ax
+	 * 		The x coordinate of one end of a segment
+	 * @param ay
+	 * 		The y coordinate of that end
+	 * @param bx
+	 * 		The x coordinate of the other end
+	 * @param by
+	 * 		The y coordinate of the other end
+	 *
+	 * @return The fraction of the way from (ax, ay) to (bx, by), between 0 and 1, of the point of the segment nearest
+	 * the origin
+	 */
+	private static double nearestAlong(double ax, double ay, double bx, double by)
+	{
+		double edgeX = bx - ax;
+		double edgeY = by - ay;
+		double length2 = (edgeX * edgeX) + (edgeY * edgeY);
+		if(length2 == 0) return 0;
+		return Math.max(0, Math.min(1, -((ax * edgeX) + (ay * edgeY)) / length2));
+	}
+
+	/**
+	 * Runs EPA, expanding the triangle found by GJK towards the edge of the Minkowski difference nearest the origin.
+	 *
+	 * @param a
+	 * 		A shape
+	 * @param b
+	 * 		Another shape, intersecting {@code a}
+	 * @param simplexX
+	 * 		The x coordinates of a triangle in the Minkowski difference containing the origin
+	 * @param simplexY
+	 * 		The y coordinates of the same triangle
+	 *
+	 * @return {x, y, depth}, where (x,y) is the unit normal pointing from {@code a} into {@code b}
+	 */
+	private static double[] penetration(Shape a, Shape b, double[] simplexX, double[] simplexY)
+	{
+		double[] polytopeX = new double[MAX_ITERATIONS + 3];
+		double[] polytopeY = new double[MAX_ITERATIONS + 3];
+		int size = 3;
+		boolean clockwise = (((simplexX[1] - simplexX[0]) * (simplexY[2] - simplexY[0])) - (
+				(simplexY[1] - simplexY[0]) * (simplexX[2] - simplexX[0]))) < 0;
+		for(int i = 0; i < 3; i++)
+		{
+			polytopeX[i] = simplexX[clockwise ? 2 - i : i];
+			polytopeY[i] = simplexY[clockwise ? 2 - i : i];
+		}
+
+		double[] point = new double[2];
+		double[] result = new double[3];
+		for(int iteration = 0; iteration < MAX_ITERATIONS; iteration++)
+		{
+			int closest = -1;
+			double closestDistance = Double.POSITIVE_INFINITY;
+			for(int i = 0; i < size; i++)
+			{
+				int j = (i + 1) % size;
+				double edgeX = polytopeX[j] - polytopeX[i];
+				double edgeY = polytopeY[j] - polytopeY[i];
+				double length = Math.hypot(edgeX, edgeY);
+				if(length == 0) continue;
+				double normalX = edgeY / length;
+				double normalY = -edgeX / length;
+				double distance = (normalX * polytopeX[i]) + (normalY * polytopeY[i]);
+				if(distance < closestDistance)
+				{
+					closest = i;
+					closestDistance = distance;
+					result[0] = normalX;
+					result[1] = normalY;
+					result[2] = distance;
+				}
+			}
+			if(closest < 0) break;
+
+			GJK.minkowskiSupport(a, b, result[0], result[1], point);
+			double reach = (point[0] * result[0]) + (point[1] * result[1]);
+			if((reach - closestDistance) < TOLERANCE) break;
+
+			for(int i = size; i > closest + 1; i--)
+			{
+				polytopeX[i] = polytopeX[i - 1];
+				polytopeY[i] = polytopeY[i - 1];
+			}
+			polytopeX[closest + 1] = point[0];
+			polytopeY[closest + 1] = point[1];
+			size++;
+		}
+
+		return result;
+	}
+
+	/**
+	 * A convex Collidable, as far as GJK is concerned: something with a centre and a support point in every direction.
+	 * A Polygon supports through its vertices; any other shape is a set of points (one for a Circle, the corners of an
+	 * OrientedBox, or the ends of a Capsule) grown by a radius.
+	 */
+	private static final class Shape
+	{
+		private final Polygon polygon;
+		private final double centerX;
+		private final double centerY;
+		private final double[] pointsX;
+		private final double[] pointsY;
+		private final double radius;
+
+		/**
+		 * @param c
+		 * 		A Polygon, Circle, OrientedBox or Capsule
+		 */
+		private Shape(Collidable c)
+		{
+			Dimensional center = c.getCenterPosition();
+			this.centerX = center.getCoordinate(0);
+			this.centerY = center.getCoordinate(1);
+			if(c instanceof Polygon)
+			{
+				this.polygon = (Polygon) c;
+				this.pointsX = null;
+				this.pointsY = null;
+				this.radius = 0;
+			}
+			else if(c instanceof Circle)
+			{
+				this.polygon = null;
+				this.pointsX = new double[]{this.centerX};
+				this.pointsY = new double[]{this.centerY};
+				this.radius = ((Circle) c).getRadius();
+			}
+			else if(c instanceof OrientedBox)
+			{
+				this.polygon = null;
+				this.pointsX = ((OrientedBox) c).cornersX();
+				this.pointsY = ((OrientedBox) c).cornersY();
+				this.radius = 0;
+			}
+			else if(c instanceof Capsule)
+			{
+				Capsule capsule = (Capsule) c;
+				Dimensional start = capsule.getStart();
+				Dimensional end = capsule.getEnd();
+				this.polygon = null;
+				this.pointsX = new double[]{start.getCoordinate(0), end.getCoordinate(0)};
+				this.pointsY = new double[]{start.getCoordinate(1), end.getCoordinate(1)};
+				this.radius = capsule.getRadius();
+			}
+			else throw new IllegalArgumentException(
+						"GJK can only be used with Polygons, Circles, OrientedBoxes and Capsules, not " + c);
+		}
+
+		/**
+		 * @param dirX
+		 * 		The x component of a direction
+		 * @param dirY
+		 * 		The y component of a direction
+		 * @param into
+		 * 		Filled with the point of this shape furthest along the direction
+		 */
+		private void support(double dirX, double dirY, double[] into)
+		{
+			if(this.polygon != null)
+			{
+				int furthest = this.polygon.furthestVertex(dirX, dirY);
+				into[0] = this.polygon.vertexX(furthest);
+				into[1] = this.polygon.vertexY(furthest);
+				return;
+			}
+
+			int furthest = 0;
+			for(int i = 1; i < this.pointsX.length; i++)
+				if(((this.pointsX[i] * dirX) + (this.pointsY[i] * dirY)) >
+						((this.pointsX[furthest] * dirX) + (this.pointsY[furthest] * dirY)))
+					furthest = i;
+			into[0] = this.pointsX[furthest];
+			into[1] = this.pointsY[furthest];
+			if(this.radius > 0)
+			{
+				double length = Math.hypot(dirX, dirY);
+				into[0] += (dirX / length) * this.radius;
+				into[1] += (dirY / length) * this.radius;
+			}
+		}
+	}
+}
@@ -0,0 +1,121 @@
+package nschank.engn.shape.collide;
+
+import nschank.collect.dim.Dimensional;
+import nschank.collect.dim.Dimensionals;
+import nschank.collect.dim.Vector;
+import nschank.note.Immutable;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+
+/**
+ * Created by Nicolas Schank for package nschank.engn.shape.collide
+ * Created on 13 Jun 2014
+ * Last updated on 13 Jun 2014
+ *
+ * A Collision which knows every point at which the two Collidables touch, rather than a single representative point.
+ * Two faces resting against each other touch along a segment, which is described by its two endpoints; anything else
+ * touches at one point. The collision point of a ManifoldCollision is the average of its contact points, so that it can
+ * be used anywhere a single point is expected.
+ *
+ * As with DefaultCollision, the inverse of a ManifoldCollision shares its contact points and negates its MTV, and the
+ * inverse of that inverse is the original ManifoldCollision.
+ *
+ * @author nschank, Brown University
+ * @version 1.0
+ */
+@Immutable
+public class ManifoldCollision implements Collidable.Collision
+{
+	private final List<Dimensional> contactPoints;
+	private final Dimensional point;
+	private final Vector mtv;
+	private final Collidable.Collision inverse;
+
+	/**
+	 * Creates a Collision which touches at each of the given {@code contactPoints}, and can be corrected by the given
+	 * {@code mtv}.
+	 *
+	 * @param contactPoints
+	 * 		The one or two points at which this Collision occurs
+	 * @param mtv
+	 * 		The MTV which will correct this Collision
+	 */
+	public ManifoldCollision(List<? extends Dimensional> contactPoints, Vector mtv)
+	{
+		if(contactPoints.isEmpty()) throw new IllegalArgumentException("A Collision must have a contact point.");
+		for(Dimensional point : contactPoints)
+			if(point.getDimensions() != 2)
+				throw new IllegalArgumentException("Collision points must happen in 2 dimensions.");
+		if(mtv.getDimensions() != 2)
+			throw new IllegalArgumentException("Minimum translation vectors must happen in 2 dimensions.");
+
+		this.contactPoints = Collections.unmodifiableList(new ArrayList<>(contactPoints));
+		this.point = Dimensionals.average(this.contactPoints);
+		this.mtv = mtv;
+		this.inverse = new ManifoldCollision(this);
+	}
+
+	/**
+	 * Creates the inverse of the given ManifoldCollision.
+	 *
+	 * @param inverse
+	 * 		The ManifoldCollision to invert
+	 */
+	private ManifoldCollision(ManifoldCollision inverse)
+	{
+		this.contactPoints = inverse.contactPoints;
+		this.point = inverse.point;
+		this.mtv = inverse.mtv.smult(-1);
+		this.inverse = inverse;
+	}
+
+	/**
+	 * @return The 2-dimensional average of the contact points of this Collision
+	 */
+	@Override
+	public Dimensional getCollisionPoint()
+	{
+		return this.point;
+	}
+
+	/**
+	 * @return Every point at which the two Collidables touch; either one or two points
+	 */
+	public List<Dimensional> getContactPoints()
+	{
+		return this.contactPoints;
+	}
+
+	/**
+	 * @return A 2-dimensional Vector which will negate this Collision
+	 */
+	@Override
+	public Vector getMTV()
+	{
+		return this.mtv;
+	}
+
+	/**
+	 * @return The ManifoldCollision with the same contact points and the negated MTV
+	 */
+	@Override
+	public Collidable.Collision inverse()
+	{
+		return this.inverse;
+	}
+
+	/**
+	 * @return A string representation of a ManifoldCollision, containing its contact points and an MTV
+	 */
+	@Override
+	public String toString()
+	{
+		return "ManifoldCollision{" +
+				"contactPoints=" + this.contactPoints +
+				", mtv=" + this.mtv +
+				'}';
+	}
+}
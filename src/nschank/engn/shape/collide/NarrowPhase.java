@@ -0,0 +1,25 @@
+package nschank.engn.shape.collide;
+
+/**
+ * Created by Nicolas Schank for package nschank.engn.shape.collide
+ * Created on 13 Jun 2014
+ * Last updated on 3 Jul 2014
+ *
+ * The algorithm used to find the Collision between a particular pair of Collidable types. Chosen for each pair of types
+ * within a CollisionDispatcher, using its setNarrowPhase.
+ *
+ * @author nschank, Brown University
+ * @version 1.1
+ */
+public enum NarrowPhase
+{
+	/**
+	 * The Separating Axis Theorem, testing each edge normal of both shapes; produces a single collision point
+	 */
+	SEPARATING_AXIS,
+	/**
+	 * GJK for intersection and EPA for penetration depth, followed by clipping to find up to two contact points; only
+	 * available between Polygons, Circles, OrientedBoxes and Capsules
+	 */
+	GJK
+}
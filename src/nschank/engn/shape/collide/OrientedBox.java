@@ -0,0 +1,794 @@
+package nschank.engn.shape.collide;
+
+import com.google.common.base.Optional;
+import nschank.collect.dim.Dimensional;
+import nschank.engn.shape.AbstractDrawable;
+import nschank.engn.shape.GameSpaceDrawable;
+import nschank.util.Interval;
+import nschank.util.Intervals;
+
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.geom.Path2D;
+
+
+/**
+ * Created by Nicolas Schank for package nschank.engn.shape.collide
+ * Created on 19 Jun 2014
+ * Last updated on 3 Jul 2014
+ *
+ * An OrientedBox is a rectangle which, unlike an AAB, may be rotated. It could be expressed as a four-sided Polygon, but
+ * a box is fully described by its centre, its two half-extents, and its angle, so every test against it is worked out
+ * directly from those: its projection onto any axis is found without visiting its corners, a box only ever has two
+ * separating axes of its own, and a Circle is tested by clamping its centre into the box's own frame.
+ *
+ * The width and height of an OrientedBox are measured along its own axes, before it is rotated.
+ *
+ * @author nschank, Brown University
+ * @version 1.2
+ */
+public class OrientedBox extends AbstractDrawable implements Collidable, GameSpaceDrawable
+{
+	private double angle = 0.0;
+	private double cos = 1.0;
+	private double sin = 0.0;
+	private double centerX;
+	private double centerY;
+
+	private final double[] cornerX = new double[4];
+	private final double[] cornerY = new double[4];
+	private boolean cornersDirty = true;
+	private final double[] faces = new double[8];
+	private final Polygon.SeparatingAxes separatingAxes = new Polygon.SeparatingAxes();
+
+	/**
+	 * Creates an OrientedBox which has not been rotated.
+	 *
+	 * @param center
+	 * 		The centre of this OrientedBox
+	 * @param width
+	 * 		The width of this OrientedBox, along its own x-axis
+	 * @param height
+	 * 		The height of this OrientedBox, along its own y-axis
+	 * @param c
+	 * 		The Color of this OrientedBox
+	 */
+	public OrientedBox(Dimensional center, double width, double height, Color c)
+	{
+		this(center, width, height, 0, c);
+	}
+
+	/**
+	 * Creates an OrientedBox.
+	 *
+	 * @param center
+	 * 		The centre of this OrientedBox
+	 * @param width
+	 * 		The width of this OrientedBox, along its own x-axis
+	 * @param height
+	 * 		The height of this OrientedBox, along its own y-axis
+	 * @param rotation
+	 * 		The angle of this OrientedBox from the x-axis, in radians
+	 * @param c
+	 * 		The Color of this OrientedBox
+	 */
+	public OrientedBox(Dimensional center, double width, double height, double rotation, Color c)
+	{
+		super(center, width, height, c);
+		this.centerX = center.getCoordinate(0);
+		this.centerY = center.getCoordinate(1);
+		this.setRotation(rotation);
+	}
+
+	/**
+	 * @param other
+	 * 		Another object which may be colliding with this one.
+	 *
+	 * @return A Collision between this object and the other object, if it exists.
+	 */
+	@Override
+	public Optional<Collision> collisionWith(Collidable other)
+	{
+		ContactManifold manifold = new ContactManifold();
+		if(other instanceof OrientedBox)
+			return OrientedBox.collisionFrom(this.collide((OrientedBox) other, manifold), manifold);
+		if(other instanceof Capsule)
+		{
+			if(!((Capsule) other).collide(this, manifold)) return Optional.absent();
+			manifold.invert();
+			return Optional.of(manifold.toCollision());
+		}
+		return Collidables.inverseOf(other.collisionWith(this));
+	}
+
+	/**
+	 * @param other
+	 * 		An AAB that may be colliding with this object
+	 *
+	 * @return A Collision between this object and the given AAB, if it exists.
+	 */
+	@Override
+	public Optional<Collision> collisionWithAAB(AAB other)
+	{
+		ContactManifold manifold = new ContactManifold();
+		return OrientedBox.collisionFrom(this.collide(other, manifold), manifold);
+	}
+
+	/**
+	 * @param other
+	 * 		A Circle that may be colliding with this object
+	 *
+	 * @return A Collision between this object and the given Circle, if it exists.
+	 */
+	@Override
+	public Optional<Collision> collisionWithCircle(Circle other)
+	{
+		ContactManifold manifold = new ContactManifold();
+		return OrientedBox.collisionFrom(this.collide(other, manifold), manifold);
+	}
+
+	/**
+	 * @param other
+	 * 		A Polygon that may be colliding with this object
+	 *
+	 * @return A Collision between this object and the given Polygon, if it exists.
+	 */
+	@Override
+	public Optional<Collision> collisionWithPolygon(Polygon other)
+	{
+		ContactManifold manifold = new ContactManifold();
+		return OrientedBox.collisionFrom(this.collide(other, manifold), manifold);
+	}
+
+	/**
+	 * Finds the contact between this OrientedBox and an AAB, treating the AAB as a box which has not been rotated.
+	 *
+	 * @param other
+	 * 		An AAB that may be colliding with this object
+	 * @param out
+	 * 		A reset ContactManifold, filled with the contact from the point of view of this OrientedBox
+	 *
+	 * @return Whether the two are colliding
+	 */
+	boolean collide(AAB other, ContactManifold out)
+	{
+		if(!this.withinReach(other.centerX(), other.centerY(), other.boundingRadius())) return false;
+		return this.collideBox(other.centerX(), other.centerY(), 1, 0, other.getWidth() / 2d, other.getHeight() / 2d,
+				other.verticesX(), other.verticesY(), out);
+	}
+
+	/**
+	 * Finds the contact between this OrientedBox and a Circle by clamping the centre of the Circle into this box.
+	 *
+	 * @param other
+	 * 		A Circle that may be colliding with this object
+	 * @param out
+	 * 		A reset ContactManifold, filled with the contact from the point of view of this OrientedBox
+	 *
+	 * @return Whether the two are colliding
+	 */
+	boolean collide(Circle other, ContactManifold out)
+	{
+		double radius = other.getRadius();
+		if(!this.withinReach(other.centerX(), other.centerY(), radius)) return false;
+
+		double halfWidth = this.getWidth() / 2d;
+		double halfHeight = this.getHeight() / 2d;
+		double relativeX = other.centerX() - this.centerX;
+		double relativeY = other.centerY() - this.centerY;
+		double localX = (relativeX * this.cos) + (relativeY * this.sin);
+		double localY = (relativeY * this.cos) - (relativeX * this.sin);
+
+		double clampedX = Math.max(Math.min(localX, halfWidth), -halfWidth);
+		double clampedY = Math.max(Math.min(localY, halfHeight), -halfHeight);
+		double fromClampedX = localX - clampedX;
+		double fromClampedY = localY - clampedY;
+		double dist2 = (fromClampedX * fromClampedX) + (fromClampedY * fromClampedY);
+		if(dist2 >= (radius * radius)) return false;
+
+		double mtvX;
+		double mtvY;
+		if(dist2 == 0) //Circle's centre is inside the box
+		{
+			double needX = (halfWidth + radius) - Math.abs(localX);
+			double needY = (halfHeight + radius) - Math.abs(localY);
+			if(needX < needY)
+			{
+				mtvX = ((localX >= 0) ? -1 : 1) * needX;
+				mtvY = 0;
+			}
+			else
+			{
+				mtvX = 0;
+				mtvY = ((localY >= 0) ? -1 : 1) * needY;
+			}
+		}
+		else
+		{
+			double dist = Math.sqrt(dist2);
+			double overlap = radius - dist;
+			mtvX = -(fromClampedX / dist) * overlap;
+			mtvY = -(fromClampedY / dist) * overlap;
+		}
+
+		out.collide((mtvX * this.cos) - (mtvY * this.sin), (mtvX * this.sin) + (mtvY * this.cos));
+		out.addPoint(this.centerX + ((clampedX * this.cos) - (clampedY * this.sin)),
+				this.centerY + ((clampedX * this.sin) + (clampedY * this.cos)));
+		return true;
+	}
+
+	/**
+	 * Finds the contact between this OrientedBox and another, using only the two axes of each box.
+	 *
+	 * @param other
+	 * 		An OrientedBox that may be colliding with this object
+	 * @param out
+	 * 		A reset ContactManifold, filled with the contact from the point of view of this OrientedBox
+	 *
+	 * @return Whether the two are colliding
+	 */
+	boolean collide(OrientedBox other, ContactManifold out)
+	{
+		if(!this.withinReach(other.centerX, other.centerY, other.boundingRadius())) return false;
+		return this.collideBox(other.centerX, other.centerY, other.cos, other.sin, other.getWidth() / 2d,
+				other.getHeight() / 2d, other.cornersX(), other.cornersY(), out);
+	}
+
+	/**
+	 * Finds the contact between this OrientedBox and a Polygon using the Separating Axis Theorem, trying the axis
+	 * remembered by {@code out} first.
+	 *
+	 * @param other
+	 * 		A Polygon that may be colliding with this object
+	 * @param out
+	 * 		A reset ContactManifold, filled with the contact from the point of view of this OrientedBox
+	 *
+	 * @return Whether the two are colliding
+	 */
+	boolean collide(Polygon other, ContactManifold out)
+	{
+		if(!this.withinReach(other.centerX(), other.centerY(), other.boundingRadius())) return false;
+
+		double[] xs = other.verticesX();
+		double[] ys = other.verticesY();
+		double[] axesX = other.axesX();
+		double[] axesY = other.axesY();
+		Polygon.SeparatingAxes sat = this.separatingAxes;
+		sat.reset();
+		if(out.hasAxis() && !this.testPolygonAxis(sat, out.axisX(), out.axisY(), xs, ys)) return false;
+		for(int i = 0; i < 2; i++)
+		{
+			double axisX = (i == 0) ? this.cos : -this.sin;
+			double axisY = (i == 0) ? this.sin : this.cos;
+			if(!this.testPolygonAxis(sat, axisX, axisY, xs, ys))
+			{
+				out.separatedAlong(axisX, axisY);
+				return false;
+			}
+		}
+		for(int i = 0; i < axesX.length; i++)
+			if(!this.testPolygonAxis(sat, axesX[i], axesY[i], xs, ys))
+			{
+				out.separatedAlong(axesX[i], axesY[i]);
+				return false;
+			}
+		return this.finishContact(sat, xs, ys, out);
+	}
+
+	/**
+	 * @param point
+	 * 		A point in the same plane as this OrientedBox
+	 *
+	 * @return Whether the point is inside this OrientedBox or on its edge
+	 */
+	@Override
+	public boolean contains(Dimensional point)
+	{
+		return this.contains(point.getCoordinate(0), point.getCoordinate(1));
+	}
+
+	/**
+	 * @return An OrientedBox identical to this one in location, size, rotation, and color
+	 */
+	@Override
+	public Collidable copy()
+	{
+		return new OrientedBox(this.getCenterPosition(), this.getWidth(), this.getHeight(), this.angle,
+				this.getColor());
+	}
+
+	/**
+	 * @param r
+	 * 		A Ray in the same x-y coordinate plane as this object, which may be pointed to this object
+	 *
+	 * @return How far along the Ray the edge of this OrientedBox appears, if they intersect
+	 */
+	@Override
+	public Optional<Double> distanceAlong(Ray r)
+	{
+		double distance = this.distanceAlong(r.getStartLocation().getCoordinate(0), r.getStartLocation().getCoordinate(1),
+				r.getDirection().getCoordinate(0), r.getDirection().getCoordinate(1));
+		if(distance < 0) return Optional.absent();
+		else return Optional.of(distance);
+	}
+
+	/**
+	 * Finds where a ray enters (or, if it starts inside, leaves) this OrientedBox, by clipping it against both pairs of
+	 * sides in the box's own frame.
+	 *
+	 * @param originX
+	 * 		The x coordinate of the start of a ray
+	 * @param originY
+	 * 		The y coordinate of the start of a ray
+	 * @param dirX
+	 * 		The x component of the unit direction of the ray
+	 * @param dirY
+	 * 		The y component of the unit direction of the ray
+	 *
+	 * @return How far along the ray the edge of this OrientedBox appears, or -1 if it does not
+	 */
+	double distanceAlong(double originX, double originY, double dirX, double dirY)
+	{
+		double relativeX = originX - this.centerX;
+		double relativeY = originY - this.centerY;
+		double local[] = {(relativeX * this.cos) + (relativeY * this.sin), (relativeY * this.cos) - (relativeX * this.sin)};
+		double localDir[] = {(dirX * this.cos) + (dirY * this.sin), (dirY * this.cos) - (dirX * this.sin)};
+		double half[] = {this.getWidth() / 2d, this.getHeight() / 2d};
+
+		double enter = Double.NEGATIVE_INFINITY;
+		double exit = Double.POSITIVE_INFINITY;
+		for(int i = 0; i < 2; i++)
+		{
+			if(localDir[i] == 0)
+			{
+				if(Math.abs(local[i]) > half[i]) return -1;
+				continue;
+			}
+			double first = (-half[i] - local[i]) / localDir[i];
+			double second = (half[i] - local[i]) / localDir[i];
+			enter = Math.max(enter, Math.min(first, second));
+			exit = Math.min(exit, Math.max(first, second));
+		}
+
+		if(enter > exit) return -1;
+		if(enter > 0) return enter;
+		if(exit > 0) return exit;
+		return -1;
+	}
+
+	/**
+	 * @param g
+	 * 		A Graphics object to draw this OrientedBox onto
+	 */
+	@Override
+	public void draw(Graphics2D g)
+	{
+		this.updateCorners();
+		g.setColor(this.getColor());
+		Path2D path = new Path2D.Double();
+		path.moveTo(this.cornerX[3], this.cornerY[3]);
+		for(int i = 0; i < 4; i++)
+			path.lineTo(this.cornerX[i], this.cornerY[i]);
+		g.fill(path);
+	}
+
+	/**
+	 * @return True; an OrientedBox is drawn through a path with fractional coordinates, so may be drawn in game units
+	 */
+	@Override
+	public boolean drawsInGameSpace()
+	{
+		return true;
+	}
+
+	/**
+	 * @return The angle of this OrientedBox from the x-axis, in radians
+	 */
+	@Override
+	public double getRotation()
+	{
+		return this.angle;
+	}
+
+	/**
+	 * @param theta
+	 * 		The new angle of this OrientedBox from the x-axis, in radians
+	 */
+	@Override
+	public void setRotation(double theta)
+	{
+		this.angle = theta;
+		this.cos = Math.cos(theta);
+		this.sin = Math.sin(theta);
+		this.cornersDirty = true;
+	}
+
+	/**
+	 * @return The moment of inertia of this box: (w^2 + h^2)/12
+	 */
+	@Override
+	public double momentOfInertia()
+	{
+		return ((this.getWidth() * this.getWidth()) + (this.getHeight() * this.getHeight())) / 12d;
+	}
+
+	/**
+	 * @param axis
+	 * 		An axis onto which to project this OrientedBox
+	 *
+	 * @return The DefaultInterval along this axis upon which this OrientedBox falls.
+	 */
+	@Override
+	public Interval projectionOnto(Dimensional axis)
+	{
+		double axisX = axis.getCoordinate(0);
+		double axisY = axis.getCoordinate(1);
+		double mag2 = (axisX * axisX) + (axisY * axisY);
+		//Measured along the x axis unless the axis is vertical, as in Dimensionals.project
+		double scale = ((axisX == 0) ? axisY : axisX) / mag2;
+
+		double center = ((this.centerX * axisX) + (this.centerY * axisY)) * scale;
+		double extent = this.extentAlong(axisX, axisY) * Math.abs(scale);
+		return Intervals.about(center, 2d * extent);
+	}
+
+	/**
+	 * @param theta
+	 * 		An amount by which this OrientedBox should rotate counter-clockwise
+	 */
+	@Override
+	public void rotate(double theta)
+	{
+		this.setRotation(this.angle + theta);
+	}
+
+	/**
+	 * @param centerPosition
+	 * 		The new center position of this OrientedBox
+	 */
+	@Override
+	public void setCenterPosition(Dimensional centerPosition)
+	{
+		super.setCenterPosition(centerPosition);
+		this.centerX = centerPosition.getCoordinate(0);
+		this.centerY = centerPosition.getCoordinate(1);
+		this.cornersDirty = true;
+	}
+
+	/**
+	 * @param h
+	 * 		The new height of this OrientedBox, along its own y-axis
+	 */
+	@Override
+	public void setHeight(double h)
+	{
+		super.setHeight(h);
+		this.cornersDirty = true;
+	}
+
+	/**
+	 * @param w
+	 * 		The new width of this OrientedBox, along its own x-axis
+	 */
+	@Override
+	public void setWidth(double w)
+	{
+		super.setWidth(w);
+		this.cornersDirty = true;
+	}
+
+	/**
+	 * @return A string representation of this OrientedBox, with its centre, size, and angle
+	 */
+	@Override
+	public String toString()
+	{
+		return "OrientedBox{" +
+				"center=" + this.getCenterPosition() +
+				", width=" + this.getWidth() +
+				", height=" + this.getHeight() +
+				", angle=" + this.angle +
+				'}';
+	}
+
+	/**
+	 * @return The x interval (along the x axis) of this OrientedBox
+	 */
+	@Override
+	public Interval xInterval()
+	{
+		return Intervals.about(this.centerX, 2d * this.extentAlong(1, 0));
+	}
+
+	/**
+	 * @return The y interval (along the y axis) of this OrientedBox
+	 */
+	@Override
+	public Interval yInterval()
+	{
+		return Intervals.about(this.centerY, 2d * this.extentAlong(0, 1));
+	}
+
+	/**
+	 * @return The distance from the centre of this OrientedBox to each of its corners
+	 */
+	double boundingRadius()
+	{
+		return Math.sqrt((this.getWidth() * this.getWidth()) + (this.getHeight() * this.getHeight())) / 2d;
+	}
+
+	/**
+	 * @return The x coordinate of the centre of this OrientedBox
+	 */
+	double centerX()
+	{
+		return this.centerX;
+	}
+
+	/**
+	 * @return The y coordinate of the centre of this OrientedBox
+	 */
+	double centerY()
+	{
+		return this.centerY;
+	}
+
+	/**
+	 * @return The x coordinates of the corners of this OrientedBox, in clockwise order; must not be modified
+	 */
+	double[] cornersX()
+	{
+		this.updateCorners();
+		return this.cornerX;
+	}
+
+	/**
+	 * @return The y coordinates of the corners of this OrientedBox, in clockwise order; must not be modified
+	 */
+	double[] cornersY()
+	{
+		this.updateCorners();
+		return this.cornerY;
+	}
+
+	/**
+	 * Finds the contact between this OrientedBox and another box using the Separating Axis Theorem. Only the two axes of
+	 * each box need to be tried, and each box is projected onto them directly from its centre and half-extents.
+	 *
+	 * @param otherX
+	 * 		The x coordinate of the centre of the other box
+	 * @param otherY
+	 * 		The y coordinate of the centre of the other box
+	 * @param otherCos
+	 * 		The cosine of the angle of the other box
+	 * @param otherSin
+	 * 		The sine of the angle of the other box
+	 * @param otherHalfWidth
+	 * 		Half of the width of the other box
+	 * @param otherHalfHeight
+	 * 		Half of the height of the other box
+	 * @param otherCornersX
+	 * 		The x coordinates of the corners of the other box, in clockwise order
+	 * @param otherCornersY
+	 * 		The y coordinates of the same corners
+	 * @param out
+	 * 		A reset ContactManifold, filled with the contact from the point of view of this OrientedBox
+	 *
+	 * @return Whether the two are colliding
+	 */
+	private boolean collideBox(double otherX, double otherY, double otherCos, double otherSin, double otherHalfWidth,
+							   double otherHalfHeight, double[] otherCornersX, double[] otherCornersY,
+							   ContactManifold out)
+	{
+		Polygon.SeparatingAxes sat = this.separatingAxes;
+		sat.reset();
+		if(out.hasAxis() && !this.testBoxAxis(sat, out.axisX(), out.axisY(), otherX, otherY, otherCos, otherSin,
+				otherHalfWidth, otherHalfHeight)) return false;
+		for(int i = 0; i < 4; i++)
+		{
+			double axisX;
+			double axisY;
+			if(i == 0)
+			{
+				axisX = this.cos;
+				axisY = this.sin;
+			}
+			else if(i == 1)
+			{
+				axisX = -this.sin;
+				axisY = this.cos;
+			}
+			else if(i == 2)
+			{
+				axisX = otherCos;
+				axisY = otherSin;
+			}
+			else
+			{
+				axisX = -otherSin;
+				axisY = otherCos;
+			}
+			if(!this.testBoxAxis(sat, axisX, axisY, otherX, otherY, otherCos, otherSin, otherHalfWidth,
+					otherHalfHeight))
+			{
+				out.separatedAlong(axisX, axisY);
+				return false;
+			}
+		}
+		return this.finishContact(sat, otherCornersX, otherCornersY, out);
+	}
+
+	/**
+	 * @param x
+	 * 		The x coordinate of a point
+	 * @param y
+	 * 		The y coordinate of that point
+	 *
+	 * @return Whether the point is inside this OrientedBox or on its edge
+	 */
+	private boolean contains(double x, double y)
+	{
+		double relativeX = x - this.centerX;
+		double relativeY = y - this.centerY;
+		return Math.abs((relativeX * this.cos) + (relativeY * this.sin)) <= (this.getWidth() / 2d)
+				&& Math.abs((relativeY * this.cos) - (relativeX * this.sin)) <= (this.getHeight() / 2d);
+	}
+
+	/**
+	 * @param axisX
+	 * 		The x component of a unit axis
+	 * @param axisY
+	 * 		The y component of a unit axis
+	 *
+	 * @return How far this OrientedBox reaches from its centre along that axis
+	 */
+	private double extentAlong(double axisX, double axisY)
+	{
+		return ((this.getWidth() / 2d) * Math.abs((this.cos * axisX) + (this.sin * axisY)))
+				+ ((this.getHeight() / 2d) * Math.abs((this.cos * axisY) - (this.sin * axisX)));
+	}
+
+	/**
+	 * Records the collision found by a separating axis test, with its contact points found by clipping the faces of the
+	 * two shapes against each other. Once the test has found an overlap, a contact is always made.
+	 *
+	 * @param sat
+	 * 		The shortest translation found
+	 * @param xs
+	 * 		The x coordinates of the vertices of the other shape, in clockwise order
+	 * @param ys
+	 * 		The y coordinates of the same vertices
+	 * @param out
+	 * 		A reset ContactManifold, filled with the contact from the point of view of this OrientedBox
+	 *
+	 * @return Whether the two are colliding, rather than only touching
+	 */
+	private boolean finishContact(Polygon.SeparatingAxes sat, double[] xs, double[] ys, ContactManifold out)
+	{
+		if(sat.mag2 <= 0) return false;
+		this.updateCorners();
+
+		out.collide(sat.x, sat.y);
+		Polygon.clipContacts(this.cornerX, this.cornerY, 4, xs, ys, xs.length, sat.x, sat.y, this.faces, out);
+		return true;
+	}
+
+	/**
+	 * Projects both this OrientedBox and another box onto the given axis, and records the translation along that axis.
+	 *
+	 * @param sat
+	 * 		The shortest translation found so far
+	 * @param axisX
+	 * 		The x component of a unit axis
+	 * @param axisY
+	 * 		The y component of a unit axis
+	 * @param otherX
+	 * 		The x coordinate of the centre of the other box
+	 * @param otherY
+	 * 		The y coordinate of the centre of the other box
+	 * @param otherCos
+	 * 		The cosine of the angle of the other box
+	 * @param otherSin
+	 * 		The sine of the angle of the other box
+	 * @param otherHalfWidth
+	 * 		Half of the width of the other box
+	 * @param otherHalfHeight
+	 * 		Half of the height of the other box
+	 *
+	 * @return Whether the two overlap along this axis
+	 */
+	private boolean testBoxAxis(Polygon.SeparatingAxes sat, double axisX, double axisY, double otherX, double otherY,
+								double otherCos, double otherSin, double otherHalfWidth, double otherHalfHeight)
+	{
+		double theirCenter = (otherX * axisX) + (otherY * axisY);
+		double theirExtent = (otherHalfWidth * Math.abs((otherCos * axisX) + (otherSin * axisY)))
+				+ (otherHalfHeight * Math.abs((otherCos * axisY) - (otherSin * axisX)));
+
+		double center = (this.centerX * axisX) + (this.centerY * axisY);
+		double extent = this.extentAlong(axisX, axisY);
+		sat.min = center - extent;
+		sat.max = center + extent;
+		return sat.test(axisX, axisY, theirCenter - theirExtent, theirCenter + theirExtent);
+	}
+
+	/**
+	 * Projects both this OrientedBox and a Polygon onto the given axis, and records the translation along that axis.
+	 *
+	 * @param sat
+	 * 		The shortest translation found so far
+	 * @param axisX
+	 * 		The x component of a unit axis
+	 * @param axisY
+	 * 		The y component of a unit axis
+	 * @param xs
+	 * 		The x coordinates of the vertices of the Polygon
+	 * @param ys
+	 * 		The y coordinates of the same vertices
+	 *
+	 * @return Whether the two overlap along this axis
+	 */
+	private boolean testPolygonAxis(Polygon.SeparatingAxes sat, double axisX, double axisY, double[] xs, double[] ys)
+	{
+		sat.project(xs, ys, axisX, axisY);
+		double theirMin = sat.min;
+		double theirMax = sat.max;
+
+		double center = (this.centerX * axisX) + (this.centerY * axisY);
+		double extent = this.extentAlong(axisX, axisY);
+		sat.min = center - extent;
+		sat.max = center + extent;
+		return sat.test(axisX, axisY, theirMin, theirMax);
+	}
+
+	/**
+	 * Recomputes the world corners of this OrientedBox, if it has moved, resized or rotated since they were last
+	 * computed.
+	 */
+	private void updateCorners()
+	{
+		if(!this.cornersDirty) return;
+
+		double halfWidth = this.getWidth() / 2d;
+		double halfHeight = this.getHeight() / 2d;
+		for(int i = 0; i < 4; i++)
+		{
+			double x = ((i == 0) || (i == 3)) ? -halfWidth : halfWidth;
+			double y = (i < 2) ? -halfHeight : halfHeight;
+			this.cornerX[i] = this.centerX + ((x * this.cos) - (y * this.sin));
+			this.cornerY[i] = this.centerY + ((x * this.sin) + (y * this.cos));
+		}
+		this.cornersDirty = false;
+	}
+
+	/**
+	 * @param x
+	 * 		The x coordinate of the centre of a circle
+	 * @param y
+	 * 		The y coordinate of the centre of a circle
+	 * @param reach
+	 * 		The radius of that circle
+	 *
+	 * @return Whether that circle overlaps the circle around this OrientedBox; if not, it cannot overlap this box
+	 */
+	private boolean withinReach(double x, double y, double reach)
+	{
+		double dx = x - this.centerX;
+		double dy = y - this.centerY;
+		double total = this.boundingRadius() + reach;
+		return ((dx * dx) + (dy * dy)) < (total * total);
+	}
+
+	/**
+	 * @param colliding
+	 * 		Whether a test found a collision
+	 * @param manifold
+	 * 		The ContactManifold filled by that test
+	 *
+	 * @return The Collision in the ContactManifold, if there was one
+	 */
+	private static Optional<Collision> collisionFrom(boolean colliding, ContactManifold manifold)
+	{
+		if(!colliding) return Optional.absent();
+		return Optional.of(manifold.toCollision());
+	}
+}
@@ -3,11 +3,12 @@ package nschank.engn.shape.collide;
 import com.google.common.base.Optional;
 import nschank.collect.dim.Dimensional;
 import nschank.collect.dim.Dimensionals;
+import nschank.collect.dim.Point;
 import nschank.collect.dim.Vector;
 import nschank.engn.shape.AbstractDrawable;
+import nschank.engn.shape.GameSpaceDrawable;
 import nschank.util.Interval;
 import nschank.util.Intervals;
-import nschank.util.NLists;
 
 import java.awt.Color;
 import java.awt.Graphics2D;
@@ -18,29 +19,60 @@ import java.util.Collections;
 import java.util.List;
 
 
-//TODO: update with a Convex Hull
-//TODO: furthest point for quicker contain
-
 /**
  * Created by Nicolas Schank for package nschank.engn.shape.collide
  * Created on 7 Oct 2013
- * Last updated on 28 May 2014
+ * Last updated on 3 Jul 2014
  *
  * A Polygon is one of the four main types of Collidables, and likely the most flexible. Any convex Polygon (with a
  * finite number of points) can be expressed by this class by supplying it with all of the vertices as a series of
  * Dimensionals given in clockwise order. A non-convex polygon will be accepted, but will have undefined behaviour;
- * the method isConcave() is provided for further error checking.
+ * the method isConcave() is provided for further error checking, and Polygons can build a convex hull or split a
+ * concave outline into convex parts.
+ *
+ * The vertices and edge normals of a Polygon are stored once, relative to its centre of mass and unrotated. Moving or
+ * rotating a Polygon only marks its world-space geometry as out of date; the world vertices, axes, and x and y
+ * Intervals are recomputed the next time they are needed, so that any number of tests against an unmoved Polygon
+ * share the same work.
+ *
+ * Each Polygon also keeps the distance from its centre of mass to its furthest vertex, and its world bounds as plain
+ * numbers. Points, Rays and other shapes which lie outside that bounding circle, or outside those bounds, are rejected
+ * before any edge is examined.
  *
  * @author nschank, Brown University
- * @version 3.4
+ * @version 5.2
  */
-public class Polygon extends AbstractDrawable implements Collidable
+public class Polygon extends AbstractDrawable implements Collidable, GameSpaceDrawable
 {
 	private double angle = 0.0f;
+	private double cos = 1.0;
+	private double sin = 0.0;
+	private double centerX;
+	private double centerY;
 	private double momentOfInertia;
-	protected List<Dimensional> points;
+	private double area;
+	private double boundingRadius;
+
+	private double[] localX;
+	private double[] localY;
+	private double[] localNormalX;
+	private double[] localNormalY;
+
+	private final double[] worldX;
+	private final double[] worldY;
+	private double[] axisX;
+	private double[] axisY;
+	private boolean verticesDirty = true;
+	private boolean axesDirty = true;
+	private double minX;
+	private double maxX;
+	private double minY;
+	private double maxY;
+	private List<Dimensional> points;
 	private Interval xInterval;
 	private Interval yInterval;
+	private final SeparatingAxes separatingAxes = new SeparatingAxes();
+	private final double[] faces = new double[8];
 
 	/**
 	 * Creates a Polygon centered at the given centre of mass, with the given width and height, and using the given
@@ -75,6 +107,8 @@ public class Polygon extends AbstractDrawable implements Collidable
 		points.add(relativeStart);
 		points.add(relativeSecond);
 		Collections.addAll(points, relativeOthers);
+		this.worldX = new double[points.size()];
+		this.worldY = new double[points.size()];
 		this.initPolygon(points);
 
 		this.setCenterPosition(location);
@@ -96,7 +130,7 @@ public class Polygon extends AbstractDrawable implements Collidable
 	 */
 	public Polygon(final Color c, final Dimensional first, final Dimensional second, final Dimensional... others)
 	{
-		super(nschank.collect.dim.Point.ZERO_2D, 0, 0, c);
+		super(Point.ZERO_2D, 0, 0, c);
 
 		List<Dimensional> points = new ArrayList<>();
 		points.add(first);
@@ -110,6 +144,8 @@ public class Polygon extends AbstractDrawable implements Collidable
 		super.setWidth(actualWidth.width());
 		super.setHeight(actualHeight.width());
 
+		this.worldX = new double[points.size()];
+		this.worldY = new double[points.size()];
 		this.initPolygon(points);
 	}
 
@@ -118,17 +154,13 @@ public class Polygon extends AbstractDrawable implements Collidable
 	 */
 	protected List<Dimensional> axes()
 	{
+		this.updateAxes();
 		List<Dimensional> myAxes = new ArrayList<>();
-		for(int i = -1; i < (this.points.size() - 1); i++)
+		for(int i = 0; i < this.axisX.length; i++)
 		{
-			Dimensional startPoint = this.points.get((this.points.size() + i) % this.points.size());
-			Dimensional secondaryPoint = this.points.get((this.points.size() + i + 1) % this.points.size());
-			Vector line = new Vector(startPoint).minus(secondaryPoint);
-			line = new Vector(line.getCoordinate(1), -line.getCoordinate(0)).normalized();
-			if(line.getCoordinate(1) < 0) line = line.smult(-1);
-			myAxes.add(line);
+			if(this.axisY[i] < 0) myAxes.add(new Vector(-this.axisX[i], -this.axisY[i]));
+			else myAxes.add(new Vector(this.axisX[i], this.axisY[i]));
 		}
-
 		return myAxes;
 	}
 
@@ -165,23 +197,9 @@ public class Polygon extends AbstractDrawable implements Collidable
 	@Override
 	public Optional<Collision> collisionWithCircle(Circle other)
 	{
-		Dimensional closest = Dimensionals.closestTo(other.getCenterPosition(), this.points);
-		Vector line = new Vector(other.getCenterPosition()).minus(closest).normalized();
-		line.smult(Math.signum(line.getCoordinate(0)));
-
-		List<Dimensional> axes = NLists.combineLists(this.axes(), NLists.of((Dimensional) line));
-		Vector mtv = this.shortestMTV(other, axes);
-		if(mtv.isZero()) return Optional.absent();
-
-		Dimensional circlePoint = mtv.normalized().smult(-other.getRadius()).plus(this.getCenterPosition());
-		List<Dimensional> intersectPoints = NLists.combineLists(Collidables.contained(this, NLists.of(circlePoint)),
-				Collidables.contained(other, this.points));
-		Dimensional collisionPoint = Dimensionals.average(intersectPoints);
-		if(collisionPoint == null) return Optional.absent();
-
-		Collision coll = new DefaultCollision(collisionPoint, mtv);
-
-		return Optional.of(coll);
+		ContactManifold manifold = new ContactManifold();
+		if(!this.collide(other, manifold)) return Optional.absent();
+		return Optional.of(manifold.toCollision());
 	}
 
 	/**
@@ -193,22 +211,135 @@ public class Polygon extends AbstractDrawable implements Collidable
 	@Override
 	public Optional<Collision> collisionWithPolygon(Polygon other)
 	{
-		Dimensional closest = Dimensionals.closestTo(other.getCenterPosition(), this.points);
-		Vector line = new Vector(other.getCenterPosition()).minus(closest).normalized();
-		line.smult(Math.signum(line.getCoordinate(0)));
+		ContactManifold manifold = new ContactManifold();
+		if(!this.collide(other, manifold)) return Optional.absent();
+		return Optional.of(manifold.toCollision());
+	}
+
+	/**
+	 * Finds the contact between this Polygon and a Circle using the Separating Axis Theorem, trying the axis remembered
+	 * by {@code out} first.
+	 *
+	 * @param other
+	 * 		A Circle that may be colliding with this object
+	 * @param out
+	 * 		A reset ContactManifold, filled with the contact from the point of view of this Polygon
+	 *
+	 * @return Whether the two are colliding
+	 */
+	boolean collide(Circle other, ContactManifold out)
+	{
+		double ox = other.centerX();
+		double oy = other.centerY();
+		double radius = other.getRadius();
+		if(!this.withinBoundingCircle(ox, oy, radius)) return false;
 
-		List<Dimensional> axes = NLists.combineLists(this.axes(), NLists.of((Dimensional) line));
-		Vector mtv = this.shortestMTV(other, axes);
-		if(mtv.isZero()) return Optional.absent();
+		this.updateVertices();
+		if(ox + radius <= this.minX || this.maxX <= ox - radius || oy + radius <= this.minY || this.maxY <= oy - radius)
+			return false;
+		this.updateAxes();
 
-		List<Dimensional> intersectPoints = NLists
-				.combineLists(Collidables.contained(this, other.points), Collidables.contained(other, this.points));
-		Dimensional collisionPoint = Dimensionals.average(intersectPoints);
-		if(collisionPoint == null) return Optional.absent();
+		SeparatingAxes sat = this.separatingAxes;
+		sat.reset();
+		if(out.hasAxis() && !this.testCircleAxis(sat, out.axisX(), out.axisY(), ox, oy, radius)) return false;
+		for(int i = 0; i < this.axisX.length; i++)
+			if(!this.testCircleAxis(sat, this.axisX[i], this.axisY[i], ox, oy, radius))
+			{
+				out.separatedAlong(this.axisX[i], this.axisY[i]);
+				return false;
+			}
 
-		Collision coll = new DefaultCollision(collisionPoint, mtv);
+		int closest = this.closestVertexTo(ox, oy);
+		double lineX = ox - this.worldX[closest];
+		double lineY = oy - this.worldY[closest];
+		double lineLength = Math.sqrt((lineX * lineX) + (lineY * lineY));
+		if(lineLength > 0 && !this.testCircleAxis(sat, lineX / lineLength, lineY / lineLength, ox, oy, radius))
+		{
+			out.separatedAlong(lineX / lineLength, lineY / lineLength);
+			return false;
+		}
+		if(sat.mag2 <= 0) return false;
 
-		return Optional.of(coll);
+		double mtvLength = Math.sqrt(sat.mag2);
+		double circlePointX = ox + ((sat.x / mtvLength) * radius);
+		double circlePointY = oy + ((sat.y / mtvLength) * radius);
+
+		double sumX = 0;
+		double sumY = 0;
+		int count = 0;
+		if(this.contains(circlePointX, circlePointY))
+		{
+			sumX += circlePointX;
+			sumY += circlePointY;
+			count++;
+		}
+		double r2 = radius * radius;
+		for(int i = 0; i < this.worldX.length; i++)
+		{
+			double dx = this.worldX[i] - ox;
+			double dy = this.worldY[i] - oy;
+			if(((dx * dx) + (dy * dy)) < r2)
+			{
+				sumX += this.worldX[i];
+				sumY += this.worldY[i];
+				count++;
+			}
+		}
+		out.collide(sat.x, sat.y);
+		if(count == 0)
+		{
+			//The deepest point of the circle may lie past a corner, with no corner inside the circle; the overlap is
+			//still real, so the contact is that point brought back onto this Polygon
+			double[] onPolygon = new double[2];
+			this.closestPointTo(circlePointX, circlePointY, onPolygon);
+			out.addPoint(onPolygon[0], onPolygon[1]);
+		} else out.addPoint(sumX / count, sumY / count);
+		return true;
+	}
+
+	/**
+	 * Finds the contact between this Polygon and another using the Separating Axis Theorem, trying the axis remembered
+	 * by {@code out} first. The contact points are found by clipping the faces of the two against each other.
+	 *
+	 * @param other
+	 * 		A Polygon that may be colliding with this object
+	 * @param out
+	 * 		A reset ContactManifold, filled with the contact from the point of view of this Polygon
+	 *
+	 * @return Whether the two are colliding
+	 */
+	boolean collide(Polygon other, ContactManifold out)
+	{
+		if(!this.withinBoundingCircle(other.centerX, other.centerY, other.boundingRadius)) return false;
+
+		this.updateVertices();
+		other.updateVertices();
+		if(other.maxX <= this.minX || this.maxX <= other.minX || other.maxY <= this.minY || this.maxY <= other.minY)
+			return false;
+		this.updateAxes();
+		other.updateAxes();
+
+		SeparatingAxes sat = this.separatingAxes;
+		sat.reset();
+		if(out.hasAxis() && !this.testPolygonAxis(sat, out.axisX(), out.axisY(), other)) return false;
+		for(int i = 0; i < this.axisX.length; i++)
+			if(!this.testPolygonAxis(sat, this.axisX[i], this.axisY[i], other))
+			{
+				out.separatedAlong(this.axisX[i], this.axisY[i]);
+				return false;
+			}
+		for(int i = 0; i < other.axisX.length; i++)
+			if(!this.testPolygonAxis(sat, other.axisX[i], other.axisY[i], other))
+			{
+				out.separatedAlong(other.axisX[i], other.axisY[i]);
+				return false;
+			}
+		if(sat.mag2 <= 0) return false;
+
+		out.collide(sat.x, sat.y);
+		Polygon.clipContacts(this.worldX, this.worldY, this.worldX.length, other.worldX, other.worldY,
+				other.worldX.length, sat.x, sat.y, this.faces, out);
+		return true;
 	}
 
 	/**
@@ -220,19 +351,24 @@ public class Polygon extends AbstractDrawable implements Collidable
 	@Override
 	public boolean contains(Dimensional other)
 	{
-		Vector vother = new Vector(other);
-		for(int i = -1; i < (this.points.size() - 1); i++)
-		{
-			Dimensional startPoint = this.points.get((this.points.size() + i) % this.points.size());
-			if(startPoint.equals(other)) return true;
-
-			Dimensional secondaryPoint = this.points.get((this.points.size() + i + 1) % this.points.size());
-			Vector edge = new Vector(secondaryPoint).minus(startPoint);
-			Vector toOther = vother.minus(startPoint);//.sdiv(edge.mag());
-			//edge = edge.normalized();
-			if(edge.crossProduct(toOther).getCoordinate(2) < 0) return false;
-		}
-		return true;
+		return this.contains(other.getCoordinate(0), other.getCoordinate(1));
+	}
+
+	/**
+	 * @param x
+	 * 		The x coordinate of a point in the same plane as this shape
+	 * @param y
+	 * 		The y coordinate of that point
+	 *
+	 * @return Whether the point is inside this shape
+	 */
+	boolean contains(double x, double y)
+	{
+		if(!this.withinBoundingCircle(x, y, 0)) return false;
+
+		this.updateVertices();
+		if(x < this.minX || this.maxX < x || y < this.minY || this.maxY < y) return false;
+		return Polygon.contains(this.worldX, this.worldY, this.worldX.length, x, y);
 	}
 
 	/**
@@ -241,11 +377,12 @@ public class Polygon extends AbstractDrawable implements Collidable
 	@Override
 	public Collidable copy()
 	{
+		List<Dimensional> points = this.points();
 		Collection<Dimensional> rest = new ArrayList<>();
-		for(int i = 2; i < this.points.size(); i++)
-			rest.add(new nschank.collect.dim.Point(this.points.get(i)));
-		return new Polygon(this.getColor(), new nschank.collect.dim.Point(this.points.get(0)),
-				new nschank.collect.dim.Point(this.points.get(1)), rest.toArray(new Dimensional[rest.size()]));
+		for(int i = 2; i < points.size(); i++)
+			rest.add(new Point(points.get(i)));
+		return new Polygon(this.getColor(), new Point(points.get(0)), new Point(points.get(1)),
+				rest.toArray(new Dimensional[rest.size()]));
 	}
 
 	/**
@@ -257,23 +394,56 @@ public class Polygon extends AbstractDrawable implements Collidable
 	@Override
 	public Optional<Double> distanceAlong(Ray r)
 	{
+		double distance = this.distanceAlong(r.getStartLocation().getCoordinate(0), r.getStartLocation().getCoordinate(1),
+				r.getDirection().getCoordinate(0), r.getDirection().getCoordinate(1));
+		if(distance < 0) return Optional.absent();
+		else return Optional.of(distance);
+	}
+
+	/**
+	 * @param originX
+	 * 		The x coordinate of the start of a ray
+	 * @param originY
+	 * 		The y coordinate of the start of a ray
+	 * @param dirX
+	 * 		The x component of the unit direction of the ray
+	 * @param dirY
+	 * 		The y component of the unit direction of the ray
+	 *
+	 * @return How far along the ray this Polygon appears, or -1 if it does not
+	 */
+	double distanceAlong(double originX, double originY, double dirX, double dirY)
+	{
+		double toCenterX = this.centerX - originX;
+		double toCenterY = this.centerY - originY;
+		double along = (toCenterX * dirX) + (toCenterY * dirY);
+		double across = (toCenterX * dirY) - (toCenterY * dirX);
+		double r2 = this.boundingRadius * this.boundingRadius;
+		if((across * across) > r2) return -1;
+		if(along < 0 && ((toCenterX * toCenterX) + (toCenterY * toCenterY)) > r2) return -1;
+
+		this.updateVertices();
 		double shortestCollision = -1;
-		for(int i = -1; i < (this.points.size() - 1); i++)
+		int size = this.worldX.length;
+		for(int i = 0; i < size; i++)
 		{
-			Vector start = new Vector(this.points.get((this.points.size() + i) % this.points.size()));
-			Vector end = new Vector(this.points.get((this.points.size() + i + 1) % this.points.size()));
-
-			Vector perp = new Vector(start.minus(end).getCoordinate(1), end.minus(start).getCoordinate(0));
-			if((((start.minus(r.getStartLocation())).crossProduct(r.getDirection()).getCoordinate(2) * (end
-					.minus(r.getStartLocation()).crossProduct(r.getDirection()).getCoordinate(2))) > 0) || (
-					r.getDirection().dotProduct(perp) == 0)) continue;
-			double collision = end.minus(r.getStartLocation()).dotProduct(perp) / r.getDirection().dotProduct(perp);
+			int start = (size + i - 1) % size;
+			double startX = this.worldX[start] - originX;
+			double startY = this.worldY[start] - originY;
+			double endX = this.worldX[i] - originX;
+			double endY = this.worldY[i] - originY;
+
+			double perpX = startY - endY;
+			double perpY = endX - startX;
+			double dirDotPerp = (dirX * perpX) + (dirY * perpY);
+			if(((((startX * dirY) - (startY * dirX)) * ((endX * dirY) - (endY * dirX))) > 0) || (dirDotPerp == 0))
+				continue;
+			double collision = ((endX * perpX) + (endY * perpY)) / dirDotPerp;
 			if((collision > 0) && ((shortestCollision < 0) || (shortestCollision > collision)))
 				shortestCollision = collision;
 		}
 
-		if(shortestCollision < 0) return Optional.absent();
-		else return Optional.of(shortestCollision);
+		return shortestCollision;
 	}
 
 	/**
@@ -283,21 +453,55 @@ public class Polygon extends AbstractDrawable implements Collidable
 	@Override
 	public void draw(Graphics2D g)
 	{
+		this.updateVertices();
 		g.setColor(this.getColor());
 		Path2D path = new Path2D.Double();
-		path.moveTo(this.points.get(this.points.size() - 1).getCoordinate(0),
-				this.points.get(this.points.size() - 1).getCoordinate(1));
-		for(Dimensional v : this.points)
-			path.lineTo(v.getCoordinate(0), v.getCoordinate(1));
+		path.moveTo(this.worldX[this.worldX.length - 1], this.worldY[this.worldY.length - 1]);
+		for(int i = 0; i < this.worldX.length; i++)
+			path.lineTo(this.worldX[i], this.worldY[i]);
 		g.fill(path);
 	}
 
+	/**
+	 * @return True; a Polygon is drawn through a path with fractional coordinates, so may be drawn in game units
+	 */
+	@Override
+	public boolean drawsInGameSpace()
+	{
+		return true;
+	}
+
+	/**
+	 * @param dirX
+	 * 		The x component of a direction
+	 * @param dirY
+	 * 		The y component of a direction
+	 *
+	 * @return The index of the vertex of this Polygon furthest along that direction
+	 */
+	int furthestVertex(double dirX, double dirY)
+	{
+		this.updateVertices();
+		int furthest = 0;
+		double furthestProjection = Double.NEGATIVE_INFINITY;
+		for(int i = 0; i < this.worldX.length; i++)
+		{
+			double projection = (this.worldX[i] * dirX) + (this.worldY[i] * dirY);
+			if(projection > furthestProjection)
+			{
+				furthest = i;
+				furthestProjection = projection;
+			}
+		}
+		return furthest;
+	}
+
 	/**
 	 * @return The points that make up the edges of this {@code Polygon}, in clockwise order
 	 */
 	public Iterable<Dimensional> getPoints()
 	{
-		return Collections.unmodifiableList(this.points);
+		return this.points();
 	}
 
 	/**
@@ -316,20 +520,13 @@ public class Polygon extends AbstractDrawable implements Collidable
 	@Override
 	public void setRotation(double theta)
 	{
-		Interval newX = Intervals.about(this.getCenterPosition().getCoordinate(0), 0.0f);
-		Interval newY = Intervals.about(this.getCenterPosition().getCoordinate(0), 0.0f);
-		Vector centre = new Vector(this.getCenterPosition());
-		for(int i = 0; i < this.points.size(); i++)
-		{
-			Vector rel = centre.minus(this.points.get(i)).smult(-1);
-			this.points.set(i, new Vector(this.getCenterPosition())
-					.plus(Vector.fromPolar(rel.mag(), rel.angle() + (theta - this.angle))));
-			newX = newX.and(this.points.get(i).getCoordinate(0));
-			newY = newY.and(this.points.get(i).getCoordinate(0));
-		}
+		if(theta == this.angle) return;
+
 		this.angle = theta;
-		this.xInterval = newX;
-		this.yInterval = newY;
+		this.cos = Math.cos(theta);
+		this.sin = Math.sin(theta);
+		this.verticesDirty = true;
+		this.axesDirty = true;
 	}
 
 	/**
@@ -343,54 +540,33 @@ public class Polygon extends AbstractDrawable implements Collidable
 		Interval actualWidth = Intervals.from(Dimensionals.getCoordinate(points, 0));
 		Interval actualHeight = Intervals.from(Dimensionals.getCoordinate(points, 1));
 
-		List<Vector> addToCenters = new ArrayList<>();
-		double adjustedWidth = ((this.getWidth()) / (actualWidth.getMax() - actualWidth.getMin()));
-		double adjustedHeight = ((this.getHeight()) / (actualHeight.getMax() - actualHeight.getMin()));
-		for(Dimensional v : points)
-			addToCenters.add(new Vector((new Vector(v).minus(offFromCenter).getCoordinate(0) * adjustedWidth),
-					(new Vector(v).minus(offFromCenter).getCoordinate(1) * adjustedHeight)));
-
-		double numeratorSum = 0.0;
-		double denominatorSum = 0.0;
-		for(int i = 0; i < addToCenters.size(); i++)
+		double adjustedWidth = (actualWidth.width() == 0) ? 1 : (this.getWidth() / actualWidth.width());
+		double adjustedHeight = (actualHeight.width() == 0) ? 1 : (this.getHeight() / actualHeight.width());
+		this.localX = new double[points.size()];
+		this.localY = new double[points.size()];
+		for(int i = 0; i < points.size(); i++)
 		{
-			Vector currentI = addToCenters.get(i);
-			Vector nextI = addToCenters.get((i + 1) % (addToCenters.size()));
-			double cross = nextI.crossProduct(currentI).getCoordinate(2);
-			double doubleNextDot = nextI.dotProduct(nextI);
-			double crossDot = nextI.dotProduct(currentI);
-			double doubleCurrentDot = currentI.dotProduct(currentI);
-
-			numeratorSum += cross * (doubleNextDot + crossDot + doubleCurrentDot);
-			denominatorSum += cross;
-
-			points.set(i, currentI.plus(this.getCenterPosition()));
+			this.localX[i] = (points.get(i).getCoordinate(0) - offFromCenter.getCoordinate(0)) * adjustedWidth;
+			this.localY[i] = (points.get(i).getCoordinate(1) - offFromCenter.getCoordinate(1)) * adjustedHeight;
 		}
 
-		this.points = points;
-		this.xInterval = Intervals.from(Dimensionals.getCoordinate(points, 0));
-		this.yInterval = Intervals.from(Dimensionals.getCoordinate(points, 1));
-		this.momentOfInertia = numeratorSum / (denominatorSum * 6.0f);
+		Dimensional center = this.getCenterPosition();
+		this.centerX = center.getCoordinate(0);
+		this.centerY = center.getCoordinate(1);
+		this.updateShape();
 	}
 
 	/**
-	 * Determines whether this Polygon is concave. If so, finds the particular point.
-	 *
-	 * Not run internally due to slow runtime.
+	 * Determines whether this Polygon is concave, in linear time. If so, finds the particular point.
 	 *
 	 * @return A point which makes this {@code Polygon} concave, if one exists
 	 */
 	public Optional<Dimensional> isConcave()
 	{
-		for(Dimensional point : this.getPoints())
-		{
-			List<Dimensional> allElse = new ArrayList<>(this.points);
-			allElse.remove(point);
-			if(new Polygon(Color.BLACK, allElse.get(0), allElse.get(1),
-					allElse.subList(2, allElse.size()).toArray(new Dimensional[allElse.size() - 2])).contains(point))
-				return Optional.of(point);
-		}
-		return Optional.absent();
+		List<Dimensional> points = this.points();
+		int concavity = Dimensionals.firstConcavity(points);
+		if(concavity < 0) return Optional.absent();
+		return Optional.of(points.get(concavity));
 	}
 
 	/**
@@ -402,42 +578,6 @@ public class Polygon extends AbstractDrawable implements Collidable
 		return this.momentOfInertia;
 	}
 
-	/**
-	 * Given an object with which this Polygon is colliding, and the axes over which the shortest collision may be
-	 * occurring (by Separating Axis Theorem), finds the shortest MTV among those axes. If there is no collision, returns
-	 * a zero vector.
-	 *
-	 * @param other
-	 * 		Another object which may be colliding with this one.
-	 * @param axes
-	 * 		All axes, by the Separating Axis Theorem, which are necessary to check for a collision
-	 *
-	 * @return The minimal Vector when, added to this Polygon, the Collision will no longer be present.
-	 */
-	private Vector shortestMTV(final Collidable other, final Iterable<Dimensional> axes)
-	{
-		Vector shortest = null;
-		double mag2 = -1;
-
-		for(Dimensional axis : axes)
-		{
-			Interval mine = this.projectionOnto(axis);
-			Interval theirs = other.projectionOnto(axis);
-
-			if(!mine.isIntersecting(theirs)) return Vector.ZERO_2D;
-
-			Vector norm = new Vector(axis).normalized();
-			Vector mtv = norm.smult(Math.signum(norm.getCoordinate(0)) * mine.getMinimumTranslation(theirs));
-
-			if(shortest == null || mtv.mag2() < mag2)
-			{
-				shortest = mtv;
-				mag2 = mtv.mag2();
-			}
-		}
-		return shortest;
-	}
-
 	/**
 	 * @param axis
 	 * 		An axis onto which to project this {@code Polygon}
@@ -447,7 +587,7 @@ public class Polygon extends AbstractDrawable implements Collidable
 	@Override
 	public Interval projectionOnto(Dimensional axis)
 	{
-		return Dimensionals.project(this.points, axis);
+		return Dimensionals.project(this.points(), axis);
 	}
 
 	/**
@@ -469,12 +609,14 @@ public class Polygon extends AbstractDrawable implements Collidable
 	@Override
 	public void setCenterPosition(Dimensional newPosition)
 	{
-		Vector newVector = new Vector(newPosition);
-		for(int i = 0; i < this.points.size(); i++)
-			this.points.set(i, newVector.plus(this.points.get(i)).minus(this.getCenterPosition()));
-
-		this.xInterval = this.xInterval.plus(newVector.minus(this.getCenterPosition()).getCoordinate(0));
-		this.yInterval = this.yInterval.plus(newVector.minus(this.getCenterPosition()).getCoordinate(1));
+		double x = newPosition.getCoordinate(0);
+		double y = newPosition.getCoordinate(1);
+		if(x != this.centerX || y != this.centerY)
+		{
+			this.centerX = x;
+			this.centerY = y;
+			this.verticesDirty = true;
+		}
 		super.setCenterPosition(newPosition);
 	}
 
@@ -487,14 +629,13 @@ public class Polygon extends AbstractDrawable implements Collidable
 	{
 		if(h == this.getHeight()) return;
 
-		Vector projectionAtHeight = Vector
-				.fromPolar(((h / this.getHeight()) - 1), this.getRotation() + ((float) Math.PI / 2f));
-		for(int i = 0; i < this.points.size(); i++)
-			this.points.set(i, new Vector(this.points.get(i)).smult(2).minus(this.getCenterPosition())
-															 .projectOntoLine(Vector.ZERO_2D, projectionAtHeight)
-															 .smult((h / this.getHeight()) - 1));
-		this.xInterval = Intervals.from(Dimensionals.getCoordinate(this.points, 0));
-		this.yInterval = Intervals.from(Dimensionals.getCoordinate(this.points, 1));
+		if(this.getHeight() != 0)
+		{
+			double scale = h / this.getHeight();
+			for(int i = 0; i < this.localY.length; i++)
+				this.localY[i] *= scale;
+			this.updateShape();
+		}
 		super.setHeight(h);
 	}
 
@@ -507,13 +648,13 @@ public class Polygon extends AbstractDrawable implements Collidable
 	{
 		if(w == this.getWidth()) return;
 
-		Vector projectionAtWidth = Vector.fromPolar(1, this.getRotation());
-		for(int i = 0; i < this.points.size(); i++)
-			this.points.set(i, new Vector(this.points.get(i)).smult(2).minus(this.getCenterPosition())
-															 .projectOntoLine(Vector.ZERO_2D, projectionAtWidth)
-															 .smult((w / this.getWidth()) - 1));
-		this.xInterval = Intervals.from(Dimensionals.getCoordinate(this.points, 0));
-		this.yInterval = Intervals.from(Dimensionals.getCoordinate(this.points, 1));
+		if(this.getWidth() != 0)
+		{
+			double scale = w / this.getWidth();
+			for(int i = 0; i < this.localX.length; i++)
+				this.localX[i] *= scale;
+			this.updateShape();
+		}
 		super.setWidth(w);
 	}
 
@@ -524,9 +665,9 @@ public class Polygon extends AbstractDrawable implements Collidable
 	public String toString()
 	{
 		return "Polygon{" +
-				"points=" + this.points +
-				", xInterval=" + this.xInterval +
-				", yInterval=" + this.yInterval + ", axes=" + this.axes() +
+				"points=" + this.points() +
+				", xInterval=" + this.xInterval() +
+				", yInterval=" + this.yInterval() + ", axes=" + this.axes() +
 				'}';
 	}
 
@@ -536,6 +677,7 @@ public class Polygon extends AbstractDrawable implements Collidable
 	@Override
 	public Interval xInterval()
 	{
+		this.updateVertices();
 		return this.xInterval;
 	}
 
@@ -545,6 +687,669 @@ public class Polygon extends AbstractDrawable implements Collidable
 	@Override
 	public Interval yInterval()
 	{
+		this.updateVertices();
 		return this.yInterval;
 	}
+
+	/**
+	 * @return The x components of the world axes of this Polygon, one per set of parallel edges; must not be modified
+	 */
+	double[] axesX()
+	{
+		this.updateAxes();
+		return this.axisX;
+	}
+
+	/**
+	 * @return The y components of the world axes of this Polygon, one per set of parallel edges; must not be modified
+	 */
+	double[] axesY()
+	{
+		this.updateAxes();
+		return this.axisY;
+	}
+
+	/**
+	 * @return The area enclosed by this Polygon
+	 */
+	double area()
+	{
+		return this.area;
+	}
+
+	/**
+	 * @return The distance from the centre of mass of this Polygon to its furthest vertex
+	 */
+	double boundingRadius()
+	{
+		return this.boundingRadius;
+	}
+
+	/**
+	 * @return The number of vertices of this Polygon
+	 */
+	int vertexCount()
+	{
+		return this.worldX.length;
+	}
+
+	/**
+	 * @return The x coordinates of the world vertices of this Polygon, in clockwise order; must not be modified
+	 */
+	double[] verticesX()
+	{
+		this.updateVertices();
+		return this.worldX;
+	}
+
+	/**
+	 * @return The y coordinates of the world vertices of this Polygon, in clockwise order; must not be modified
+	 */
+	double[] verticesY()
+	{
+		this.updateVertices();
+		return this.worldY;
+	}
+
+	/**
+	 * @param i
+	 * 		The index of a vertex, in clockwise order
+	 *
+	 * @return The x coordinate of that vertex
+	 */
+	double vertexX(int i)
+	{
+		this.updateVertices();
+		return this.worldX[i];
+	}
+
+	/**
+	 * @param i
+	 * 		The index of a vertex, in clockwise order
+	 *
+	 * @return The y coordinate of that vertex
+	 */
+	double vertexY(int i)
+	{
+		this.updateVertices();
+		return this.worldY[i];
+	}
+
+	/**
+	 * @return The x coordinate of the centre of mass of this Polygon
+	 */
+	double centerX()
+	{
+		return this.centerX;
+	}
+
+	/**
+	 * @return The y coordinate of the centre of mass of this Polygon
+	 */
+	double centerY()
+	{
+		return this.centerY;
+	}
+
+	/**
+	 * @param x
+	 * 		The x coordinate of a point
+	 * @param y
+	 * 		The y coordinate of a point
+	 *
+	 * @return The index of the world vertex closest to that point
+	 */
+	private int closestVertexTo(double x, double y)
+	{
+		int closest = 0;
+		double closestDistance = Double.POSITIVE_INFINITY;
+		for(int i = 0; i < this.worldX.length; i++)
+		{
+			double dx = this.worldX[i] - x;
+			double dy = this.worldY[i] - y;
+			double distance = (dx * dx) + (dy * dy);
+			if(distance < closestDistance)
+			{
+				closest = i;
+				closestDistance = distance;
+			}
+		}
+		return closest;
+	}
+
+	/**
+	 * @param x
+	 * 		The x coordinate of a point
+	 * @param y
+	 * 		The y coordinate of a point
+	 * @param into
+	 * 		An array of length at least 2, given the coordinates of the point on the boundary of this Polygon closest to
+	 * 		that point
+	 */
+	private void closestPointTo(double x, double y, double[] into)
+	{
+		double closestDistance = Double.POSITIVE_INFINITY;
+		for(int i = 0; i < this.worldX.length; i++)
+		{
+			int next = (i + 1) % this.worldX.length;
+			double edgeX = this.worldX[next] - this.worldX[i];
+			double edgeY = this.worldY[next] - this.worldY[i];
+			double length2 = (edgeX * edgeX) + (edgeY * edgeY);
+			double t = (length2 > 0) ? (((x - this.worldX[i]) * edgeX) + ((y - this.worldY[i]) * edgeY)) / length2 : 0;
+			t = Math.max(0, Math.min(1, t));
+			double pointX = this.worldX[i] + (t * edgeX);
+			double pointY = this.worldY[i] + (t * edgeY);
+			double distance = ((pointX - x) * (pointX - x)) + ((pointY - y) * (pointY - y));
+			if(distance < closestDistance)
+			{
+				into[0] = pointX;
+				into[1] = pointY;
+				closestDistance = distance;
+			}
+		}
+	}
+
+	/**
+	 * @return The world vertices of this Polygon, in clockwise order, as an unmodifiable List
+	 */
+	private List<Dimensional> points()
+	{
+		this.updateVertices();
+		if(this.points == null)
+		{
+			List<Dimensional> points = new ArrayList<>(this.worldX.length);
+			for(int i = 0; i < this.worldX.length; i++)
+				points.add(new Point(this.worldX[i], this.worldY[i]));
+			this.points = Collections.unmodifiableList(points);
+		}
+		return this.points;
+	}
+
+	/**
+	 * Projects this Polygon onto the given axis alongside a Circle, and records the translation along that axis.
+	 *
+	 * @param sat
+	 * 		The shortest translation found so far
+	 * @param axisX
+	 * 		The x component of a unit axis
+	 * @param axisY
+	 * 		The y component of a unit axis
+	 * @param circleX
+	 * 		The x coordinate of the Circle's centre
+	 * @param circleY
+	 * 		The y coordinate of the Circle's centre
+	 * @param radius
+	 * 		The radius of the Circle
+	 *
+	 * @return Whether the two overlap along this axis
+	 */
+	private boolean testCircleAxis(SeparatingAxes sat, double axisX, double axisY, double circleX, double circleY,
+								   double radius)
+	{
+		double center = (circleX * axisX) + (circleY * axisY);
+		sat.project(this.worldX, this.worldY, axisX, axisY);
+		return sat.test(axisX, axisY, center - radius, center + radius);
+	}
+
+	/**
+	 * Projects both this Polygon and another onto the given axis, and records the translation along that axis.
+	 *
+	 * @param sat
+	 * 		The shortest translation found so far
+	 * @param axisX
+	 * 		The x component of a unit axis
+	 * @param axisY
+	 * 		The y component of a unit axis
+	 * @param other
+	 * 		Another Polygon, whose world vertices are up to date
+	 *
+	 * @return Whether the two overlap along this axis
+	 */
+	private boolean testPolygonAxis(SeparatingAxes sat, double axisX, double axisY, Polygon other)
+	{
+		sat.project(other.worldX, other.worldY, axisX, axisY);
+		double theirMin = sat.min;
+		double theirMax = sat.max;
+		sat.project(this.worldX, this.worldY, axisX, axisY);
+		return sat.test(axisX, axisY, theirMin, theirMax);
+	}
+
+	/**
+	 * Rotates the local edge normals into world space, if this Polygon has been rotated since they were last computed.
+	 */
+	private void updateAxes()
+	{
+		if(!this.axesDirty) return;
+
+		for(int i = 0; i < this.localNormalX.length; i++)
+		{
+			this.axisX[i] = (this.localNormalX[i] * this.cos) - (this.localNormalY[i] * this.sin);
+			this.axisY[i] = (this.localNormalX[i] * this.sin) + (this.localNormalY[i] * this.cos);
+		}
+		this.axesDirty = false;
+	}
+
+	/**
+	 * Recomputes the local edge normals, moment of inertia, area and bounding radius after the local vertices have
+	 * changed. Parallel edges share a single normal, so that a box has two axes rather than four.
+	 */
+	private void updateShape()
+	{
+		int size = this.localX.length;
+		double[] normalX = new double[size];
+		double[] normalY = new double[size];
+		int normals = 0;
+
+		double numeratorSum = 0.0;
+		double denominatorSum = 0.0;
+		double radius2 = 0.0;
+		for(int i = 0; i < size; i++)
+		{
+			int next = (i + 1) % size;
+			radius2 = Math.max(radius2, (this.localX[i] * this.localX[i]) + (this.localY[i] * this.localY[i]));
+			double edgeX = this.localX[next] - this.localX[i];
+			double edgeY = this.localY[next] - this.localY[i];
+			double length = Math.sqrt((edgeX * edgeX) + (edgeY * edgeY));
+			if(length > 0)
+			{
+				double nx = edgeY / length;
+				double ny = -edgeX / length;
+				boolean parallel = false;
+				for(int j = 0; j < normals && !parallel; j++)
+					parallel = Math.abs((normalX[j] * ny) - (normalY[j] * nx)) < 1e-9;
+				if(!parallel)
+				{
+					normalX[normals] = nx;
+					normalY[normals] = ny;
+					normals++;
+				}
+			}
+
+			double cross = (this.localX[next] * this.localY[i]) - (this.localY[next] * this.localX[i]);
+			double doubleNextDot = (this.localX[next] * this.localX[next]) + (this.localY[next] * this.localY[next]);
+			double crossDot = (this.localX[next] * this.localX[i]) + (this.localY[next] * this.localY[i]);
+			double doubleCurrentDot = (this.localX[i] * this.localX[i]) + (this.localY[i] * this.localY[i]);
+
+			numeratorSum += cross * (doubleNextDot + crossDot + doubleCurrentDot);
+			denominatorSum += cross;
+		}
+
+		this.localNormalX = new double[normals];
+		this.localNormalY = new double[normals];
+		System.arraycopy(normalX, 0, this.localNormalX, 0, normals);
+		System.arraycopy(normalY, 0, this.localNormalY, 0, normals);
+		this.axisX = new double[normals];
+		this.axisY = new double[normals];
+		this.momentOfInertia = numeratorSum / (denominatorSum * 6.0f);
+		this.area = Math.abs(denominatorSum) / 2d;
+		this.boundingRadius = Math.sqrt(radius2);
+		this.verticesDirty = true;
+		this.axesDirty = true;
+	}
+
+	/**
+	 * Transforms the local vertices into world space, and recomputes the world bounds and x and y Intervals, if this Polygon has moved
+	 * or rotated since they were last computed.
+	 */
+	private void updateVertices()
+	{
+		if(!this.verticesDirty) return;
+
+		double minX = Double.POSITIVE_INFINITY;
+		double maxX = Double.NEGATIVE_INFINITY;
+		double minY = Double.POSITIVE_INFINITY;
+		double maxY = Double.NEGATIVE_INFINITY;
+		for(int i = 0; i < this.localX.length; i++)
+		{
+			double x = this.centerX + ((this.localX[i] * this.cos) - (this.localY[i] * this.sin));
+			double y = this.centerY + ((this.localX[i] * this.sin) + (this.localY[i] * this.cos));
+			this.worldX[i] = x;
+			this.worldY[i] = y;
+			minX = Math.min(minX, x);
+			maxX = Math.max(maxX, x);
+			minY = Math.min(minY, y);
+			maxY = Math.max(maxY, y);
+		}
+
+		this.minX = minX;
+		this.maxX = maxX;
+		this.minY = minY;
+		this.maxY = maxY;
+		this.xInterval = Intervals.about((minX + maxX) / 2d, maxX - minX);
+		this.yInterval = Intervals.about((minY + maxY) / 2d, maxY - minY);
+		this.points = null;
+		this.verticesDirty = false;
+	}
+
+	/**
+	 * @param x
+	 * 		The x coordinate of the centre of a circle
+	 * @param y
+	 * 		The y coordinate of the centre of a circle
+	 * @param radius
+	 * 		The radius of that circle, which may be 0 for a point
+	 *
+	 * @return Whether that circle overlaps the bounding circle of this Polygon; if not, it cannot overlap this Polygon
+	 */
+	private boolean withinBoundingCircle(double x, double y, double radius)
+	{
+		double dx = x - this.centerX;
+		double dy = y - this.centerY;
+		double reach = this.boundingRadius + radius;
+		return ((dx * dx) + (dy * dy)) <= (reach * reach);
+	}
+
+	/**
+	 * Adds to a ContactManifold the points at which two convex polygons, found to collide by the Separating Axis
+	 * Theorem, touch. Of the two faces most nearly perpendicular to the MTV, one on each polygon, the more perpendicular
+	 * is the reference face; the other is clipped to the sides of the reference face, and whatever of it lies beneath
+	 * the reference face is in contact. If clipping leaves nothing, which only happens when the faces barely overlap,
+	 * the vertex of the second polygon deepest within the first is used instead, so that a contact is always made.
+	 *
+	 * @param xsA
+	 * 		The x coordinates of the vertices of the first polygon, in clockwise order
+	 * @param ysA
+	 * 		The y coordinates of the same vertices
+	 * @param countA
+	 * 		The number of vertices of the first polygon
+	 * @param xsB
+	 * 		The x coordinates of the vertices of the second polygon, in clockwise order
+	 * @param ysB
+	 * 		The y coordinates of the same vertices
+	 * @param countB
+	 * 		The number of vertices of the second polygon
+	 * @param mtvX
+	 * 		The x component of the MTV of the first polygon, which must not be zero along with mtvY
+	 * @param mtvY
+	 * 		The y component of the MTV of the first polygon
+	 * @param faces
+	 * 		Space for the endpoints of the two faces, of length at least 8
+	 * @param out
+	 * 		A ContactManifold to which one or two contact points are added
+	 */
+	static void clipContacts(double[] xsA, double[] ysA, int countA, double[] xsB, double[] ysB, int countB,
+							 double mtvX, double mtvY, double[] faces, ContactManifold out)
+	{
+		double mtv = Math.sqrt((mtvX * mtvX) + (mtvY * mtvY));
+		double normalX = -mtvX / mtv;
+		double normalY = -mtvY / mtv;
+		double slantA = Polygon.bestFace(xsA, ysA, countA, normalX, normalY, faces, 0);
+		double slantB = Polygon.bestFace(xsB, ysB, countB, -normalX, -normalY, faces, 4);
+		int reference = (slantB < slantA) ? 4 : 0;
+		int incident = 4 - reference;
+		double referenceX = (reference == 0) ? normalX : -normalX;
+		double referenceY = (reference == 0) ? normalY : -normalY;
+
+		double edgeX = faces[reference + 2] - faces[reference];
+		double edgeY = faces[reference + 3] - faces[reference + 1];
+		double length = Math.sqrt((edgeX * edgeX) + (edgeY * edgeY));
+		int before = out.getPointCount();
+		if(length > 0)
+		{
+			edgeX /= length;
+			edgeY /= length;
+			double start = (faces[reference] * edgeX) + (faces[reference + 1] * edgeY);
+			double end = (faces[reference + 2] * edgeX) + (faces[reference + 3] * edgeY);
+			if(Polygon.clip(faces, incident, edgeX, edgeY, start) && Polygon.clip(faces, incident, -edgeX, -edgeY, -end))
+			{
+				double face = (faces[reference] * referenceX) + (faces[reference + 1] * referenceY);
+				for(int i = incident; i < incident + 4; i += 2)
+					if((face - ((faces[i] * referenceX) + (faces[i + 1] * referenceY))) >= 0)
+						out.addPoint(faces[i], faces[i + 1]);
+			}
+		}
+		if(out.getPointCount() == before)
+		{
+			int deepest = Polygon.furthest(xsB, ysB, countB, -normalX, -normalY);
+			out.addPoint(xsB[deepest], ysB[deepest]);
+		}
+	}
+
+	/**
+	 * @param xs
+	 * 		The x coordinates of the vertices of a convex polygon, in clockwise order
+	 * @param ys
+	 * 		The y coordinates of the same vertices
+	 * @param count
+	 * 		The number of vertices
+	 * @param x
+	 * 		The x coordinate of a point
+	 * @param y
+	 * 		The y coordinate of that point
+	 *
+	 * @return Whether the point is inside that polygon or on its edge
+	 */
+	static boolean contains(double[] xs, double[] ys, int count, double x, double y)
+	{
+		for(int i = 0; i < count; i++)
+		{
+			int start = (count + i - 1) % count;
+			double startX = xs[start];
+			double startY = ys[start];
+			if(startX == x && startY == y) return true;
+
+			double edgeX = xs[i] - startX;
+			double edgeY = ys[i] - startY;
+			if(((edgeX * (y - startY)) - (edgeY * (x - startX))) < 0) return false;
+		}
+		return true;
+	}
+
+	/**
+	 * Finds the face of a convex polygon which best faces the given direction: of the two edges meeting at the vertex
+	 * furthest along that direction, the one more nearly perpendicular to it.
+	 *
+	 * @param xs
+	 * 		The x coordinates of the vertices of a convex polygon, in clockwise order
+	 * @param ys
+	 * 		The y coordinates of the same vertices
+	 * @param count
+	 * 		The number of vertices
+	 * @param dirX
+	 * 		The x component of a unit direction
+	 * @param dirY
+	 * 		The y component of a unit direction
+	 * @param into
+	 * 		Filled with the endpoints of that face, as x1, y1, x2, y2
+	 * @param offset
+	 * 		The index in {@code into} at which the endpoints are written
+	 *
+	 * @return How far the face is from perpendicular to the direction, as the absolute cosine between them
+	 */
+	private static double bestFace(double[] xs, double[] ys, int count, double dirX, double dirY, double[] into,
+								   int offset)
+	{
+		int furthest = Polygon.furthest(xs, ys, count, dirX, dirY);
+		int next = (furthest + 1) % count;
+		int previous = (furthest + count - 1) % count;
+		double nextSlant = Polygon.slant(xs[next] - xs[furthest], ys[next] - ys[furthest], dirX, dirY);
+		double previousSlant = Polygon.slant(xs[previous] - xs[furthest], ys[previous] - ys[furthest], dirX, dirY);
+
+		int first = (previousSlant <= nextSlant) ? previous : furthest;
+		int second = (previousSlant <= nextSlant) ? furthest : next;
+		into[offset] = xs[first];
+		into[offset + 1] = ys[first];
+		into[offset + 2] = xs[second];
+		into[offset + 3] = ys[second];
+		return Math.min(previousSlant, nextSlant);
+	}
+
+	/**
+	 * Clips a segment, keeping only the part for which {@code (dirX,dirY)} dotted with a point is at least
+	 * {@code min}.
+	 *
+	 * @param segment
+	 * 		Holds the endpoints of the segment, as x1, y1, x2, y2; replaced by the clipped segment
+	 * @param offset
+	 * 		The index in {@code segment} at which the endpoints are held
+	 * @param dirX
+	 * 		The x component of the clipping direction
+	 * @param dirY
+	 * 		The y component of the clipping direction
+	 * @param min
+	 * 		The lowest projection along the clipping direction which is kept
+	 *
+	 * @return Whether any of the segment remains
+	 */
+	private static boolean clip(double[] segment, int offset, double dirX, double dirY, double min)
+	{
+		double d1 = ((segment[offset] * dirX) + (segment[offset + 1] * dirY)) - min;
+		double d2 = ((segment[offset + 2] * dirX) + (segment[offset + 3] * dirY)) - min;
+		if(d1 < 0 && d2 < 0) return false;
+		if(d1 >= 0 && d2 >= 0) return true;
+
+		double t = d1 / (d1 - d2);
+		double x = segment[offset] + ((segment[offset + 2] - segment[offset]) * t);
+		double y = segment[offset + 1] + ((segment[offset + 3] - segment[offset + 1]) * t);
+		int replaced = (d1 < 0) ? offset : offset + 2;
+		segment[replaced] = x;
+		segment[replaced + 1] = y;
+		return true;
+	}
+
+	/**
+	 * @param xs
+	 * 		The x coordinates of some points
+	 * @param ys
+	 * 		The y coordinates of the same points
+	 * @param count
+	 * 		The number of points
+	 * @param dirX
+	 * 		The x component of a direction
+	 * @param dirY
+	 * 		The y component of a direction
+	 *
+	 * @return The index of the point furthest along that direction
+	 */
+	private static int furthest(double[] xs, double[] ys, int count, double dirX, double dirY)
+	{
+		int furthest = 0;
+		double furthestProjection = Double.NEGATIVE_INFINITY;
+		for(int i = 0; i < count; i++)
+		{
+			double projection = (xs[i] * dirX) + (ys[i] * dirY);
+			if(projection > furthestProjection)
+			{
+				furthest = i;
+				furthestProjection = projection;
+			}
+		}
+		return furthest;
+	}
+
+	/**
+	 * @param edgeX
+	 * 		The x component of an edge
+	 * @param edgeY
+	 * 		The y component of an edge
+	 * @param dirX
+	 * 		The x component of a unit direction
+	 * @param dirY
+	 * 		The y component of a unit direction
+	 *
+	 * @return The absolute cosine between the edge and the direction; 0 if they are perpendicular
+	 */
+	private static double slant(double edgeX, double edgeY, double dirX, double dirY)
+	{
+		double length = Math.sqrt((edgeX * edgeX) + (edgeY * edgeY));
+		if(length == 0) return Double.POSITIVE_INFINITY;
+		return Math.abs((edgeX * dirX) + (edgeY * dirY)) / length;
+	}
+
+	/**
+	 * Accumulates the shortest translation found along a series of separating axes. Projections are measured as the
+	 * scalar distance along each unit axis. Each Polygon, Capsule and OrientedBox keeps one, reset at the start of each
+	 * test.
+	 */
+	static final class SeparatingAxes
+	{
+		double mag2;
+		double max;
+		double min;
+		double x;
+		double y;
+
+		/**
+		 * Forgets the shortest translation found, so that this can be reused for another test.
+		 */
+		void reset()
+		{
+			this.mag2 = -1;
+		}
+
+		/**
+		 * Projects the given points onto the given axis, storing the result in {@code min} and {@code max}.
+		 *
+		 * @param xs
+		 * 		The x coordinates of some points
+		 * @param ys
+		 * 		The y coordinates of the same points
+		 * @param axisX
+		 * 		The x component of a unit axis
+		 * @param axisY
+		 * 		The y component of a unit axis
+		 */
+		void project(double[] xs, double[] ys, double axisX, double axisY)
+		{
+			this.project(xs, ys, xs.length, axisX, axisY);
+		}
+
+		/**
+		 * Projects the first {@code count} of the given points onto the given axis, storing the result in {@code min} and
+		 * {@code max}.
+		 *
+		 * @param xs
+		 * 		The x coordinates of some points
+		 * @param ys
+		 * 		The y coordinates of the same points
+		 * @param count
+		 * 		How many of the points to project
+		 * @param axisX
+		 * 		The x component of a unit axis
+		 * @param axisY
+		 * 		The y component of a unit axis
+		 */
+		void project(double[] xs, double[] ys, int count, double axisX, double axisY)
+		{
+			this.min = Double.POSITIVE_INFINITY;
+			this.max = Double.NEGATIVE_INFINITY;
+			for(int i = 0; i < count; i++)
+			{
+				double projection = (xs[i] * axisX) + (ys[i] * axisY);
+				this.min = Math.min(this.min, projection);
+				this.max = Math.max(this.max, projection);
+			}
+		}
+
+		/**
+		 * Compares the most recent projection against another along the same axis, keeping the translation that would
+		 * separate them if it is the shortest yet.
+		 *
+		 * @param axisX
+		 * 		The x component of the unit axis
+		 * @param axisY
+		 * 		The y component of the unit axis
+		 * @param theirMin
+		 * 		The lowest point of the other projection
+		 * @param theirMax
+		 * 		The highest point of the other projection
+		 *
+		 * @return Whether the two projections overlap
+		 */
+		boolean test(double axisX, double axisY, double theirMin, double theirMax)
+		{
+			if(this.max <= theirMin || theirMax <= this.min) return false;
+
+			double shiftLeft = theirMin - this.max;
+			double shiftRight = theirMax - this.min;
+			double shift = (Math.abs(shiftLeft) < Math.abs(shiftRight)) ? shiftLeft : shiftRight;
+			if(this.mag2 < 0 || (shift * shift) < this.mag2)
+			{
+				this.x = axisX * shift;
+				this.y = axisY * shift;
+				this.mag2 = shift * shift;
+			}
+			return true;
+		}
+	}
 }
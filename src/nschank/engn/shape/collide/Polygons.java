@@ -0,0 +1,230 @@
+package nschank.engn.shape.collide;
+
+import nschank.collect.dim.Dimensional;
+import nschank.collect.dim.Dimensionals;
+
+import java.awt.Color;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+
+/**
+ * Created by Nicolas Schank for package nschank.engn.shape.collide
+ * Created on 15 Jun 2014
+ * Last updated on 15 Jun 2014
+ *
+ * A Utility class for building Polygons from arbitrary outlines. Polygons must be convex to collide correctly, so an
+ * outline which is not can either be replaced by its convex hull or split into convex parts.
+ *
+ * @author nschank, Brown University
+ * @version 1.0
+ */
+public final class Polygons
+{
+	/**
+	 *
+	 */
+	private Polygons()
+	{
+		//Utility class
+	}
+
+	/**
+	 * @param c
+	 * 		The Color of the new Polygon
+	 * @param points
+	 * 		Any collection of at least three two-dimensional points, not all in a line
+	 *
+	 * @return The smallest convex Polygon containing every point
+	 */
+	public static Polygon convexHull(Color c, Iterable<? extends Dimensional> points)
+	{
+		List<Dimensional> hull = Dimensionals.convexHull(points);
+		if(hull.size() < 3) throw new IllegalArgumentException("A convex hull needs three points not in a line.");
+		return Polygons.polygonOf(c, hull);
+	}
+
+	/**
+	 * Splits a simple outline (one which does not cross itself) into convex Polygons. The outline is cut into triangles
+	 * by ear clipping, and neighbouring pieces are then merged back together wherever the result is still convex, which
+	 * leaves only a few more pieces than the least possible. An outline which is already convex is returned as a single
+	 * Polygon.
+	 *
+	 * @param c
+	 * 		The Color of the new Collidable
+	 * @param outline
+	 * 		The corners of a simple polygon, in order; either direction is accepted
+	 *
+	 * @return A Polygon, if the outline is convex, or a CompoundCollidable of convex Polygons otherwise
+	 */
+	public static Collidable decompose(Color c, List<? extends Dimensional> outline)
+	{
+		if(outline.size() < 3) throw new IllegalArgumentException("An outline needs at least three points.");
+
+		List<Dimensional> points = new ArrayList<>(outline);
+		if(Dimensionals.area(points) < 0) Collections.reverse(points);
+		if(Dimensionals.firstConcavity(points) < 0) return Polygons.polygonOf(c, points);
+
+		List<List<Integer>> pieces = Polygons.merge(points, Polygons.triangulate(points));
+		List<Collidable> parts = new ArrayList<>(pieces.size());
+		for(List<Integer> piece : pieces)
+		{
+			List<Dimensional> corners = new ArrayList<>(piece.size());
+			for(Integer i : piece)
+				corners.add(points.get(i));
+			parts.add(Polygons.polygonOf(c, corners));
+		}
+		return new CompoundCollidable(c, parts);
+	}
+
+	/**
+	 * @param a
+	 * 		A corner of a triangle
+	 * @param b
+	 * 		The next corner of the triangle, clockwise
+	 * @param c
+	 * 		The last corner of the triangle, clockwise
+	 * @param p
+	 * 		Any point
+	 *
+	 * @return Whether {@code p} is inside the triangle or on its edge
+	 */
+	private static boolean inTriangle(Dimensional a, Dimensional b, Dimensional c, Dimensional p)
+	{
+		return Dimensionals.turn(a, b, p) >= 0 && Dimensionals.turn(b, c, p) >= 0 && Dimensionals.turn(c, a, p) >= 0;
+	}
+
+	/**
+	 * Repeatedly joins pairs of pieces which share an edge, wherever the joined piece is still convex.
+	 *
+	 * @param points
+	 * 		The corners of the outline, in clockwise order
+	 * @param pieces
+	 * 		Convex pieces of the outline, as indices into {@code points} in clockwise order
+	 *
+	 * @return The merged pieces
+	 */
+	private static List<List<Integer>> merge(List<Dimensional> points, List<List<Integer>> pieces)
+	{
+		boolean merged = true;
+		while(merged)
+		{
+			merged = false;
+			for(int i = 0; i < pieces.size() && !merged; i++)
+				for(int j = i + 1; j < pieces.size() && !merged; j++)
+				{
+					List<Integer> joined = Polygons.join(pieces.get(i), pieces.get(j));
+					if(joined == null) continue;
+
+					List<Dimensional> corners = new ArrayList<>(joined.size());
+					for(Integer index : joined)
+						corners.add(points.get(index));
+					if(Dimensionals.firstConcavity(corners) < 0)
+					{
+						pieces.set(i, joined);
+						pieces.remove(j);
+						merged = true;
+					}
+				}
+		}
+		return pieces;
+	}
+
+	/**
+	 * @param a
+	 * 		A piece, as indices in clockwise order
+	 * @param b
+	 * 		Another piece, as indices in clockwise order
+	 *
+	 * @return The two pieces joined along an edge they share, or null if they share no edge
+	 */
+	private static List<Integer> join(List<Integer> a, List<Integer> b)
+	{
+		for(int i = 0; i < a.size(); i++)
+		{
+			Integer from = a.get(i);
+			Integer to = a.get((i + 1) % a.size());
+			for(int j = 0; j < b.size(); j++)
+			{
+				if(!b.get(j).equals(to) || !b.get((j + 1) % b.size()).equals(from)) continue;
+
+				List<Integer> joined = new ArrayList<>(a.size() + b.size() - 2);
+				for(int k = 0; k < a.size(); k++)
+					joined.add(a.get((i + 1 + k) % a.size()));
+				for(int k = 2; k < b.size(); k++)
+					joined.add(b.get((j + k) % b.size()));
+				return joined;
+			}
+		}
+		return null;
+	}
+
+	/**
+	 * @param c
+	 * 		A Color
+	 * @param corners
+	 * 		At least three points, in clockwise order
+	 *
+	 * @return A Polygon with exactly those corners
+	 */
+	private static Polygon polygonOf(Color c, List<Dimensional> corners)
+	{
+		return new Polygon(c, corners.get(0), corners.get(1),
+				corners.subList(2, corners.size()).toArray(new Dimensional[corners.size() - 2]));
+	}
+
+	/**
+	 * Cuts a simple outline into triangles by ear clipping: repeatedly removing a convex corner whose triangle contains
+	 * no other corner. Corners in a line with their neighbours are removed without producing a triangle.
+	 *
+	 * @param points
+	 * 		The corners of the outline, in clockwise order
+	 *
+	 * @return Triangles covering the outline, as indices into {@code points} in clockwise order
+	 */
+	private static List<List<Integer>> triangulate(List<Dimensional> points)
+	{
+		List<Integer> remaining = new ArrayList<>(points.size());
+		for(int i = 0; i < points.size(); i++)
+			remaining.add(i);
+
+		List<List<Integer>> triangles = new ArrayList<>();
+		while(remaining.size() > 3)
+		{
+			boolean clipped = false;
+			for(int i = 0; i < remaining.size() && !clipped; i++)
+			{
+				Integer previous = remaining.get((remaining.size() + i - 1) % remaining.size());
+				Integer current = remaining.get(i);
+				Integer next = remaining.get((i + 1) % remaining.size());
+				Dimensional a = points.get(previous);
+				Dimensional b = points.get(current);
+				Dimensional c = points.get(next);
+
+				double turn = Dimensionals.turn(a, b, c);
+				if(turn < 0) continue;
+				if(turn > 0)
+				{
+					boolean ear = true;
+					for(Integer other : remaining)
+						if(!other.equals(previous) && !other.equals(current) && !other.equals(next)
+								&& Polygons.inTriangle(a, b, c, points.get(other)))
+						{
+							ear = false;
+							break;
+						}
+					if(!ear) continue;
+					triangles.add(new ArrayList<>(Arrays.asList(previous, current, next)));
+				}
+				remaining.remove(i);
+				clipped = true;
+			}
+			if(!clipped) throw new IllegalArgumentException("Outline crosses itself: " + points);
+		}
+		if(Dimensionals.turn(points.get(remaining.get(0)), points.get(remaining.get(1)), points.get(remaining.get(2)))
+				> 0) triangles.add(remaining);
+		return triangles;
+	}
+}
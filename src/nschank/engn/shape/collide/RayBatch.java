@@ -0,0 +1,375 @@
+package nschank.engn.shape.collide;
+
+import com.google.common.base.Optional;
+import nschank.collect.dim.Dimensional;
+import nschank.collect.dim.Vector;
+import nschank.util.Interval;
+
+import java.util.List;
+
+
+/**
+ * Created by Nicolas Schank for package nschank.engn.shape.collide
+ * Created on 17 Jun 2014
+ * Last updated on 20 Jun 2014
+ *
+ * A group of rays which are cast together, such as the rays of a light, a line of sight check, or a spread of shots.
+ * Origins and directions are kept in primitive arrays rather than as Rays, and each cast writes the nearest hit of every
+ * ray into arrays supplied by the caller, so that casting a whole group allocates nothing for the shapes in this
+ * package.
+ *
+ * At the start of each cast the bounds of every target are read once into a table. Each ray is tested against those
+ * bounds before the target itself, and a target whose bounds begin further along the ray than its nearest hit so far
+ * is skipped entirely. Collidables other than Polygons, Circles, Capsules, OrientedBoxes and TileCollisionLayers are
+ * tested through distanceAlong.
+ *
+ * @author nschank, Brown University
+ * @version 1.2
+ */
+public class RayBatch
+{
+	private double[] originX;
+	private double[] originY;
+	private double[] directionX;
+	private double[] directionY;
+	private int size;
+
+	private double[] minX;
+	private double[] maxX;
+	private double[] minY;
+	private double[] maxY;
+
+	/**
+	 * Creates an empty RayBatch with room for the given number of rays; it grows if more are added.
+	 *
+	 * @param capacity
+	 * 		The number of rays expected
+	 */
+	public RayBatch(int capacity)
+	{
+		this.originX = new double[capacity];
+		this.originY = new double[capacity];
+		this.directionX = new double[capacity];
+		this.directionY = new double[capacity];
+		this.size = 0;
+
+		this.minX = new double[0];
+		this.maxX = new double[0];
+		this.minY = new double[0];
+		this.maxY = new double[0];
+	}
+
+	/**
+	 * Adds a ray to this batch.
+	 *
+	 * @param origin
+	 * 		What point the ray originates from
+	 * @param direction
+	 * 		A Vector pointing in the direction of the ray, which cannot be of length 0
+	 *
+	 * @return The index of the new ray
+	 */
+	public int add(Dimensional origin, Vector direction)
+	{
+		return this.add(origin.getCoordinate(0), origin.getCoordinate(1), direction.getCoordinate(0),
+				direction.getCoordinate(1));
+	}
+
+	/**
+	 * Adds a ray to this batch. The direction will be normalized, and as such cannot be of length 0.
+	 *
+	 * @param x
+	 * 		The x coordinate of the point the ray originates from
+	 * @param y
+	 * 		The y coordinate of the point the ray originates from
+	 * @param dirX
+	 * 		The x component of the direction of the ray
+	 * @param dirY
+	 * 		The y component of the direction of the ray
+	 *
+	 * @return The index of the new ray
+	 */
+	public int add(double x, double y, double dirX, double dirY)
+	{
+		if(dirX == 0 && dirY == 0) throw new IllegalArgumentException("A ray cannot have a direction of length 0.");
+		if(this.size == this.originX.length)
+		{
+			int capacity = Math.max(4, this.size * 2);
+			this.originX = RayBatch.grow(this.originX, capacity);
+			this.originY = RayBatch.grow(this.originY, capacity);
+			this.directionX = RayBatch.grow(this.directionX, capacity);
+			this.directionY = RayBatch.grow(this.directionY, capacity);
+		}
+		this.size++;
+		this.set(this.size - 1, x, y, dirX, dirY);
+		return this.size - 1;
+	}
+
+	/**
+	 * Casts every ray in this batch against the given targets, finding the nearest hit of each.
+	 *
+	 * @param targets
+	 * 		The Collidables which the rays may hit
+	 * @param distances
+	 * 		Filled with how far along each ray its nearest hit is, or Double.POSITIVE_INFINITY if it hits nothing; must
+	 * 		have room for every ray
+	 * @param hits
+	 * 		Filled with the index in {@code targets} of the nearest hit of each ray, or -1 if it hits nothing; must have
+	 * 		room for every ray
+	 *
+	 * @return The number of rays which hit something
+	 */
+	public int cast(List<? extends Collidable> targets, double[] distances, int[] hits)
+	{
+		if(distances.length < this.size || hits.length < this.size)
+			throw new IllegalArgumentException("Output arrays must have room for " + this.size + " rays.");
+
+		int count = targets.size();
+		this.loadBounds(targets);
+
+		int hitCount = 0;
+		for(int i = 0; i < this.size; i++)
+		{
+			double x = this.originX[i];
+			double y = this.originY[i];
+			double dirX = this.directionX[i];
+			double dirY = this.directionY[i];
+
+			double nearest = Double.POSITIVE_INFINITY;
+			int nearestIndex = -1;
+			for(int j = 0; j < count; j++)
+			{
+				if(this.entryDistance(j, x, y, dirX, dirY) >= nearest) continue;
+
+				double distance = RayBatch.distanceAlong(targets.get(j), x, y, dirX, dirY);
+				if(distance >= 0 && distance < nearest)
+				{
+					nearest = distance;
+					nearestIndex = j;
+				}
+			}
+
+			distances[i] = nearest;
+			hits[i] = nearestIndex;
+			if(nearestIndex >= 0) hitCount++;
+		}
+		return hitCount;
+	}
+
+	/**
+	 * Removes every ray from this batch, keeping its capacity.
+	 */
+	public void clear()
+	{
+		this.size = 0;
+	}
+
+	/**
+	 * @param i
+	 * 		The index of a ray
+	 *
+	 * @return The x component of the unit direction of that ray
+	 */
+	public double getDirectionX(int i)
+	{
+		this.checkIndex(i);
+		return this.directionX[i];
+	}
+
+	/**
+	 * @param i
+	 * 		The index of a ray
+	 *
+	 * @return The y component of the unit direction of that ray
+	 */
+	public double getDirectionY(int i)
+	{
+		this.checkIndex(i);
+		return this.directionY[i];
+	}
+
+	/**
+	 * @param i
+	 * 		The index of a ray
+	 *
+	 * @return The x coordinate of the point that ray originates from
+	 */
+	public double getOriginX(int i)
+	{
+		this.checkIndex(i);
+		return this.originX[i];
+	}
+
+	/**
+	 * @param i
+	 * 		The index of a ray
+	 *
+	 * @return The y coordinate of the point that ray originates from
+	 */
+	public double getOriginY(int i)
+	{
+		this.checkIndex(i);
+		return this.originY[i];
+	}
+
+	/**
+	 * Replaces a ray in this batch. The direction will be normalized, and as such cannot be of length 0.
+	 *
+	 * @param i
+	 * 		The index of the ray to replace
+	 * @param x
+	 * 		The x coordinate of the point the ray originates from
+	 * @param y
+	 * 		The y coordinate of the point the ray originates from
+	 * @param dirX
+	 * 		The x component of the direction of the ray
+	 * @param dirY
+	 * 		The y component of the direction of the ray
+	 */
+	public void set(int i, double x, double y, double dirX, double dirY)
+	{
+		this.checkIndex(i);
+		double length = Math.sqrt((dirX * dirX) + (dirY * dirY));
+		if(length == 0) throw new IllegalArgumentException("A ray cannot have a direction of length 0.");
+
+		this.originX[i] = x;
+		this.originY[i] = y;
+		this.directionX[i] = dirX / length;
+		this.directionY[i] = dirY / length;
+	}
+
+	/**
+	 * @return The number of rays in this batch
+	 */
+	public int size()
+	{
+		return this.size;
+	}
+
+	/**
+	 * @param i
+	 * 		The index of a ray
+	 *
+	 * @throws IndexOutOfBoundsException
+	 * 		If there is no such ray
+	 */
+	private void checkIndex(int i)
+	{
+		if(i < 0 || i >= this.size) throw new IndexOutOfBoundsException("No ray " + i);
+	}
+
+	/**
+	 * Finds where a ray enters the bounds of a target, using the table filled by loadBounds.
+	 *
+	 * @param target
+	 * 		The index of a target
+	 * @param x
+	 * 		The x coordinate of the start of the ray
+	 * @param y
+	 * 		The y coordinate of the start of the ray
+	 * @param dirX
+	 * 		The x component of the unit direction of the ray
+	 * @param dirY
+	 * 		The y component of the unit direction of the ray
+	 *
+	 * @return How far along the ray it enters the bounds of the target (0 if it starts inside them), or
+	 * Double.POSITIVE_INFINITY if it misses them
+	 */
+	private double entryDistance(int target, double x, double y, double dirX, double dirY)
+	{
+		double enter = 0;
+		double exit = Double.POSITIVE_INFINITY;
+		if(dirX == 0)
+		{
+			if(x < this.minX[target] || this.maxX[target] < x) return Double.POSITIVE_INFINITY;
+		}
+		else
+		{
+			double first = (this.minX[target] - x) / dirX;
+			double second = (this.maxX[target] - x) / dirX;
+			enter = Math.max(enter, Math.min(first, second));
+			exit = Math.min(exit, Math.max(first, second));
+		}
+		if(dirY == 0)
+		{
+			if(y < this.minY[target] || this.maxY[target] < y) return Double.POSITIVE_INFINITY;
+		}
+		else
+		{
+			double first = (this.minY[target] - y) / dirY;
+			double second = (this.maxY[target] - y) / dirY;
+			enter = Math.max(enter, Math.min(first, second));
+			exit = Math.min(exit, Math.max(first, second));
+		}
+		return (enter <= exit) ? enter : Double.POSITIVE_INFINITY;
+	}
+
+	/**
+	 * Reads the bounds of every target into the bounds table, growing it if necessary.
+	 *
+	 * @param targets
+	 * 		The Collidables about to be cast against
+	 */
+	private void loadBounds(List<? extends Collidable> targets)
+	{
+		int count = targets.size();
+		if(this.minX.length < count)
+		{
+			this.minX = new double[count];
+			this.maxX = new double[count];
+			this.minY = new double[count];
+			this.maxY = new double[count];
+		}
+		for(int j = 0; j < count; j++)
+		{
+			Collidable target = targets.get(j);
+			Interval xs = target.xInterval();
+			Interval ys = target.yInterval();
+			this.minX[j] = xs.getMin();
+			this.maxX[j] = xs.getMax();
+			this.minY[j] = ys.getMin();
+			this.maxY[j] = ys.getMax();
+		}
+	}
+
+	/**
+	 * @param target
+	 * 		A Collidable
+	 * @param x
+	 * 		The x coordinate of the start of a ray
+	 * @param y
+	 * 		The y coordinate of the start of a ray
+	 * @param dirX
+	 * 		The x component of the unit direction of the ray
+	 * @param dirY
+	 * 		The y component of the unit direction of the ray
+	 *
+	 * @return How far along the ray the target appears, or -1 if it does not
+	 */
+	private static double distanceAlong(Collidable target, double x, double y, double dirX, double dirY)
+	{
+		if(target instanceof Polygon) return ((Polygon) target).distanceAlong(x, y, dirX, dirY);
+		if(target instanceof Circle) return ((Circle) target).distanceAlong(x, y, dirX, dirY);
+		if(target instanceof Capsule) return ((Capsule) target).distanceAlong(x, y, dirX, dirY);
+		if(target instanceof OrientedBox) return ((OrientedBox) target).distanceAlong(x, y, dirX, dirY);
+		if(target instanceof TileCollisionLayer) return ((TileCollisionLayer) target).distanceAlong(x, y, dirX, dirY);
+
+		Optional<Double> distance = target.distanceAlong(new Ray(new Vector(x, y), new Vector(dirX, dirY)));
+		return distance.isPresent() ? distance.get() : -1;
+	}
+
+	/**
+	 * @param array
+	 * 		An array
+	 * @param capacity
+	 * 		The new length, no shorter than {@code array}
+	 *
+	 * @return A copy of {@code array} with the given length
+	 */
+	private static double[] grow(double[] array, int capacity)
+	{
+		double[] grown = new double[capacity];
+		System.arraycopy(array, 0, grown, 0, array.length);
+		return grown;
+	}
+}
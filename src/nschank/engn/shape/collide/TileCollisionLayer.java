@@ -0,0 +1,647 @@
+package nschank.engn.shape.collide;
+
+import com.google.common.base.Optional;
+import nschank.collect.dim.Dimensional;
+import nschank.engn.shape.AbstractDrawable;
+import nschank.engn.shape.GameSpaceDrawable;
+import nschank.util.Interval;
+import nschank.util.Intervals;
+
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+
+/**
+ * Created by Nicolas Schank for package nschank.engn.shape.collide
+ * Created on 20 Jun 2014
+ * Last updated on 3 Jul 2014
+ *
+ * A single Collidable standing in for a whole grid of static, axis-aligned tiles, such as the walls and floors of a
+ * level. Whether each tile is solid is packed into one bit, so a large level costs a few bytes per row rather than an
+ * entity per tile.
+ *
+ * Solid tiles are merged into as few boxes as possible, first along each row and then down each column wherever the
+ * rows beneath match, so that a shape sliding along a floor or a wall never catches on the edges between tiles. A
+ * collision only tests the boxes under the bounds of the other shape. A Ray walks the grid one tile at a time, in order
+ * along the ray, and stops at the first solid tile it enters.
+ *
+ * The grid cannot be rotated. Row 0 is the top row, and column 0 the leftmost column.
+ *
+ * @author nschank, Brown University
+ * @version 1.2
+ */
+public class TileCollisionLayer extends AbstractDrawable implements Collidable, GameSpaceDrawable
+{
+	private final int columns;
+	private final int rows;
+	private double tileWidth;
+	private double tileHeight;
+	private final long[] solid;
+
+	private final List<AAB> merged;
+	private final int[] mergedIndex;
+	private boolean dirty;
+	private int[] visited;
+	private int visit;
+
+	/**
+	 * Creates a TileCollisionLayer in which no tile is solid.
+	 *
+	 * @param center
+	 * 		The centre of the whole grid
+	 * @param columns
+	 * 		The number of tiles across the grid
+	 * @param rows
+	 * 		The number of tiles down the grid
+	 * @param tileWidth
+	 * 		The width of each tile
+	 * @param tileHeight
+	 * 		The height of each tile
+	 * @param c
+	 * 		The Color of the solid tiles
+	 */
+	public TileCollisionLayer(Dimensional center, int columns, int rows, double tileWidth, double tileHeight, Color c)
+	{
+		super(center, columns * tileWidth, rows * tileHeight, c);
+		if(columns <= 0 || rows <= 0) throw new IllegalArgumentException("A tile grid must have at least one tile.");
+		if(tileWidth <= 0 || tileHeight <= 0) throw new IllegalArgumentException("Tiles must have a positive size.");
+
+		this.columns = columns;
+		this.rows = rows;
+		this.tileWidth = tileWidth;
+		this.tileHeight = tileHeight;
+		this.solid = new long[((columns * rows) + 63) / 64];
+
+		this.merged = new ArrayList<>();
+		this.mergedIndex = new int[columns * rows];
+		this.dirty = true;
+		this.visited = new int[0];
+		this.visit = 0;
+	}
+
+	/**
+	 * @param other
+	 * 		Another object which may be colliding with this one.
+	 *
+	 * @return The deepest Collision between any solid tile and the other object, if one exists.
+	 */
+	@Override
+	public Optional<Collision> collisionWith(Collidable other)
+	{
+		Optional<Collision> deepest = Optional.absent();
+		for(AAB box : this.boxesUnder(other))
+			deepest = CompoundCollidable.deeper(deepest, box.collisionWith(other));
+		return deepest;
+	}
+
+	/**
+	 * @param other
+	 * 		An AAB that may be colliding with this object
+	 *
+	 * @return The deepest Collision between any solid tile and the given AAB, if one exists.
+	 */
+	@Override
+	public Optional<Collision> collisionWithAAB(AAB other)
+	{
+		Optional<Collision> deepest = Optional.absent();
+		for(AAB box : this.boxesUnder(other))
+			deepest = CompoundCollidable.deeper(deepest, box.collisionWithAAB(other));
+		return deepest;
+	}
+
+	/**
+	 * @param other
+	 * 		A Circle that may be colliding with this object
+	 *
+	 * @return The deepest Collision between any solid tile and the given Circle, if one exists.
+	 */
+	@Override
+	public Optional<Collision> collisionWithCircle(Circle other)
+	{
+		Optional<Collision> deepest = Optional.absent();
+		for(AAB box : this.boxesUnder(other))
+			deepest = CompoundCollidable.deeper(deepest, box.collisionWithCircle(other));
+		return deepest;
+	}
+
+	/**
+	 * @param other
+	 * 		A Polygon that may be colliding with this object
+	 *
+	 * @return The deepest Collision between any solid tile and the given Polygon, if one exists.
+	 */
+	@Override
+	public Optional<Collision> collisionWithPolygon(Polygon other)
+	{
+		Optional<Collision> deepest = Optional.absent();
+		for(AAB box : this.boxesUnder(other))
+			deepest = CompoundCollidable.deeper(deepest, box.collisionWithPolygon(other));
+		return deepest;
+	}
+
+	/**
+	 * @param point
+	 * 		A point in the same plane as this TileCollisionLayer
+	 *
+	 * @return Whether the point is inside a solid tile
+	 */
+	@Override
+	public boolean contains(Dimensional point)
+	{
+		double column = Math.floor((point.getCoordinate(0) - this.left()) / this.tileWidth);
+		double row = Math.floor((point.getCoordinate(1) - this.top()) / this.tileHeight);
+		return column >= 0 && column < this.columns && row >= 0 && row < this.rows
+				&& this.isSolid((int) column, (int) row);
+	}
+
+	/**
+	 * @return A TileCollisionLayer of the same size and position, with the same tiles solid
+	 */
+	@Override
+	public Collidable copy()
+	{
+		TileCollisionLayer copy = new TileCollisionLayer(this.getCenterPosition(), this.columns, this.rows,
+				this.tileWidth, this.tileHeight, this.getColor());
+		System.arraycopy(this.solid, 0, copy.solid, 0, this.solid.length);
+		return copy;
+	}
+
+	/**
+	 * @param r
+	 * 		A Ray in the same x-y coordinate plane as this object, which may be pointed to this object
+	 *
+	 * @return How far along the Ray the first solid tile appears, if the Ray hits one
+	 */
+	@Override
+	public Optional<Double> distanceAlong(Ray r)
+	{
+		double distance = this.distanceAlong(r.getStartLocation().getCoordinate(0), r.getStartLocation().getCoordinate(1),
+				r.getDirection().getCoordinate(0), r.getDirection().getCoordinate(1));
+		if(distance < 0) return Optional.absent();
+		else return Optional.of(distance);
+	}
+
+	/**
+	 * Walks a ray through the grid, tile by tile, in the order the ray crosses them (a digital differential analyzer).
+	 * Only the tiles the ray actually passes through are visited, so a long ray over a large level stays cheap.
+	 *
+	 * @param originX
+	 * 		The x coordinate of the start of a ray
+	 * @param originY
+	 * 		The y coordinate of the start of a ray
+	 * @param dirX
+	 * 		The x component of the unit direction of the ray
+	 * @param dirY
+	 * 		The y component of the unit direction of the ray
+	 *
+	 * @return How far along the ray it enters a solid tile (0 if it starts inside one), or -1 if it does not
+	 */
+	double distanceAlong(double originX, double originY, double dirX, double dirY)
+	{
+		double left = this.left();
+		double top = this.top();
+		double right = left + (this.columns * this.tileWidth);
+		double bottom = top + (this.rows * this.tileHeight);
+
+		double enter = 0;
+		double exit = Double.POSITIVE_INFINITY;
+		if(dirX == 0)
+		{
+			if(originX < left || right <= originX) return -1;
+		}
+		else
+		{
+			double first = (left - originX) / dirX;
+			double second = (right - originX) / dirX;
+			enter = Math.max(enter, Math.min(first, second));
+			exit = Math.min(exit, Math.max(first, second));
+		}
+		if(dirY == 0)
+		{
+			if(originY < top || bottom <= originY) return -1;
+		}
+		else
+		{
+			double first = (top - originY) / dirY;
+			double second = (bottom - originY) / dirY;
+			enter = Math.max(enter, Math.min(first, second));
+			exit = Math.min(exit, Math.max(first, second));
+		}
+		if(enter >= exit) return -1;
+
+		double distance = enter;
+		int column = TileCollisionLayer.clamp(
+				(int) Math.floor(((originX + (dirX * distance)) - left) / this.tileWidth), this.columns);
+		int row = TileCollisionLayer.clamp(
+				(int) Math.floor(((originY + (dirY * distance)) - top) / this.tileHeight), this.rows);
+
+		int stepX = (dirX > 0) ? 1 : -1;
+		int stepY = (dirY > 0) ? 1 : -1;
+		double deltaX = (dirX == 0) ? Double.POSITIVE_INFINITY : (this.tileWidth / Math.abs(dirX));
+		double deltaY = (dirY == 0) ? Double.POSITIVE_INFINITY : (this.tileHeight / Math.abs(dirY));
+		double nextX = (dirX == 0) ? Double.POSITIVE_INFINITY
+				: ((left + ((column + ((dirX > 0) ? 1 : 0)) * this.tileWidth)) - originX) / dirX;
+		double nextY = (dirY == 0) ? Double.POSITIVE_INFINITY
+				: ((top + ((row + ((dirY > 0) ? 1 : 0)) * this.tileHeight)) - originY) / dirY;
+
+		while(column >= 0 && column < this.columns && row >= 0 && row < this.rows)
+		{
+			if(this.isSolid(column, row)) return distance;
+			if(nextX < nextY)
+			{
+				column += stepX;
+				distance = nextX;
+				nextX += deltaX;
+			}
+			else
+			{
+				row += stepY;
+				distance = nextY;
+				nextY += deltaY;
+			}
+		}
+		return -1;
+	}
+
+	/**
+	 * @param g
+	 * 		A Graphics object onto which to draw every solid tile
+	 */
+	@Override
+	public void draw(Graphics2D g)
+	{
+		for(AAB box : this.getMergedBoxes())
+			box.draw(g);
+	}
+
+	/**
+	 * @return True; a TileCollisionLayer is drawn as its merged boxes, which may be drawn in game units
+	 */
+	@Override
+	public boolean drawsInGameSpace()
+	{
+		return true;
+	}
+
+	/**
+	 * @return The number of tiles across this grid
+	 */
+	public int getColumns()
+	{
+		return this.columns;
+	}
+
+	/**
+	 * @return The boxes the solid tiles have been merged into; every solid tile is covered by exactly one of them
+	 */
+	public List<AAB> getMergedBoxes()
+	{
+		this.updateMerged();
+		return Collections.unmodifiableList(this.merged);
+	}
+
+	/**
+	 * The grid cannot be rotated, so rotation is always 0
+	 *
+	 * @return 0
+	 */
+	@Override
+	public double getRotation()
+	{
+		return 0;
+	}
+
+	/**
+	 * The grid cannot be rotated, so this does nothing.
+	 *
+	 * @param theta
+	 * 		Unused
+	 */
+	@Override
+	public void setRotation(double theta)
+	{
+		//Do nothing
+	}
+
+	/**
+	 * @return The number of tiles down this grid
+	 */
+	public int getRows()
+	{
+		return this.rows;
+	}
+
+	/**
+	 * @return The height of each tile
+	 */
+	public double getTileHeight()
+	{
+		return this.tileHeight;
+	}
+
+	/**
+	 * @return The width of each tile
+	 */
+	public double getTileWidth()
+	{
+		return this.tileWidth;
+	}
+
+	/**
+	 * @param column
+	 * 		The column of a tile, from 0 at the left
+	 * @param row
+	 * 		The row of a tile, from 0 at the top
+	 *
+	 * @return Whether that tile is solid
+	 */
+	public boolean isSolid(int column, int row)
+	{
+		int index = this.indexOf(column, row);
+		return (this.solid[index >>> 6] & (1L << index)) != 0;
+	}
+
+	/**
+	 * @return The mass moment of inertia of a box the size of this whole grid
+	 */
+	@Override
+	public double momentOfInertia()
+	{
+		return ((this.getWidth() * this.getWidth()) + (this.getHeight() * this.getHeight())) / 12d;
+	}
+
+	/**
+	 * @param axis
+	 * 		An axis over which to project this object
+	 *
+	 * @return The smallest Interval containing the projection of every solid tile onto the axis
+	 */
+	@Override
+	public Interval projectionOnto(Dimensional axis)
+	{
+		Interval projection = null;
+		for(AAB box : this.getMergedBoxes())
+			projection = (projection == null) ? box.projectionOnto(axis) : projection.and(box.projectionOnto(axis));
+		if(projection != null) return projection;
+
+		double axisX = axis.getCoordinate(0);
+		double axisY = axis.getCoordinate(1);
+		//Measured along the x axis unless the axis is vertical, as in Dimensionals.project
+		double scale = ((axisX == 0) ? axisY : axisX) / ((axisX * axisX) + (axisY * axisY));
+		Dimensional center = this.getCenterPosition();
+		return Intervals.about(((center.getCoordinate(0) * axisX) + (center.getCoordinate(1) * axisY)) * scale, 0);
+	}
+
+	/**
+	 * The grid cannot be rotated, so this does nothing.
+	 *
+	 * @param theta
+	 * 		Unused
+	 */
+	@Override
+	public void rotate(double theta)
+	{
+		//Do nothing
+	}
+
+	/**
+	 * @param centerPosition
+	 * 		The new centre of the whole grid
+	 */
+	@Override
+	public void setCenterPosition(Dimensional centerPosition)
+	{
+		super.setCenterPosition(centerPosition);
+		this.dirty = true;
+	}
+
+	/**
+	 * @param c
+	 * 		The new Color of the solid tiles
+	 */
+	@Override
+	public void setColor(Color c)
+	{
+		super.setColor(c);
+		this.dirty = true;
+	}
+
+	/**
+	 * Resizes every tile so that the whole grid has the given height.
+	 *
+	 * @param h
+	 * 		The new height of the whole grid
+	 */
+	@Override
+	public void setHeight(double h)
+	{
+		if(h <= 0) throw new IllegalArgumentException("Tiles must have a positive size.");
+		super.setHeight(h);
+		this.tileHeight = h / this.rows;
+		this.dirty = true;
+	}
+
+	/**
+	 * @param column
+	 * 		The column of a tile, from 0 at the left
+	 * @param row
+	 * 		The row of a tile, from 0 at the top
+	 * @param isSolid
+	 * 		Whether that tile should be solid
+	 */
+	public void setSolid(int column, int row, boolean isSolid)
+	{
+		int index = this.indexOf(column, row);
+		long before = this.solid[index >>> 6];
+		if(isSolid) this.solid[index >>> 6] |= (1L << index);
+		else this.solid[index >>> 6] &= ~(1L << index);
+		if(before != this.solid[index >>> 6]) this.dirty = true;
+	}
+
+	/**
+	 * Resizes every tile so that the whole grid has the given width.
+	 *
+	 * @param w
+	 * 		The new width of the whole grid
+	 */
+	@Override
+	public void setWidth(double w)
+	{
+		if(w <= 0) throw new IllegalArgumentException("Tiles must have a positive size.");
+		super.setWidth(w);
+		this.tileWidth = w / this.columns;
+		this.dirty = true;
+	}
+
+	/**
+	 * @return A String representation of this TileCollisionLayer, with its size and number of merged boxes
+	 */
+	@Override
+	public String toString()
+	{
+		return "TileCollisionLayer{" +
+				"center=" + this.getCenterPosition() +
+				", columns=" + this.columns +
+				", rows=" + this.rows +
+				", boxes=" + this.getMergedBoxes().size() +
+				'}';
+	}
+
+	/**
+	 * Finds the merged boxes which cover any tile under the bounds of the given Collidable, each only once.
+	 *
+	 * @param other
+	 * 		A Collidable which may be colliding with this grid
+	 *
+	 * @return Every merged box which may be colliding with {@code other}
+	 */
+	List<AAB> boxesUnder(Collidable other)
+	{
+		this.updateMerged();
+		Interval xs = other.xInterval();
+		Interval ys = other.yInterval();
+		double left = this.left();
+		double top = this.top();
+		double firstColumn = Math.floor((xs.getMin() - left) / this.tileWidth);
+		double lastColumn = Math.floor((xs.getMax() - left) / this.tileWidth);
+		double firstRow = Math.floor((ys.getMin() - top) / this.tileHeight);
+		double lastRow = Math.floor((ys.getMax() - top) / this.tileHeight);
+		if(lastColumn < 0 || firstColumn >= this.columns || lastRow < 0 || firstRow >= this.rows)
+			return Collections.emptyList();
+
+		int fromColumn = (int) Math.max(firstColumn, 0);
+		int toColumn = (int) Math.min(lastColumn, this.columns - 1);
+		int fromRow = (int) Math.max(firstRow, 0);
+		int toRow = (int) Math.min(lastRow, this.rows - 1);
+
+		this.visit++;
+		List<AAB> boxes = new ArrayList<>();
+		for(int row = fromRow; row <= toRow; row++)
+			for(int column = fromColumn; column <= toColumn; column++)
+			{
+				int box = this.mergedIndex[(row * this.columns) + column];
+				if(box < 0 || this.visited[box] == this.visit) continue;
+				this.visited[box] = this.visit;
+				boxes.add(this.merged.get(box));
+			}
+		return boxes;
+	}
+
+	/**
+	 * @param column
+	 * 		The column of a tile
+	 * @param row
+	 * 		The row of a tile
+	 *
+	 * @return The index of that tile's bit
+	 *
+	 * @throws IndexOutOfBoundsException
+	 * 		If there is no such tile
+	 */
+	private int indexOf(int column, int row)
+	{
+		if(column < 0 || column >= this.columns || row < 0 || row >= this.rows)
+			throw new IndexOutOfBoundsException("No tile at column " + column + ", row " + row);
+		return (row * this.columns) + column;
+	}
+
+	/**
+	 * @param column
+	 * 		The column of a tile
+	 * @param row
+	 * 		The row of a tile
+	 *
+	 * @return Whether that tile is solid and not yet part of a merged box
+	 */
+	private boolean isUnmergedSolid(int column, int row)
+	{
+		return this.mergedIndex[(row * this.columns) + column] < 0 && this.isSolid(column, row);
+	}
+
+	/**
+	 * @param column
+	 * 		The column of the first tile of a run
+	 * @param row
+	 * 		The row of the run
+	 * @param width
+	 * 		The number of tiles in the run
+	 *
+	 * @return Whether every tile of the run is solid and not yet part of a merged box
+	 */
+	private boolean isUnmergedRun(int column, int row, int width)
+	{
+		for(int i = 0; i < width; i++)
+			if(!this.isUnmergedSolid(column + i, row)) return false;
+		return true;
+	}
+
+	/**
+	 * @return The x coordinate of the left edge of the grid
+	 */
+	private double left()
+	{
+		return this.getCenterPosition().getCoordinate(0) - ((this.columns * this.tileWidth) / 2d);
+	}
+
+	/**
+	 * @return The y coordinate of the top edge of the grid
+	 */
+	private double top()
+	{
+		return this.getCenterPosition().getCoordinate(1) - ((this.rows * this.tileHeight) / 2d);
+	}
+
+	/**
+	 * Merges the solid tiles into boxes, if any tile has changed or the grid has moved since they were last merged. Each
+	 * box starts at the first unmerged solid tile, reading across and then down, and takes in as many solid tiles to its
+	 * right as it can, and then as many whole rows of the same width beneath it as it can.
+	 */
+	private void updateMerged()
+	{
+		if(!this.dirty) return;
+
+		this.merged.clear();
+		Arrays.fill(this.mergedIndex, -1);
+		double left = this.left();
+		double top = this.top();
+		for(int row = 0; row < this.rows; row++)
+			for(int column = 0; column < this.columns; column++)
+			{
+				if(this.mergedIndex[(row * this.columns) + column] >= 0 || !this.isSolid(column, row)) continue;
+
+				int width = 1;
+				while(column + width < this.columns && this.isUnmergedSolid(column + width, row))
+					width++;
+				int height = 1;
+				while(row + height < this.rows && this.isUnmergedRun(column, row + height, width))
+					height++;
+
+				int box = this.merged.size();
+				for(int i = 0; i < height; i++)
+					Arrays.fill(this.mergedIndex, ((row + i) * this.columns) + column,
+							((row + i) * this.columns) + column + width, box);
+				this.merged.add(new AAB(left + (column * this.tileWidth), left + ((column + width) * this.tileWidth),
+						top + (row * this.tileHeight), top + ((row + height) * this.tileHeight), this.getColor()));
+			}
+
+		if(this.visited.length < this.merged.size()) this.visited = new int[this.merged.size()];
+		this.dirty = false;
+	}
+
+	/**
+	 * @param index
+	 * 		An index which may be just outside of the grid
+	 * @param size
+	 * 		The number of tiles along that side of the grid
+	 *
+	 * @return The nearest index inside the grid
+	 */
+	private static int clamp(int index, int size)
+	{
+		return Math.max(0, Math.min(index, size - 1));
+	}
+}
@@ -0,0 +1,110 @@
+package nschank.engn.gui.layer;
+
+import nschank.collect.dim.Point;
+import nschank.engn.shape.Drawable;
+import nschank.engn.shape.collide.AAB;
+import org.junit.Test;
+
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+
+import static org.junit.Assert.assertEquals;
+
+
+/**
+ * Created by Nicolas Schank for package nschank.engn.gui.layer
+ * Created on 3 Jul 2014
+ * Last updated on 3 Jul 2014
+ *
+ * Tests that a retained AbstractLayer draws the same pixels as one which is not, after its elements are moved or
+ * recoloured without markDirty, and when the Screen is translated left of and above the origin.
+ *
+ * @author nschank, Brown University
+ * @version 1.0
+ */
+public class AbstractLayerTest
+{
+	private static final int SIZE = 100;
+
+	@Test
+	public void movedElementIsDrawnAgain()
+	{
+		AbstractLayer layer = AbstractLayerTest.retained();
+		Drawable box = new AAB(new Point(20, 20), 10, 10, Color.RED);
+		layer.add(box);
+		AbstractLayerTest.draw(layer, 0, 0);
+
+		box.setCenterPosition(new Point(70, 70));
+		BufferedImage drawn = AbstractLayerTest.draw(layer, 0, 0);
+
+		assertEquals(0, drawn.getRGB(20, 20));
+		assertEquals(Color.RED.getRGB(), drawn.getRGB(70, 70));
+	}
+
+	@Test
+	public void recolouredElementIsDrawnAgain()
+	{
+		AbstractLayer layer = AbstractLayerTest.retained();
+		Drawable box = new AAB(new Point(20, 20), 10, 10, Color.RED);
+		layer.add(box);
+		AbstractLayerTest.draw(layer, 0, 0);
+
+		box.setColor(Color.BLUE);
+
+		assertEquals(Color.BLUE.getRGB(), AbstractLayerTest.draw(layer, 0, 0).getRGB(20, 20));
+	}
+
+	@Test
+	public void negativeTranslationIsNotClipped()
+	{
+		AbstractLayer layer = AbstractLayerTest.retained();
+		layer.add(new AAB(new Point(60, 60), 10, 10, Color.RED));
+		layer.add(new AAB(new Point(95, 95), 10, 10, Color.GREEN));
+
+		BufferedImage drawn = AbstractLayerTest.draw(layer, -50, -50);
+		BufferedImage again = AbstractLayerTest.draw(layer, -50, -50);
+
+		assertEquals(Color.RED.getRGB(), drawn.getRGB(10, 10));
+		assertEquals(Color.GREEN.getRGB(), drawn.getRGB(45, 45));
+		assertEquals(0, drawn.getRGB(70, 70));
+		assertEquals(Color.GREEN.getRGB(), again.getRGB(45, 45));
+	}
+
+	/**
+	 * @param layer
+	 * 		A Layer
+	 * @param dx
+	 * 		How far right to translate the Layer
+	 * @param dy
+	 * 		How far down to translate the Layer
+	 *
+	 * @return A new, otherwise transparent, image the size of the Screen, with the Layer drawn onto it
+	 */
+	private static BufferedImage draw(Layer layer, int dx, int dy)
+	{
+		BufferedImage target = new BufferedImage(AbstractLayerTest.SIZE, AbstractLayerTest.SIZE,
+				BufferedImage.TYPE_INT_ARGB);
+		Graphics2D g = target.createGraphics();
+		try
+		{
+			g.translate(dx, dy);
+			layer.draw(g);
+		} finally
+		{
+			g.dispose();
+		}
+		return target;
+	}
+
+	/**
+	 * @return An empty, retained Layer, the size of the Screen
+	 */
+	private static AbstractLayer retained()
+	{
+		AbstractLayer layer = new DefaultLayer();
+		layer.resize(new Point(AbstractLayerTest.SIZE, AbstractLayerTest.SIZE));
+		layer.setRetained(true);
+		return layer;
+	}
+}
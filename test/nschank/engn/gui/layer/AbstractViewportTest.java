@@ -0,0 +1,157 @@
+package nschank.engn.gui.layer;
+
+import nschank.collect.dim.Point;
+import nschank.engn.shape.Drawable;
+import nschank.engn.shape.collide.AAB;
+import org.junit.Test;
+
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+
+
+/**
+ * Created by Nicolas Schank for package nschank.engn.gui.layer
+ * Created on 3 Jul 2014
+ * Last updated on 3 Jul 2014
+ *
+ * Tests that an AbstractViewport draws each element within its view exactly once and no element outside it, static
+ * elements beneath the rest, and follows its view and its static elements as they move.
+ *
+ * @author nschank, Brown University
+ * @version 1.0
+ */
+public class AbstractViewportTest
+{
+	private static final int SIZE = 100;
+	private static final int ZOOM = 10;
+
+	@Test
+	public void onlyElementsInViewAreDrawn()
+	{
+		List<Drawable> drawn = new ArrayList<>();
+		AbstractViewport viewport = AbstractViewportTest.viewport();
+		//The view spans from -6 to 6 along each axis
+		Drawable inside = AbstractViewportTest.recording(0, 0, drawn);
+		Drawable outside = AbstractViewportTest.recording(20, 0, drawn);
+		Drawable staticInside = AbstractViewportTest.recording(3, 3, drawn);
+		Drawable staticOnTheEdge = AbstractViewportTest.recording(6.3, -2, drawn);
+		Drawable staticOutside = AbstractViewportTest.recording(0, -20, drawn);
+		viewport.add(inside);
+		viewport.add(outside);
+		viewport.addStatic(staticInside);
+		viewport.addStatic(staticOnTheEdge);
+		viewport.addStatic(staticOutside);
+
+		AbstractViewportTest.draw(viewport);
+
+		assertEquals(3, drawn.size());
+		assertEquals(new HashSet<>(Arrays.asList(inside, staticInside, staticOnTheEdge)), new HashSet<>(drawn));
+		assertEquals(inside, drawn.get(2));
+	}
+
+	@Test
+	public void movingTheViewChangesWhatIsDrawn()
+	{
+		List<Drawable> drawn = new ArrayList<>();
+		AbstractViewport viewport = AbstractViewportTest.viewport();
+		Drawable inside = AbstractViewportTest.recording(0, 0, drawn);
+		Drawable outside = AbstractViewportTest.recording(20, 0, drawn);
+		Drawable staticOutside = AbstractViewportTest.recording(22, 2, drawn);
+		viewport.add(inside);
+		viewport.add(outside);
+		viewport.addStatic(staticOutside);
+
+		viewport.setViewPosition(new Point(20, 0));
+		AbstractViewportTest.draw(viewport);
+
+		assertEquals(Arrays.asList(staticOutside, outside), drawn);
+	}
+
+	@Test
+	public void movedStaticElementIsDrawnWhereItNowIs()
+	{
+		List<Drawable> drawn = new ArrayList<>();
+		AbstractViewport viewport = AbstractViewportTest.viewport();
+		Drawable arriving = AbstractViewportTest.recording(0, -20, drawn);
+		Drawable leaving = AbstractViewportTest.recording(1, 1, drawn);
+		viewport.addStatic(arriving);
+		viewport.addStatic(leaving);
+
+		arriving.setCenterPosition(new Point(-2, -2));
+		viewport.updateStatic(arriving);
+		leaving.setCenterPosition(new Point(40, 40));
+		viewport.updateStatic(leaving);
+		AbstractViewportTest.draw(viewport);
+
+		assertEquals(Arrays.asList(arriving), drawn);
+
+		drawn.clear();
+		viewport.removeStatic(arriving);
+		AbstractViewportTest.draw(viewport);
+
+		assertEquals(0, drawn.size());
+	}
+
+	/**
+	 * @param viewport
+	 * 		A Viewport
+	 */
+	private static void draw(Viewport viewport)
+	{
+		BufferedImage target = new BufferedImage(AbstractViewportTest.SIZE, AbstractViewportTest.SIZE,
+				BufferedImage.TYPE_INT_ARGB);
+		Graphics2D g = target.createGraphics();
+		try
+		{
+			viewport.draw(g);
+		} finally
+		{
+			g.dispose();
+		}
+	}
+
+	/**
+	 * @param x
+	 * 		The x coordinate of the center of the box, in game units
+	 * @param y
+	 * 		The y coordinate of the center of the box, in game units
+	 * @param drawn
+	 * 		Where the box adds itself whenever it is drawn
+	 *
+	 * @return A box of width and height 1
+	 */
+	private static Drawable recording(double x, double y, final List<Drawable> drawn)
+	{
+		return new AAB(new Point(x, y), 1, 1, Color.BLACK)
+		{
+			@Override
+			public void draw(Graphics2D g)
+			{
+				drawn.add(this);
+			}
+		};
+	}
+
+	/**
+	 * @return An empty Viewport filling the Screen, centered on the origin at a zoom of 10 pixels per game unit
+	 */
+	private static AbstractViewport viewport()
+	{
+		Point screen = new Point(AbstractViewportTest.SIZE, AbstractViewportTest.SIZE);
+		return new AbstractViewport(new Point(AbstractViewportTest.SIZE / 2, AbstractViewportTest.SIZE / 2), screen,
+				new Point(0, 0), AbstractViewportTest.ZOOM)
+		{
+			@Override
+			public void onTick(long nanosSinceLastTick)
+			{
+			}
+		};
+	}
+}
@@ -0,0 +1,173 @@
+package nschank.engn.gui.layer;
+
+import nschank.collect.dim.Point;
+import nschank.engn.shape.Drawable;
+import nschank.engn.shape.collide.AAB;
+import nschank.util.Interval;
+import nschank.util.Intervals;
+import org.junit.Test;
+
+import java.awt.Color;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+
+/**
+ * Created by Nicolas Schank for package nschank.engn.gui.layer
+ * Created on 3 Jul 2014
+ * Last updated on 3 Jul 2014
+ *
+ * Tests that a DrawableGrid finds each Drawable overlapping a region exactly once and nothing outside it, both when it
+ * walks the cells of a small region and when it tests every element for a large one, and after Drawables are moved or
+ * removed across cells.
+ *
+ * @author nschank, Brown University
+ * @version 1.0
+ */
+public class DrawableGridTest
+{
+	@Test
+	public void cellWalkFindsEachElementOnce()
+	{
+		DrawableGrid grid = new DrawableGrid(1);
+		//The floor is in over 400 cells, far more than the region covers, so that the query walks the cells
+		Drawable floor = DrawableGridTest.box(0, 0, 20);
+		Drawable wide = DrawableGridTest.box(0.5, 0.5, 3);
+		Drawable far = DrawableGridTest.box(50, 50, 2);
+		Drawable near = DrawableGridTest.box(1.8, 0.5, 0.4);
+		for(Drawable element : Arrays.asList(floor, wide, far, near))
+			grid.add(element);
+
+		DrawableGridTest.assertFound(grid, Intervals.about(0.5, 2), Intervals.about(0.5, 2), floor, wide);
+	}
+
+	@Test
+	public void scanFindsEachElementOnce()
+	{
+		DrawableGrid grid = new DrawableGrid(1);
+		//Only a few cells are occupied, far fewer than the region covers, so that the query tests every element
+		Drawable wide = DrawableGridTest.box(0.5, 0.5, 3);
+		Drawable small = DrawableGridTest.box(-40, 10, 1);
+		Drawable far = DrawableGridTest.box(600, 0, 2);
+		for(Drawable element : Arrays.asList(wide, small, far))
+			grid.add(element);
+
+		DrawableGridTest.assertFound(grid, Intervals.about(0, 1000), Intervals.about(0, 1000), wide, small);
+	}
+
+	@Test
+	public void agreesWithTestingEveryElement()
+	{
+		Random random = new Random(47);
+		DrawableGrid grid = new DrawableGrid(4);
+		List<Drawable> elements = new ArrayList<>();
+		for(int i = 0; i < 200; i++)
+		{
+			Drawable element = DrawableGridTest.box(random.nextDouble() * 100, random.nextDouble() * 100,
+					0.5 + random.nextDouble() * 10);
+			elements.add(element);
+			grid.add(element);
+		}
+
+		//Regions range from a fraction of a cell to the whole world, so that both ways of querying are taken
+		for(int i = 0; i < 500; i++)
+		{
+			double width = Math.pow(2, random.nextDouble() * 9) - 0.5;
+			Interval x = Intervals.about(random.nextDouble() * 100, width);
+			Interval y = Intervals.about(random.nextDouble() * 100, width);
+
+			List<Drawable> expected = new ArrayList<>();
+			for(Drawable element : elements)
+				if(element.xInterval().isIntersecting(x) && element.yInterval().isIntersecting(y))
+					expected.add(element);
+			DrawableGridTest.assertFound(grid, x, y, expected.toArray(new Drawable[expected.size()]));
+		}
+	}
+
+	@Test
+	public void updatedElementIsFoundInItsNewCells()
+	{
+		DrawableGrid grid = new DrawableGrid(1);
+		Drawable floor = DrawableGridTest.box(0, 0, 20);
+		Drawable mover = DrawableGridTest.box(0.5, 0.5, 0.5);
+		grid.add(floor);
+		grid.add(mover);
+
+		mover.setCenterPosition(new Point(6, 6));
+		grid.update(mover);
+
+		DrawableGridTest.assertFound(grid, Intervals.about(0.5, 1), Intervals.about(0.5, 1), floor);
+		DrawableGridTest.assertFound(grid, Intervals.about(6, 1), Intervals.about(6, 1), floor, mover);
+		DrawableGridTest.assertFound(grid, Intervals.about(0, 1000), Intervals.about(0, 1000), floor, mover);
+		assertEquals(2, grid.elements().size());
+	}
+
+	@Test
+	public void removedElementIsNotFound()
+	{
+		DrawableGrid grid = new DrawableGrid(1);
+		Drawable floor = DrawableGridTest.box(0, 0, 20);
+		Drawable wide = DrawableGridTest.box(0.5, 0.5, 3);
+		grid.add(floor);
+		grid.add(wide);
+
+		assertTrue(grid.remove(wide));
+
+		assertFalse(grid.contains(wide));
+		assertFalse(grid.remove(wide));
+		DrawableGridTest.assertFound(grid, Intervals.about(0.5, 2), Intervals.about(0.5, 2), floor);
+		DrawableGridTest.assertFound(grid, Intervals.about(0, 1000), Intervals.about(0, 1000), floor);
+	}
+
+	@Test(expected = UnsupportedOperationException.class)
+	public void elementsCannotBeRemovedThroughTheirView()
+	{
+		DrawableGrid grid = new DrawableGrid(1);
+		Drawable box = DrawableGridTest.box(0, 0, 1);
+		grid.add(box);
+
+		grid.elements().remove(box);
+	}
+
+	/**
+	 * @param grid
+	 * 		A grid
+	 * @param x
+	 * 		The extent of the region along the x axis
+	 * @param y
+	 * 		The extent of the region along the y axis
+	 * @param expected
+	 * 		Every Drawable which overlaps that region
+	 */
+	private static void assertFound(DrawableGrid grid, Interval x, Interval y, Drawable... expected)
+	{
+		Collection<Drawable> found = new ArrayList<>();
+		grid.query(x, y, found);
+		assertEquals("Found " + found.size() + " Drawables, some more than once or outside the region", expected.length,
+				found.size());
+		assertEquals(new HashSet<>(Arrays.asList(expected)), new HashSet<>(found));
+	}
+
+	/**
+	 * @param x
+	 * 		The x coordinate of the center of the box
+	 * @param y
+	 * 		The y coordinate of the center of the box
+	 * @param side
+	 * 		The width and height of the box
+	 *
+	 * @return A square box
+	 */
+	private static Drawable box(double x, double y, double side)
+	{
+		return new AAB(new Point(x, y), side, side, Color.BLACK);
+	}
+}
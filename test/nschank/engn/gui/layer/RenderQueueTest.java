@@ -0,0 +1,130 @@
+package nschank.engn.gui.layer;
+
+import nschank.collect.dim.Point;
+import nschank.engn.shape.Drawable;
+import nschank.engn.shape.DrawableString;
+import nschank.engn.shape.collide.AAB;
+import org.junit.Test;
+
+import java.awt.Color;
+import java.util.Arrays;
+
+import static org.junit.Assert.assertEquals;
+
+
+/**
+ * Created by Nicolas Schank for package nschank.engn.gui.layer
+ * Created on 3 Jul 2014
+ * Last updated on 3 Jul 2014
+ *
+ * Tests that a RenderQueue draws by z, and then in the order Drawables were added wherever they overlap, grouping by
+ * colour only those which do not.
+ *
+ * @author nschank, Brown University
+ * @version 1.0
+ */
+public class RenderQueueTest
+{
+	@Test
+	public void lowerZIsDrawnFirst()
+	{
+		RenderQueue queue = new RenderQueue();
+		Drawable top = RenderQueueTest.box(0, Color.RED);
+		Drawable bottom = RenderQueueTest.box(0, Color.RED);
+
+		queue.add(top, 1);
+		queue.add(bottom, 0);
+		assertEquals(Arrays.asList(bottom, top), queue.inOrder());
+
+		queue.add(bottom, 2);
+		assertEquals(Arrays.asList(top, bottom), queue.inOrder());
+		assertEquals(2, queue.getZ(bottom));
+	}
+
+	@Test
+	public void stringStaysOverThePanelBeneathIt()
+	{
+		RenderQueue queue = new RenderQueue();
+		Drawable panel = RenderQueueTest.box(0, Color.WHITE);
+		Drawable label = new DrawableString(new Point(0, 0), 12, Color.BLACK, "Label");
+
+		queue.add(panel, 0);
+		queue.add(label, 0);
+
+		assertEquals(Arrays.asList(panel, label), queue.inOrder());
+	}
+
+	@Test
+	public void overlappingDrawablesKeepTheirOrder()
+	{
+		RenderQueue queue = new RenderQueue();
+		Drawable first = RenderQueueTest.box(0, Color.RED);
+		Drawable second = RenderQueueTest.box(5, Color.BLUE);
+		Drawable third = RenderQueueTest.box(8, Color.RED);
+
+		queue.add(first, 0);
+		queue.add(second, 0);
+		queue.add(third, 0);
+
+		assertEquals(Arrays.asList(first, second, third), queue.inOrder());
+	}
+
+	@Test
+	public void separateDrawablesAreGroupedByColour()
+	{
+		RenderQueue queue = new RenderQueue();
+		Drawable first = RenderQueueTest.box(0, Color.RED);
+		Drawable second = RenderQueueTest.box(20, Color.BLUE);
+		Drawable third = RenderQueueTest.box(40, Color.RED);
+
+		queue.add(first, 0);
+		queue.add(second, 0);
+		queue.add(third, 0);
+
+		assertEquals(Arrays.asList(first, third, second), queue.inOrder());
+	}
+
+	@Test
+	public void nothingIsGroupedPastAString()
+	{
+		RenderQueue queue = new RenderQueue();
+		Drawable first = RenderQueueTest.box(0, Color.RED);
+		Drawable label = new DrawableString(new Point(20, 0), 12, Color.BLACK, "Label");
+		Drawable third = RenderQueueTest.box(40, Color.RED);
+
+		queue.add(first, 0);
+		queue.add(label, 0);
+		queue.add(third, 0);
+
+		assertEquals(Arrays.asList(first, label, third), queue.inOrder());
+	}
+
+	@Test
+	public void removedDrawablesAreNotDrawn()
+	{
+		RenderQueue queue = new RenderQueue();
+		Drawable first = RenderQueueTest.box(0, Color.RED);
+		Drawable second = RenderQueueTest.box(20, Color.BLUE);
+		queue.add(first, 0);
+		queue.add(second, 0);
+		queue.inOrder();
+
+		queue.remove(first);
+
+		assertEquals(Arrays.asList(second), queue.inOrder());
+		assertEquals(1, queue.size());
+	}
+
+	/**
+	 * @param x
+	 * 		The x coordinate of the center of the box
+	 * @param color
+	 * 		The colour of the box
+	 *
+	 * @return A box of width and height 10, centered at (x, 0)
+	 */
+	private static Drawable box(double x, Color color)
+	{
+		return new AAB(new Point(x, 0), 10, 10, color);
+	}
+}
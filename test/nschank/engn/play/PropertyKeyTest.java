@@ -0,0 +1,128 @@
+package nschank.engn.play;
+
+import org.junit.Test;
+
+import java.util.Collections;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+
+/**
+ * Created by Nicolas Schank for package nschank.engn.play
+ * Created on 3 Jul 2014
+ * Last updated on 3 Jul 2014
+ *
+ * Tests that PropertyKeys intern their names, and that an Entity keeps the same property whether it is reached through
+ * a key, a key of another type, or its name.
+ *
+ * @author nschank, Brown University
+ * @version 1.0
+ */
+public class PropertyKeyTest
+{
+	@Test
+	public void namesAreInternedOnce()
+	{
+		PropertyKey<Object> first = PropertyKey.named("propertyKeyTest.interned");
+		int count = PropertyKey.count();
+		PropertyKey<Object> second = PropertyKey.named("propertyKeyTest.interned");
+
+		assertSame(first, second);
+		assertEquals(count, PropertyKey.count());
+		assertTrue(first.getId() < count);
+		assertSame(first, PropertyKey.withId(first.getId()));
+	}
+
+	@Test
+	public void typedKeysShareTheIdOfTheirName()
+	{
+		PropertyKey<Object> untyped = PropertyKey.named("propertyKeyTest.typed");
+		PropertyKey<Double> typed = PropertyKey.of("propertyKeyTest.typed", Double.class);
+
+		assertNotSame(untyped, typed);
+		assertEquals(untyped.getId(), typed.getId());
+		assertEquals(untyped, typed);
+		assertEquals(untyped.hashCode(), typed.hashCode());
+		assertEquals(Double.class, typed.getType());
+		assertFalse(typed.equals(PropertyKey.named("propertyKeyTest.other")));
+	}
+
+	@Test(expected = ClassCastException.class)
+	public void castRejectsTheWrongType()
+	{
+		PropertyKey.of("propertyKeyTest.cast", Double.class).cast("not a number");
+	}
+
+	@Test
+	public void propertyIsTheSameByKeyOrByName()
+	{
+		AbstractEntity entity = PropertyKeyTest.entity();
+		PropertyKey<String> key = PropertyKey.of("propertyKeyTest.byKey", String.class);
+
+		entity.putProperty(key, "value");
+
+		assertEquals("value", entity.getProperty("propertyKeyTest.byKey"));
+		assertEquals("value", entity.getProperty(key));
+		assertTrue(entity.hasProperty(PropertyKey.named("propertyKeyTest.byKey")));
+		assertEquals("value", entity.getProperties().get("propertyKeyTest.byKey"));
+
+		entity.removeProperty("propertyKeyTest.byKey");
+		assertFalse(entity.hasProperty(key));
+		assertNull(entity.getProperty(key));
+	}
+
+	@Test
+	public void doublesAreReadEitherWay()
+	{
+		AbstractEntity entity = PropertyKeyTest.entity();
+		PropertyKey<Double> primitive = PropertyKey.of("propertyKeyTest.primitive", Double.class);
+		PropertyKey<Double> boxed = PropertyKey.of("propertyKeyTest.boxed", Double.class);
+
+		entity.putDouble(primitive, 2.5);
+		entity.putProperty("propertyKeyTest.boxed", 4);
+
+		assertEquals(2.5, entity.getDouble(primitive), 0);
+		assertEquals(2.5, entity.getProperty(primitive), 0);
+		assertEquals(4, entity.getDouble(boxed), 0);
+
+		entity.putProperty(primitive, 7.0);
+		assertEquals(7, entity.getDouble(primitive), 0);
+	}
+
+	@Test
+	public void keysInternedAfterTheEntityWasMadeStillFit()
+	{
+		AbstractEntity entity = PropertyKeyTest.entity();
+		PropertyKey<Object> late = PropertyKey.named("propertyKeyTest.late" + PropertyKey.count());
+
+		assertFalse(entity.hasProperty(late));
+		entity.putProperty(late, "late");
+		assertEquals("late", entity.getProperty(late));
+	}
+
+	@Test
+	public void protectedNamesAreIgnored()
+	{
+		AbstractEntity entity = PropertyKeyTest.entity();
+
+		entity.putProperty("!propertyKeyTest.protected", "ignored");
+		entity.putDouble(PropertyKey.of("!propertyKeyTest.protected", Double.class), 1);
+
+		assertFalse(entity.hasProperty("!propertyKeyTest.protected"));
+	}
+
+	/**
+	 * @return An {@code Entity} with no properties, outside of any {@code Universe}
+	 */
+	private static AbstractEntity entity()
+	{
+		return new AbstractEntity(null, Collections.<String, Object>emptyMap())
+		{
+		};
+	}
+}
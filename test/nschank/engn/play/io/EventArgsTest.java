@@ -0,0 +1,181 @@
+package nschank.engn.play.io;
+
+import nschank.engn.play.AbstractEntity;
+import nschank.engn.play.Entity;
+import nschank.engn.play.io.eval.Evaluator;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+
+/**
+ * Created by Nicolas Schank for package nschank.engn.play.io
+ * Created on 3 Jul 2014
+ * Last updated on 3 Jul 2014
+ *
+ * Tests which arguments an {@code Input} sees: those given when an {@code Output} fires override the {@code Output}'s
+ * own, and those of a {@code Connection} override both.
+ *
+ * @author nschank, Brown University
+ * @version 1.0
+ */
+public class EventArgsTest
+{
+	@Test
+	public void ownArgumentsOverrideThoseBeneath()
+	{
+		EventArgs args = EventArgs.obtain(EventArgsTest.map("a", 1, "b", 1), EventArgsTest.map("b", 2, "c", 2));
+		args.putDouble("a", 0);
+
+		assertEquals(0.0, EventArgsTest.valueOf(args, "a"));
+		assertEquals(1, EventArgsTest.valueOf(args, "b"));
+		assertEquals(2, EventArgsTest.valueOf(args, "c"));
+		assertEquals(3, args.size());
+		args.release();
+	}
+
+	@Test
+	public void removingHidesWithoutChangingTheMapsBeneath()
+	{
+		Map<String, Evaluator> under = EventArgsTest.map("a", 1, "b", 1);
+		EventArgs args = EventArgs.obtain(null, under);
+
+		args.remove("a");
+
+		assertFalse(args.containsKey("a"));
+		assertNull(args.get("a"));
+		assertTrue(under.containsKey("a"));
+		args.release();
+	}
+
+	@Test
+	public void copyOutlivesTheArgumentsItWasMadeFrom()
+	{
+		EventArgs args = EventArgs.obtain(null, EventArgsTest.map("a", 1, "b", 1));
+		args.putDouble("a", 2.5);
+		args.putValue("c", "three");
+
+		EventArgs copy = EventArgs.copyOf(args);
+		args.release();
+		EventArgs reused = EventArgs.obtain();
+		reused.putDouble("a", -1);
+		reused.putValue("c", "reused");
+
+		assertEquals(2.5, EventArgsTest.valueOf(copy, "a"));
+		assertEquals(1, EventArgsTest.valueOf(copy, "b"));
+		assertEquals("three", EventArgsTest.valueOf(copy, "c"));
+		reused.release();
+		copy.release();
+	}
+
+	@Test
+	public void outputCallArgumentsOverrideOutputArguments()
+	{
+		List<Object> seen = new ArrayList<>();
+		Output output = new Output();
+		output.putArgument("x", EventArgsTest.constant("output"));
+		output.putArgument("y", EventArgsTest.constant("output"));
+		output.connect(new Connection(EventArgsTest.recorder(seen), "doRecord"));
+
+		output.run(EventArgsTest.map("x", "call"));
+
+		assertEquals(2, seen.size());
+		assertEquals("call", seen.get(0));
+		assertEquals("output", seen.get(1));
+	}
+
+	@Test
+	public void connectionArgumentsOverrideOutputArguments()
+	{
+		List<Object> seen = new ArrayList<>();
+		Output output = new Output();
+		output.putArgument("x", EventArgsTest.constant("output"));
+		output.putArgument("y", EventArgsTest.constant("output"));
+		output.connect(new Connection(EventArgsTest.recorder(seen), "doRecord", EventArgsTest.map("x", "connection",
+				"y", "connection")));
+
+		output.run(EventArgsTest.map("x", "call"));
+
+		assertEquals(2, seen.size());
+		assertEquals("connection", seen.get(0));
+		assertEquals("connection", seen.get(1));
+	}
+
+	/**
+	 * @param value
+	 * 		Any value
+	 *
+	 * @return An Evaluator which always evaluates to that value
+	 */
+	private static Evaluator constant(final Object value)
+	{
+		return new Evaluator()
+		{
+			@Override
+			public Object eval(Map<String, Evaluator> args, Entity e)
+			{
+				return value;
+			}
+		};
+	}
+
+	/**
+	 * @param namesAndValues
+	 * 		Alternating argument names and the constant values of those arguments
+	 *
+	 * @return A mapping from each name to an Evaluator of its value
+	 */
+	private static Map<String, Evaluator> map(Object... namesAndValues)
+	{
+		Map<String, Evaluator> map = new HashMap<>();
+		for(int i = 0; i < namesAndValues.length; i += 2)
+			map.put((String) namesAndValues[i], EventArgsTest.constant(namesAndValues[i + 1]));
+		return map;
+	}
+
+	/**
+	 * @param seen
+	 * 		A list to record into
+	 *
+	 * @return An {@code Entity} whose "doRecord" {@code Input} adds the values of its "x" and "y" arguments to
+	 * {@code seen}
+	 */
+	private static Entity recorder(final List<Object> seen)
+	{
+		Entity recorder = new AbstractEntity(null, Collections.<String, Object>emptyMap())
+		{
+		};
+		recorder.putInput("doRecord", new Input()
+		{
+			@Override
+			public void run(Map<String, Evaluator> args)
+			{
+				seen.add(EventArgsTest.valueOf(args, "x"));
+				seen.add(EventArgsTest.valueOf(args, "y"));
+			}
+		});
+		return recorder;
+	}
+
+	/**
+	 * @param args
+	 * 		A mapping of arguments
+	 * @param name
+	 * 		The name of one of them
+	 *
+	 * @return The value of that argument
+	 */
+	private static Object valueOf(Map<String, Evaluator> args, String name)
+	{
+		return args.get(name).eval(args, null);
+	}
+}
@@ -0,0 +1,110 @@
+package nschank.engn.play.io;
+
+import nschank.engn.play.AbstractEntity;
+import nschank.engn.play.Entity;
+import nschank.engn.play.io.eval.Evaluator;
+import org.junit.After;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.Assert.assertEquals;
+
+
+/**
+ * Created by Nicolas Schank for package nschank.engn.play.io
+ * Created on 3 Jul 2014
+ * Last updated on 3 Jul 2014
+ *
+ * Tests that queued events run in the order they were fired and within their budget, and that a cycle of
+ * {@code Connection}s is broken without stopping the rest of the queue.
+ *
+ * @author nschank, Brown University
+ * @version 1.0
+ */
+public class EventQueueTest
+{
+	private static final Map<String, Evaluator> NO_ARGS = Collections.emptyMap();
+
+	@After
+	public void disable()
+	{
+		EventQueue.disable();
+		while(EventQueue.pending() > 0)
+			EventQueue.drain();
+	}
+
+	@Test
+	public void cycleIsDroppedAndTheQueueKeepsRunning()
+	{
+		List<String> ran = new ArrayList<>();
+		Entity loop = EventQueueTest.recorder("loop", ran);
+		Entity other = EventQueueTest.recorder("other", ran);
+		loop.connect("onPing", loop, "doPing");
+		other.connect("onPing", EventQueueTest.recorder("after", ran), "doPing");
+		Entity trigger = EventQueueTest.recorder("trigger", ran);
+		trigger.connect("onFire", loop, "doPing");
+		trigger.connect("onFire", other, "doPing");
+		int broken = EventQueue.brokenCycles();
+		EventQueue.enable();
+
+		trigger.runOutput("onFire", EventQueueTest.NO_ARGS);
+		EventQueue.drain();
+
+		//The loop runs again before it is found to be a cycle; the event queued behind it still runs
+		assertEquals(Arrays.asList("loop", "other", "loop", "after"), ran);
+		assertEquals(broken + 1, EventQueue.brokenCycles());
+		assertEquals(0, EventQueue.pending());
+	}
+
+	@Test
+	public void cascadeRunsBreadthFirstWithinItsBudget()
+	{
+		List<String> ran = new ArrayList<>();
+		Entity first = EventQueueTest.recorder("first", ran);
+		Entity second = EventQueueTest.recorder("second", ran);
+		Entity third = EventQueueTest.recorder("third", ran);
+		first.connect("onPing", third, "doPing");
+		Entity trigger = EventQueueTest.recorder("trigger", ran);
+		trigger.connect("onFire", first, "doPing");
+		trigger.connect("onFire", second, "doPing");
+		EventQueue.enable(2);
+
+		trigger.runOutput("onFire", EventQueueTest.NO_ARGS);
+		EventQueue.drain();
+
+		assertEquals(Arrays.asList("first", "second"), ran);
+		assertEquals(1, EventQueue.pending());
+
+		EventQueue.drain();
+		assertEquals(Arrays.asList("first", "second", "third"), ran);
+	}
+
+	/**
+	 * @param name
+	 * 		A name for the {@code Entity}
+	 * @param ran
+	 * 		A list to record into
+	 *
+	 * @return An {@code Entity} whose "doPing" {@code Input} adds {@code name} to {@code ran}
+	 */
+	private static Entity recorder(final String name, final List<String> ran)
+	{
+		Entity recorder = new AbstractEntity(null, Collections.<String, Object>emptyMap())
+		{
+		};
+		recorder.putInput("doPing", new Input()
+		{
+			@Override
+			public void run(Map<String, Evaluator> args)
+			{
+				ran.add(name);
+			}
+		});
+		return recorder;
+	}
+}
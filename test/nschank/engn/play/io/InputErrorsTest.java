@@ -0,0 +1,123 @@
+package nschank.engn.play.io;
+
+import nschank.engn.play.AbstractEntity;
+import nschank.engn.play.Entity;
+import nschank.engn.play.io.eval.Evaluator;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.Collections;
+import java.util.Map;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.fail;
+
+
+/**
+ * Created by Nicolas Schank for package nschank.engn.play.io
+ * Created on 3 Jul 2014
+ * Last updated on 3 Jul 2014
+ *
+ * Tests that every failing {@code Input} is reported to InputErrors exactly once, including one run by another
+ * {@code Input}, or by a {@code Connection} from the {@code Output} another fires.
+ *
+ * @author nschank, Brown University
+ * @version 1.0
+ */
+public class InputErrorsTest
+{
+	private static final Map<String, Evaluator> NO_ARGS = Collections.emptyMap();
+
+	@Before
+	public void clear()
+	{
+		InputErrors.clear();
+	}
+
+	@Test
+	public void failureIsReportedOnce()
+	{
+		Entity entity = InputErrorsTest.failing();
+
+		assertFalse(entity.tryInput("doFail", InputErrorsTest.NO_ARGS));
+
+		assertEquals(1, InputErrors.total());
+		assertEquals(1, InputErrors.countOf("doFail"));
+	}
+
+	@Test
+	public void nestedFailureIsReportedOnceByTheOutermostInput()
+	{
+		final Entity inner = InputErrorsTest.failing();
+		Entity outer = InputErrorsTest.entity();
+		outer.putInput("doOuter", new Input()
+		{
+			@Override
+			public void run(Map<String, Evaluator> args)
+			{
+				inner.doInput("doFail", args);
+			}
+		});
+
+		try
+		{
+			outer.doInput("doOuter", InputErrorsTest.NO_ARGS);
+			fail("The failure of the inner Input should be thrown");
+		} catch(InputFailureException e)
+		{
+			assertEquals("doOuter", e.getInputName());
+		}
+
+		assertEquals(1, InputErrors.total());
+		assertEquals(1, InputErrors.countOf("doOuter"));
+		assertEquals(0, InputErrors.countOf("doFail"));
+	}
+
+	@Test
+	public void failureFiredThroughAnOutputIsReportedOnce()
+	{
+		Entity inner = InputErrorsTest.failing();
+		Entity outer = InputErrorsTest.entity();
+		outer.putInput("doOuter", new Input()
+		{
+			@Override
+			public void run(Map<String, Evaluator> args)
+			{
+			}
+		});
+		outer.connect("onOuter", inner, "doFail");
+
+		assertFalse(outer.tryInput("doOuter", InputErrorsTest.NO_ARGS));
+
+		assertEquals(1, InputErrors.total());
+		assertEquals(1, InputErrors.countOf("doFail"));
+	}
+
+	/**
+	 * @return An {@code Entity} with no properties, outside of any {@code Universe}
+	 */
+	private static Entity entity()
+	{
+		return new AbstractEntity(null, Collections.<String, Object>emptyMap())
+		{
+		};
+	}
+
+	/**
+	 * @return An {@code Entity} whose "doFail" {@code Input} always throws
+	 */
+	private static Entity failing()
+	{
+		Entity entity = InputErrorsTest.entity();
+		entity.putInput("doFail", new Input()
+		{
+			@Override
+			public void run(Map<String, Evaluator> args)
+			{
+				throw new IllegalStateException("Failed on purpose");
+			}
+		});
+		return entity;
+	}
+}
@@ -0,0 +1,56 @@
+package nschank.engn.play.io;
+
+import nschank.engn.play.AbstractEntity;
+import nschank.engn.play.Entity;
+import org.junit.Test;
+
+import java.util.Collections;
+
+import static org.junit.Assert.assertEquals;
+
+
+/**
+ * Created by Nicolas Schank for package nschank.engn.play.io
+ * Created on 3 Jul 2014
+ * Last updated on 3 Jul 2014
+ *
+ * Tests that an {@code Entity} is counted once per connected {@code Output}, and no longer once it is unsubscribed.
+ *
+ * @author nschank, Brown University
+ * @version 1.0
+ */
+public class SubscriptionsTest
+{
+	@Test
+	public void countsFallWhenAnEntityIsUnsubscribed()
+	{
+		Entity listened = SubscriptionsTest.entity();
+		Entity target = SubscriptionsTest.entity();
+		int pings = Subscriptions.subscribersTo("onSubscriptionsTestPing");
+		int pongs = Subscriptions.subscribersTo("onSubscriptionsTestPong");
+
+		listened.connect("onSubscriptionsTestPing", target, "doPing");
+		listened.connect("onSubscriptionsTestPing", target, "doOtherPing");
+		listened.connect("onSubscriptionsTestPong", target, "doPong");
+		assertEquals(pings + 1, Subscriptions.subscribersTo("onSubscriptionsTestPing"));
+		assertEquals(pongs + 1, Subscriptions.subscribersTo("onSubscriptionsTestPong"));
+
+		listened.unsubscribe();
+		listened.unsubscribe();
+		assertEquals(pings, Subscriptions.subscribersTo("onSubscriptionsTestPing"));
+		assertEquals(pongs, Subscriptions.subscribersTo("onSubscriptionsTestPong"));
+
+		listened.connect("onSubscriptionsTestOther", target, "doPing");
+		assertEquals(0, Subscriptions.subscribersTo("onSubscriptionsTestOther"));
+	}
+
+	/**
+	 * @return An {@code Entity} with no properties, outside of any {@code Universe}
+	 */
+	private static Entity entity()
+	{
+		return new AbstractEntity(null, Collections.<String, Object>emptyMap())
+		{
+		};
+	}
+}
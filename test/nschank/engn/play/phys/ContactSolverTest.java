@@ -0,0 +1,152 @@
+package nschank.engn.play.phys;
+
+import nschank.collect.dim.Point;
+import nschank.collect.dim.Vector;
+import nschank.engn.shape.collide.AAB;
+import nschank.engn.shape.collide.ManifoldCollision;
+import org.junit.Test;
+
+import java.awt.Color;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+
+/**
+ * Created by Nicolas Schank for package nschank.engn.play.phys
+ * Created on 3 Jul 2014
+ * Last updated on 3 Jul 2014
+ *
+ * Tests the ContactSolver on head-on contacts between two boxes, whose outcome is known exactly, and on a box resting
+ * against or sliding along immovable ground.
+ *
+ * @author nschank, Brown University
+ * @version 1.0
+ */
+public class ContactSolverTest
+{
+	private static final double EPSILON = 1e-6;
+
+	@Test
+	public void elasticCollisionExchangesVelocities()
+	{
+		PhysicsEntity a = ContactSolverTest.box(0, 0, 1, 1, 0);
+		PhysicsEntity b = ContactSolverTest.box(0.9, 0, 1, 1, 0);
+		a.setVelocity(new Vector(1, 0));
+
+		ContactSolver solver = new ContactSolver();
+		solver.addContact(a, b, ContactSolverTest.headOn(0.45, 0.1));
+		solver.solve();
+
+		assertEquals(0, a.getVelocity().getCoordinate(0), EPSILON);
+		assertEquals(1, b.getVelocity().getCoordinate(0), EPSILON);
+	}
+
+	@Test
+	public void inelasticCollisionLeavesNoApproach()
+	{
+		PhysicsEntity a = ContactSolverTest.box(0, 0, 1, 0, 0);
+		PhysicsEntity b = ContactSolverTest.box(0.9, 0, 3, 0, 0);
+		a.setVelocity(new Vector(2, 0));
+
+		ContactSolver solver = new ContactSolver();
+		solver.addContact(a, b, ContactSolverTest.headOn(0.45, 0.1));
+		solver.solve();
+
+		//Momentum is kept, and both move together
+		assertEquals(0.5, a.getVelocity().getCoordinate(0), EPSILON);
+		assertEquals(0.5, b.getVelocity().getCoordinate(0), EPSILON);
+	}
+
+	@Test
+	public void overlapIsSplitByInverseMass()
+	{
+		PhysicsEntity a = ContactSolverTest.box(0, 0, 1, 0, 0);
+		PhysicsEntity b = ContactSolverTest.box(0.9, 0, 3, 0, 0);
+
+		ContactSolver solver = new ContactSolver();
+		solver.addContact(a, b, ContactSolverTest.headOn(0.45, 0.1));
+		solver.solve();
+
+		assertEquals(-0.075, a.getCenterPosition().getCoordinate(0), EPSILON);
+		assertEquals(0.925, b.getCenterPosition().getCoordinate(0), EPSILON);
+	}
+
+	@Test
+	public void immovableGroundStopsApproachWithoutMoving()
+	{
+		PhysicsEntity box = ContactSolverTest.box(0, 0, 1, 0, 0);
+		PhysicsEntity ground = ContactSolverTest.box(0, 0.9, 0, 0, 0);
+		box.setVelocity(new Vector(0, 3));
+
+		ContactSolver solver = new ContactSolver();
+		solver.addContact(box, ground, new ManifoldCollision(Arrays.asList(new Point(0, 0.45)), new Vector(0, -0.1)));
+		solver.solve();
+
+		assertEquals(0, box.getVelocity().getCoordinate(1), EPSILON);
+		assertEquals(-0.1, box.getCenterPosition().getCoordinate(1), EPSILON);
+		assertEquals(0.9, ground.getCenterPosition().getCoordinate(1), EPSILON);
+	}
+
+	@Test
+	public void frictionSlowsSlidingWithoutReversingIt()
+	{
+		PhysicsEntity box = ContactSolverTest.box(0, 0, 1, 0, 0.5);
+		PhysicsEntity ground = ContactSolverTest.box(0, 1, 0, 0, 1);
+		box.setVelocity(new Vector(5, 1));
+
+		ContactSolver solver = new ContactSolver();
+		solver.addContact(box, ground, new ManifoldCollision(Arrays.asList(new Point(-0.5, 0.5), new Point(0.5, 0.5)),
+				new Vector(0, -0.01)));
+		solver.solve();
+
+		double sliding = box.getVelocity().getCoordinate(0);
+		assertTrue("Friction should slow the box, but it slides at " + sliding, sliding < 5);
+		assertTrue("Friction should never reverse the box, but it slides at " + sliding, sliding >= 0);
+		//Two contact points converge over the velocity iterations, rather than exactly
+		assertEquals(0, box.getVelocity().getCoordinate(1), 1e-3);
+	}
+
+	/**
+	 * @param centerX
+	 * 		The x coordinate of the point of contact
+	 * @param depth
+	 * 		How far the first box overlaps the second, which is to its right
+	 *
+	 * @return A single-point contact along the x axis, from the point of view of the left box
+	 */
+	private static ManifoldCollision headOn(double centerX, double depth)
+	{
+		return new ManifoldCollision(Arrays.asList(new Point(centerX, 0)), new Vector(-depth, 0));
+	}
+
+	/**
+	 * @param x
+	 * 		The x coordinate of the center of the box
+	 * @param y
+	 * 		The y coordinate of the center of the box
+	 * @param mass
+	 * 		The mass of the box; 0 for immovable
+	 * @param restitutionSqrt
+	 * 		The square root of its coefficient of restitution
+	 * @param frictionSqrt
+	 * 		The square root of its coefficients of friction
+	 *
+	 * @return A unit box which is a {@code PhysicsEntity}, outside of any {@code Universe}
+	 */
+	static PhysicsEntity box(double x, double y, double mass, double restitutionSqrt, double frictionSqrt)
+	{
+		Map<String, Object> properties = new HashMap<>();
+		properties.put(PhysicsEntity.SHAPE.getName(), new AAB(new Point(x, y), 1, 1, Color.BLACK));
+		properties.put(PhysicsEntity.MASS.getName(), mass);
+		properties.put(PhysicsEntity.COEFFICIENT_OF_RESTITUTION_SQRT.getName(), restitutionSqrt);
+		properties.put(PhysicsEntity.COEFFICIENT_OF_DYNAMIC_FRICTION_SQRT.getName(), frictionSqrt);
+		properties.put(PhysicsEntity.COEFFICIENT_OF_STATIC_FRICTION_SQRT.getName(), frictionSqrt);
+		return new AbstractPhysicsEntity(null, properties)
+		{
+		};
+	}
+}
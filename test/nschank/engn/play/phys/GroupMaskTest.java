@@ -0,0 +1,139 @@
+package nschank.engn.play.phys;
+
+import nschank.collect.dim.Point;
+import nschank.engn.shape.collide.AAB;
+import org.junit.Test;
+
+import java.awt.Color;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+
+/**
+ * Created by Nicolas Schank for package nschank.engn.play.phys
+ * Created on 3 Jul 2014
+ * Last updated on 3 Jul 2014
+ *
+ * Tests that any group number, including negative, large and fractional ones, is given its own bit, that the bit of a
+ * group no longer in use is given to the next new number, and that the {@code :...Groups} properties give back exactly
+ * the numbers they were given.
+ *
+ * @author nschank, Brown University
+ * @version 1.1
+ */
+public class GroupMaskTest
+{
+	@Test
+	public void anyNumberIsItsOwnGroup()
+	{
+		long mask = GroupMask.of(GroupKind.COLLISION, Arrays.asList(-3.0, 1.0, 1.5, 100.0));
+
+		assertEquals(4, Long.bitCount(mask));
+		assertTrue(GroupMask.contains(mask, GroupKind.COLLISION, -3));
+		assertTrue(GroupMask.contains(mask, GroupKind.COLLISION, 1.5));
+		assertTrue(GroupMask.contains(mask, GroupKind.COLLISION, 100));
+		assertFalse(GroupMask.contains(mask, GroupKind.COLLISION, 2));
+		assertFalse(GroupMask.overlaps(mask, GroupMask.bit(GroupKind.COLLISION, 1.25)));
+		assertEquals(Arrays.asList(-3.0, 1.0, 1.5, 100.0), GroupMask.groupsOf(GroupKind.COLLISION, mask));
+	}
+
+	@Test
+	public void negativeZeroIsZero()
+	{
+		assertEquals(GroupMask.bit(GroupKind.FORCE, 0.0), GroupMask.bit(GroupKind.FORCE, -0.0));
+	}
+
+	@Test
+	public void removingAnUnusedGroupChangesNothing()
+	{
+		long mask = GroupMask.bit(GroupKind.FORCE, 7);
+
+		assertEquals(mask, GroupMask.without(mask, GroupKind.FORCE, 123456.789));
+		assertEquals(0, GroupMask.without(mask, GroupKind.FORCE, 7));
+	}
+
+	@Test
+	public void tooManyGroupsInUseAreRejected()
+	{
+		long held = 0;
+		for(int i = 0; i < GroupMask.MAX_GROUPS; i++)
+			held = GroupMask.with(held, GroupKind.RAY, 1000 + i);
+		GroupMask.retain(GroupKind.RAY, held);
+		try
+		{
+			assertEquals(-1L, held);
+			try
+			{
+				GroupMask.bit(GroupKind.RAY, -1);
+				fail("More than " + GroupMask.MAX_GROUPS + " ray groups should not be in use at once");
+			} catch(IllegalStateException e)
+			{
+				assertTrue(GroupMask.contains(held, GroupKind.RAY, 1000));
+			}
+		} finally
+		{
+			GroupMask.release(GroupKind.RAY, held);
+		}
+	}
+
+	@Test
+	public void idOfAnUnusedGroupIsReused()
+	{
+		long held = 0;
+		for(int i = 0; i < GroupMask.MAX_GROUPS; i++)
+			held = GroupMask.with(held, GroupKind.RAY, 3000 + i);
+		GroupMask.retain(GroupKind.RAY, held);
+		try
+		{
+			long released = GroupMask.bit(GroupKind.RAY, 3010);
+			GroupMask.release(GroupKind.RAY, released);
+			held &= ~released;
+
+			assertEquals(released, GroupMask.bit(GroupKind.RAY, -2));
+			assertFalse(GroupMask.contains(held, GroupKind.RAY, 3010));
+			assertTrue(GroupMask.contains(released, GroupKind.RAY, -2));
+		} finally
+		{
+			GroupMask.release(GroupKind.RAY, held);
+		}
+	}
+
+	@Test
+	public void groupPropertiesGiveBackTheirNumbers()
+	{
+		PhysicsEntity a = GroupMaskTest.inGroups(Arrays.asList(-1.0, 2.5, 64.0));
+		PhysicsEntity b = GroupMaskTest.inGroups(Arrays.asList(2.0, 64.0));
+		PhysicsEntity c = GroupMaskTest.inGroups(Arrays.asList(2.0, 3.0));
+
+		assertEquals(Arrays.asList(-1.0, 2.5, 64.0), a.getProperty(PhysicsEntity.COLLISION_GROUPS));
+		assertTrue(GroupMask.share(a, b, GroupKind.COLLISION));
+		assertFalse(GroupMask.share(a, c, GroupKind.COLLISION));
+	}
+
+	/**
+	 * @param groups
+	 * 		The numbers of some collision groups
+	 *
+	 * @return A {@code PhysicsEntity} in exactly those collision groups, outside of any {@code Universe}
+	 */
+	private static PhysicsEntity inGroups(List<Double> groups)
+	{
+		Map<String, Object> properties = new HashMap<>();
+		properties.put(PhysicsEntity.SHAPE.getName(), new AAB(new Point(0, 0), 1, 1, Color.BLACK));
+		properties.put(PhysicsEntity.MASS.getName(), 1.0);
+		properties.put(PhysicsEntity.COEFFICIENT_OF_RESTITUTION_SQRT.getName(), 0.0);
+		properties.put(PhysicsEntity.COEFFICIENT_OF_DYNAMIC_FRICTION_SQRT.getName(), 0.0);
+		properties.put(PhysicsEntity.COEFFICIENT_OF_STATIC_FRICTION_SQRT.getName(), 0.0);
+		properties.put(PhysicsEntity.COLLISION_GROUPS.getName(), groups);
+		return new AbstractPhysicsEntity(null, properties)
+		{
+		};
+	}
+}
@@ -0,0 +1,84 @@
+package nschank.engn.play.phys;
+
+import nschank.collect.dim.Vector;
+import nschank.engn.play.PropertyKey;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+
+/**
+ * Created by Nicolas Schank for package nschank.engn.play.phys
+ * Created on 3 Jul 2014
+ * Last updated on 3 Jul 2014
+ *
+ * Tests that the internal properties of a PhysicsEntity are reached through their keys and names alike, including
+ * derivatives named by their order, and internal properties which are simply stored.
+ *
+ * @author nschank, Brown University
+ * @version 1.0
+ */
+public class InternalPropertyTest
+{
+	private static final double EPSILON = 1e-9;
+
+	@Test
+	public void numericPropertiesComeFromTheirFields()
+	{
+		PhysicsEntity box = ContactSolverTest.box(0, 0, 3, 0.5, 0.25);
+
+		assertEquals(3, box.getDouble(PhysicsEntity.MASS), 0);
+		assertEquals(0.5, box.getDouble(PhysicsEntity.COEFFICIENT_OF_RESTITUTION_SQRT), 0);
+		assertEquals(1, box.getDouble(PhysicsEntity.WIDTH), 0);
+
+		box.putDouble(PhysicsEntity.MASS, 5);
+		assertEquals(5, box.getMass(), 0);
+		assertEquals(5.0, box.getProperty(":mass"));
+	}
+
+	@Test
+	public void derivativesAreNamedByOrder()
+	{
+		PhysicsEntity box = ContactSolverTest.box(0, 0, 1, 0, 0);
+		box.setVelocity(new Vector(2, 3));
+		box.setRotationalVelocity(0.5);
+
+		Vector velocity = (Vector) box.getProperty(":deriv1");
+		assertEquals(2, velocity.getCoordinate(0), EPSILON);
+		assertEquals(3, velocity.getCoordinate(1), EPSILON);
+		assertEquals(0.5, box.getDouble(PropertyKey.of(":rderiv1", Double.class)), EPSILON);
+
+		box.putProperty(":deriv1", new Vector(-1, 0));
+		box.putDouble(PropertyKey.of(":rderiv1", Double.class), 2);
+		assertEquals(-1, box.getVelocity().getCoordinate(0), EPSILON);
+		assertEquals(2, box.getRotationalVelocity(), EPSILON);
+	}
+
+	@Test
+	public void storedInternalPropertiesAreKept()
+	{
+		PhysicsEntity box = ContactSolverTest.box(0, 0, 1, 0, 0);
+
+		box.putProperty(PhysicsEntity.ANIMATED, true);
+
+		assertTrue(box.getProperty(PhysicsEntity.ANIMATED));
+		assertTrue(box.hasProperty(":animated"));
+	}
+
+	@Test
+	public void ordinaryPropertiesAreNotInternal()
+	{
+		PhysicsEntity box = ContactSolverTest.box(0, 0, 1, 0, 0);
+
+		box.putProperty("internalPropertyTest.ordinary", 4.0);
+
+		assertEquals(4, box.getDouble(PropertyKey.of("internalPropertyTest.ordinary", Double.class)), 0);
+	}
+
+	@Test(expected = NonexistentInternalPropertyException.class)
+	public void unknownInternalPropertyIsRejected()
+	{
+		ContactSolverTest.box(0, 0, 1, 0, 0).getProperty(":derivX");
+	}
+}
@@ -0,0 +1,101 @@
+package nschank.engn.play.phys;
+
+import nschank.collect.dim.Vector;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+
+/**
+ * Created by Nicolas Schank for package nschank.engn.play.phys
+ * Created on 3 Jul 2014
+ * Last updated on 3 Jul 2014
+ *
+ * Tests that a body held still by a contact falls asleep even though a field pushes on it every tick, that field
+ * forces neither wake it nor pile up while it sleeps, and that impulses and forces applied at a point wake it again.
+ *
+ * @author nschank, Brown University
+ * @version 1.2
+ */
+public class SleepTest
+{
+	private static final long TICK = 16000000L;
+	private static final double GRAVITY = 9.8;
+
+	@Test
+	public void restingUnderGravityFallsAsleep()
+	{
+		PhysicsEntity box = ContactSolverTest.box(0, 0, 1, 0, 0.5);
+		PhysicsEntity ground = ContactSolverTest.box(0, 1, 0, 0, 0.5);
+		ContactSolver solver = new ContactSolver();
+
+		for(int i = 0; i < 3 * AbstractPhysicsEntity.TICKS_UNTIL_SLEEP; i++)
+			SleepTest.step(box, ground, solver);
+
+		assertTrue("A box resting on the ground under gravity should fall asleep", box.isSleeping());
+		assertEquals(0, box.getCenterPosition().getCoordinate(1), 0.01);
+	}
+
+	@Test
+	public void fieldForcesAreDroppedWhileAsleep()
+	{
+		PhysicsEntity box = ContactSolverTest.box(0, 0, 1, 0, 0.5);
+		box.sleep();
+
+		for(int i = 0; i < 10; i++)
+		{
+			box.applyForce(0, SleepTest.GRAVITY);
+			box.onTick(SleepTest.TICK);
+		}
+		assertTrue(box.isSleeping());
+		assertEquals(0, box.getCenterPosition().getCoordinate(1), 0);
+
+		box.wake();
+		box.onTick(SleepTest.TICK);
+		assertEquals(0, box.getVelocity().getCoordinate(1), 0);
+	}
+
+	@Test
+	public void forceAtAPointWakesASleepingBody()
+	{
+		PhysicsEntity box = ContactSolverTest.box(0, 0, 1, 0, 0.5);
+		box.sleep();
+
+		box.applyForceAt(new Vector(0, SleepTest.GRAVITY), box.getCenterPosition());
+		assertFalse(box.isSleeping());
+
+		box.onTick(SleepTest.TICK);
+		assertTrue(box.getVelocity().getCoordinate(1) > 0);
+	}
+
+	@Test
+	public void impulseWakesASleepingBody()
+	{
+		PhysicsEntity box = ContactSolverTest.box(0, 0, 1, 0, 0.5);
+		box.sleep();
+
+		box.applyImpulseAt(new Vector(0, 1), box.getCenterPosition());
+
+		assertFalse(box.isSleeping());
+	}
+
+	/**
+	 * Runs one tick of a box under gravity, followed by the contact between it and the ground.
+	 *
+	 * @param box
+	 * 		A movable {@code PhysicsEntity}
+	 * @param ground
+	 * 		An immovable {@code PhysicsEntity} beneath it
+	 * @param solver
+	 * 		The ContactSolver to resolve their contact with
+	 */
+	private static void step(PhysicsEntity box, PhysicsEntity ground, ContactSolver solver)
+	{
+		box.applyForce(0, SleepTest.GRAVITY);
+		box.onTick(SleepTest.TICK);
+		solver.addContact(box, ground);
+		solver.solve();
+	}
+}
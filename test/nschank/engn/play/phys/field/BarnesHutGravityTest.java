@@ -0,0 +1,163 @@
+package nschank.engn.play.phys.field;
+
+import nschank.collect.dim.Point;
+import nschank.engn.play.phys.AbstractPhysicsEntity;
+import nschank.engn.play.phys.PhysicsEntity;
+import nschank.engn.shape.collide.AAB;
+import org.junit.Test;
+
+import java.awt.Color;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+
+/**
+ * Created by Nicolas Schank for package nschank.engn.play.phys.field
+ * Created on 3 Jul 2014
+ * Last updated on 3 Jul 2014
+ *
+ * Tests BarnesHutGravity against the brute force sum over every pair of bodies: it must be exact when theta is 0, and
+ * close when theta is 0.5, including when several bodies share a position.
+ *
+ * @author nschank, Brown University
+ * @version 1.0
+ */
+public class BarnesHutGravityTest
+{
+	private static final double G = 2.0;
+	private static final double SOFTENING = 0.1;
+
+	@Test
+	public void exactWhenThetaIsZero()
+	{
+		BodyBatch bodies = BarnesHutGravityTest.randomBodies(new Random(46), 300);
+
+		double[][] expected = BarnesHutGravityTest.bruteForce(bodies);
+		new BarnesHutGravity(BarnesHutGravityTest.G, 0, BarnesHutGravityTest.SOFTENING).apply(bodies);
+
+		for(int i = 0; i < bodies.size(); i++)
+		{
+			double scale = Math.hypot(expected[0][i], expected[1][i]);
+			assertEquals(expected[0][i], bodies.forceX[i], 1e-9 * scale);
+			assertEquals(expected[1][i], bodies.forceY[i], 1e-9 * scale);
+		}
+	}
+
+	@Test
+	public void closeWhenThetaIsAHalf()
+	{
+		BodyBatch bodies = BarnesHutGravityTest.randomBodies(new Random(47), 500);
+
+		double[][] expected = BarnesHutGravityTest.bruteForce(bodies);
+		new BarnesHutGravity(BarnesHutGravityTest.G, 0.5, BarnesHutGravityTest.SOFTENING).apply(bodies);
+
+		double totalError = 0;
+		for(int i = 0; i < bodies.size(); i++)
+		{
+			double error = Math.hypot(bodies.forceX[i] - expected[0][i], bodies.forceY[i] - expected[1][i]);
+			totalError += error / Math.hypot(expected[0][i], expected[1][i]);
+		}
+		double meanError = totalError / bodies.size();
+		assertTrue("Mean relative error " + meanError + " is too large", meanError < 0.02);
+	}
+
+	@Test
+	public void bodiesAtTheSamePositionAttractTheRest()
+	{
+		List<PhysicsEntity> members = new ArrayList<>();
+		members.add(BarnesHutGravityTest.body(1, 1, 2));
+		members.add(BarnesHutGravityTest.body(1, 1, 3));
+		members.add(BarnesHutGravityTest.body(4, 5, 1));
+		BodyBatch bodies = new BodyBatch(members.size());
+		bodies.gather(members);
+
+		double[][] expected = BarnesHutGravityTest.bruteForce(bodies);
+		new BarnesHutGravity(BarnesHutGravityTest.G, 0.5, BarnesHutGravityTest.SOFTENING).apply(bodies);
+
+		for(int i = 0; i < bodies.size(); i++)
+		{
+			assertEquals(expected[0][i], bodies.forceX[i], 1e-9);
+			assertEquals(expected[1][i], bodies.forceY[i], 1e-9);
+		}
+		//Momentum is kept: every attraction is matched by an equal and opposite one
+		assertEquals(0, bodies.forceX[0] + bodies.forceX[1] + bodies.forceX[2], 1e-9);
+		assertEquals(0, bodies.forceY[0] + bodies.forceY[1] + bodies.forceY[2], 1e-9);
+	}
+
+	/**
+	 * @param bodies
+	 * 		A batch of bodies
+	 *
+	 * @return The softened attraction upon each body of every other, summed pair by pair; the x components first, then
+	 * the y components
+	 */
+	private static double[][] bruteForce(BodyBatch bodies)
+	{
+		double[][] force = new double[2][bodies.size()];
+		for(int i = 0; i < bodies.size(); i++)
+			for(int j = 0; j < bodies.size(); j++)
+			{
+				if(i == j) continue;
+				double dx = bodies.x[j] - bodies.x[i];
+				double dy = bodies.y[j] - bodies.y[i];
+				double distance2 = dx * dx + dy * dy + BarnesHutGravityTest.SOFTENING * BarnesHutGravityTest.SOFTENING;
+				double scale = BarnesHutGravityTest.G * bodies.mass[i] * bodies.mass[j] / (distance2 * Math.sqrt(
+						distance2));
+				force[0][i] += scale * dx;
+				force[1][i] += scale * dy;
+			}
+		return force;
+	}
+
+	/**
+	 * @param x
+	 * 		The x coordinate of the body
+	 * @param y
+	 * 		The y coordinate of the body
+	 * @param mass
+	 * 		The mass of the body
+	 *
+	 * @return A small box which is a {@code PhysicsEntity}, outside of any {@code Universe}
+	 */
+	private static PhysicsEntity body(double x, double y, double mass)
+	{
+		Map<String, Object> properties = new HashMap<>();
+		properties.put(PhysicsEntity.SHAPE.getName(), new AAB(new Point(x, y), 0.1, 0.1, Color.BLACK));
+		properties.put(PhysicsEntity.MASS.getName(), mass);
+		properties.put(PhysicsEntity.COEFFICIENT_OF_RESTITUTION_SQRT.getName(), 0.0);
+		properties.put(PhysicsEntity.COEFFICIENT_OF_DYNAMIC_FRICTION_SQRT.getName(), 0.0);
+		properties.put(PhysicsEntity.COEFFICIENT_OF_STATIC_FRICTION_SQRT.getName(), 0.0);
+		return new AbstractPhysicsEntity(null, properties)
+		{
+		};
+	}
+
+	/**
+	 * @param random
+	 * 		A source of random numbers
+	 * @param count
+	 * 		How many bodies to make
+	 *
+	 * @return A batch of that many bodies of random mass, clustered unevenly within a square of side 100
+	 */
+	private static BodyBatch randomBodies(Random random, int count)
+	{
+		List<PhysicsEntity> members = new ArrayList<>();
+		for(int i = 0; i < count; i++)
+		{
+			//Half of the bodies are crowded into one corner, so that the tree is unbalanced
+			double side = (i % 2 == 0) ? 100 : 10;
+			members.add(BarnesHutGravityTest.body(random.nextDouble() * side, random.nextDouble() * side,
+					0.5 + random.nextDouble()));
+		}
+		BodyBatch bodies = new BodyBatch(count);
+		bodies.gather(members);
+		return bodies;
+	}
+}
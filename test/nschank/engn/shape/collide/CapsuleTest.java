@@ -0,0 +1,148 @@
+package nschank.engn.shape.collide;
+
+import com.google.common.base.Optional;
+import nschank.collect.dim.Dimensional;
+import nschank.collect.dim.Point;
+import org.junit.Test;
+
+import java.awt.Color;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+
+
+/**
+ * Created by Nicolas Schank for package nschank.engn.shape.collide
+ * Created on 3 Jul 2014
+ * Last updated on 3 Jul 2014
+ *
+ * Tests the contacts found by Capsule against each kind of shape, including when the core segment of the Capsule passes
+ * right through the other shape. EPA only approximates the rounded ends, so depths are checked against GJK roughly.
+ *
+ * @author nschank, Brown University
+ * @version 1.0
+ */
+public class CapsuleTest
+{
+	private static final double EPSILON = 1e-6;
+
+	@Test
+	public void circleOnTheSide()
+	{
+		Capsule capsule = new Capsule(new Point(0, 0), new Point(4, 0), 1, Color.BLACK);
+		Circle circle = new Circle(new Point(2, 1.5), 1, Color.BLACK);
+
+		Optional<Collidable.Collision> collision = capsule.collisionWith(circle);
+
+		OrientedBoxTest.assertContact(capsule, circle, collision);
+		CapsuleTest.assertMTV(0, -0.5, collision.get());
+		Dimensional point = OrientedBoxTest.contactPoints(collision.get()).get(0);
+		assertEquals(2, point.getCoordinate(0), EPSILON);
+		assertEquals(0.75, point.getCoordinate(1), 0.25 + EPSILON);
+	}
+
+	@Test
+	public void lyingOnTheGround()
+	{
+		Capsule capsule = new Capsule(new Point(-2, 0), new Point(2, 0), 0.5, Color.BLACK);
+		AAB ground = new AAB(new Point(0, 1.4), 10, 2, Color.BLACK);
+
+		Optional<Collidable.Collision> collision = capsule.collisionWith(ground);
+
+		OrientedBoxTest.assertContact(capsule, ground, collision);
+		CapsuleTest.assertMTV(0, -0.1, collision.get());
+		OrientedBoxTest.assertContact(ground, capsule, ground.collisionWith(capsule));
+	}
+
+	@Test
+	public void crossedCapsulesCollide()
+	{
+		Capsule a = new Capsule(new Point(-2, 0), new Point(2, 0), 0.5, Color.BLACK);
+		Capsule b = new Capsule(new Point(0, -2), new Point(0, 2), 0.5, Color.BLACK);
+
+		Optional<Collidable.Collision> collision = a.collisionWith(b);
+
+		OrientedBoxTest.assertContact(a, b, collision);
+		assertEquals(3, collision.get().getMTV().mag(), EPSILON);
+	}
+
+	@Test
+	public void coreThroughABoxCollides()
+	{
+		Capsule capsule = new Capsule(new Point(-3, 0), new Point(3, 0), 0.25, Color.BLACK);
+		OrientedBox box = new OrientedBox(new Point(0, 0), 1, 1, Math.PI / 4, Color.BLACK);
+
+		OrientedBoxTest.assertContact(capsule, box, capsule.collisionWith(box));
+		OrientedBoxTest.assertContact(box, capsule, box.collisionWith(capsule));
+	}
+
+	@Test
+	public void agreesWithGJK()
+	{
+		Random random = new Random(36);
+		for(int i = 0; i < 2000; i++)
+		{
+			Capsule capsule = new Capsule(CapsuleTest.randomPoint(random), CapsuleTest.randomPoint(random),
+					0.1 + random.nextDouble(), Color.BLACK);
+			Collidable other;
+			switch(i % 4)
+			{
+				case 0:
+					other = new Circle(CapsuleTest.randomPoint(random), 0.1 + random.nextDouble(), Color.BLACK);
+					break;
+				case 1:
+					other = new AAB(CapsuleTest.randomPoint(random), 0.2 + (2 * random.nextDouble()),
+							0.2 + (2 * random.nextDouble()), Color.BLACK);
+					break;
+				case 2:
+					other = new OrientedBox(CapsuleTest.randomPoint(random), 0.2 + (2 * random.nextDouble()),
+							0.2 + (2 * random.nextDouble()), random.nextDouble() * 2 * Math.PI, Color.BLACK);
+					break;
+				default:
+					other = new Capsule(CapsuleTest.randomPoint(random), CapsuleTest.randomPoint(random),
+							0.1 + random.nextDouble(), Color.BLACK);
+			}
+
+			Optional<Collidable.Collision> collision = capsule.collisionWith(other);
+			Optional<Collidable.Collision> gjk = GJK.collision(capsule, other);
+			if(gjk.isPresent() && gjk.get().getMTV().mag() < 0.01) continue;
+			assertEquals("Capsule and GJK disagree on " + capsule + " and " + other, gjk.isPresent(),
+					collision.isPresent());
+			if(!collision.isPresent()) continue;
+
+			OrientedBoxTest.assertContact(capsule, other, collision);
+			assertEquals(gjk.get().getMTV().mag(), collision.get().getMTV().mag(), 0.01);
+		}
+	}
+
+	/**
+	 * Asserts that a Collision has the given MTV, and that it has at least one contact point.
+	 *
+	 * @param x
+	 * 		The expected x component of the MTV
+	 * @param y
+	 * 		The expected y component of the MTV
+	 * @param collision
+	 * 		A Collision
+	 */
+	private static void assertMTV(double x, double y, Collidable.Collision collision)
+	{
+		assertEquals(x, collision.getMTV().getCoordinate(0), EPSILON);
+		assertEquals(y, collision.getMTV().getCoordinate(1), EPSILON);
+		List<Dimensional> points = OrientedBoxTest.contactPoints(collision);
+		assertFalse(points.isEmpty());
+	}
+
+	/**
+	 * @param random
+	 * 		A source of random numbers
+	 *
+	 * @return A random point, somewhere near the origin
+	 */
+	private static Point randomPoint(Random random)
+	{
+		return new Point(random.nextDouble() * 4, random.nextDouble() * 4);
+	}
+}
@@ -0,0 +1,68 @@
+package nschank.engn.shape.collide;
+
+import com.google.common.base.Optional;
+import nschank.collect.dim.Point;
+import org.junit.Test;
+
+import java.awt.Color;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+
+
+/**
+ * Created by Nicolas Schank for package nschank.engn.shape.collide
+ * Created on 3 Jul 2014
+ * Last updated on 3 Jul 2014
+ *
+ * Tests the contact between a Circle and a Polygon: every overlap found by the Separating Axis Theorem must give a
+ * contact, even when the deepest point of the circle lies past a corner of the Polygon, in either order.
+ *
+ * @author nschank, Brown University
+ * @version 1.0
+ */
+public class CirclePolygonTest
+{
+	private static final double EPSILON = 1e-6;
+
+	@Test
+	public void circlePastACornerCollides()
+	{
+		Circle circle = new Circle(new Point(1.3775, -0.3547), 0.834, Color.BLACK);
+		Polygon triangle = new Polygon(Color.BLACK, new Point(1.068, -1.661), new Point(2.092, -1.461),
+				new Point(1.568, 0.830));
+
+		OrientedBoxTest.assertContact(triangle, circle, triangle.collisionWith(circle));
+		OrientedBoxTest.assertContact(circle, triangle, circle.collisionWith(triangle));
+	}
+
+	@Test
+	public void agreesWithGJK()
+	{
+		Random random = new Random(29);
+		for(int i = 0; i < 5000; i++)
+		{
+			Circle circle = new Circle(CirclePolygonTest.randomPoint(random), 0.1 + random.nextDouble(), Color.BLACK);
+			Polygon triangle = new Polygon(Color.BLACK, CirclePolygonTest.randomPoint(random),
+					CirclePolygonTest.randomPoint(random), CirclePolygonTest.randomPoint(random));
+
+			Optional<Collidable.Collision> sat = triangle.collisionWith(circle);
+			Optional<Collidable.Collision> gjk = GJK.collision(triangle, circle);
+			if(gjk.isPresent() && gjk.get().getMTV().mag() < CirclePolygonTest.EPSILON) continue;
+			assertEquals("SAT and GJK disagree on " + triangle + " and " + circle, gjk.isPresent(), sat.isPresent());
+			assertEquals(sat.isPresent(), circle.collisionWith(triangle).isPresent());
+			if(sat.isPresent()) OrientedBoxTest.assertContact(triangle, circle, sat);
+		}
+	}
+
+	/**
+	 * @param random
+	 * 		A source of random numbers
+	 *
+	 * @return A point somewhere near the origin
+	 */
+	private static Point randomPoint(Random random)
+	{
+		return new Point(random.nextDouble() * 3, random.nextDouble() * 3 - 1.5);
+	}
+}
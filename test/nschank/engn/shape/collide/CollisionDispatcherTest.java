@@ -0,0 +1,198 @@
+package nschank.engn.shape.collide;
+
+import com.google.common.base.Optional;
+import nschank.collect.dim.Dimensional;
+import nschank.collect.dim.Point;
+import org.junit.Test;
+
+import java.awt.Color;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+
+/**
+ * Created by Nicolas Schank for package nschank.engn.shape.collide
+ * Created on 3 Jul 2014
+ * Last updated on 3 Jul 2014
+ *
+ * Tests that a CollisionDispatcher finds the same contact as collisionWith for every pair of default types in either
+ * order, that a pair given in reverse order is inverted, that the narrow phase chosen for a pair of types belongs to
+ * one CollisionDispatcher alone, and covers their subclasses, and that GJK may be chosen for any shape it supports.
+ *
+ * @author nschank, Brown University
+ * @version 1.1
+ */
+public class CollisionDispatcherTest
+{
+	private static final double EPSILON = 1e-6;
+	private static final int KINDS = 5;
+
+	@Test
+	public void agreesWithCollisionWithForEveryPair()
+	{
+		Random random = new Random(31);
+		CollisionDispatcher dispatcher = new CollisionDispatcher();
+		ContactManifold manifold = new ContactManifold();
+		for(int first = 0; first < CollisionDispatcherTest.KINDS; first++)
+			for(int second = 0; second < CollisionDispatcherTest.KINDS; second++)
+			{
+				int collisions = 0;
+				for(int i = 0; i < 300; i++)
+				{
+					Collidable a = CollisionDispatcherTest.randomShape(random, first);
+					Collidable b = CollisionDispatcherTest.randomShape(random, second);
+
+					dispatcher.collide(a, b, manifold);
+					CollisionDispatcherTest.assertSameContact(a + " and " + b, a.collisionWith(b), manifold);
+					if(manifold.isColliding()) collisions++;
+				}
+				assertTrue(collisions > 0);
+			}
+	}
+
+	@Test
+	public void pairInReverseOrderIsInverted()
+	{
+		CollisionDispatcher dispatcher = new CollisionDispatcher();
+		//Polygon and Circle are registered in that order, so a Circle given first is tested with its arguments swapped
+		Polygon triangle = new Polygon(Color.BLACK, new Point(0, 0), new Point(3, 0), new Point(0, 3));
+		Circle circle = new Circle(new Point(2, 2), 1, Color.BLACK);
+
+		ContactManifold forward = new ContactManifold();
+		ContactManifold reverse = new ContactManifold();
+		assertTrue(dispatcher.collide(triangle, circle, forward));
+		assertTrue(dispatcher.collide(circle, triangle, reverse));
+
+		assertEquals(-forward.getMTVX(), reverse.getMTVX(), CollisionDispatcherTest.EPSILON);
+		assertEquals(-forward.getMTVY(), reverse.getMTVY(), CollisionDispatcherTest.EPSILON);
+		assertEquals(forward.getPointCount(), reverse.getPointCount());
+		for(int i = 0; i < forward.getPointCount(); i++)
+		{
+			assertEquals(forward.getPointX(i), reverse.getPointX(i), CollisionDispatcherTest.EPSILON);
+			assertEquals(forward.getPointY(i), reverse.getPointY(i), CollisionDispatcherTest.EPSILON);
+		}
+		CollisionDispatcherTest.assertSameContact("reversed", circle.collisionWith(triangle), reverse);
+	}
+
+	@Test
+	public void gjkMayBeSetForBoxesAndCapsules()
+	{
+		CollisionDispatcher dispatcher = new CollisionDispatcher();
+		dispatcher.setNarrowPhase(OrientedBox.class, Capsule.class, NarrowPhase.GJK);
+		OrientedBox box = new OrientedBox(new Point(0, 0), 2, 2, 0.3, Color.BLACK);
+		Capsule capsule = new Capsule(new Point(1.5, -2), new Point(1.5, 2), 1, Color.BLACK);
+
+		ContactManifold manifold = new ContactManifold();
+		assertTrue(dispatcher.collide(capsule, box, manifold));
+
+		Optional<Collidable.Collision> gjk = GJK.collision(capsule, box);
+		assertEquals(NarrowPhase.GJK, dispatcher.narrowPhaseFor(box, capsule));
+		assertEquals(gjk.get().getMTV().getCoordinate(0), manifold.getMTVX(), CollisionDispatcherTest.EPSILON);
+		assertEquals(gjk.get().getMTV().getCoordinate(1), manifold.getMTVY(), CollisionDispatcherTest.EPSILON);
+	}
+
+	@Test
+	public void narrowPhaseBelongsToOneDispatcher()
+	{
+		CollisionDispatcher gjk = new CollisionDispatcher();
+		gjk.setNarrowPhase(Polygon.class, Circle.class, NarrowPhase.GJK);
+		CollisionDispatcher other = new CollisionDispatcher();
+		AAB box = new AAB(new Point(0, 0), 2, 2, Color.BLACK);
+		Circle circle = new Circle(new Point(1.5, 0), 1, Color.BLACK);
+
+		assertEquals(NarrowPhase.GJK, gjk.narrowPhaseFor(circle, box));
+		assertEquals(NarrowPhase.SEPARATING_AXIS, other.narrowPhaseFor(circle, box));
+	}
+
+	@Test
+	public void gjkIsRejectedForShapesItCannotSupport()
+	{
+		try
+		{
+			new CollisionDispatcher().setNarrowPhase(CompoundCollidable.class, Circle.class, NarrowPhase.GJK);
+			fail("GJK cannot support a CompoundCollidable");
+		} catch(IllegalArgumentException e)
+		{
+			assertTrue(e.getMessage().contains("Capsules"));
+		}
+	}
+
+	/**
+	 * @param message
+	 * 		What is being compared, should they differ
+	 * @param expected
+	 * 		The Collision found through collisionWith
+	 * @param actual
+	 * 		The contact found by a CollisionDispatcher between the same two Collidables
+	 */
+	private static void assertSameContact(String message, Optional<Collidable.Collision> expected,
+										  ContactManifold actual)
+	{
+		assertEquals(message, expected.isPresent(), actual.isColliding());
+		if(!expected.isPresent()) return;
+
+		assertEquals(message, expected.get().getMTV().getCoordinate(0), actual.getMTVX(),
+				CollisionDispatcherTest.EPSILON);
+		assertEquals(message, expected.get().getMTV().getCoordinate(1), actual.getMTVY(),
+				CollisionDispatcherTest.EPSILON);
+		List<Dimensional> points = OrientedBoxTest.contactPoints(expected.get());
+		assertEquals(message, points.size(), actual.getPointCount());
+		for(int i = 0; i < actual.getPointCount(); i++)
+		{
+			//collisionWith may find the pair from the point of view of the other, whose contact points lie on the
+			//surface of the first instead, one MTV away
+			boolean found = false;
+			for(Dimensional point : points)
+				for(int side = -1; side <= 1; side++)
+					found |= Math.abs(point.getCoordinate(0) + side * actual.getMTVX() - actual.getPointX(i))
+							< CollisionDispatcherTest.EPSILON
+							&& Math.abs(point.getCoordinate(1) + side * actual.getMTVY() - actual.getPointY(i))
+							< CollisionDispatcherTest.EPSILON;
+			assertTrue(message + " found " + actual + ", not " + points, found);
+		}
+	}
+
+	/**
+	 * @param random
+	 * 		A source of random numbers
+	 *
+	 * @return A point somewhere near the origin
+	 */
+	private static Point randomPoint(Random random)
+	{
+		return new Point(random.nextDouble() * 4, random.nextDouble() * 4);
+	}
+
+	/**
+	 * @param random
+	 * 		A source of random numbers
+	 * @param kind
+	 * 		Which type of shape to make: an AAB, Polygon, Circle, Capsule or OrientedBox, from 0 to 4
+	 *
+	 * @return A shape of that type and of random size, somewhere near the origin
+	 */
+	private static Collidable randomShape(Random random, int kind)
+	{
+		Point center = CollisionDispatcherTest.randomPoint(random);
+		double width = 0.2 + random.nextDouble() * 3;
+		double height = 0.2 + random.nextDouble() * 3;
+		switch(kind)
+		{
+			case 0:
+				return new AAB(center, width, height, Color.BLACK);
+			case 1:
+				return new Polygon(Color.BLACK, center, CollisionDispatcherTest.randomPoint(random),
+						CollisionDispatcherTest.randomPoint(random));
+			case 2:
+				return new Circle(center, width / 2, Color.BLACK);
+			case 3:
+				return new Capsule(center, CollisionDispatcherTest.randomPoint(random), height / 4, Color.BLACK);
+			default:
+				return new OrientedBox(center, width, height, random.nextDouble() * 2 * Math.PI, Color.BLACK);
+		}
+	}
+}
@@ -0,0 +1,96 @@
+package nschank.engn.shape.collide;
+
+import nschank.collect.dim.Point;
+import org.junit.Test;
+
+import java.awt.Color;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+
+/**
+ * Created by Nicolas Schank for package nschank.engn.shape.collide
+ * Created on 3 Jul 2014
+ * Last updated on 3 Jul 2014
+ *
+ * Tests that a ContactCache keeps the ContactManifold of each ordered pair from one step to the next, and forgets a
+ * pair only once a whole step passes without it being tested.
+ *
+ * @author nschank, Brown University
+ * @version 1.0
+ */
+public class ContactCacheTest
+{
+	@Test
+	public void pairKeepsItsManifoldFromStepToStep()
+	{
+		ContactCache cache = new ContactCache(new CollisionDispatcher());
+		Collidable a = ContactCacheTest.box(0);
+		Collidable b = ContactCacheTest.box(1);
+
+		ContactManifold first = cache.collide(a, b);
+		cache.step();
+		ContactManifold second = cache.collide(a, b);
+
+		assertSame(first, second);
+		assertTrue(second.isColliding());
+		assertEquals(1, cache.size());
+	}
+
+	@Test
+	public void pairsAreOrdered()
+	{
+		ContactCache cache = new ContactCache(new CollisionDispatcher());
+		Collidable a = ContactCacheTest.box(0);
+		Collidable b = ContactCacheTest.box(1);
+
+		ContactManifold forward = cache.collide(a, b);
+		ContactManifold reverse = cache.collide(b, a);
+
+		assertNotSame(forward, reverse);
+		assertEquals(-forward.getMTVX(), reverse.getMTVX(), 1e-9);
+		assertEquals(2, cache.size());
+	}
+
+	@Test
+	public void pairIsForgottenAfterAStepWithoutIt()
+	{
+		ContactCache cache = new ContactCache(new CollisionDispatcher());
+		Collidable a = ContactCacheTest.box(0);
+		Collidable b = ContactCacheTest.box(1);
+		Collidable c = ContactCacheTest.box(5);
+
+		ContactManifold first = cache.collide(a, b);
+		cache.collide(a, c);
+		cache.step();
+		//Only a and c are tested during this step
+		cache.collide(a, c);
+		assertEquals(2, cache.size());
+		cache.step();
+
+		assertEquals(1, cache.size());
+		ContactManifold again = cache.collide(a, b);
+		assertNotSame(first, again);
+		assertTrue(again.isColliding());
+		assertFalse(cache.collide(a, c).isColliding());
+		assertEquals(2, cache.size());
+
+		cache.clear();
+		assertEquals(0, cache.size());
+	}
+
+	/**
+	 * @param x
+	 * 		The x coordinate of the center of the box
+	 *
+	 * @return A box of width and height 2, centered at (x, 0)
+	 */
+	private static Collidable box(double x)
+	{
+		return new AAB(new Point(x, 0), 2, 2, Color.BLACK);
+	}
+}
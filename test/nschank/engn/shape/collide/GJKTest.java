@@ -0,0 +1,138 @@
+package nschank.engn.shape.collide;
+
+import com.google.common.base.Optional;
+import nschank.collect.dim.Point;
+import org.junit.Test;
+
+import java.awt.Color;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+
+/**
+ * Created by Nicolas Schank for package nschank.engn.shape.collide
+ * Created on 3 Jul 2014
+ * Last updated on 3 Jul 2014
+ *
+ * Tests that GJK agrees with the Separating Axis Theorem, both on whether two shapes collide and on how deeply. Boxes
+ * with integer corners are the hard case for GJK, since the origin then often lies exactly on a line between two
+ * support points. Between two boxes, the Separating Axis Theorem need only try the x and y axes, so its answer is
+ * found directly; EPA only approximates a Circle, so its depth against one is only checked roughly.
+ *
+ * @author nschank, Brown University
+ * @version 1.0
+ */
+public class GJKTest
+{
+	private static final double EPSILON = 1e-6;
+
+	@Test
+	public void overlappingBoxesOnALineCollide()
+	{
+		GJKTest.assertBoxesAgree(new Point(3, 2), 4, 1, new Point(4, 2), 4, 1);
+	}
+
+	@Test
+	public void boxesWithTheSameCentreCollide()
+	{
+		GJKTest.assertBoxesAgree(new Point(2, 0), 4, 3, new Point(2, 0), 1, 3);
+	}
+
+	@Test
+	public void agreesWithSeparatingAxesOnIntegerBoxes()
+	{
+		for(int widthA = 1; widthA <= 4; widthA++)
+			for(int heightA = 1; heightA <= 4; heightA++)
+				for(int widthB = 1; widthB <= 4; widthB++)
+					for(int heightB = 1; heightB <= 4; heightB++)
+						for(int x = -4; x <= 4; x++)
+							for(int y = -4; y <= 4; y++)
+								GJKTest.assertBoxesAgree(new Point(0, 0), widthA, heightA, new Point(x, y), widthB,
+										heightB);
+	}
+
+	@Test
+	public void agreesWithSeparatingAxesOnBoxesAndCircles()
+	{
+		for(int width = 1; width <= 4; width++)
+			for(int height = 1; height <= 4; height++)
+				for(int radius = 1; radius <= 2; radius++)
+					for(int x = -4; x <= 4; x++)
+						for(int y = -4; y <= 4; y++)
+						{
+							AAB box = new AAB(new Point(0, 0), width, height, Color.BLACK);
+							Circle circle = new Circle(new Point(x, y), radius, Color.BLACK);
+							GJKTest.assertAgrees(box, circle, box.collisionWith(circle), 0.01);
+						}
+	}
+
+	/**
+	 * Asserts that GJK agrees with the Separating Axis Theorem on two boxes, which collide only if they overlap along
+	 * both the x and y axes, and then by the lesser of the two overlaps.
+	 *
+	 * @param centerA
+	 * 		The centre of the first box
+	 * @param widthA
+	 * 		The width of the first box
+	 * @param heightA
+	 * 		The height of the first box
+	 * @param centerB
+	 * 		The centre of the second box
+	 * @param widthB
+	 * 		The width of the second box
+	 * @param heightB
+	 * 		The height of the second box
+	 */
+	private static void assertBoxesAgree(Point centerA, double widthA, double heightA, Point centerB, double widthB,
+										 double heightB)
+	{
+		double overlapX = ((widthA + widthB) / 2) - Math.abs(centerA.getCoordinate(0) - centerB.getCoordinate(0));
+		double overlapY = ((heightA + heightB) / 2) - Math.abs(centerA.getCoordinate(1) - centerB.getCoordinate(1));
+		Optional<Double> depth = (overlapX > 0 && overlapY > 0) ? Optional.of(Math.min(overlapX, overlapY))
+				: Optional.<Double>absent();
+		GJKTest.assertAgreesOnDepth(new AAB(centerA, widthA, heightA, Color.BLACK),
+				new AAB(centerB, widthB, heightB, Color.BLACK), depth, EPSILON);
+	}
+
+	/**
+	 * @param a
+	 * 		A Polygon or Circle
+	 * @param b
+	 * 		Another Polygon or Circle
+	 * @param sat
+	 * 		The Collision between the two found by the Separating Axis Theorem, if any
+	 * @param tolerance
+	 * 		How far the depth found by GJK may be from that found by the Separating Axis Theorem
+	 */
+	private static void assertAgrees(Collidable a, Collidable b, Optional<Collidable.Collision> sat, double tolerance)
+	{
+		Optional<Double> depth = sat.isPresent() ? Optional.of(sat.get().getMTV().mag()) : Optional.<Double>absent();
+		GJKTest.assertAgreesOnDepth(a, b, depth, tolerance);
+	}
+
+	/**
+	 * Asserts that GJK and the Separating Axis Theorem agree on whether two shapes collide, and on the length of the
+	 * MTV if they do.
+	 *
+	 * @param a
+	 * 		A Polygon or Circle
+	 * @param b
+	 * 		Another Polygon or Circle
+	 * @param depth
+	 * 		The length of the MTV found by the Separating Axis Theorem, if the two collide
+	 * @param tolerance
+	 * 		How far the depth found by GJK may be from it
+	 */
+	private static void assertAgreesOnDepth(Collidable a, Collidable b, Optional<Double> depth, double tolerance)
+	{
+		Optional<Collidable.Collision> gjk = GJK.collision(a, b);
+		assertEquals("GJK and SAT disagree on whether " + a + " and " + b + " collide", depth.isPresent(),
+				gjk.isPresent());
+		if(!depth.isPresent()) return;
+
+		assertTrue(depth.get() > 0);
+		assertEquals("GJK and SAT disagree on the depth of " + a + " and " + b, depth.get(), gjk.get().getMTV().mag(),
+				tolerance);
+	}
+}
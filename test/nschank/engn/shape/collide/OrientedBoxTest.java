@@ -0,0 +1,180 @@
+package nschank.engn.shape.collide;
+
+import com.google.common.base.Optional;
+import nschank.collect.dim.Dimensional;
+import nschank.collect.dim.Point;
+import org.junit.Test;
+
+import java.awt.Color;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+
+/**
+ * Created by Nicolas Schank for package nschank.engn.shape.collide
+ * Created on 3 Jul 2014
+ * Last updated on 3 Jul 2014
+ *
+ * Tests the contacts found by OrientedBox: every overlap found by the Separating Axis Theorem must give a contact, even
+ * when no corner of either box is inside the other, and the depth must agree with GJK.
+ *
+ * @author nschank, Brown University
+ * @version 1.0
+ */
+public class OrientedBoxTest
+{
+	private static final double EPSILON = 1e-6;
+
+	@Test
+	public void deepOverlapWithNoCornerInsideCollides()
+	{
+		OrientedBox a = new OrientedBox(new Point(3.48, 0.51), 1.3, 3.1, 5.00, Color.BLACK);
+		OrientedBox b = new OrientedBox(new Point(3.66, 0.91), 3.48, 1.48, 5.10, Color.BLACK);
+
+		OrientedBoxTest.assertContact(a, b, a.collisionWith(b));
+		OrientedBoxTest.assertContact(b, a, b.collisionWith(a));
+	}
+
+	@Test
+	public void crossedBoxesCollide()
+	{
+		OrientedBox bar = new OrientedBox(new Point(0, 0), 4, 1, Color.BLACK);
+		AAB post = new AAB(new Point(0, 0), 1, 4, Color.BLACK);
+
+		Optional<Collidable.Collision> collision = bar.collisionWith(post);
+
+		OrientedBoxTest.assertContact(bar, post, collision);
+		assertEquals(2.5, collision.get().getMTV().mag(), EPSILON);
+		OrientedBoxTest.assertContact(post, bar, post.collisionWith(bar));
+	}
+
+	@Test
+	public void crossedPolygonsCollide()
+	{
+		AAB bar = new AAB(new Point(0, 0), 4, 1, Color.BLACK);
+		AAB post = new AAB(new Point(0, 0), 1, 4, Color.BLACK);
+
+		OrientedBoxTest.assertContact(bar, post, bar.collisionWith(post));
+	}
+
+	@Test
+	public void boxOnGroundTouchesAtBothCorners()
+	{
+		OrientedBox box = new OrientedBox(new Point(0, 0), 2, 2, Color.BLACK);
+		AAB ground = new AAB(new Point(0, 1.9), 10, 2, Color.BLACK);
+
+		Optional<Collidable.Collision> collision = box.collisionWith(ground);
+
+		assertTrue(collision.isPresent());
+		assertEquals(0, collision.get().getMTV().getCoordinate(0), EPSILON);
+		assertEquals(-0.1, collision.get().getMTV().getCoordinate(1), EPSILON);
+		List<Dimensional> points = OrientedBoxTest.contactPoints(collision.get());
+		assertEquals(2, points.size());
+		for(Dimensional point : points)
+		{
+			assertEquals(1, Math.abs(point.getCoordinate(0)), EPSILON);
+			assertEquals(0.95, point.getCoordinate(1), 0.05 + EPSILON);
+		}
+	}
+
+	@Test
+	public void touchingBoxesDoNotCollide()
+	{
+		OrientedBox a = new OrientedBox(new Point(0, 0), 2, 2, 0.5, Color.BLACK);
+		OrientedBox b = new OrientedBox(new Point(0, 0), 2, 2, 0.5, Color.BLACK);
+		b.setCenterPosition(new Point(2 * Math.cos(0.5), 2 * Math.sin(0.5)));
+
+		assertFalse(a.collisionWith(b).isPresent());
+	}
+
+	@Test
+	public void agreesWithGJK()
+	{
+		Random random = new Random(36);
+		for(int i = 0; i < 2000; i++)
+		{
+			OrientedBox a = OrientedBoxTest.randomBox(random);
+			OrientedBox b = OrientedBoxTest.randomBox(random);
+
+			Optional<Collidable.Collision> sat = a.collisionWith(b);
+			Optional<Collidable.Collision> gjk = GJK.collision(a, b);
+			assertEquals("SAT and GJK disagree on " + a + " and " + b, gjk.isPresent(), sat.isPresent());
+			if(!sat.isPresent()) continue;
+
+			OrientedBoxTest.assertContact(a, b, sat);
+			assertEquals(gjk.get().getMTV().mag(), sat.get().getMTV().mag(), EPSILON);
+		}
+	}
+
+	/**
+	 * Asserts that two Collidables collide, and that every contact point is within both of them, to within the depth
+	 * of the collision.
+	 *
+	 * @param a
+	 * 		A Collidable
+	 * @param b
+	 * 		Another Collidable
+	 * @param collision
+	 * 		The Collision between them, from the point of view of {@code a}
+	 */
+	static void assertContact(Collidable a, Collidable b, Optional<Collidable.Collision> collision)
+	{
+		assertTrue(a + " and " + b + " should collide", collision.isPresent());
+		double depth = collision.get().getMTV().mag();
+		assertTrue(depth > 0);
+
+		List<Dimensional> points = OrientedBoxTest.contactPoints(collision.get());
+		assertFalse(points.isEmpty());
+		for(Dimensional point : points)
+		{
+			assertTrue(point + " should be within " + a, OrientedBoxTest.near(a, point, depth));
+			assertTrue(point + " should be within " + b, OrientedBoxTest.near(b, point, depth));
+		}
+	}
+
+	/**
+	 * @param collision
+	 * 		A Collision
+	 *
+	 * @return All of its contact points, whether it has one or several
+	 */
+	static List<Dimensional> contactPoints(Collidable.Collision collision)
+	{
+		if(collision instanceof ManifoldCollision) return ((ManifoldCollision) collision).getContactPoints();
+		return Collections.singletonList(collision.getCollisionPoint());
+	}
+
+	/**
+	 * @param c
+	 * 		A Collidable
+	 * @param point
+	 * 		A point
+	 * @param distance
+	 * 		A distance
+	 *
+	 * @return Whether the point is within that distance of the Collidable, as far as a Circle of that radius around it
+	 * can tell
+	 */
+	private static boolean near(Collidable c, Dimensional point, double distance)
+	{
+		return c.contains(point) || new Circle(point, distance + EPSILON, Color.BLACK).collisionWith(c).isPresent();
+	}
+
+	/**
+	 * @param random
+	 * 		A source of random numbers
+	 *
+	 * @return An OrientedBox of random size and angle, somewhere near the origin
+	 */
+	private static OrientedBox randomBox(Random random)
+	{
+		return new OrientedBox(new Point(random.nextDouble() * 4, random.nextDouble() * 4),
+				0.2 + (random.nextDouble() * 3), 0.2 + (random.nextDouble() * 3), random.nextDouble() * 2 * Math.PI,
+				Color.BLACK);
+	}
+}
@@ -0,0 +1,179 @@
+package nschank.engn.shape.collide;
+
+import nschank.collect.dim.Dimensional;
+import nschank.collect.dim.Point;
+import org.junit.Test;
+
+import java.awt.Color;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+
+/**
+ * Created by Nicolas Schank for package nschank.engn.shape.collide
+ * Created on 3 Jul 2014
+ * Last updated on 3 Jul 2014
+ *
+ * Tests the convex hulls and convex decompositions built by Polygons: every piece must be convex, and together the
+ * pieces must cover exactly the outline they came from.
+ *
+ * @author nschank, Brown University
+ * @version 1.0
+ */
+public class PolygonsTest
+{
+	private static final double EPSILON = 1e-9;
+
+	@Test
+	public void convexOutlineIsASinglePolygon()
+	{
+		List<Dimensional> square = Arrays.<Dimensional>asList(new Point(0, 0), new Point(2, 0), new Point(2, 2),
+				new Point(0, 2));
+
+		Collidable decomposed = Polygons.decompose(Color.BLACK, square);
+
+		assertTrue(decomposed instanceof Polygon);
+		assertEquals(4, ((Polygon) decomposed).area(), EPSILON);
+	}
+
+	@Test
+	public void eitherDirectionIsAccepted()
+	{
+		List<Dimensional> outline = PolygonsTest.lShape();
+		Collections.reverse(outline);
+
+		PolygonsTest.assertCovers(outline, Polygons.decompose(Color.BLACK, outline), 3);
+	}
+
+	@Test
+	public void lShapeSplitsIntoTwoConvexPieces()
+	{
+		List<Dimensional> outline = PolygonsTest.lShape();
+
+		Collidable decomposed = Polygons.decompose(Color.BLACK, outline);
+
+		assertTrue(decomposed instanceof CompoundCollidable);
+		assertEquals(2, ((CompoundCollidable) decomposed).getChildren().size());
+		PolygonsTest.assertCovers(outline, decomposed, 3);
+	}
+
+	@Test
+	public void combIsCoveredByConvexPieces()
+	{
+		List<Dimensional> comb = Arrays.<Dimensional>asList(new Point(0, 0), new Point(1, 0), new Point(1, 2),
+				new Point(2, 2), new Point(2, 0), new Point(3, 0), new Point(3, 2), new Point(4, 2), new Point(4, 0),
+				new Point(5, 0), new Point(5, 3), new Point(0, 3));
+
+		PolygonsTest.assertCovers(comb, Polygons.decompose(Color.BLACK, comb), 5);
+	}
+
+	@Test
+	public void convexHullKeepsOnlyTheOuterPoints()
+	{
+		List<Dimensional> points = Arrays.<Dimensional>asList(new Point(0, 0), new Point(4, 0), new Point(1, 1),
+				new Point(2, 3), new Point(4, 4), new Point(0, 4), new Point(3, 1));
+
+		Polygon hull = Polygons.convexHull(Color.BLACK, points);
+
+		assertFalse(hull.isConcave().isPresent());
+		assertEquals(16, hull.area(), EPSILON);
+		for(Dimensional point : points)
+			assertTrue(point + " should be within the hull", hull.contains(point));
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void tooFewPointsAreRejected()
+	{
+		Polygons.decompose(Color.BLACK, Arrays.<Dimensional>asList(new Point(0, 0), new Point(1, 0)));
+	}
+
+	/**
+	 * Asserts that the pieces of a decomposition are convex, that their areas sum to that of the outline, and that the
+	 * centre of every unit square of a grid is covered by some piece exactly when it is inside the outline.
+	 *
+	 * @param outline
+	 * 		The corners of a simple polygon with integer corners, none further than {@code size} from the origin
+	 * @param decomposed
+	 * 		The decomposition of that outline
+	 * @param size
+	 * 		How far along each axis to check
+	 */
+	private static void assertCovers(List<Dimensional> outline, Collidable decomposed, int size)
+	{
+		List<Collidable> pieces = (decomposed instanceof CompoundCollidable) ?
+				((CompoundCollidable) decomposed).getChildren() : Collections.singletonList(decomposed);
+
+		double area = 0;
+		for(Collidable piece : pieces)
+		{
+			Polygon polygon = (Polygon) piece;
+			assertFalse(polygon + " should be convex", polygon.isConcave().isPresent());
+			area += polygon.area();
+		}
+		assertEquals(Math.abs(PolygonsTest.shoelace(outline)), area, EPSILON);
+
+		for(int x = 0; x < size + 3; x++)
+			for(int y = 0; y < size + 3; y++)
+			{
+				Point center = new Point(x + 0.5, y + 0.5);
+				boolean covered = false;
+				for(Collidable piece : pieces)
+					covered |= piece.contains(center);
+				assertEquals(center + " is covered wrongly", PolygonsTest.inside(outline, center), covered);
+			}
+	}
+
+	/**
+	 * @param outline
+	 * 		The corners of a simple polygon
+	 * @param point
+	 * 		A point which is not on its edge
+	 *
+	 * @return Whether the point is inside the polygon, by counting the edges a ray from it crosses
+	 */
+	private static boolean inside(List<Dimensional> outline, Dimensional point)
+	{
+		boolean inside = false;
+		double x = point.getCoordinate(0);
+		double y = point.getCoordinate(1);
+		for(int i = 0, j = outline.size() - 1; i < outline.size(); j = i++)
+		{
+			double xi = outline.get(i).getCoordinate(0);
+			double yi = outline.get(i).getCoordinate(1);
+			double xj = outline.get(j).getCoordinate(0);
+			double yj = outline.get(j).getCoordinate(1);
+			if(((yi > y) != (yj > y)) && (x < (((xj - xi) * (y - yi)) / (yj - yi)) + xi)) inside = !inside;
+		}
+		return inside;
+	}
+
+	/**
+	 * @return An L-shaped outline of area 3, in clockwise order
+	 */
+	private static List<Dimensional> lShape()
+	{
+		return new ArrayList<>(Arrays.<Dimensional>asList(new Point(0, 0), new Point(1, 0), new Point(1, 1),
+				new Point(2, 1), new Point(2, 2), new Point(0, 2)));
+	}
+
+	/**
+	 * @param outline
+	 * 		The corners of a simple polygon
+	 *
+	 * @return Its signed area
+	 */
+	private static double shoelace(List<Dimensional> outline)
+	{
+		double sum = 0;
+		for(int i = 0, j = outline.size() - 1; i < outline.size(); j = i++)
+			sum += (outline.get(j).getCoordinate(0) * outline.get(i).getCoordinate(1)) - (
+					outline.get(i).getCoordinate(0) * outline.get(j).getCoordinate(1));
+		return sum / 2;
+	}
+}
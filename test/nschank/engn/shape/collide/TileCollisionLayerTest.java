@@ -0,0 +1,281 @@
+package nschank.engn.shape.collide;
+
+import com.google.common.base.Optional;
+import nschank.collect.dim.Point;
+import nschank.collect.dim.Vector;
+import org.junit.Test;
+
+import java.awt.Color;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+
+/**
+ * Created by Nicolas Schank for package nschank.engn.shape.collide
+ * Created on 3 Jul 2014
+ * Last updated on 3 Jul 2014
+ *
+ * Tests that the merged boxes of a TileCollisionLayer cover exactly its solid tiles, that a Ray walked through the grid
+ * stops where it first enters a solid tile, including along tile edges and through tile corners, and that the boxes
+ * under a shape are each found only once.
+ *
+ * @author nschank, Brown University
+ * @version 1.0
+ */
+public class TileCollisionLayerTest
+{
+	private static final double EPSILON = 1e-9;
+
+	@Test
+	public void solidBitsAcrossWordsAreKeptApart()
+	{
+		TileCollisionLayer tiles = TileCollisionLayerTest.grid(13, 9);
+
+		tiles.setSolid(11, 4, true);
+		tiles.setSolid(12, 4, true);
+		tiles.setSolid(0, 5, true);
+		tiles.setSolid(12, 4, false);
+
+		assertTrue(tiles.isSolid(11, 4));
+		assertFalse(tiles.isSolid(12, 4));
+		assertTrue(tiles.isSolid(0, 5));
+		assertFalse(tiles.isSolid(1, 5));
+	}
+
+	@Test
+	public void mergedBoxesCoverExactlyTheSolidTiles()
+	{
+		Random random = new Random(37);
+		for(int trial = 0; trial < 50; trial++)
+		{
+			TileCollisionLayer tiles = TileCollisionLayerTest.grid(13, 9);
+			int solid = 0;
+			for(int row = 0; row < 9; row++)
+				for(int column = 0; column < 13; column++)
+					if(random.nextInt(3) > 0)
+					{
+						tiles.setSolid(column, row, true);
+						solid++;
+					}
+
+			double area = 0;
+			for(AAB box : tiles.getMergedBoxes())
+				area += box.getWidth() * box.getHeight();
+			assertEquals(solid, area, TileCollisionLayerTest.EPSILON);
+
+			for(int row = 0; row < 9; row++)
+				for(int column = 0; column < 13; column++)
+				{
+					Point center = new Point(column + 0.5, row + 0.5);
+					int covering = 0;
+					for(AAB box : tiles.getMergedBoxes())
+						if(TileCollisionLayerTest.covers(box, center)) covering++;
+					assertEquals(tiles.isSolid(column, row) ? 1 : 0, covering);
+					assertEquals(tiles.isSolid(column, row), tiles.contains(center));
+				}
+		}
+	}
+
+	@Test
+	public void solidRectangleIsOneBox()
+	{
+		TileCollisionLayer tiles = TileCollisionLayerTest.grid(10, 10);
+		for(int row = 2; row < 5; row++)
+			for(int column = 3; column < 7; column++)
+				tiles.setSolid(column, row, true);
+
+		List<AAB> boxes = tiles.getMergedBoxes();
+
+		assertEquals(1, boxes.size());
+		assertEquals(3, boxes.get(0).xInterval().getMin(), TileCollisionLayerTest.EPSILON);
+		assertEquals(7, boxes.get(0).xInterval().getMax(), TileCollisionLayerTest.EPSILON);
+		assertEquals(2, boxes.get(0).yInterval().getMin(), TileCollisionLayerTest.EPSILON);
+		assertEquals(5, boxes.get(0).yInterval().getMax(), TileCollisionLayerTest.EPSILON);
+	}
+
+	@Test
+	public void rayStopsAtTheFirstSolidTile()
+	{
+		TileCollisionLayer tiles = TileCollisionLayerTest.grid(10, 10);
+		tiles.setSolid(5, 5, true);
+		tiles.setSolid(8, 5, true);
+
+		TileCollisionLayerTest.assertHit(5, tiles, 0, 5.5, 1, 0);
+		TileCollisionLayerTest.assertHit(8, tiles, -3, 5.5, 1, 0);
+		TileCollisionLayerTest.assertHit(0.5, tiles, 9.5, 5.5, -1, 0);
+		TileCollisionLayerTest.assertHit(1.5, tiles, 7.5, 5.5, -1, 0);
+		TileCollisionLayerTest.assertHit(0, tiles, 5.5, 5.5, 0, 1);
+		TileCollisionLayerTest.assertHit(5, tiles, 5.5, 0, 0, 1);
+		assertFalse(tiles.distanceAlong(new Ray(new Point(0, 5.5), new Vector(-1, 0))).isPresent());
+		assertFalse(tiles.distanceAlong(new Ray(new Point(0, 2.5), new Vector(1, 0))).isPresent());
+	}
+
+	@Test
+	public void rayAlongATileEdgeHitsTheTileBelowIt()
+	{
+		TileCollisionLayer tiles = TileCollisionLayerTest.grid(10, 10);
+		tiles.setSolid(5, 5, true);
+
+		TileCollisionLayerTest.assertHit(5, tiles, 0, 5, 1, 0);
+		TileCollisionLayerTest.assertHit(5, tiles, 5, 0, 0, 1);
+		assertFalse(tiles.distanceAlong(new Ray(new Point(0, 4.999), new Vector(1, 0))).isPresent());
+	}
+
+	@Test
+	public void rayThroughTileCornersHitsTheDiagonal()
+	{
+		TileCollisionLayer tiles = TileCollisionLayerTest.grid(10, 10);
+		tiles.setSolid(5, 5, true);
+
+		TileCollisionLayerTest.assertHit(5 * Math.sqrt(2), tiles, 0, 0, 1, 1);
+		TileCollisionLayerTest.assertHit(4 * Math.sqrt(2), tiles, 10, 10, -1, -1);
+	}
+
+	@Test
+	public void rayAgreesWithTheMergedBoxes()
+	{
+		Random random = new Random(38);
+		TileCollisionLayer tiles = TileCollisionLayerTest.grid(13, 9);
+		for(int row = 0; row < 9; row++)
+			for(int column = 0; column < 13; column++)
+				tiles.setSolid(column, row, random.nextInt(8) == 0);
+
+		for(int i = 0; i < 2000; i++)
+		{
+			Point origin = new Point((random.nextDouble() * 17) - 2, (random.nextDouble() * 13) - 2);
+			if(tiles.contains(origin)) continue;
+			double angle = random.nextDouble() * 2 * Math.PI;
+			Vector direction = new Vector(Math.cos(angle), Math.sin(angle));
+
+			double expected = Double.POSITIVE_INFINITY;
+			for(AAB box : tiles.getMergedBoxes())
+				expected = Math.min(expected, TileCollisionLayerTest.slab(box, origin, direction));
+			Optional<Double> distance = tiles.distanceAlong(new Ray(origin, direction));
+
+			assertEquals(origin + " towards " + direction, !Double.isInfinite(expected), distance.isPresent());
+			if(distance.isPresent()) assertEquals(expected, distance.get(), 1e-6);
+		}
+	}
+
+	@Test
+	public void boxesUnderAShapeAreFoundOnce()
+	{
+		TileCollisionLayer tiles = TileCollisionLayerTest.grid(10, 10);
+		for(int row = 2; row < 5; row++)
+			for(int column = 1; column < 5; column++)
+				tiles.setSolid(column, row, true);
+		tiles.setSolid(8, 8, true);
+		AAB over = new AAB(new Point(4, 4), 7, 7, Color.BLACK);
+
+		assertEquals(1, TileCollisionLayerTest.distinct(tiles.boxesUnder(over)));
+		assertEquals(1, TileCollisionLayerTest.distinct(tiles.boxesUnder(over)));
+
+		tiles.setSolid(6, 6, true);
+		tiles.setSolid(0, 0, true);
+		List<AAB> boxes = tiles.boxesUnder(over);
+		assertEquals(3, boxes.size());
+		assertEquals(3, TileCollisionLayerTest.distinct(boxes));
+		assertEquals(2, tiles.boxesUnder(new AAB(new Point(7.5, 7.5), 3, 3, Color.BLACK)).size());
+	}
+
+	/**
+	 * Asserts that a Ray through a TileCollisionLayer first enters a solid tile at the given distance.
+	 *
+	 * @param expected
+	 * 		How far along the Ray the first solid tile should be
+	 * @param tiles
+	 * 		A TileCollisionLayer
+	 * @param x
+	 * 		The x coordinate of the start of the Ray
+	 * @param y
+	 * 		The y coordinate of the start of the Ray
+	 * @param dx
+	 * 		The x component of the direction of the Ray
+	 * @param dy
+	 * 		The y component of the direction of the Ray
+	 */
+	private static void assertHit(double expected, TileCollisionLayer tiles, double x, double y, double dx, double dy)
+	{
+		Optional<Double> distance = tiles.distanceAlong(new Ray(new Point(x, y), new Vector(dx, dy)));
+		assertTrue("The ray from (" + x + ", " + y + ") should hit a tile", distance.isPresent());
+		assertEquals(expected, distance.get(), TileCollisionLayerTest.EPSILON);
+	}
+
+	/**
+	 * @param box
+	 * 		An AAB
+	 * @param point
+	 * 		A point
+	 *
+	 * @return Whether the point is strictly inside the box
+	 */
+	private static boolean covers(AAB box, Point point)
+	{
+		double x = point.getCoordinate(0);
+		double y = point.getCoordinate(1);
+		return box.xInterval().getMin() < x && x < box.xInterval().getMax() && box.yInterval().getMin() < y
+				&& y < box.yInterval().getMax();
+	}
+
+	/**
+	 * @param boxes
+	 * 		Some boxes
+	 *
+	 * @return How many different boxes there are, by identity
+	 */
+	private static int distinct(List<AAB> boxes)
+	{
+		return new HashSet<>(boxes).size();
+	}
+
+	/**
+	 * @param columns
+	 * 		The number of tiles across
+	 * @param rows
+	 * 		The number of tiles down
+	 *
+	 * @return An empty TileCollisionLayer of unit tiles, whose top left corner is at the origin
+	 */
+	private static TileCollisionLayer grid(int columns, int rows)
+	{
+		return new TileCollisionLayer(new Point(columns / 2d, rows / 2d), columns, rows, 1, 1, Color.BLACK);
+	}
+
+	/**
+	 * @param box
+	 * 		An AAB
+	 * @param origin
+	 * 		The start of a ray, outside of the box
+	 * @param direction
+	 * 		The unit direction of the ray
+	 *
+	 * @return How far along the ray it enters the box, or positive infinity if it misses
+	 */
+	private static double slab(AAB box, Point origin, Vector direction)
+	{
+		double enter = 0;
+		double exit = Double.POSITIVE_INFINITY;
+		for(int axis = 0; axis < 2; axis++)
+		{
+			double min = (axis == 0) ? box.xInterval().getMin() : box.yInterval().getMin();
+			double max = (axis == 0) ? box.xInterval().getMax() : box.yInterval().getMax();
+			double start = origin.getCoordinate(axis);
+			double step = direction.getCoordinate(axis);
+			if(step == 0)
+			{
+				if(start < min || max <= start) return Double.POSITIVE_INFINITY;
+				continue;
+			}
+			double first = (min - start) / step;
+			double second = (max - start) / step;
+			enter = Math.max(enter, Math.min(first, second));
+			exit = Math.min(exit, Math.max(first, second));
+		}
+		return (enter < exit) ? enter : Double.POSITIVE_INFINITY;
+	}
+}
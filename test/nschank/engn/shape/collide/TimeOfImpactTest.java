@@ -0,0 +1,161 @@
+package nschank.engn.shape.collide;
+
+import com.google.common.base.Optional;
+import nschank.collect.dim.Point;
+import nschank.collect.dim.Vector;
+import org.junit.Test;
+
+import java.awt.Color;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+
+/**
+ * Created by Nicolas Schank for package nschank.engn.shape.collide
+ * Created on 3 Jul 2014
+ * Last updated on 3 Jul 2014
+ *
+ * Tests Collidables.timeOfImpact and the GJK distance it is built on, including a thin rotated box which would pass
+ * between the steps of a sweep which advanced by a fixed fraction of its bounds.
+ *
+ * @author nschank, Brown University
+ * @version 1.0
+ */
+public class TimeOfImpactTest
+{
+	private static final double EPSILON = 1e-6;
+
+	@Test
+	public void distanceBetweenSeparatedBoxes()
+	{
+		double[] normal = new double[2];
+		double distance = GJK.distance(new AAB(new Point(0, 0), 1, 1, Color.BLACK),
+				new AAB(new Point(3, 0.5), 1, 1, Color.BLACK), 0, 0, normal);
+
+		assertEquals(2, distance, EPSILON);
+		assertEquals(1, normal[0], EPSILON);
+		assertEquals(0, normal[1], EPSILON);
+	}
+
+	@Test
+	public void distanceIsMeasuredAfterTheOffset()
+	{
+		double[] normal = new double[2];
+		double distance = GJK.distance(new Circle(new Point(0, 0), 1, Color.BLACK),
+				new Capsule(new Point(0, 5), new Point(4, 5), 1, Color.BLACK), 0, 1, normal);
+
+		assertEquals(2, distance, EPSILON);
+		assertEquals(0, normal[0], EPSILON);
+		assertEquals(1, normal[1], EPSILON);
+	}
+
+	@Test
+	public void distanceOfOverlappingShapesIsZero()
+	{
+		double distance = GJK.distance(new OrientedBox(new Point(0, 0), 2, 1, 0.3, Color.BLACK),
+				new AAB(new Point(1, 0), 1, 1, Color.BLACK), 0, 0, new double[2]);
+
+		assertEquals(0, distance, 0);
+	}
+
+	@Test
+	public void headOnImpactIsJustPastFirstContact()
+	{
+		AAB moving = new AAB(new Point(0, 0), 1, 1, Color.BLACK);
+		AAB obstacle = new AAB(new Point(5, 0), 1, 1, Color.BLACK);
+		Vector displacement = new Vector(10, 0);
+
+		Optional<Double> impact = Collidables.timeOfImpact(moving, displacement, obstacle);
+
+		assertTrue(impact.isPresent());
+		assertTrue("Impact " + impact.get() + " should not be before first contact", impact.get() > 0.4);
+		assertTrue("Impact " + impact.get() + " should be just past first contact", impact.get() < 0.401);
+		TimeOfImpactTest.assertOverlapsAt(moving, displacement, obstacle, impact.get());
+	}
+
+	@Test
+	public void thinRotatedBoxDoesNotTunnel()
+	{
+		OrientedBox moving = new OrientedBox(new Point(0, 0), 4, 0.02, Math.PI / 4, Color.BLACK);
+		AAB obstacle = new AAB(new Point(5, 0.5), 0.02, 0.02, Color.BLACK);
+		Vector displacement = new Vector(20, 0);
+
+		Optional<Double> impact = Collidables.timeOfImpact(moving, displacement, obstacle);
+
+		assertTrue("A thin box swept across a small obstacle should hit it", impact.isPresent());
+		TimeOfImpactTest.assertOverlapsAt(moving, displacement, obstacle, impact.get());
+		assertFalse(TimeOfImpactTest.overlapsAt(moving, displacement, obstacle, impact.get() - 0.005));
+	}
+
+	@Test
+	public void movingAwayOrAlongsideIsNoImpact()
+	{
+		Circle moving = new Circle(new Point(0, 0), 1, Color.BLACK);
+		AAB obstacle = new AAB(new Point(5, 0), 1, 1, Color.BLACK);
+
+		assertFalse(Collidables.timeOfImpact(moving, new Vector(-10, 0), obstacle).isPresent());
+		assertFalse(Collidables.timeOfImpact(moving, new Vector(3, 0), obstacle).isPresent());
+		assertFalse(Collidables.timeOfImpact(new Circle(new Point(0, 3), 1, Color.BLACK), new Vector(10, 0), obstacle)
+									  .isPresent());
+	}
+
+	@Test
+	public void alreadyOverlappingIsIgnored()
+	{
+		AAB moving = new AAB(new Point(0, 0), 1, 1, Color.BLACK);
+		AAB obstacle = new AAB(new Point(0.5, 0), 1, 1, Color.BLACK);
+
+		assertFalse(Collidables.timeOfImpact(moving, new Vector(10, 0), obstacle).isPresent());
+	}
+
+	@Test
+	public void compoundObstacleIsSweptByItsParts()
+	{
+		Circle moving = new Circle(new Point(0, 0), 0.5, Color.BLACK);
+		CompoundCollidable obstacle = new CompoundCollidable(Color.BLACK,
+				new AAB(new Point(5, 3), 1, 1, Color.BLACK), new AAB(new Point(8, 0), 1, 1, Color.BLACK));
+		Vector displacement = new Vector(10, 0);
+
+		Optional<Double> impact = Collidables.timeOfImpact(moving, displacement, obstacle);
+
+		assertTrue(impact.isPresent());
+		assertEquals(0.7, impact.get(), 0.001);
+	}
+
+	/**
+	 * @param moving
+	 * 		A Collidable at its starting position
+	 * @param displacement
+	 * 		Its movement over the step
+	 * @param obstacle
+	 * 		Another Collidable
+	 * @param fraction
+	 * 		A fraction of the displacement
+	 */
+	private static void assertOverlapsAt(Collidable moving, Vector displacement, Collidable obstacle, double fraction)
+	{
+		assertTrue("Should overlap at " + fraction, TimeOfImpactTest.overlapsAt(moving, displacement, obstacle,
+				fraction));
+	}
+
+	/**
+	 * @param moving
+	 * 		A Collidable at its starting position; it is not moved
+	 * @param displacement
+	 * 		Its movement over the step
+	 * @param obstacle
+	 * 		Another Collidable
+	 * @param fraction
+	 * 		A fraction of the displacement
+	 *
+	 * @return Whether {@code moving}, moved by that fraction of the displacement, collides with {@code obstacle}
+	 */
+	private static boolean overlapsAt(Collidable moving, Vector displacement, Collidable obstacle, double fraction)
+	{
+		Collidable probe = moving.copy();
+		probe.setCenterPosition(new Vector(moving.getCenterPosition()).plus(displacement.smult(fraction)));
+		return probe.collisionWith(obstacle).isPresent();
+	}
+}